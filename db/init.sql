@@ -15,6 +15,7 @@ create table users (
     username varchar(50) not null unique,
     password varchar(100) not null,
     email varchar(255) not null unique,
+    token_epoch bigint not null default 0,
     primary key (id)
 );
 
@@ -26,6 +27,24 @@ create table user_role (
     foreign key (user_id) references users (id)
 );
 
+create table revoked_tokens (
+    expires_at datetime(6) not null,
+    revoked_at datetime(6) not null,
+    revocation_key varchar(100) not null,
+    primary key (revocation_key)
+);
+
+create table refresh_tokens (
+    id bigint not null auto_increment,
+    created_at datetime(6) not null,
+    expires_at datetime(6) not null,
+    used_at datetime(6),
+    user_id bigint not null,
+    family_id varchar(36) not null,
+    token_hash varchar(64) not null unique,
+    primary key (id)
+);
+
 create table device_types (
     id bigint not null auto_increment,
     name varchar(255) not null unique,
@@ -48,6 +67,7 @@ create table scenarios (
     device_type_id bigint not null,
     id bigint not null auto_increment,
     condition_value varchar(255),
+    hysteresis float(53),
     new_status varchar(255) not null,
     operator varchar(255) not null,
     weather_condition varchar(255) not null,
@@ -63,7 +83,41 @@ create table device_status_changes (
     new_status varchar(255),
     old_status varchar(255),
     weather_condition varchar(255),
+    coalesced_transitions varchar(255),
     primary key (id),
     foreign key (device_id) references devices (id),
     foreign key (scenario_id) references scenarios (id)
-);
\ No newline at end of file
+);
+
+create table device_status_durations (
+    day date not null,
+    device_id bigint not null,
+    id bigint not null auto_increment,
+    seconds bigint not null,
+    status varchar(255) not null,
+    primary key (id),
+    unique (device_id, day, status),
+    foreign key (device_id) references devices (id)
+);
+
+create table device_status_outbox (
+    changed_at datetime(6) not null,
+    created_at datetime(6) not null,
+    device_id bigint not null,
+    id bigint not null auto_increment,
+    published_at datetime(6),
+    scenario_id bigint,
+    new_status varchar(255),
+    old_status varchar(255),
+    weather_condition varchar(255),
+    primary key (id)
+);
+
+
+create index idx_devices_status on devices (status);
+create index idx_devices_last_updated on devices (last_updated);
+create index idx_device_status_outbox_published_at on device_status_outbox (published_at);
+create index idx_revoked_tokens_expires_at on revoked_tokens (expires_at);
+create index idx_refresh_tokens_family_id on refresh_tokens (family_id);
+create index idx_refresh_tokens_user_id on refresh_tokens (user_id);
+create index idx_refresh_tokens_expires_at on refresh_tokens (expires_at);
@@ -5,6 +5,31 @@ create table device_status_changes (
     scenario_id bigint, new_status varchar(255),
     old_status varchar(255),
     weather_condition varchar(255),
+    coalesced_transitions varchar(255),
+    primary key (id)
+)
+engine=InnoDB;
+
+create table device_status_durations (
+    day date not null,
+    device_id bigint not null,
+    id bigint not null auto_increment,
+    seconds bigint not null,
+    status varchar(255) not null,
+    primary key (id)
+)
+engine=InnoDB;
+
+create table device_status_outbox (
+    changed_at datetime(6) not null,
+    created_at datetime(6) not null,
+    device_id bigint not null,
+    id bigint not null auto_increment,
+    published_at datetime(6),
+    scenario_id bigint,
+    new_status varchar(255),
+    old_status varchar(255),
+    weather_condition varchar(255),
     primary key (id)
 )
 engine=InnoDB;
@@ -28,6 +53,10 @@ create table devices (
 )
 engine=InnoDB;
 
+create index idx_devices_status on devices (status);
+create index idx_devices_last_updated on devices (last_updated);
+create index idx_device_status_outbox_published_at on device_status_outbox (published_at);
 alter table device_types add constraint UKjvdt9wkmcgqi4bcd2im1dm71w unique (name);
+alter table device_status_durations add constraint UKdevice_status_durations_device_day_status unique (device_id, day, status);
 alter table device_status_changes add constraint FKdgbu1n1kxloddgp1i715i46rg foreign key (device_id) references devices (id);
 alter table devices add constraint FKthsup9yv35eehh6hkt0jj3naw foreign key (device_type_id) references device_types (id);
@@ -0,0 +1,84 @@
+package com.smart.home.deviceservice.cache;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Remembers when scenarios last changed each device, so a device can be held in its status for a minimum
+ * dwell time. Change times are kept locally as epoch seconds and shared between service instances through
+ * a Redis hash, which is read once per evaluation run for all evaluated devices.
+ */
+@Log4j2
+@Component
+public class DeviceDwellTimeTracker {
+
+    private static final String LAST_CHANGES_KEY = "device:scenario:last-change";
+
+    private final StringRedisTemplate redisTemplate;
+    private final Map<Long, Long> lastChanges = new ConcurrentHashMap<>();
+
+    @Value("${scenario.evaluation.min-dwell-seconds:300}")
+    private long minDwellSeconds;
+
+
+    public DeviceDwellTimeTracker(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+
+    /**
+     * Merges change times recorded by other instances into the local table and drops local entries whose
+     * dwell time has passed.
+     */
+    public void refresh(Collection<Long> deviceIds) {
+        long expiredBefore = Instant.now().getEpochSecond() - minDwellSeconds;
+        lastChanges.values().removeIf(changedAt -> changedAt < expiredBefore);
+
+        List<Long> ids = deviceIds.stream().filter(Objects::nonNull).collect(Collectors.toList());
+        if (ids.isEmpty() || minDwellSeconds <= 0) {
+            return;
+        }
+        try {
+            List<Object> fields = ids.stream().map(String::valueOf).collect(Collectors.toList());
+            List<Object> values = redisTemplate.opsForHash().multiGet(LAST_CHANGES_KEY, fields);
+            for (int i = 0; i < ids.size(); i++) {
+                Object value = values.get(i);
+                if (value != null && Long.parseLong(value.toString()) >= expiredBefore) {
+                    lastChanges.merge(ids.get(i), Long.parseLong(value.toString()), Math::max);
+                }
+            }
+        } catch (DataAccessException e) {
+            log.warn("Shared device change times unavailable, using local change times: {}", e.getMessage());
+        }
+    }
+
+    public boolean isDwelling(Long deviceId) {
+        if (deviceId == null || minDwellSeconds <= 0) {
+            return false;
+        }
+        Long changedAt = lastChanges.get(deviceId);
+        return changedAt != null && changedAt + minDwellSeconds > Instant.now().getEpochSecond();
+    }
+
+    public void recordChange(Long deviceId) {
+        long changedAt = Instant.now().getEpochSecond();
+        lastChanges.put(deviceId, changedAt);
+        try {
+            redisTemplate.opsForHash().put(LAST_CHANGES_KEY, String.valueOf(deviceId), String.valueOf(changedAt));
+        } catch (DataAccessException e) {
+            log.warn("Change time of device {} could not be shared: {}", deviceId, e.getMessage());
+        }
+    }
+
+}
@@ -1,6 +1,12 @@
 package com.smart.home.deviceservice.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.smart.home.deviceservice.model.Device;
+import com.smart.home.deviceservice.model.DeviceFilter;
+import com.smart.home.deviceservice.model.DeviceImportFormat;
+import com.smart.home.deviceservice.model.DeviceImportReport;
+import com.smart.home.deviceservice.model.DevicePage;
+import com.smart.home.deviceservice.service.DeviceImportService;
 import com.smart.home.deviceservice.service.DeviceService;
 import com.smart.home.deviceservice.swagger.DescriptionVariables;
 import com.smart.home.deviceservice.swagger.HTTPResponseMessages;
@@ -16,8 +22,11 @@ import jakarta.validation.Valid;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -25,9 +34,18 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -38,7 +56,11 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class DeviceController {
 
+    private static final String TEXT_CSV_VALUE = "text/csv";
+
     private final DeviceService deviceService;
+    private final DeviceImportService deviceImportService;
+    private final ObjectMapper objectMapper;
 
 
     @Operation(summary = "Adds new device")
@@ -63,6 +85,28 @@ public class DeviceController {
         return ResponseEntity.status(HttpStatus.CREATED).body(addedDevice);
     }
 
+    @Operation(summary = "Imports devices in bulk from NDJSON or CSV stream",
+            description = "CSV must start with header: deviceName,deviceType,latitude,longitude,status")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = HTTPResponseMessages.HTTP_200,
+                    content = @Content(schema = @Schema(implementation = DeviceImportReport.class))),
+            @ApiResponse(responseCode = "400", description = HTTPResponseMessages.HTTP_400, content = @Content),
+            @ApiResponse(responseCode = "403", description = HTTPResponseMessages.HTTP_403, content = @Content),
+            @ApiResponse(responseCode = "500", description = HTTPResponseMessages.HTTP_500, content = @Content)
+    })
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, TEXT_CSV_VALUE})
+    public ResponseEntity<DeviceImportReport> importDevices(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                            InputStream inputStream) {
+        DeviceImportFormat format = MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.parseMediaType(TEXT_CSV_VALUE))
+                ? DeviceImportFormat.CSV
+                : DeviceImportFormat.NDJSON;
+        log.info("Importing devices. Format: {}", format);
+
+        DeviceImportReport report = deviceImportService.importDevices(inputStream, format);
+        log.debug("Device import report: {}", report);
+        return ResponseEntity.ok(report);
+    }
+
     @Operation(summary = "Updates device by id")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = HTTPResponseMessages.HTTP_200,
@@ -146,6 +190,112 @@ public class DeviceController {
         return ResponseEntity.ok(deviceList);
     }
 
+    @Operation(summary = "Gets page of devices using cursor pagination",
+            description = "Pass 'nextCursor' of a page as 'after' to get the next page. Devices are ordered by id.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = HTTPResponseMessages.HTTP_200,
+                    content = @Content(schema = @Schema(implementation = DevicePage.class))),
+            @ApiResponse(responseCode = "400", description = HTTPResponseMessages.HTTP_400, content = @Content),
+            @ApiResponse(responseCode = "403", description = HTTPResponseMessages.HTTP_403, content = @Content),
+            @ApiResponse(responseCode = "500", description = HTTPResponseMessages.HTTP_500, content = @Content)
+    })
+    @GetMapping("/page")
+    public ResponseEntity<DevicePage> getDevicePage(
+            @Parameter(name = "after", description = "cursor returned with previous page", example = "100") @RequestParam(required = false) Long after,
+            @Parameter(name = "limit", description = "maximum number of devices in page", example = "100") @RequestParam(defaultValue = "100") int limit,
+            @Parameter(name = "deviceType", description = "id of device type", example = "1") @RequestParam(required = false) Long deviceType,
+            @Parameter(name = "status", description = "status of device", example = "ON") @RequestParam(required = false) String status,
+            @Parameter(name = "updatedFrom", description = "lower bound of last update time", example = "2024-08-28T00:00:00")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime updatedFrom,
+            @Parameter(name = "updatedTo", description = "upper bound of last update time", example = "2024-08-29T00:00:00")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime updatedTo) {
+        log.info("Retrieving page of devices after: {}, limit: {}", after, limit);
+
+        DevicePage page = deviceService.getDevicePage(new DeviceFilter(deviceType, status, updatedFrom, updatedTo), after, limit);
+        log.debug("Found device page. Size: {}, next cursor: {}", page.getItems().size(), page.getNextCursor());
+        return ResponseEntity.ok(page);
+    }
+
+    @Operation(summary = "Gets devices within radius of location ordered by distance")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = HTTPResponseMessages.HTTP_200,
+                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = Device.class)))),
+            @ApiResponse(responseCode = "400", description = HTTPResponseMessages.HTTP_400, content = @Content),
+            @ApiResponse(responseCode = "403", description = HTTPResponseMessages.HTTP_403, content = @Content),
+            @ApiResponse(responseCode = "500", description = HTTPResponseMessages.HTTP_500, content = @Content)
+    })
+    @GetMapping("/near")
+    public ResponseEntity<List<Device>> getDevicesWithinRadius(
+            @Parameter(name = "latitude", description = "latitude of location", example = "56.9710", required = true) @RequestParam double latitude,
+            @Parameter(name = "longitude", description = "longitude of location", example = "24.1604", required = true) @RequestParam double longitude,
+            @Parameter(name = "radiusKm", description = "radius in kilometers", example = "5", required = true) @RequestParam double radiusKm,
+            @Parameter(name = "limit", description = "maximum number of devices", example = "100") @RequestParam(defaultValue = "100") int limit) {
+        log.info("Retrieving devices within {} km of {}, {}", radiusKm, latitude, longitude);
+
+        List<Device> deviceList = deviceService.getDevicesWithinRadius(latitude, longitude, radiusKm, limit);
+        log.debug("Found devices within radius. Size: {}", deviceList.size());
+        return ResponseEntity.ok(deviceList);
+    }
+
+    @Operation(summary = "Gets devices located in area")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = HTTPResponseMessages.HTTP_200,
+                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = Device.class)))),
+            @ApiResponse(responseCode = "400", description = HTTPResponseMessages.HTTP_400, content = @Content),
+            @ApiResponse(responseCode = "403", description = HTTPResponseMessages.HTTP_403, content = @Content),
+            @ApiResponse(responseCode = "500", description = HTTPResponseMessages.HTTP_500, content = @Content)
+    })
+    @GetMapping("/area")
+    public ResponseEntity<List<Device>> getDevicesInArea(
+            @Parameter(name = "minLatitude", description = "southern border of area", example = "56.90", required = true) @RequestParam double minLatitude,
+            @Parameter(name = "maxLatitude", description = "northern border of area", example = "57.00", required = true) @RequestParam double maxLatitude,
+            @Parameter(name = "minLongitude", description = "western border of area", example = "24.00", required = true) @RequestParam double minLongitude,
+            @Parameter(name = "maxLongitude", description = "eastern border of area", example = "24.30", required = true) @RequestParam double maxLongitude,
+            @Parameter(name = "limit", description = "maximum number of devices", example = "100") @RequestParam(defaultValue = "100") int limit) {
+        log.info("Retrieving devices in area {}, {} - {}, {}", minLatitude, minLongitude, maxLatitude, maxLongitude);
+
+        List<Device> deviceList = deviceService.getDevicesInArea(minLatitude, maxLatitude, minLongitude, maxLongitude, limit);
+        log.debug("Found devices in area. Size: {}", deviceList.size());
+        return ResponseEntity.ok(deviceList);
+    }
+
+    @Operation(summary = "Streams devices as newline delimited JSON")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = HTTPResponseMessages.HTTP_200,
+                    content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE, schema = @Schema(implementation = Device.class))),
+            @ApiResponse(responseCode = "403", description = HTTPResponseMessages.HTTP_403, content = @Content),
+            @ApiResponse(responseCode = "500", description = HTTPResponseMessages.HTTP_500, content = @Content)
+    })
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamDevices(
+            @Parameter(name = "deviceType", description = "id of device type", example = "1") @RequestParam(required = false) Long deviceType,
+            @Parameter(name = "status", description = "status of device", example = "ON") @RequestParam(required = false) String status,
+            @Parameter(name = "updatedFrom", description = "lower bound of last update time", example = "2024-08-28T00:00:00")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime updatedFrom,
+            @Parameter(name = "updatedTo", description = "upper bound of last update time", example = "2024-08-29T00:00:00")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime updatedTo) {
+        log.info("Streaming devices");
+        DeviceFilter filter = new DeviceFilter(deviceType, status, updatedFrom, updatedTo);
+
+        StreamingResponseBody body = outputStream -> {
+            OutputStream out = new BufferedOutputStream(outputStream);
+            deviceService.streamDevices(filter, device -> writeNdjsonLine(out, device));
+            out.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+
+    private void writeNdjsonLine(OutputStream out, Device device) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(device));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 
     private ResponseEntity<?> validateBindingResult(BindingResult bindingResult) {
         if (bindingResult.hasErrors()) {
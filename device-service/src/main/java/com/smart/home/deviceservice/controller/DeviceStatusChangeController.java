@@ -1,6 +1,15 @@
 package com.smart.home.deviceservice.controller;
 
+import com.smart.home.deviceservice.live.DeviceStatusBroadcaster;
+import com.smart.home.deviceservice.model.DeviceGroupCommand;
+import com.smart.home.deviceservice.model.DeviceGroupCommandResult;
+import com.smart.home.deviceservice.model.DeviceStateReport;
+import com.smart.home.deviceservice.model.DeviceStateReportResult;
 import com.smart.home.deviceservice.model.DeviceStatusChange;
+import com.smart.home.deviceservice.model.DeviceStatusEvent;
+import com.smart.home.deviceservice.service.DeviceGroupCommandService;
+import com.smart.home.deviceservice.service.DeviceStateReportService;
+import com.smart.home.deviceservice.service.DeviceStatusChangeIdempotencyService;
 import com.smart.home.deviceservice.service.DeviceStatusChangeService;
 import com.smart.home.deviceservice.swagger.DescriptionVariables;
 import com.smart.home.deviceservice.swagger.HTTPResponseMessages;
@@ -11,15 +20,27 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Collectors;
 
 @Log4j2
 @RestController
@@ -29,6 +50,10 @@ import org.springframework.web.bind.annotation.RestController;
 public class DeviceStatusChangeController {
 
     private final DeviceStatusChangeService deviceStatusChangeService;
+    private final DeviceGroupCommandService deviceGroupCommandService;
+    private final DeviceStatusBroadcaster deviceStatusBroadcaster;
+    private final DeviceStateReportService deviceStateReportService;
+    private final DeviceStatusChangeIdempotencyService deviceStatusChangeIdempotencyService;
 
 
     @Operation(summary = "Changes device status by device id")
@@ -38,17 +63,82 @@ public class DeviceStatusChangeController {
             @ApiResponse(responseCode = "400", description = HTTPResponseMessages.HTTP_400, content = @Content),
             @ApiResponse(responseCode = "403", description = HTTPResponseMessages.HTTP_403, content = @Content),
             @ApiResponse(responseCode = "404", description = HTTPResponseMessages.HTTP_404, content = @Content),
+            @ApiResponse(responseCode = "429", description = HTTPResponseMessages.HTTP_429, content = @Content),
             @ApiResponse(responseCode = "500", description = HTTPResponseMessages.HTTP_500, content = @Content)
     })
     @PatchMapping("/{id}")
     public ResponseEntity<?> changeDeviceStatus(
             @NonNull @PathVariable("id") @Parameter(name = "id", description = "id of device", example = "1", required = true) Long id,
-            @Parameter(name = "status", description = "new status of device", example = "OFF", required = true) @RequestParam String status) {
+            @Parameter(name = "status", description = "new status of device", example = "OFF", required = true) @RequestParam String status,
+            @Parameter(name = "Idempotency-Key", description = "client generated key, retries with the same key return the original status change",
+                    example = "5f0c6a2e-7d1b-4b8e-9a35-2c0d9f1e6b47")
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
         log.debug("Request to change status of device with id: {} to status: {}", id, status);
-        DeviceStatusChange deviceStatusChange = deviceStatusChangeService.changeDeviceStatus(id, status, "manual status change", null);
+        DeviceStatusChange deviceStatusChange = idempotencyKey != null
+                ? deviceStatusChangeIdempotencyService.changeDeviceStatus(idempotencyKey, id, status, "manual status change")
+                : deviceStatusChangeService.changeDeviceStatus(id, status, "manual status change", null);
 
         log.info("Status of device with id: {} successfully changed to: {}", id, status);
         return ResponseEntity.ok(deviceStatusChange);
     }
 
+    @Operation(summary = "Changes status of all devices selected by device type, status or area")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = HTTPResponseMessages.HTTP_200,
+                    content = @Content(schema = @Schema(implementation = DeviceGroupCommandResult.class))),
+            @ApiResponse(responseCode = "400", description = HTTPResponseMessages.HTTP_400, content = @Content),
+            @ApiResponse(responseCode = "403", description = HTTPResponseMessages.HTTP_403, content = @Content),
+            @ApiResponse(responseCode = "500", description = HTTPResponseMessages.HTTP_500, content = @Content)
+    })
+    @PatchMapping("/group")
+    public ResponseEntity<?> changeDeviceGroupStatus(@Valid @RequestBody DeviceGroupCommand command, BindingResult bindingResult) {
+        log.debug("Request to change status of device group: {}", command);
+
+        if (bindingResult.hasErrors()) {
+            log.error("Validation errors: {}", bindingResult);
+            List<String> errorMessages = bindingResult.getFieldErrors().stream()
+                    .map(error -> error.getField() + ": " + error.getDefaultMessage())
+                    .collect(Collectors.toList());
+            return ResponseEntity.badRequest().body(errorMessages);
+        }
+
+        DeviceGroupCommandResult result = deviceGroupCommandService.changeDeviceGroupStatus(command, "group status change");
+        log.info("Status of device group changed. Changed: {}, failed: {}", result.getChangedDevices(), result.getFailedDevices());
+        return ResponseEntity.ok(result);
+    }
+
+    @Operation(summary = "Accepts a batch of actual device states reported by devices, written asynchronously")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = HTTPResponseMessages.HTTP_202,
+                    content = @Content(schema = @Schema(implementation = DeviceStateReportResult.class))),
+            @ApiResponse(responseCode = "400", description = HTTPResponseMessages.HTTP_400, content = @Content),
+            @ApiResponse(responseCode = "403", description = HTTPResponseMessages.HTTP_403, content = @Content),
+            @ApiResponse(responseCode = "429", description = HTTPResponseMessages.HTTP_429, content = @Content),
+            @ApiResponse(responseCode = "500", description = HTTPResponseMessages.HTTP_500, content = @Content)
+    })
+    @PostMapping("/reports")
+    public ResponseEntity<DeviceStateReportResult> reportDeviceStates(@RequestBody List<DeviceStateReport> reports) {
+        log.debug("Received {} device state reports", reports.size());
+        DeviceStateReportResult result = deviceStateReportService.acceptReports(reports);
+        return ResponseEntity.accepted().body(result);
+    }
+
+    @Operation(summary = "Subscribes to device status changes as server-sent events, optionally filtered by device ids or device type")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = HTTPResponseMessages.HTTP_200,
+                    content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE, schema = @Schema(implementation = DeviceStatusEvent.class))),
+            @ApiResponse(responseCode = "403", description = HTTPResponseMessages.HTTP_403, content = @Content),
+            @ApiResponse(responseCode = "429", description = HTTPResponseMessages.HTTP_429, content = @Content),
+            @ApiResponse(responseCode = "500", description = HTTPResponseMessages.HTTP_500, content = @Content)
+    })
+    @GetMapping(value = "/live", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeToDeviceStatus(
+            @Parameter(name = "deviceIds", description = "ids of devices to receive changes for", example = "1,2")
+            @RequestParam(required = false) List<Long> deviceIds,
+            @Parameter(name = "deviceTypeId", description = "device type to receive changes for", example = "1")
+            @RequestParam(required = false) Long deviceTypeId) {
+        log.debug("Request to subscribe to status changes of devices: {}, device type: {}", deviceIds, deviceTypeId);
+        return deviceStatusBroadcaster.subscribe(deviceIds != null ? new HashSet<>(deviceIds) : null, deviceTypeId);
+    }
+
 }
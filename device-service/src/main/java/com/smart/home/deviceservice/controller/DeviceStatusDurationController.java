@@ -0,0 +1,84 @@
+package com.smart.home.deviceservice.controller;
+
+import com.smart.home.deviceservice.model.DeviceStatusDuration;
+import com.smart.home.deviceservice.model.DeviceStatusDurationTotal;
+import com.smart.home.deviceservice.service.DeviceStatusDurationService;
+import com.smart.home.deviceservice.swagger.DescriptionVariables;
+import com.smart.home.deviceservice.swagger.HTTPResponseMessages;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Log4j2
+@RestController
+@RequestMapping("/api/device/status/duration")
+@Tag(name = DescriptionVariables.DEVICE_STATUS_DURATION)
+@RequiredArgsConstructor
+public class DeviceStatusDurationController {
+
+    private final DeviceStatusDurationService deviceStatusDurationService;
+
+
+    @Operation(summary = "Gets time spent in each status per device and day")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = HTTPResponseMessages.HTTP_200,
+                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = DeviceStatusDuration.class)))),
+            @ApiResponse(responseCode = "400", description = HTTPResponseMessages.HTTP_400, content = @Content),
+            @ApiResponse(responseCode = "403", description = HTTPResponseMessages.HTTP_403, content = @Content),
+            @ApiResponse(responseCode = "500", description = HTTPResponseMessages.HTTP_500, content = @Content)
+    })
+    @GetMapping
+    public ResponseEntity<List<DeviceStatusDuration>> getDailyDurations(
+            @Parameter(name = "deviceId", description = "id of device", example = "1") @RequestParam(required = false) Long deviceId,
+            @Parameter(name = "status", description = "status of device", example = "ON") @RequestParam(required = false) String status,
+            @Parameter(name = "from", description = "first day of period", example = "2024-08-01", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(name = "to", description = "last day of period", example = "2024-08-31", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        log.info("Retrieving daily status durations from {} to {}", from, to);
+
+        List<DeviceStatusDuration> durations = deviceStatusDurationService.getDailyDurations(deviceId, status, from, to);
+        log.debug("Found daily status durations. Size: {}", durations.size());
+        return ResponseEntity.ok(durations);
+    }
+
+    @Operation(summary = "Gets total time spent in each status per device within period")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = HTTPResponseMessages.HTTP_200,
+                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = DeviceStatusDurationTotal.class)))),
+            @ApiResponse(responseCode = "400", description = HTTPResponseMessages.HTTP_400, content = @Content),
+            @ApiResponse(responseCode = "403", description = HTTPResponseMessages.HTTP_403, content = @Content),
+            @ApiResponse(responseCode = "500", description = HTTPResponseMessages.HTTP_500, content = @Content)
+    })
+    @GetMapping("/total")
+    public ResponseEntity<List<DeviceStatusDurationTotal>> getTotalDurations(
+            @Parameter(name = "deviceId", description = "id of device", example = "1") @RequestParam(required = false) Long deviceId,
+            @Parameter(name = "status", description = "status of device", example = "ON") @RequestParam(required = false) String status,
+            @Parameter(name = "from", description = "first day of period", example = "2024-08-01", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(name = "to", description = "last day of period", example = "2024-08-31", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        log.info("Retrieving total status durations from {} to {}", from, to);
+
+        List<DeviceStatusDurationTotal> totals = deviceStatusDurationService.getTotalDurations(deviceId, status, from, to);
+        log.debug("Found total status durations. Size: {}", totals.size());
+        return ResponseEntity.ok(totals);
+    }
+
+}
@@ -0,0 +1,134 @@
+package com.smart.home.deviceservice.executor;
+
+import com.smart.home.deviceservice.handler.TooManyRequestsException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Runs device commands on a fixed set of single-threaded stripes chosen by device id. Commands for the
+ * same device always land on the same stripe and run one after another in submission order, while
+ * commands for devices on different stripes run in parallel. A command whose caller stopped waiting
+ * before it started is skipped when its stripe reaches it.
+ */
+@Log4j2
+@Component
+public class StripedDeviceExecutor {
+
+    private static final String THREAD_NAME_PREFIX = "device-stripe-";
+
+    private final ThreadPoolExecutor[] stripes;
+    private final long timeoutMillis;
+    private final ThreadLocal<Boolean> stripeThread = ThreadLocal.withInitial(() -> false);
+
+
+    public StripedDeviceExecutor(@Value("${device.command.stripes:16}") int stripeCount,
+                                 @Value("${device.command.queue-capacity:1000}") int queueCapacity,
+                                 @Value("${device.command.timeout-ms:10000}") long timeoutMillis,
+                                 MeterRegistry meterRegistry) {
+        this.timeoutMillis = timeoutMillis;
+        this.stripes = new ThreadPoolExecutor[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            String threadName = THREAD_NAME_PREFIX + i;
+            stripes[i] = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(queueCapacity),
+                    runnable -> new Thread(() -> {
+                        stripeThread.set(true);
+                        runnable.run();
+                    }, threadName));
+            BlockingQueue<Runnable> queue = stripes[i].getQueue();
+            Gauge.builder("device.command.queue.depth", queue, BlockingQueue::size)
+                    .description("Device commands waiting on a stripe")
+                    .tag("stripe", String.valueOf(i))
+                    .register(meterRegistry);
+        }
+    }
+
+
+    /**
+     * Runs the command on the stripe of the device and waits for its result. Runtime exceptions thrown by
+     * the command are rethrown unchanged. Commands submitted from a stripe thread run inline, so a command
+     * that issues another device command cannot deadlock on its own stripe. On timeout a command that has
+     * not started yet is skipped, while a command that already runs is left to finish.
+     */
+    public <T> T execute(Long deviceId, Supplier<T> command) {
+        if (isStripeThread()) {
+            return command.get();
+        }
+
+        AtomicBoolean claimed = new AtomicBoolean();
+        Future<T> future = submit(deviceId, () -> {
+            if (!claimed.compareAndSet(false, true)) {
+                throw new CancellationException("Command for device " + deviceId + " timed out before it started");
+            }
+            return command.get();
+        });
+
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new RuntimeException(e.getCause());
+        } catch (TimeoutException e) {
+            future.cancel(false);
+            if (claimed.compareAndSet(false, true)) {
+                log.error("Command for device {} did not start within {} ms and was skipped", deviceId, timeoutMillis);
+                throw new RuntimeException("Command for device " + deviceId + " timed out and was not applied");
+            }
+            log.error("Command for device {} did not finish within {} ms and may still be applied", deviceId, timeoutMillis);
+            throw new RuntimeException("Command for device " + deviceId + " timed out");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for command of device " + deviceId);
+        }
+    }
+
+    /**
+     * Queues the command on the stripe of the device without waiting for it.
+     */
+    public <T> CompletableFuture<T> submit(Long deviceId, Supplier<T> command) {
+        try {
+            return CompletableFuture.supplyAsync(command, stripes[stripeOf(deviceId)]);
+        } catch (RejectedExecutionException e) {
+            log.warn("Command queue of device {} is full", deviceId);
+            throw new TooManyRequestsException("Too many pending commands for device " + deviceId + ", retry later");
+        }
+    }
+
+    public boolean isStripeThread() {
+        return stripeThread.get();
+    }
+
+    public long getTimeoutMillis() {
+        return timeoutMillis;
+    }
+
+    int stripeOf(Long deviceId) {
+        return Math.floorMod(Long.hashCode(deviceId), stripes.length);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (ThreadPoolExecutor stripe : stripes) {
+            stripe.shutdown();
+        }
+    }
+
+}
@@ -0,0 +1,9 @@
+package com.smart.home.deviceservice.handler;
+
+public class TooManyRequestsException extends RuntimeException {
+
+    public TooManyRequestsException(String message) {
+        super(message);
+    }
+
+}
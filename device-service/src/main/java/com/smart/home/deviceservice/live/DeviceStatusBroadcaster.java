@@ -0,0 +1,225 @@
+package com.smart.home.deviceservice.live;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smart.home.deviceservice.handler.TooManyRequestsException;
+import com.smart.home.deviceservice.model.DeviceStatusEvent;
+import com.smart.home.deviceservice.service.DeviceService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pushes device status events to SSE subscribers. Each event is serialized once and the same frame
+ * is queued for every matching subscriber. Subscribers keep at most one pending frame per device, so
+ * a slow connection receives the latest status instead of every intermediate one; when more devices
+ * are pending than the buffer holds, the oldest pending frame is dropped.
+ */
+@Log4j2
+@Component
+public class DeviceStatusBroadcaster {
+
+    private final ObjectMapper objectMapper;
+    private final DeviceService deviceService;
+    private final ExecutorService sender;
+
+    private final Map<Long, Subscription> subscriptions = new ConcurrentHashMap<>();
+    private final AtomicLong subscriptionIds = new AtomicLong();
+    private final Counter droppedEvents;
+
+    @Value("${device.live.max-subscribers:1000}")
+    private int maxSubscribers;
+
+    @Value("${device.live.subscriber-buffer-size:256}")
+    private int bufferSize;
+
+    @Value("${device.live.emitter-timeout-ms:1800000}")
+    private long emitterTimeout;
+
+
+    public DeviceStatusBroadcaster(ObjectMapper objectMapper, DeviceService deviceService, MeterRegistry meterRegistry,
+                                   @Value("${device.live.sender-threads:4}") int senderThreads) {
+        this.objectMapper = objectMapper;
+        this.deviceService = deviceService;
+        this.sender = Executors.newFixedThreadPool(senderThreads);
+        this.droppedEvents = Counter.builder("device.live.dropped")
+                .description("Device status events dropped because a subscriber buffer was full")
+                .register(meterRegistry);
+        Gauge.builder("device.live.subscribers", subscriptions, Map::size)
+                .description("Open device status subscriptions")
+                .register(meterRegistry);
+    }
+
+
+    public SseEmitter subscribe(Set<Long> deviceIds, Long deviceTypeId) {
+        if (subscriptions.size() >= maxSubscribers) {
+            throw new TooManyRequestsException("Too many live subscriptions, try again later");
+        }
+        SseEmitter emitter = createEmitter();
+        Long id = subscriptionIds.incrementAndGet();
+        subscriptions.put(id, new Subscription(emitter, deviceIds, deviceTypeId));
+        emitter.onCompletion(() -> subscriptions.remove(id));
+        emitter.onTimeout(() -> subscriptions.remove(id));
+        emitter.onError(e -> subscriptions.remove(id));
+        log.debug("Live subscription {} opened for devices {} and device type {}", id, deviceIds, deviceTypeId);
+        return emitter;
+    }
+
+    public void broadcast(DeviceStatusEvent event) {
+        if (subscriptions.isEmpty()) {
+            return;
+        }
+        Set<DataWithMediaType> frame;
+        try {
+            frame = SseEmitter.event()
+                    .id(String.valueOf(event.getEventId()))
+                    .name("status")
+                    .data(objectMapper.writeValueAsBytes(event), MediaType.APPLICATION_JSON)
+                    .build();
+        } catch (JsonProcessingException e) {
+            log.error("Error while serializing device status event {}: {}", event, e.getMessage());
+            return;
+        }
+
+        Long deviceTypeId = null;
+        boolean deviceTypeResolved = false;
+        for (Subscription subscription : subscriptions.values()) {
+            if (subscription.deviceTypeId != null && !deviceTypeResolved) {
+                deviceTypeId = findDeviceType(event.getDeviceId());
+                deviceTypeResolved = true;
+            }
+            if (subscription.matches(event.getDeviceId(), deviceTypeId)) {
+                if (subscription.offer(event.getDeviceId(), frame, bufferSize)) {
+                    droppedEvents.increment();
+                }
+                scheduleDrain(subscription);
+            }
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscriptions.values().forEach(subscription -> subscription.emitter.complete());
+        subscriptions.clear();
+        sender.shutdownNow();
+    }
+
+
+    SseEmitter createEmitter() {
+        return new SseEmitter(emitterTimeout);
+    }
+
+    private Long findDeviceType(Long deviceId) {
+        try {
+            return deviceService.getDeviceById(deviceId).getDeviceType();
+        } catch (RuntimeException e) {
+            log.debug("Device type of device {} could not be resolved: {}", deviceId, e.getMessage());
+            return null;
+        }
+    }
+
+    private void scheduleDrain(Subscription subscription) {
+        if (subscription.draining.compareAndSet(false, true)) {
+            sender.execute(() -> drain(subscription));
+        }
+    }
+
+    private void drain(Subscription subscription) {
+        try {
+            Set<DataWithMediaType> frame;
+            while ((frame = subscription.poll()) != null) {
+                subscription.emitter.send(frame);
+            }
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Live subscription closed while sending: {}", e.getMessage());
+            subscriptions.values().remove(subscription);
+            subscription.clear();
+        } finally {
+            subscription.draining.set(false);
+        }
+        if (subscription.hasPending()) {
+            scheduleDrain(subscription);
+        }
+    }
+
+
+    private static class Subscription {
+
+        private final SseEmitter emitter;
+        private final Set<Long> deviceIds;
+        private final Long deviceTypeId;
+        private final LinkedHashMap<Long, Set<DataWithMediaType>> pending = new LinkedHashMap<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Subscription(SseEmitter emitter, Set<Long> deviceIds, Long deviceTypeId) {
+            this.emitter = emitter;
+            this.deviceIds = deviceIds;
+            this.deviceTypeId = deviceTypeId;
+        }
+
+        private boolean matches(Long deviceId, Long eventDeviceTypeId) {
+            if (deviceIds != null && !deviceIds.isEmpty() && !deviceIds.contains(deviceId)) {
+                return false;
+            }
+            return deviceTypeId == null || deviceTypeId.equals(eventDeviceTypeId);
+        }
+
+        /**
+         * Queues the frame, replacing a pending frame of the same device. Returns true when the
+         * oldest pending frame had to be dropped to stay within the buffer size.
+         */
+        private synchronized boolean offer(Long deviceId, Set<DataWithMediaType> frame, int bufferSize) {
+            pending.remove(deviceId);
+            pending.put(deviceId, frame);
+            if (pending.size() > bufferSize) {
+                Iterator<Long> oldest = pending.keySet().iterator();
+                oldest.next();
+                oldest.remove();
+                return true;
+            }
+            return false;
+        }
+
+        private synchronized Set<DataWithMediaType> poll() {
+            Iterator<Set<DataWithMediaType>> iterator = pending.values().iterator();
+            if (!iterator.hasNext()) {
+                return null;
+            }
+            Set<DataWithMediaType> frame = iterator.next();
+            iterator.remove();
+            return frame;
+        }
+
+        private synchronized boolean hasPending() {
+            return !pending.isEmpty();
+        }
+
+        private synchronized void clear() {
+            pending.clear();
+        }
+
+    }
+
+}
@@ -0,0 +1,113 @@
+package com.smart.home.deviceservice.live;
+
+import com.smart.home.deviceservice.model.DeviceStatusEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.stream.StreamListener;
+import org.springframework.data.redis.stream.StreamMessageListenerContainer;
+import org.springframework.data.redis.stream.StreamMessageListenerContainer.StreamMessageListenerContainerOptions;
+import org.springframework.data.redis.stream.StreamMessageListenerContainer.StreamReadRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Reads the device status stream written by the outbox relay and hands every entry to the
+ * {@link DeviceStatusBroadcaster}. No consumer group is used: every service instance reads the whole
+ * stream, so subscribers see changes made through any instance. Read errors, such as Redis being
+ * unavailable, do not cancel the subscription; reading resumes once the stream can be read again.
+ */
+@Log4j2
+@Component
+@ConditionalOnProperty(name = "device.live.enabled", havingValue = "true", matchIfMissing = true)
+public class DeviceStatusStreamListener implements StreamListener<String, MapRecord<String, String, String>> {
+
+    private final RedisConnectionFactory connectionFactory;
+    private final DeviceStatusBroadcaster broadcaster;
+
+    @Value("${device.outbox.stream.key:device-status-changes}")
+    private String streamKey;
+
+    @Value("${device.live.poll-timeout-ms:1000}")
+    private long pollTimeout;
+
+    private StreamMessageListenerContainer<String, MapRecord<String, String, String>> container;
+
+
+    public DeviceStatusStreamListener(RedisConnectionFactory connectionFactory, DeviceStatusBroadcaster broadcaster) {
+        this.connectionFactory = connectionFactory;
+        this.broadcaster = broadcaster;
+    }
+
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        StreamMessageListenerContainerOptions<String, MapRecord<String, String, String>> options = StreamMessageListenerContainerOptions.builder()
+                .pollTimeout(Duration.ofMillis(pollTimeout))
+                .errorHandler(this::handleReadError)
+                .build();
+        // starts at the end of the stream and then continues after the last entry read, so no entry is skipped
+        StreamReadRequest<String> readRequest = StreamReadRequest.builder(StreamOffset.create(streamKey, ReadOffset.lastConsumed()))
+                .cancelOnError(e -> false)
+                .build();
+        container = StreamMessageListenerContainer.create(connectionFactory, options);
+        container.register(readRequest, this);
+        container.start();
+        log.info("Listening to device status stream '{}'", streamKey);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (container != null) {
+            container.stop();
+        }
+    }
+
+    @Override
+    public void onMessage(MapRecord<String, String, String> message) {
+        try {
+            broadcaster.broadcast(toEvent(message.getValue()));
+        } catch (RuntimeException e) {
+            log.error("Error while handling device status stream entry {}: {}", message.getId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Waits one poll timeout before the next read, so an unavailable stream is not retried in a busy loop.
+     */
+    void handleReadError(Throwable e) {
+        log.error("Error while reading device status stream '{}': {}", streamKey, e.getMessage());
+        try {
+            Thread.sleep(pollTimeout);
+        } catch (InterruptedException interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    DeviceStatusEvent toEvent(Map<String, String> fields) {
+        return new DeviceStatusEvent(
+                Long.valueOf(fields.get("outboxId")),
+                Long.valueOf(fields.get("deviceId")),
+                emptyToNull(fields.get("oldStatus")),
+                emptyToNull(fields.get("newStatus")),
+                LocalDateTime.parse(fields.get("changedAt")),
+                emptyToNull(fields.get("weatherCondition")),
+                fields.get("scenarioId") == null || fields.get("scenarioId").isEmpty() ? null : Long.valueOf(fields.get("scenarioId"))
+        );
+    }
+
+    private String emptyToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+
+}
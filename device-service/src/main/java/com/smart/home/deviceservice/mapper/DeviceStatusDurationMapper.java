@@ -0,0 +1,12 @@
+package com.smart.home.deviceservice.mapper;
+
+import com.smart.home.deviceservice.model.DeviceStatusDuration;
+import com.smart.home.deviceservice.repository.model.DeviceStatusDurationDAO;
+import org.mapstruct.Mapper;
+
+@Mapper(componentModel = "spring")
+public interface DeviceStatusDurationMapper {
+
+    DeviceStatusDuration deviceStatusDurationDAOToDeviceStatusDuration(DeviceStatusDurationDAO deviceStatusDurationDAO);
+
+}
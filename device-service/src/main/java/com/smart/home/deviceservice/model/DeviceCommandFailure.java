@@ -0,0 +1,19 @@
+package com.smart.home.deviceservice.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeviceCommandFailure {
+
+    @Schema(description = "Id of device", example = "1")
+    private Long deviceId;
+
+    @Schema(description = "Reason of failure")
+    private String message;
+
+}
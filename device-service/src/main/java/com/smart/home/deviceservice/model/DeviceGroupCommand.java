@@ -0,0 +1,47 @@
+package com.smart.home.deviceservice.model;
+
+import com.smart.home.deviceservice.swagger.DescriptionVariables;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.validator.constraints.Range;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeviceGroupCommand {
+
+    @Schema(description = "Select devices of this device type", example = "1")
+    @Range(min = 1, max = Long.MAX_VALUE, message = DescriptionVariables.MODEL_ID_RANGE)
+    private Long deviceType;
+
+    @Schema(description = "Select devices having this status", example = "ON")
+    private String status;
+
+    @Schema(description = "Southern border of selected area", example = "56.90")
+    @Range(min = -90, max = 90, message = DescriptionVariables.LATITUDE_RANGE)
+    private Double minLatitude;
+
+    @Schema(description = "Northern border of selected area", example = "57.00")
+    @Range(min = -90, max = 90, message = DescriptionVariables.LATITUDE_RANGE)
+    private Double maxLatitude;
+
+    @Schema(description = "Western border of selected area", example = "24.00")
+    @Range(min = -180, max = 180, message = DescriptionVariables.LONGITUDE_RANGE)
+    private Double minLongitude;
+
+    @Schema(description = "Eastern border of selected area", example = "24.30")
+    @Range(min = -180, max = 180, message = DescriptionVariables.LONGITUDE_RANGE)
+    private Double maxLongitude;
+
+    @Schema(description = "New status of selected devices", example = "OFF")
+    @NotBlank(message = "New status " + DescriptionVariables.NOT_BLANK)
+    private String newStatus;
+
+    public boolean hasArea() {
+        return minLatitude != null || maxLatitude != null || minLongitude != null || maxLongitude != null;
+    }
+
+}
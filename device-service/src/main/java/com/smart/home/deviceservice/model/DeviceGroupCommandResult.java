@@ -0,0 +1,29 @@
+package com.smart.home.deviceservice.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+public class DeviceGroupCommandResult {
+
+    @Schema(description = "Number of devices matching the selection", example = "120")
+    private long matchedDevices;
+
+    @Schema(description = "Number of devices whose status was changed", example = "100")
+    private long changedDevices;
+
+    @Schema(description = "Number of devices that already had the new status", example = "20")
+    private long unchangedDevices;
+
+    @Schema(description = "Number of devices whose status could not be changed", example = "0")
+    private long failedDevices;
+
+    @Schema(description = "Devices whose status could not be changed with reasons")
+    private List<DeviceCommandFailure> failures = new ArrayList<>();
+
+}
@@ -0,0 +1,19 @@
+package com.smart.home.deviceservice.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeviceImportError {
+
+    @Schema(description = "Line number of rejected row in uploaded file", example = "42")
+    private Long line;
+
+    @Schema(description = "Reason of rejection", example = "latitude: Latitude values range between -90 and +90 degrees")
+    private String message;
+
+}
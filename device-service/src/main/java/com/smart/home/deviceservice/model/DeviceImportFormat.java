@@ -0,0 +1,8 @@
+package com.smart.home.deviceservice.model;
+
+public enum DeviceImportFormat {
+
+    NDJSON,
+    CSV
+
+}
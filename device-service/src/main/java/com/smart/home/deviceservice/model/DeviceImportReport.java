@@ -0,0 +1,26 @@
+package com.smart.home.deviceservice.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+public class DeviceImportReport {
+
+    @Schema(description = "Number of data rows read", example = "100000")
+    private long totalRows;
+
+    @Schema(description = "Number of devices inserted", example = "99998")
+    private long importedRows;
+
+    @Schema(description = "Number of rejected rows", example = "2")
+    private long failedRows;
+
+    @Schema(description = "Rejected rows with reasons, limited to the first rejected rows")
+    private List<DeviceImportError> errors = new ArrayList<>();
+
+}
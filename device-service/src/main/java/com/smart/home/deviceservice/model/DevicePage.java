@@ -0,0 +1,21 @@
+package com.smart.home.deviceservice.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DevicePage {
+
+    @Schema(description = "Devices of the page ordered by id")
+    private List<Device> items;
+
+    @Schema(description = "Cursor to pass as 'after' to get the next page, absent on the last page", example = "100")
+    private Long nextCursor;
+
+}
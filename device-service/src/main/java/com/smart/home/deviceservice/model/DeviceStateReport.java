@@ -0,0 +1,24 @@
+package com.smart.home.deviceservice.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeviceStateReport {
+
+    @Schema(description = "Device reporting its state", example = "1")
+    private Long deviceId;
+
+    @Schema(description = "Actual status of device", example = "ON")
+    private String status;
+
+    @Schema(description = "Time the device observed the status, defaults to the time the report was received")
+    private LocalDateTime reportedAt;
+
+}
@@ -0,0 +1,19 @@
+package com.smart.home.deviceservice.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeviceStateReportResult {
+
+    @Schema(description = "Number of reports accepted for processing", example = "200")
+    private int acceptedReports;
+
+    @Schema(description = "Number of devices with reports waiting to be written", example = "1500")
+    private int pendingDevices;
+
+}
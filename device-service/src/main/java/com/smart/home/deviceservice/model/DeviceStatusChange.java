@@ -42,4 +42,8 @@ public class DeviceStatusChange {
     @Schema(description = "Scenario, related to status change")
     private Long scenarioId;
 
+    @Schema(description = "Statuses the device passed through when several rapid changes were coalesced into this one",
+            example = "OFF>ON>OFF>ON")
+    private String coalescedTransitions;
+
 }
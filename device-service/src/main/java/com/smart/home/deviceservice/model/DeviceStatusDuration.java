@@ -0,0 +1,27 @@
+package com.smart.home.deviceservice.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeviceStatusDuration {
+
+    @Schema(description = "Id of device", example = "1")
+    private Long deviceId;
+
+    @Schema(description = "Day the time was spent in status", example = "2024-08-28")
+    private LocalDate day;
+
+    @Schema(description = "Status of device", example = "ON")
+    private String status;
+
+    @Schema(description = "Seconds spent in status during the day", example = "3600")
+    private Long seconds;
+
+}
@@ -0,0 +1,22 @@
+package com.smart.home.deviceservice.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeviceStatusDurationTotal {
+
+    @Schema(description = "Id of device", example = "1")
+    private Long deviceId;
+
+    @Schema(description = "Status of device", example = "ON")
+    private String status;
+
+    @Schema(description = "Total seconds spent in status within the requested period", example = "86400")
+    private Long seconds;
+
+}
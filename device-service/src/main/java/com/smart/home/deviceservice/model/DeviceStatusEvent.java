@@ -0,0 +1,36 @@
+package com.smart.home.deviceservice.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeviceStatusEvent {
+
+    @Schema(description = "Id of the outbox entry the event was published from, unique per status change")
+    private Long eventId;
+
+    @Schema(description = "Device whose status changed")
+    private Long deviceId;
+
+    @Schema(description = "Status of device before status change", example = "OFF")
+    private String oldStatus;
+
+    @Schema(description = "New status of device", example = "ON")
+    private String newStatus;
+
+    @Schema(description = "Time of device status change")
+    private LocalDateTime changedAt;
+
+    @Schema(description = "Weather condition, related to status change", example = "RAIN")
+    private String weatherCondition;
+
+    @Schema(description = "Scenario, related to status change")
+    private Long scenarioId;
+
+}
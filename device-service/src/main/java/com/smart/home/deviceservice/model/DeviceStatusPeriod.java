@@ -0,0 +1,22 @@
+package com.smart.home.deviceservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeviceStatusPeriod {
+
+    private Long deviceId;
+
+    private String status;
+
+    private LocalDateTime from;
+
+    private LocalDateTime to;
+
+}
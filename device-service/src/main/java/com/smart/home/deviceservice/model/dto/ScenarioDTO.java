@@ -24,4 +24,8 @@ public class ScenarioDTO {
     @Schema(description = "New status of device if scenario is reached", example = "ON")
     private String newStatus;
 
+    @Schema(description = "Hysteresis band of numeric conditions. The measured value must pass the condition value " +
+            "by this margin before the scenario applies", example = "0.5")
+    private Double hysteresis;
+
 }
@@ -0,0 +1,208 @@
+package com.smart.home.deviceservice.outbox;
+
+import com.smart.home.deviceservice.repository.DeviceStatusOutboxJdbcRepository;
+import com.smart.home.deviceservice.repository.model.DeviceStatusOutboxDAO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.RedisStreamCommands.XAddOptions;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.StreamInfo;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Publishes device status changes from the outbox table to a Redis stream. Rows are locked with
+ * {@code SKIP LOCKED}, appended with a pipelined approximate-trimmed XADD and marked published in
+ * the same transaction, so delivery is at-least-once: consumers should de-duplicate by {@code outboxId}.
+ */
+@Log4j2
+@Component
+@ConditionalOnProperty(name = "device.outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+public class DeviceStatusOutboxRelay {
+
+    private static final int DELETE_BATCH_SIZE = 10000;
+
+    private final DeviceStatusOutboxJdbcRepository outboxRepository;
+    private final StringRedisTemplate redisTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    private final Counter publishedEvents;
+    private final AtomicLong pendingEvents = new AtomicLong();
+    private final AtomicLong lagSeconds = new AtomicLong();
+    private final AtomicLong streamLength = new AtomicLong();
+    private final Map<String, AtomicLong> consumerGroupPending = new ConcurrentHashMap<>();
+
+    @Value("${device.outbox.stream.key:device-status-changes}")
+    private String streamKey;
+
+    @Value("${device.outbox.stream.max-length:100000}")
+    private long maxStreamLength;
+
+    @Value("${device.outbox.stream.consumer-groups:}")
+    private List<String> consumerGroups;
+
+    @Value("${device.outbox.relay.batch-size:500}")
+    private int batchSize;
+
+    @Value("${device.outbox.retention-hours:24}")
+    private long retentionHours;
+
+
+    public DeviceStatusOutboxRelay(DeviceStatusOutboxJdbcRepository outboxRepository, StringRedisTemplate redisTemplate,
+                                   TransactionTemplate transactionTemplate, MeterRegistry meterRegistry) {
+        this.outboxRepository = outboxRepository;
+        this.redisTemplate = redisTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+
+        this.publishedEvents = Counter.builder("device.outbox.published")
+                .description("Device status changes published to the Redis stream")
+                .register(meterRegistry);
+        Gauge.builder("device.outbox.pending", pendingEvents, AtomicLong::get)
+                .description("Device status changes waiting in the outbox")
+                .register(meterRegistry);
+        Gauge.builder("device.outbox.lag.seconds", lagSeconds, AtomicLong::get)
+                .description("Age of the oldest unpublished device status change")
+                .register(meterRegistry);
+        Gauge.builder("device.outbox.stream.length", streamLength, AtomicLong::get)
+                .description("Number of entries in the device status stream")
+                .register(meterRegistry);
+    }
+
+
+    /**
+     * Creates configured consumer groups that do not exist yet. New groups start at the beginning
+     * of the stream, so they also receive the entries still retained there.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void createConsumerGroups() {
+        try {
+            List<String> existingGroups = findConsumerGroups().stream()
+                    .map(StreamInfo.XInfoGroup::groupName)
+                    .collect(Collectors.toList());
+            consumerGroups.stream()
+                    .filter(group -> !group.isBlank() && !existingGroups.contains(group))
+                    .forEach(group -> {
+                        redisTemplate.execute((RedisCallback<String>) connection -> ((StringRedisConnection) connection)
+                                .xGroupCreate(streamKey, ReadOffset.from("0"), group, true));
+                        log.info("Created consumer group '{}' on stream '{}'", group, streamKey);
+                    });
+        } catch (RuntimeException e) {
+            log.error("Error while creating consumer groups on stream '{}': {}", streamKey, e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${device.outbox.relay.interval-ms:1000}")
+    public void relay() {
+        try {
+            int published;
+            do {
+                published = transactionTemplate.execute(status -> publishBatch());
+            } while (published == batchSize);
+        } catch (RuntimeException e) {
+            log.error("Error while relaying device status changes, will retry: {}", e.getMessage());
+        }
+        purgePublished();
+        refreshMetrics();
+    }
+
+    int publishBatch() {
+        List<DeviceStatusOutboxDAO> events = outboxRepository.lockUnpublished(batchSize);
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        XAddOptions options = XAddOptions.maxlen(maxStreamLength).approximateTrimming(true);
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection stringConnection = (StringRedisConnection) connection;
+            events.forEach(event -> stringConnection.xAdd(StreamRecords.string(toStreamFields(event)).withStreamKey(streamKey), options));
+            return null;
+        });
+
+        outboxRepository.markPublished(events.stream().map(DeviceStatusOutboxDAO::getId).collect(Collectors.toList()), LocalDateTime.now());
+        publishedEvents.increment(events.size());
+        log.debug("Published {} device status changes to stream '{}'", events.size(), streamKey);
+        return events.size();
+    }
+
+    private Map<String, String> toStreamFields(DeviceStatusOutboxDAO event) {
+        Map<String, String> fields = new LinkedHashMap<>();
+        fields.put("outboxId", String.valueOf(event.getId()));
+        fields.put("deviceId", String.valueOf(event.getDeviceId()));
+        fields.put("oldStatus", nullToEmpty(event.getOldStatus()));
+        fields.put("newStatus", nullToEmpty(event.getNewStatus()));
+        fields.put("changedAt", event.getChangedAt().toString());
+        fields.put("weatherCondition", nullToEmpty(event.getWeatherCondition()));
+        fields.put("scenarioId", event.getScenarioId() != null ? String.valueOf(event.getScenarioId()) : "");
+        return fields;
+    }
+
+    private String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+
+    private void purgePublished() {
+        try {
+            int deleted = outboxRepository.deletePublishedBefore(LocalDateTime.now().minusHours(retentionHours), DELETE_BATCH_SIZE);
+            if (deleted > 0) {
+                log.debug("Deleted {} published device status changes from the outbox", deleted);
+            }
+        } catch (RuntimeException e) {
+            log.error("Error while purging published device status changes: {}", e.getMessage());
+        }
+    }
+
+    private void refreshMetrics() {
+        try {
+            pendingEvents.set(outboxRepository.countUnpublished());
+            LocalDateTime oldest = outboxRepository.findOldestUnpublishedCreatedAt();
+            lagSeconds.set(oldest != null ? Math.max(0, Duration.between(oldest, LocalDateTime.now()).toSeconds()) : 0);
+
+            Long length = redisTemplate.opsForStream().size(streamKey);
+            streamLength.set(length != null ? length : 0);
+            findConsumerGroups().forEach(group -> consumerGroupPending
+                    .computeIfAbsent(group.groupName(), this::registerConsumerGroupGauge)
+                    .set(group.pendingCount()));
+        } catch (RuntimeException e) {
+            log.error("Error while refreshing device status outbox metrics: {}", e.getMessage());
+        }
+    }
+
+    private List<StreamInfo.XInfoGroup> findConsumerGroups() {
+        if (!Boolean.TRUE.equals(redisTemplate.hasKey(streamKey))) {
+            return List.of();
+        }
+        return redisTemplate.opsForStream().groups(streamKey).stream().collect(Collectors.toList());
+    }
+
+    private AtomicLong registerConsumerGroupGauge(String group) {
+        AtomicLong pending = new AtomicLong();
+        Gauge.builder("device.outbox.consumer.pending", pending, AtomicLong::get)
+                .description("Stream entries delivered to a consumer group but not yet acknowledged")
+                .tag("group", group)
+                .register(meterRegistry);
+        return pending;
+    }
+
+}
@@ -0,0 +1,132 @@
+package com.smart.home.deviceservice.registry;
+
+import com.smart.home.deviceservice.repository.DeviceTypeRepository;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Publishes the ids of all device types to Redis, so other services can validate device type ids without calling
+ * this service. The ids are kept as a Redis set with a version counter. Every change updates the set, increments
+ * the version and publishes {@code <version>:+<id>} or {@code <version>:-<id>}; a full republish publishes only
+ * {@code <version>}, telling readers to reload the set. Device type ids are never reused, so changes commute.
+ */
+@Log4j2
+@Component
+public class DeviceTypeRegistryPublisher {
+
+    /**
+     * Replaces the set with the rebuilt one, or deletes it when nothing was rebuilt, and increments the version.
+     * Does nothing and returns nil when the version moved since the rebuild started.
+     */
+    private static final RedisScript<Long> REPLACE_SCRIPT = new DefaultRedisScript<>("""
+            if (redis.call('GET', KEYS[3]) or '') ~= ARGV[1] then
+                redis.call('DEL', KEYS[1])
+                return false
+            end
+            if redis.call('EXISTS', KEYS[1]) == 1 then
+                redis.call('RENAME', KEYS[1], KEYS[2])
+            else
+                redis.call('DEL', KEYS[2])
+            end
+            return redis.call('INCR', KEYS[3])
+            """, Long.class);
+
+    /**
+     * Adds the id to the set and increments the version in one step, so a reader never loads a set
+     * whose version does not match its contents.
+     */
+    private static final RedisScript<Long> ADD_SCRIPT = new DefaultRedisScript<>("""
+            redis.call('SADD', KEYS[1], ARGV[1])
+            return redis.call('INCR', KEYS[2])
+            """, Long.class);
+
+    /**
+     * Removes the id from the set and increments the version in one step.
+     */
+    private static final RedisScript<Long> REMOVE_SCRIPT = new DefaultRedisScript<>("""
+            redis.call('SREM', KEYS[1], ARGV[1])
+            return redis.call('INCR', KEYS[2])
+            """, Long.class);
+
+    private final DeviceTypeRepository deviceTypeRepository;
+    private final StringRedisTemplate redisTemplate;
+
+    @Value("${device-type-registry.key:device-types:ids}")
+    private String idsKey;
+
+    @Value("${device-type-registry.version-key:device-types:version}")
+    private String versionKey;
+
+    @Value("${device-type-registry.channel:device-types:changes}")
+    private String channel;
+
+
+    public DeviceTypeRegistryPublisher(DeviceTypeRepository deviceTypeRepository, StringRedisTemplate redisTemplate) {
+        this.deviceTypeRepository = deviceTypeRepository;
+        this.redisTemplate = redisTemplate;
+    }
+
+
+    /**
+     * Replaces the shared set with the ids in the database. Runs at startup and periodically, repairing changes
+     * which could not be published while Redis was unavailable. The set is only replaced when no change was published
+     * since the ids were read, so a device type added or removed meanwhile is not undone by an outdated snapshot.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${device-type-registry.republish-interval-ms:3600000}",
+            fixedDelayString = "${device-type-registry.republish-interval-ms:3600000}")
+    public void republish() {
+        try {
+            String version = redisTemplate.opsForValue().get(versionKey);
+            List<Long> deviceTypeIds = deviceTypeRepository.findAllDeviceTypeIds();
+            // written under a key of its own and renamed, so readers never see a partial set
+            String temporaryKey = idsKey + ":rebuild:" + UUID.randomUUID();
+            if (!deviceTypeIds.isEmpty()) {
+                redisTemplate.opsForSet().add(temporaryKey, deviceTypeIds.stream().map(String::valueOf).toArray(String[]::new));
+            }
+            Long newVersion = redisTemplate.execute(REPLACE_SCRIPT, List.of(temporaryKey, idsKey, versionKey),
+                    version != null ? version : "");
+            if (newVersion == null) {
+                log.info("Device type registry changed while it was republished, skipped until the next republish");
+                return;
+            }
+            redisTemplate.convertAndSend(channel, String.valueOf(newVersion));
+            log.info("Published device type registry version {} with {} ids", newVersion, deviceTypeIds.size());
+        } catch (RuntimeException e) {
+            log.error("Could not publish device type registry: {}", e.getMessage());
+        }
+    }
+
+    public void added(Long deviceTypeId) {
+        try {
+            publishChange(ADD_SCRIPT, deviceTypeId, "+");
+        } catch (RuntimeException e) {
+            log.error("Could not publish added device type {}: {}", deviceTypeId, e.getMessage());
+        }
+    }
+
+    public void removed(Long deviceTypeId) {
+        try {
+            publishChange(REMOVE_SCRIPT, deviceTypeId, "-");
+        } catch (RuntimeException e) {
+            log.error("Could not publish removed device type {}: {}", deviceTypeId, e.getMessage());
+        }
+    }
+
+
+    private void publishChange(RedisScript<Long> script, Long deviceTypeId, String change) {
+        Long newVersion = redisTemplate.execute(script, List.of(idsKey, versionKey), String.valueOf(deviceTypeId));
+        redisTemplate.convertAndSend(channel, newVersion + ":" + change + deviceTypeId);
+    }
+
+}
@@ -0,0 +1,229 @@
+package com.smart.home.deviceservice.repository;
+
+import com.smart.home.deviceservice.model.Device;
+import com.smart.home.deviceservice.model.DeviceFilter;
+import com.smart.home.deviceservice.model.DeviceGroupCommand;
+import com.smart.home.deviceservice.spatial.DeviceSpatialIndex.LongitudeRange;
+import com.smart.home.deviceservice.spatial.DeviceSpatialIndex.RadiusBounds;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Plain JDBC access for bulk and set-based writes. JPA entities use IDENTITY ids, which prevents Hibernate from batching inserts.
+ */
+@Repository
+@RequiredArgsConstructor
+public class DeviceJdbcRepository {
+
+    private static final String INSERT_DEVICE = "INSERT INTO devices " +
+            "(device_name, device_type_id, latitude, longitude, status, last_updated) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final String SELECT_DEVICES = "SELECT id, device_name, device_type_id, latitude, longitude, status, last_updated " +
+            "FROM devices WHERE 1 = 1";
+
+    private static final String AREA_CONDITION = " AND latitude BETWEEN :minLatitude AND :maxLatitude" +
+            " AND longitude BETWEEN :minLongitude AND :maxLongitude";
+
+    private static final String DISTANCE_KM = "2 * 6371.0088 * ASIN(SQRT(POWER(SIN(RADIANS(latitude - :latitude) / 2), 2)" +
+            " + COS(RADIANS(:latitude)) * COS(RADIANS(latitude)) * POWER(SIN(RADIANS(longitude - :longitude) / 2), 2)))";
+
+    private static final String UPDATE_STATUS = "UPDATE devices SET status = :status, last_updated = :lastUpdated WHERE id IN (:ids)";
+
+    private static final String UPDATE_DEVICE_STATUS = "UPDATE devices SET status = ?, last_updated = ? WHERE id = ?";
+
+    private static final RowMapper<Device> DEVICE_ROW_MAPPER = (rs, rowNum) -> new Device(
+            rs.getLong("id"),
+            rs.getString("device_name"),
+            rs.getLong("device_type_id"),
+            rs.getDouble("latitude"),
+            rs.getDouble("longitude"),
+            rs.getString("status"),
+            rs.getTimestamp("last_updated").toLocalDateTime()
+    );
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+
+    public void batchInsert(List<Device> devices) {
+        jdbcTemplate.getJdbcTemplate().batchUpdate(INSERT_DEVICE, devices, devices.size(), (ps, device) -> {
+            ps.setString(1, device.getDeviceName());
+            ps.setLong(2, device.getDeviceType());
+            ps.setDouble(3, device.getLatitude());
+            ps.setDouble(4, device.getLongitude());
+            ps.setString(5, device.getStatus());
+            ps.setTimestamp(6, Timestamp.valueOf(device.getLastUpdated()));
+        });
+    }
+
+    public List<Device> findDevices(DeviceGroupCommand selection) {
+        StringBuilder sql = new StringBuilder(SELECT_DEVICES);
+        MapSqlParameterSource params = new MapSqlParameterSource();
+
+        if (selection.getDeviceType() != null) {
+            sql.append(" AND device_type_id = :deviceType");
+            params.addValue("deviceType", selection.getDeviceType());
+        }
+        if (selection.getStatus() != null) {
+            sql.append(" AND status = :status");
+            params.addValue("status", selection.getStatus());
+        }
+        if (selection.hasArea()) {
+            sql.append(AREA_CONDITION);
+            addAreaParams(params, selection.getMinLatitude(), selection.getMaxLatitude(),
+                    selection.getMinLongitude(), selection.getMaxLongitude());
+        }
+        sql.append(" ORDER BY id");
+
+        return jdbcTemplate.query(sql.toString(), params, DEVICE_ROW_MAPPER);
+    }
+
+    /**
+     * Finds at most limit devices inside the area, ordered by id.
+     */
+    public List<Device> findDevicesInArea(double minLatitude, double maxLatitude, double minLongitude, double maxLongitude, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource("limit", limit);
+        addAreaParams(params, minLatitude, maxLatitude, minLongitude, maxLongitude);
+        return jdbcTemplate.query(SELECT_DEVICES + AREA_CONDITION + " ORDER BY id LIMIT :limit", params, DEVICE_ROW_MAPPER);
+    }
+
+    /**
+     * Reads devices and locks their rows until the surrounding transaction ends, so their status can be changed
+     * based on what was read. Rows are locked in id order to avoid deadlocks between concurrent callers.
+     */
+    /**
+     * Finds at most limit devices within the radius of the point, nearest first. Only rows inside the bounding box
+     * of the radius are considered.
+     */
+    public List<Device> findDevicesWithinRadius(double latitude, double longitude, double radiusKm, RadiusBounds bounds, int limit) {
+        StringBuilder sql = new StringBuilder(SELECT_DEVICES).append(" AND latitude BETWEEN :minLatitude AND :maxLatitude AND (");
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("minLatitude", bounds.minLatitude())
+                .addValue("maxLatitude", bounds.maxLatitude());
+        List<LongitudeRange> longitudeRanges = bounds.longitudeRanges();
+        for (int i = 0; i < longitudeRanges.size(); i++) {
+            sql.append(i > 0 ? " OR " : "").append("longitude BETWEEN :minLongitude").append(i).append(" AND :maxLongitude").append(i);
+            params.addValue("minLongitude" + i, longitudeRanges.get(i).min());
+            params.addValue("maxLongitude" + i, longitudeRanges.get(i).max());
+        }
+        sql.append(") AND ").append(DISTANCE_KM).append(" <= :radiusKm ORDER BY ").append(DISTANCE_KM).append(", id LIMIT :limit");
+        params.addValue("latitude", latitude)
+                .addValue("longitude", longitude)
+                .addValue("radiusKm", radiusKm)
+                .addValue("limit", limit);
+        return jdbcTemplate.query(sql.toString(), params, DEVICE_ROW_MAPPER);
+    }
+
+    public List<Device> lockByIds(List<Long> deviceIds) {
+        return jdbcTemplate.query(SELECT_DEVICES + " AND id IN (:ids) ORDER BY id FOR UPDATE", new MapSqlParameterSource("ids", deviceIds), DEVICE_ROW_MAPPER);
+    }
+
+    public List<Device> findDevicesAfter(DeviceFilter filter, Long afterId, int limit) {
+        List<Object> args = new ArrayList<>();
+        StringBuilder sql = filteredSelect(filter, args);
+        if (afterId != null) {
+            sql.append(" AND id > ?");
+            args.add(afterId);
+        }
+        sql.append(" ORDER BY id LIMIT ?");
+        args.add(limit);
+
+        return jdbcTemplate.getJdbcTemplate().query(sql.toString(), DEVICE_ROW_MAPPER, args.toArray());
+    }
+
+    /**
+     * Reads devices through a forward-only streaming result set, handing rows to the consumer one at a time
+     * instead of materializing the whole table.
+     */
+    public void streamDevices(DeviceFilter filter, Consumer<Device> consumer) {
+        streamDevices(filter, null, consumer);
+    }
+
+    public void streamDevices(DeviceFilter filter, Long afterId, Consumer<Device> consumer) {
+        List<Object> args = new ArrayList<>();
+        StringBuilder filteredSql = filteredSelect(filter, args);
+        if (afterId != null) {
+            filteredSql.append(" AND id > ?");
+            args.add(afterId);
+        }
+        String sql = filteredSql.append(" ORDER BY id").toString();
+
+        PreparedStatementCreator statementCreator = connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(Integer.MIN_VALUE);
+            for (int i = 0; i < args.size(); i++) {
+                ps.setObject(i + 1, args.get(i));
+            }
+            return ps;
+        };
+        RowCallbackHandler rowHandler = rs -> consumer.accept(DEVICE_ROW_MAPPER.mapRow(rs, 0));
+        jdbcTemplate.getJdbcTemplate().query(statementCreator, rowHandler);
+    }
+
+    public Long findMaxId() {
+        Long maxId = jdbcTemplate.getJdbcTemplate().queryForObject("SELECT MAX(id) FROM devices", Long.class);
+        return maxId != null ? maxId : 0L;
+    }
+
+    public int updateStatus(List<Long> deviceIds, String status, LocalDateTime lastUpdated) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("status", status)
+                .addValue("lastUpdated", Timestamp.valueOf(lastUpdated))
+                .addValue("ids", deviceIds);
+        return jdbcTemplate.update(UPDATE_STATUS, params);
+    }
+
+    /**
+     * Writes status and last update time of every device in one JDBC batch, each device with its own values.
+     */
+    public void batchUpdateStatus(List<Device> devices) {
+        jdbcTemplate.getJdbcTemplate().batchUpdate(UPDATE_DEVICE_STATUS, devices, devices.size(), (ps, device) -> {
+            ps.setString(1, device.getStatus());
+            ps.setTimestamp(2, Timestamp.valueOf(device.getLastUpdated()));
+            ps.setLong(3, device.getDeviceId());
+        });
+    }
+
+
+    private void addAreaParams(MapSqlParameterSource params, double minLatitude, double maxLatitude,
+                               double minLongitude, double maxLongitude) {
+        params.addValue("minLatitude", minLatitude)
+                .addValue("maxLatitude", maxLatitude)
+                .addValue("minLongitude", minLongitude)
+                .addValue("maxLongitude", maxLongitude);
+    }
+
+    private StringBuilder filteredSelect(DeviceFilter filter, List<Object> args) {
+        StringBuilder sql = new StringBuilder(SELECT_DEVICES);
+        if (filter.getDeviceType() != null) {
+            sql.append(" AND device_type_id = ?");
+            args.add(filter.getDeviceType());
+        }
+        if (filter.getStatus() != null) {
+            sql.append(" AND status = ?");
+            args.add(filter.getStatus());
+        }
+        if (filter.getUpdatedFrom() != null) {
+            sql.append(" AND last_updated >= ?");
+            args.add(Timestamp.valueOf(filter.getUpdatedFrom()));
+        }
+        if (filter.getUpdatedTo() != null) {
+            sql.append(" AND last_updated <= ?");
+            args.add(Timestamp.valueOf(filter.getUpdatedTo()));
+        }
+        return sql;
+    }
+
+}
@@ -0,0 +1,37 @@
+package com.smart.home.deviceservice.repository;
+
+import com.smart.home.deviceservice.model.DeviceStatusChange;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+public class DeviceStatusChangeJdbcRepository {
+
+    private static final String INSERT_STATUS_CHANGE = "INSERT INTO device_status_changes " +
+            "(device_id, old_status, new_status, changed_at, weather_condition, scenario_id) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+
+    public void batchInsert(List<DeviceStatusChange> statusChanges) {
+        jdbcTemplate.batchUpdate(INSERT_STATUS_CHANGE, statusChanges, statusChanges.size(), (ps, statusChange) -> {
+            ps.setLong(1, statusChange.getDevice());
+            ps.setString(2, statusChange.getOldStatus());
+            ps.setString(3, statusChange.getNewStatus());
+            ps.setTimestamp(4, Timestamp.valueOf(statusChange.getChangedAt()));
+            ps.setString(5, statusChange.getWeatherCondition());
+            if (statusChange.getScenarioId() != null) {
+                ps.setLong(6, statusChange.getScenarioId());
+            } else {
+                ps.setNull(6, Types.BIGINT);
+            }
+        });
+    }
+
+}
@@ -0,0 +1,30 @@
+package com.smart.home.deviceservice.repository;
+
+import com.smart.home.deviceservice.model.DeviceStatusDuration;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+public class DeviceStatusDurationJdbcRepository {
+
+    private static final String ADD_SECONDS = "INSERT INTO device_status_durations (device_id, day, status, seconds) " +
+            "VALUES (?, ?, ?, ?) ON DUPLICATE KEY UPDATE seconds = seconds + VALUES(seconds)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+
+    public void batchAddSeconds(List<DeviceStatusDuration> durations) {
+        jdbcTemplate.batchUpdate(ADD_SECONDS, durations, durations.size(), (ps, duration) -> {
+            ps.setLong(1, duration.getDeviceId());
+            ps.setDate(2, Date.valueOf(duration.getDay()));
+            ps.setString(3, duration.getStatus());
+            ps.setLong(4, duration.getSeconds());
+        });
+    }
+
+}
@@ -0,0 +1,48 @@
+package com.smart.home.deviceservice.repository;
+
+import com.smart.home.deviceservice.model.DeviceStatusDurationTotal;
+import com.smart.home.deviceservice.repository.model.DeviceStatusDurationDAO;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface DeviceStatusDurationRepository extends JpaRepository<DeviceStatusDurationDAO, Long> {
+
+    @Modifying
+    @Query(value = "INSERT INTO device_status_durations (device_id, day, status, seconds) " +
+            "VALUES (:deviceId, :day, :status, :seconds) " +
+            "ON DUPLICATE KEY UPDATE seconds = seconds + VALUES(seconds)", nativeQuery = true)
+    void addSeconds(@Param("deviceId") Long deviceId,
+                    @Param("day") LocalDate day,
+                    @Param("status") String status,
+                    @Param("seconds") long seconds);
+
+    @Query("SELECT d FROM DeviceStatusDurationDAO d " +
+            "WHERE d.day BETWEEN :from AND :to " +
+            "AND (:deviceId IS NULL OR d.deviceId = :deviceId) " +
+            "AND (:status IS NULL OR d.status = :status) " +
+            "ORDER BY d.deviceId, d.day, d.status")
+    List<DeviceStatusDurationDAO> findDailyDurations(@Param("deviceId") Long deviceId,
+                                                     @Param("status") String status,
+                                                     @Param("from") LocalDate from,
+                                                     @Param("to") LocalDate to);
+
+    @Query("SELECT new com.smart.home.deviceservice.model.DeviceStatusDurationTotal(d.deviceId, d.status, SUM(d.seconds)) " +
+            "FROM DeviceStatusDurationDAO d " +
+            "WHERE d.day BETWEEN :from AND :to " +
+            "AND (:deviceId IS NULL OR d.deviceId = :deviceId) " +
+            "AND (:status IS NULL OR d.status = :status) " +
+            "GROUP BY d.deviceId, d.status " +
+            "ORDER BY d.deviceId, d.status")
+    List<DeviceStatusDurationTotal> findTotalDurations(@Param("deviceId") Long deviceId,
+                                                       @Param("status") String status,
+                                                       @Param("from") LocalDate from,
+                                                       @Param("to") LocalDate to);
+
+}
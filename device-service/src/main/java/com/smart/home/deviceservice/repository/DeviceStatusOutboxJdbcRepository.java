@@ -0,0 +1,98 @@
+package com.smart.home.deviceservice.repository;
+
+import com.smart.home.deviceservice.model.DeviceStatusChange;
+import com.smart.home.deviceservice.repository.model.DeviceStatusOutboxDAO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+public class DeviceStatusOutboxJdbcRepository {
+
+    private static final String INSERT_EVENT = "INSERT INTO device_status_outbox " +
+            "(device_id, old_status, new_status, changed_at, weather_condition, scenario_id, created_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String LOCK_UNPUBLISHED = "SELECT id, device_id, old_status, new_status, changed_at, weather_condition, " +
+            "scenario_id, created_at, published_at FROM device_status_outbox WHERE published_at IS NULL " +
+            "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED";
+
+    private static final String MARK_PUBLISHED = "UPDATE device_status_outbox SET published_at = :publishedAt WHERE id IN (:ids)";
+
+    private static final String COUNT_UNPUBLISHED = "SELECT COUNT(*) FROM device_status_outbox WHERE published_at IS NULL";
+
+    private static final String OLDEST_UNPUBLISHED = "SELECT MIN(created_at) FROM device_status_outbox WHERE published_at IS NULL";
+
+    private static final String DELETE_PUBLISHED = "DELETE FROM device_status_outbox WHERE published_at < :publishedBefore LIMIT :limit";
+
+    private static final RowMapper<DeviceStatusOutboxDAO> EVENT_ROW_MAPPER = (rs, rowNum) -> new DeviceStatusOutboxDAO(
+            rs.getLong("id"),
+            rs.getLong("device_id"),
+            rs.getString("old_status"),
+            rs.getString("new_status"),
+            rs.getTimestamp("changed_at").toLocalDateTime(),
+            rs.getString("weather_condition"),
+            rs.getObject("scenario_id", Long.class),
+            rs.getTimestamp("created_at").toLocalDateTime(),
+            null
+    );
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+
+    public void batchInsert(List<DeviceStatusChange> statusChanges, LocalDateTime createdAt) {
+        jdbcTemplate.getJdbcTemplate().batchUpdate(INSERT_EVENT, statusChanges, statusChanges.size(), (ps, statusChange) -> {
+            ps.setLong(1, statusChange.getDevice());
+            ps.setString(2, statusChange.getOldStatus());
+            ps.setString(3, statusChange.getNewStatus());
+            ps.setTimestamp(4, Timestamp.valueOf(statusChange.getChangedAt()));
+            ps.setString(5, statusChange.getWeatherCondition());
+            if (statusChange.getScenarioId() != null) {
+                ps.setLong(6, statusChange.getScenarioId());
+            } else {
+                ps.setNull(6, Types.BIGINT);
+            }
+            ps.setTimestamp(7, Timestamp.valueOf(createdAt));
+        });
+    }
+
+    /**
+     * Locks the oldest unpublished events. Locked rows are skipped by other relays, so several
+     * service instances can relay concurrently without publishing the same rows twice.
+     */
+    public List<DeviceStatusOutboxDAO> lockUnpublished(int limit) {
+        return jdbcTemplate.query(LOCK_UNPUBLISHED, new MapSqlParameterSource("limit", limit), EVENT_ROW_MAPPER);
+    }
+
+    public void markPublished(List<Long> ids, LocalDateTime publishedAt) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("publishedAt", Timestamp.valueOf(publishedAt))
+                .addValue("ids", ids);
+        jdbcTemplate.update(MARK_PUBLISHED, params);
+    }
+
+    public long countUnpublished() {
+        Long count = jdbcTemplate.getJdbcTemplate().queryForObject(COUNT_UNPUBLISHED, Long.class);
+        return count != null ? count : 0;
+    }
+
+    public LocalDateTime findOldestUnpublishedCreatedAt() {
+        Timestamp oldest = jdbcTemplate.getJdbcTemplate().queryForObject(OLDEST_UNPUBLISHED, Timestamp.class);
+        return oldest != null ? oldest.toLocalDateTime() : null;
+    }
+
+    public int deletePublishedBefore(LocalDateTime publishedBefore, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("publishedBefore", Timestamp.valueOf(publishedBefore))
+                .addValue("limit", limit);
+        return jdbcTemplate.update(DELETE_PUBLISHED, params);
+    }
+
+}
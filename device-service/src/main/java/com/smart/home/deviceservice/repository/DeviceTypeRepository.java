@@ -2,8 +2,15 @@ package com.smart.home.deviceservice.repository;
 
 import com.smart.home.deviceservice.repository.model.DeviceTypeDAO;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface DeviceTypeRepository extends JpaRepository<DeviceTypeDAO, Long> {
+
+    @Query("SELECT d.deviceTypeId FROM DeviceTypeDAO d")
+    List<Long> findAllDeviceTypeIds();
+
 }
@@ -45,4 +45,7 @@ public class DeviceStatusChangeDAO {
     @Column(name = "scenario_id")
     private Long scenarioId;
 
+    @Column(name = "coalesced_transitions")
+    private String coalescedTransitions;
+
 }
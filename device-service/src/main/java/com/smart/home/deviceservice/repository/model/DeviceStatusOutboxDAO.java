@@ -0,0 +1,56 @@
+package com.smart.home.deviceservice.repository.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Device status change waiting to be published to the Redis stream. Written and read with JDBC,
+ * see {@link com.smart.home.deviceservice.repository.DeviceStatusOutboxJdbcRepository}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "device_status_outbox", indexes = @Index(name = "idx_device_status_outbox_published_at", columnList = "published_at"))
+public class DeviceStatusOutboxDAO {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "device_id", nullable = false)
+    private Long deviceId;
+
+    @Column(name = "old_status")
+    private String oldStatus;
+
+    @Column(name = "new_status")
+    private String newStatus;
+
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt;
+
+    @Column(name = "weather_condition")
+    private String weatherCondition;
+
+    @Column(name = "scenario_id")
+    private Long scenarioId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "published_at")
+    private LocalDateTime publishedAt;
+
+}
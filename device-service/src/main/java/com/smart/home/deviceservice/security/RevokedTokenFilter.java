@@ -0,0 +1,170 @@
+package com.smart.home.deviceservice.security;
+
+import com.smart.home.deviceservice.client.AuthClient;
+import io.jsonwebtoken.Claims;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * In-memory copy of the revoked token Bloom filter which user-service publishes to Redis. Additions announced on the
+ * change channel are applied directly, missed versions and rebuilds reload the bitmap, and the version is polled as
+ * a fallback for lost messages. Until a filter is loaded every token counts as possibly revoked, so requests fall
+ * back to asking user-service.
+ */
+@Log4j2
+@Component
+public class RevokedTokenFilter implements MessageListener {
+
+    private static final String USER_ID_CLAIM = "uid";
+    private static final String TOKEN_EPOCH_CLAIM = "epoch";
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisConnectionFactory connectionFactory;
+    private final AuthClient authClient;
+    private final int bitCount;
+    private final int hashCount;
+
+    @Value("${auth.revocation-filter.key:auth:revoked-tokens}")
+    private String filterKey;
+
+    @Value("${auth.revocation-filter.version-key:auth:revoked-tokens:version}")
+    private String versionKey;
+
+    @Value("${auth.revocation-filter.channel:auth:revoked-tokens:changes}")
+    private String channel;
+
+    private volatile BloomFilter filter;
+    private volatile long version = -1;
+    private RedisMessageListenerContainer container;
+
+
+    public RevokedTokenFilter(StringRedisTemplate redisTemplate, RedisConnectionFactory connectionFactory, AuthClient authClient,
+                              @Value("${auth.revocation-filter.bits:8388608}") int bitCount,
+                              @Value("${auth.revocation-filter.hashes:7}") int hashCount) {
+        this.redisTemplate = redisTemplate;
+        this.connectionFactory = connectionFactory;
+        this.authClient = authClient;
+        this.bitCount = bitCount;
+        this.hashCount = hashCount;
+    }
+
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(this, new ChannelTopic(channel));
+        container.afterPropertiesSet();
+        try {
+            container.start();
+            log.info("Listening to token revocations on channel '{}'", channel);
+        } catch (RuntimeException e) {
+            log.error("Could not subscribe to token revocations on channel '{}': {}", channel, e.getMessage());
+        }
+        reload();
+    }
+
+    @PreDestroy
+    public void stop() throws Exception {
+        if (container != null) {
+            container.destroy();
+        }
+    }
+
+    /**
+     * False means the token has certainly not been revoked, neither by its id nor by a credential change of its user.
+     */
+    public boolean mightBeRevoked(Claims claims) {
+        BloomFilter current = filter;
+        if (current == null || claims.getId() == null) {
+            return true;
+        }
+        return revocationEntries(claims).stream().anyMatch(current::mightContain);
+    }
+
+    /**
+     * Entries whose revocation revokes the token: its id and, for tokens of a known user, the token epoch of that user.
+     */
+    public static List<String> revocationEntries(Claims claims) {
+        List<String> entries = new ArrayList<>();
+        if (claims.getId() != null) {
+            entries.add(claims.getId());
+        }
+        Long userId = claims.get(USER_ID_CLAIM, Long.class);
+        if (userId != null) {
+            Long tokenEpoch = claims.get(TOKEN_EPOCH_CLAIM, Long.class);
+            entries.add("epoch:" + userId + ":" + (tokenEpoch != null ? tokenEpoch : 0L));
+        }
+        return entries;
+    }
+
+    @Scheduled(initialDelayString = "${auth.revocation-filter.refresh-interval-ms:30000}",
+            fixedDelayString = "${auth.revocation-filter.refresh-interval-ms:30000}")
+    public void refresh() {
+        try {
+            String storedVersion = redisTemplate.opsForValue().get(versionKey);
+            if (storedVersion != null && Long.parseLong(storedVersion) != version) {
+                reload();
+            }
+        } catch (RuntimeException e) {
+            log.error("Could not check revocation filter version: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.indexOf(':');
+        BloomFilter current = filter;
+        try {
+            long messageVersion = Long.parseLong(separator < 0 ? body : body.substring(0, separator));
+            if (messageVersion <= version) {
+                return;
+            }
+            if (separator > 0 && current != null && messageVersion == version + 1) {
+                String revocationEntry = body.substring(separator + 1);
+                current.add(revocationEntry);
+                version = messageVersion;
+                // validations cached before the revocation must not be served for it
+                authClient.invalidateCachedValidations(revocationEntry);
+            } else {
+                reload();
+            }
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring malformed revocation message '{}'", body);
+        }
+    }
+
+
+    private synchronized void reload() {
+        try {
+            // the version is read first, so the bitmap is at least as new as the version it is stored with
+            String storedVersion = redisTemplate.opsForValue().get(versionKey);
+            byte[] bits = redisTemplate.execute((RedisCallback<byte[]>) connection ->
+                    connection.stringCommands().get(filterKey.getBytes(StandardCharsets.UTF_8)));
+            filter = BloomFilter.fromBytes(bits, bitCount, hashCount);
+            version = storedVersion != null ? Long.parseLong(storedVersion) : 0L;
+            authClient.invalidateCachedValidations();
+            log.info("Loaded revocation filter version {}", version);
+        } catch (RuntimeException e) {
+            log.error("Could not load revocation filter: {}", e.getMessage());
+        }
+    }
+
+}
@@ -0,0 +1,10 @@
+package com.smart.home.deviceservice.service;
+
+import com.smart.home.deviceservice.model.DeviceGroupCommand;
+import com.smart.home.deviceservice.model.DeviceGroupCommandResult;
+
+public interface DeviceGroupCommandService {
+
+    DeviceGroupCommandResult changeDeviceGroupStatus(DeviceGroupCommand command, String weatherCondition);
+
+}
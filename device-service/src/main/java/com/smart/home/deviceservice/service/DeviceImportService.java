@@ -0,0 +1,12 @@
+package com.smart.home.deviceservice.service;
+
+import com.smart.home.deviceservice.model.DeviceImportFormat;
+import com.smart.home.deviceservice.model.DeviceImportReport;
+
+import java.io.InputStream;
+
+public interface DeviceImportService {
+
+    DeviceImportReport importDevices(InputStream inputStream, DeviceImportFormat format);
+
+}
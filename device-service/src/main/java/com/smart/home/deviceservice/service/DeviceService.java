@@ -1,8 +1,11 @@
 package com.smart.home.deviceservice.service;
 
 import com.smart.home.deviceservice.model.Device;
+import com.smart.home.deviceservice.model.DeviceFilter;
+import com.smart.home.deviceservice.model.DevicePage;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface DeviceService {
 
@@ -16,4 +19,12 @@ public interface DeviceService {
 
     List<Device> getAllDevices();
 
+    DevicePage getDevicePage(DeviceFilter filter, Long after, int limit);
+
+    void streamDevices(DeviceFilter filter, Consumer<Device> consumer);
+
+    List<Device> getDevicesWithinRadius(double latitude, double longitude, double radiusKm, int limit);
+
+    List<Device> getDevicesInArea(double minLatitude, double maxLatitude, double minLongitude, double maxLongitude, int limit);
+
 }
@@ -0,0 +1,14 @@
+package com.smart.home.deviceservice.service;
+
+import com.smart.home.deviceservice.model.DeviceStateReport;
+import com.smart.home.deviceservice.model.DeviceStateReportResult;
+
+import java.util.List;
+
+public interface DeviceStateReportService {
+
+    DeviceStateReportResult acceptReports(List<DeviceStateReport> reports);
+
+    int flushReports();
+
+}
@@ -0,0 +1,9 @@
+package com.smart.home.deviceservice.service;
+
+import com.smart.home.deviceservice.model.DeviceStatusChange;
+
+public interface DeviceStatusChangeIdempotencyService {
+
+    DeviceStatusChange changeDeviceStatus(String idempotencyKey, Long deviceId, String newStatus, String weatherCondition);
+
+}
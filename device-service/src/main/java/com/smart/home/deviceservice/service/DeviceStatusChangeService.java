@@ -2,8 +2,12 @@ package com.smart.home.deviceservice.service;
 
 import com.smart.home.deviceservice.model.DeviceStatusChange;
 
+import java.util.List;
+
 public interface DeviceStatusChangeService {
 
     DeviceStatusChange changeDeviceStatus(Long deviceId, String newStatus, String weatherCondition, Long scenarioId);
 
+    DeviceStatusChange changeDeviceStatusCoalesced(Long deviceId, List<String> requestedStatuses, String weatherCondition, Long scenarioId);
+
 }
@@ -0,0 +1,21 @@
+package com.smart.home.deviceservice.service;
+
+import com.smart.home.deviceservice.model.DeviceStatusDuration;
+import com.smart.home.deviceservice.model.DeviceStatusDurationTotal;
+import com.smart.home.deviceservice.model.DeviceStatusPeriod;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface DeviceStatusDurationService {
+
+    void recordStatusDuration(Long deviceId, String status, LocalDateTime from, LocalDateTime to);
+
+    void recordStatusDurations(List<DeviceStatusPeriod> periods);
+
+    List<DeviceStatusDuration> getDailyDurations(Long deviceId, String status, LocalDate from, LocalDate to);
+
+    List<DeviceStatusDurationTotal> getTotalDurations(Long deviceId, String status, LocalDate from, LocalDate to);
+
+}
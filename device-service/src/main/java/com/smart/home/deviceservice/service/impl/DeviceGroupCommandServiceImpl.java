@@ -0,0 +1,143 @@
+package com.smart.home.deviceservice.service.impl;
+
+import com.smart.home.deviceservice.handler.BadRequestException;
+import com.smart.home.deviceservice.model.Device;
+import com.smart.home.deviceservice.model.DeviceCommandFailure;
+import com.smart.home.deviceservice.model.DeviceGroupCommand;
+import com.smart.home.deviceservice.model.DeviceGroupCommandResult;
+import com.smart.home.deviceservice.model.DeviceStatusChange;
+import com.smart.home.deviceservice.model.DeviceStatusPeriod;
+import com.smart.home.deviceservice.repository.DeviceJdbcRepository;
+import com.smart.home.deviceservice.repository.DeviceStatusChangeJdbcRepository;
+import com.smart.home.deviceservice.repository.DeviceStatusOutboxJdbcRepository;
+import com.smart.home.deviceservice.service.DeviceGroupCommandService;
+import com.smart.home.deviceservice.service.DeviceStatusDurationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Log4j2
+@Service
+@RequiredArgsConstructor
+public class DeviceGroupCommandServiceImpl implements DeviceGroupCommandService {
+
+    private final DeviceJdbcRepository deviceJdbcRepository;
+    private final DeviceStatusChangeJdbcRepository statusChangeJdbcRepository;
+    private final DeviceStatusOutboxJdbcRepository statusOutboxRepository;
+    private final DeviceStatusDurationService deviceStatusDurationService;
+    private final TransactionTemplate transactionTemplate;
+    private final CacheManager cacheManager;
+
+    @Value("${device.group-command.batch-size:500}")
+    private int batchSize;
+
+
+    /**
+     * Applies new status to every selected device with one set-based update and one batched history insert per chunk.
+     * Each chunk commits separately, so a failing chunk is reported without rolling back the others. Devices are
+     * selected without locks, so every chunk locks its rows and re-checks them before changing anything.
+     */
+    @Override
+    public DeviceGroupCommandResult changeDeviceGroupStatus(DeviceGroupCommand command, String weatherCondition) {
+        validateSelection(command);
+        log.info("Changing status of device group {} to '{}'", command, command.getNewStatus());
+
+        List<Device> devices = deviceJdbcRepository.findDevices(command);
+        List<Device> devicesToChange = devices.stream()
+                .filter(device -> !device.getStatus().equals(command.getNewStatus()))
+                .collect(Collectors.toList());
+
+        DeviceGroupCommandResult result = new DeviceGroupCommandResult();
+        result.setMatchedDevices(devices.size());
+        result.setUnchangedDevices(devices.size() - devicesToChange.size());
+
+        for (int from = 0; from < devicesToChange.size(); from += batchSize) {
+            List<Device> chunk = devicesToChange.subList(from, Math.min(from + batchSize, devicesToChange.size()));
+            try {
+                List<Device> changedDevices = transactionTemplate.execute(status -> changeChunkStatus(chunk, command, weatherCondition));
+                int changed = changedDevices != null ? changedDevices.size() : 0;
+                result.setChangedDevices(result.getChangedDevices() + changed);
+                result.setUnchangedDevices(result.getUnchangedDevices() + chunk.size() - changed);
+            } catch (RuntimeException e) {
+                log.error("Error while changing status of {} devices: {}", chunk.size(), e.getMessage());
+                chunk.forEach(device -> result.getFailures().add(new DeviceCommandFailure(device.getDeviceId(), e.getMessage())));
+                result.setFailedDevices(result.getFailedDevices() + chunk.size());
+            } finally {
+                evictDevices(chunk);
+            }
+        }
+
+        log.info("Device group status change finished. Matched: {}, changed: {}, unchanged: {}, failed: {}",
+                result.getMatchedDevices(), result.getChangedDevices(), result.getUnchangedDevices(), result.getFailedDevices());
+        return result;
+    }
+
+
+    private void validateSelection(DeviceGroupCommand command) {
+        if (command.getDeviceType() == null && command.getStatus() == null && !command.hasArea()) {
+            throw new BadRequestException("At least one of device type, status or area must be specified");
+        }
+        if (command.hasArea()) {
+            if (command.getMinLatitude() == null || command.getMaxLatitude() == null
+                    || command.getMinLongitude() == null || command.getMaxLongitude() == null) {
+                throw new BadRequestException("Area must define minLatitude, maxLatitude, minLongitude and maxLongitude");
+            }
+            if (command.getMinLatitude() > command.getMaxLatitude() || command.getMinLongitude() > command.getMaxLongitude()) {
+                throw new BadRequestException("Area minimum coordinates must not exceed maximum coordinates");
+            }
+        }
+    }
+
+    /**
+     * Devices changed, deleted or moved out of the selection since they were selected are skipped.
+     * The status change history is written from the locked rows, so it always holds the status actually replaced.
+     */
+    private List<Device> changeChunkStatus(List<Device> chunk, DeviceGroupCommand command, String weatherCondition) {
+        String newStatus = command.getNewStatus();
+        List<Device> lockedDevices = deviceJdbcRepository.lockByIds(chunk.stream().map(Device::getDeviceId).collect(Collectors.toList()));
+        List<Device> devicesToChange = lockedDevices.stream()
+                .filter(device -> !device.getStatus().equals(newStatus) && matchesSelection(device, command))
+                .collect(Collectors.toList());
+        if (devicesToChange.isEmpty()) {
+            return devicesToChange;
+        }
+
+        LocalDateTime changedAt = LocalDateTime.now();
+        List<Long> deviceIds = devicesToChange.stream().map(Device::getDeviceId).collect(Collectors.toList());
+        deviceJdbcRepository.updateStatus(deviceIds, newStatus, changedAt);
+        List<DeviceStatusChange> statusChanges = devicesToChange.stream()
+                .map(device -> new DeviceStatusChange(null, device.getDeviceId(), device.getStatus(), newStatus,
+                        changedAt, weatherCondition, null, null))
+                .collect(Collectors.toList());
+        statusChangeJdbcRepository.batchInsert(statusChanges);
+        statusOutboxRepository.batchInsert(statusChanges, changedAt);
+        deviceStatusDurationService.recordStatusDurations(devicesToChange.stream()
+                .map(device -> new DeviceStatusPeriod(device.getDeviceId(), device.getStatus(), device.getLastUpdated(), changedAt))
+                .collect(Collectors.toList()));
+        log.debug("Changed status of {} devices to '{}'", devicesToChange.size(), newStatus);
+        return devicesToChange;
+    }
+
+    private boolean matchesSelection(Device device, DeviceGroupCommand command) {
+        return (command.getDeviceType() == null || command.getDeviceType().equals(device.getDeviceType()))
+                && (command.getStatus() == null || command.getStatus().equals(device.getStatus()))
+                && (!command.hasArea() || (device.getLatitude() >= command.getMinLatitude() && device.getLatitude() <= command.getMaxLatitude()
+                && device.getLongitude() >= command.getMinLongitude() && device.getLongitude() <= command.getMaxLongitude()));
+    }
+
+    private void evictDevices(List<Device> devices) {
+        Cache cache = cacheManager.getCache("device");
+        if (cache != null) {
+            devices.forEach(device -> cache.evict(device.getDeviceId()));
+        }
+    }
+
+}
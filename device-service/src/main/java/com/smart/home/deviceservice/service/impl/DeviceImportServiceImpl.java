@@ -0,0 +1,231 @@
+package com.smart.home.deviceservice.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smart.home.deviceservice.handler.BadRequestException;
+import com.smart.home.deviceservice.model.Device;
+import com.smart.home.deviceservice.model.DeviceImportError;
+import com.smart.home.deviceservice.model.DeviceImportFormat;
+import com.smart.home.deviceservice.model.DeviceImportReport;
+import com.smart.home.deviceservice.repository.DeviceJdbcRepository;
+import com.smart.home.deviceservice.repository.DeviceTypeRepository;
+import com.smart.home.deviceservice.repository.model.DeviceTypeDAO;
+import com.smart.home.deviceservice.service.DeviceImportService;
+import com.smart.home.deviceservice.spatial.DeviceSpatialIndexSync;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Log4j2
+@Service
+@RequiredArgsConstructor
+public class DeviceImportServiceImpl implements DeviceImportService {
+
+    private static final String[] CSV_COLUMNS = {"deviceName", "deviceType", "latitude", "longitude", "status"};
+
+    private final DeviceJdbcRepository deviceJdbcRepository;
+    private final DeviceTypeRepository deviceTypeRepository;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final DeviceSpatialIndexSync deviceSpatialIndexSync;
+
+    @Value("${device.import.batch-size:500}")
+    private int batchSize;
+
+    @Value("${device.import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+
+    /**
+     * Reads devices row by row and inserts them in JDBC batches, so the uploaded file is never held in memory.
+     * Invalid rows are reported and skipped; valid rows are imported.
+     */
+    @Override
+    public DeviceImportReport importDevices(InputStream inputStream, DeviceImportFormat format) {
+        log.info("Importing devices from {} stream", format);
+        Set<Long> deviceTypeIds = getDeviceTypeIds();
+        Long lastIdBeforeImport = deviceJdbcRepository.findMaxId();
+        DeviceImportReport report = new DeviceImportReport();
+
+        List<Device> batch = new ArrayList<>(batchSize);
+        List<Long> batchLines = new ArrayList<>(batchSize);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+            long lineNumber = 0;
+            if (format == DeviceImportFormat.CSV) {
+                validateCsvHeader(reader.readLine());
+                lineNumber++;
+            }
+
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                report.setTotalRows(report.getTotalRows() + 1);
+
+                try {
+                    Device device = format == DeviceImportFormat.CSV ? parseCsvRow(line) : parseJsonRow(line);
+                    validateDevice(device, deviceTypeIds);
+                    device.setDeviceId(null);
+                    device.setLastUpdated(LocalDateTime.now());
+                    batch.add(device);
+                    batchLines.add(lineNumber);
+                } catch (IllegalArgumentException | BadRequestException e) {
+                    addError(report, lineNumber, e.getMessage());
+                }
+
+                if (batch.size() >= batchSize) {
+                    flushBatch(batch, batchLines, report);
+                }
+            }
+            flushBatch(batch, batchLines, report);
+        } catch (IOException e) {
+            log.error("Error while reading device import stream: {}", e.getMessage());
+            throw new BadRequestException("Unable to read import data: " + e.getMessage());
+        }
+
+        if (report.getImportedRows() > 0) {
+            deviceSpatialIndexSync.imported(lastIdBeforeImport);
+        }
+        log.info("Device import finished. Rows: {}, imported: {}, failed: {}",
+                report.getTotalRows(), report.getImportedRows(), report.getFailedRows());
+        return report;
+    }
+
+
+    private Set<Long> getDeviceTypeIds() {
+        return deviceTypeRepository.findAll().stream()
+                .map(DeviceTypeDAO::getDeviceTypeId)
+                .collect(Collectors.toSet());
+    }
+
+    private void validateCsvHeader(String header) {
+        if (header == null) {
+            throw new BadRequestException("CSV import must start with header: " + String.join(",", CSV_COLUMNS));
+        }
+        List<String> columns = parseCsvLine(header);
+        if (!columns.equals(List.of(CSV_COLUMNS))) {
+            throw new BadRequestException("Invalid CSV header. Expected: " + String.join(",", CSV_COLUMNS));
+        }
+    }
+
+    private Device parseJsonRow(String line) {
+        try {
+            return objectMapper.readValue(line, Device.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Malformed JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private Device parseCsvRow(String line) {
+        List<String> values = parseCsvLine(line);
+        if (values.size() != CSV_COLUMNS.length) {
+            throw new IllegalArgumentException("Expected " + CSV_COLUMNS.length + " columns but found " + values.size());
+        }
+
+        Device device = new Device();
+        device.setDeviceName(values.get(0));
+        device.setDeviceType(parseNumber(values.get(1), "deviceType", Long::valueOf));
+        device.setLatitude(parseNumber(values.get(2), "latitude", Double::valueOf));
+        device.setLongitude(parseNumber(values.get(3), "longitude", Double::valueOf));
+        device.setStatus(values.get(4));
+        return device;
+    }
+
+    private <T> T parseNumber(String value, String column, Function<String, T> parser) {
+        if (value.isEmpty()) {
+            return null;
+        }
+        try {
+            return parser.apply(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(column + ": invalid number '" + value + "'");
+        }
+    }
+
+    private List<String> parseCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString().trim());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString().trim());
+        return values;
+    }
+
+    private void validateDevice(Device device, Set<Long> deviceTypeIds) {
+        Set<ConstraintViolation<Device>> violations = validator.validate(device);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+        }
+        if (!deviceTypeIds.contains(device.getDeviceType())) {
+            throw new IllegalArgumentException("Device type not found with id: " + device.getDeviceType());
+        }
+    }
+
+    private void flushBatch(List<Device> batch, List<Long> batchLines, DeviceImportReport report) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            deviceJdbcRepository.batchInsert(batch);
+            report.setImportedRows(report.getImportedRows() + batch.size());
+            log.debug("Inserted batch of {} devices", batch.size());
+        } catch (DataAccessException e) {
+            log.error("Error while inserting batch of {} devices: {}", batch.size(), e.getMessage());
+            for (Long line : batchLines) {
+                addError(report, line, "Batch insert failed: " + e.getMostSpecificCause().getMessage());
+            }
+        }
+        batch.clear();
+        batchLines.clear();
+    }
+
+    private void addError(DeviceImportReport report, long line, String message) {
+        report.setFailedRows(report.getFailedRows() + 1);
+        if (report.getErrors().size() < maxReportedErrors) {
+            report.getErrors().add(new DeviceImportError(line, message));
+        }
+    }
+
+}
@@ -3,12 +3,21 @@ package com.smart.home.deviceservice.service.impl;
 import com.smart.home.deviceservice.handler.BadRequestException;
 import com.smart.home.deviceservice.mapper.DeviceMapper;
 import com.smart.home.deviceservice.model.Device;
+import com.smart.home.deviceservice.model.DeviceFilter;
+import com.smart.home.deviceservice.model.DevicePage;
+import com.smart.home.deviceservice.repository.DeviceJdbcRepository;
 import com.smart.home.deviceservice.repository.DeviceRepository;
 import com.smart.home.deviceservice.repository.model.DeviceDAO;
 import com.smart.home.deviceservice.service.DeviceService;
+import com.smart.home.deviceservice.service.DeviceStatusDurationService;
+import com.smart.home.deviceservice.spatial.DeviceSpatialIndex;
+import com.smart.home.deviceservice.spatial.DeviceSpatialIndexSync;
+import com.smart.home.deviceservice.swagger.DescriptionVariables;
+import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
@@ -16,7 +25,11 @@ import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Log4j2
@@ -26,6 +39,13 @@ public class DeviceServiceImpl implements DeviceService {
 
     private final DeviceRepository deviceRepository;
     private final DeviceMapper deviceMapper;
+    private final DeviceJdbcRepository deviceJdbcRepository;
+    private final DeviceSpatialIndex deviceSpatialIndex;
+    private final DeviceSpatialIndexSync deviceSpatialIndexSync;
+    private final DeviceStatusDurationService deviceStatusDurationService;
+
+    @Value("${device.page.max-limit:1000}")
+    private int maxPageLimit;
 
 
     @Override
@@ -34,20 +54,28 @@ public class DeviceServiceImpl implements DeviceService {
         DeviceDAO deviceDAO = deviceMapper.deviceToDeviceDAO(device);
         deviceDAO.setLastUpdated(LocalDateTime.now());
         DeviceDAO addedDeviceDAO = saveDeviceDAO(deviceDAO, "adding");
+        indexDeviceLocation(addedDeviceDAO);
         log.info("Device added: {}", addedDeviceDAO);
         return deviceMapper.deviceDAOToDevice(addedDeviceDAO);
     }
 
+    /**
+     * Every update moves the last update time, so the time spent in the stored status up to now is rolled up first.
+     */
     @Override
+    @Transactional
     @CacheEvict(value = "device", key = "#deviceId")
     public Device updateDeviceById(Long deviceId, Device deviceUpdate) {
         log.debug("Updating device with id: {}", deviceId);
         DeviceDAO existingDeviceDAO = getDeviceDAOById(deviceId);
+        LocalDateTime updatedAt = LocalDateTime.now();
+        deviceStatusDurationService.recordStatusDuration(deviceId, existingDeviceDAO.getStatus(), existingDeviceDAO.getLastUpdated(), updatedAt);
         deviceUpdate.setDeviceId(deviceId);
-        deviceUpdate.setLastUpdated(LocalDateTime.now());
+        deviceUpdate.setLastUpdated(updatedAt);
         existingDeviceDAO = deviceMapper.deviceToDeviceDAO(deviceUpdate);
 
         DeviceDAO updatedDeviceDAO = saveDeviceDAO(existingDeviceDAO, "updating");
+        indexDeviceLocation(updatedDeviceDAO);
         log.info("Device updated: {}", updatedDeviceDAO);
         return deviceMapper.deviceDAOToDevice(updatedDeviceDAO);
     }
@@ -59,6 +87,7 @@ public class DeviceServiceImpl implements DeviceService {
         DeviceDAO deviceDAO = getDeviceDAOById(deviceId);
 
         deviceRepository.delete(deviceDAO);
+        deviceSpatialIndexSync.removed(deviceId);
         log.info("Device with id {} deleted successfully.", deviceId);
     }
 
@@ -83,6 +112,106 @@ public class DeviceServiceImpl implements DeviceService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public DevicePage getDevicePage(DeviceFilter filter, Long after, int limit) {
+        validateLimit(limit);
+
+        List<Device> devices = deviceJdbcRepository.findDevicesAfter(filter, after, limit + 1);
+        Long nextCursor = null;
+        if (devices.size() > limit) {
+            devices = devices.subList(0, limit);
+            nextCursor = devices.get(limit - 1).getDeviceId();
+        }
+        log.info("Getting device page after {}. Size is: {}", after, devices.size());
+        return new DevicePage(devices, nextCursor);
+    }
+
+    @Override
+    public void streamDevices(DeviceFilter filter, Consumer<Device> consumer) {
+        log.info("Streaming devices with filter: {}", filter);
+        deviceJdbcRepository.streamDevices(filter, consumer);
+    }
+
+    @Override
+    public List<Device> getDevicesWithinRadius(double latitude, double longitude, double radiusKm, int limit) {
+        validateLimit(limit);
+        validateCoordinates(latitude, longitude);
+        if (radiusKm <= 0) {
+            log.error("Invalid radius: {}", radiusKm);
+            throw new BadRequestException("Radius must be greater than 0");
+        }
+
+        if (!deviceSpatialIndex.isLoaded()) {
+            return findDevicesWithinRadius(latitude, longitude, radiusKm, limit);
+        }
+        List<Long> deviceIds = deviceSpatialIndex.findWithinRadius(latitude, longitude, radiusKm);
+        log.info("Found {} devices within {} km of {}, {}", deviceIds.size(), radiusKm, latitude, longitude);
+        return getDevicesInOrder(deviceIds.subList(0, Math.min(limit, deviceIds.size())));
+    }
+
+    @Override
+    public List<Device> getDevicesInArea(double minLatitude, double maxLatitude, double minLongitude, double maxLongitude, int limit) {
+        validateLimit(limit);
+        validateCoordinates(minLatitude, minLongitude);
+        validateCoordinates(maxLatitude, maxLongitude);
+        if (minLatitude > maxLatitude || minLongitude > maxLongitude) {
+            log.error("Invalid area: {}, {} - {}, {}", minLatitude, minLongitude, maxLatitude, maxLongitude);
+            throw new BadRequestException("Area minimum coordinates must not exceed maximum coordinates");
+        }
+
+        if (!deviceSpatialIndex.isLoaded()) {
+            List<Device> devices = deviceJdbcRepository.findDevicesInArea(minLatitude, maxLatitude, minLongitude, maxLongitude, limit);
+            log.info("Found {} devices in area {}, {} - {}, {} in database", devices.size(), minLatitude, minLongitude, maxLatitude, maxLongitude);
+            return devices;
+        }
+        List<Long> deviceIds = deviceSpatialIndex.findInArea(minLatitude, maxLatitude, minLongitude, maxLongitude);
+        log.info("Found {} devices in area {}, {} - {}, {}", deviceIds.size(), minLatitude, minLongitude, maxLatitude, maxLongitude);
+        return getDevicesInOrder(deviceIds.subList(0, Math.min(limit, deviceIds.size())));
+    }
+
+
+    /**
+     * Used while the spatial index is not loaded.
+     */
+    private List<Device> findDevicesWithinRadius(double latitude, double longitude, double radiusKm, int limit) {
+        List<Device> devices = deviceJdbcRepository.findDevicesWithinRadius(latitude, longitude, radiusKm,
+                DeviceSpatialIndex.RadiusBounds.of(latitude, longitude, radiusKm), limit);
+        log.info("Found {} devices within {} km of {}, {} in database", devices.size(), radiusKm, latitude, longitude);
+        return devices;
+    }
+
+    private List<Device> getDevicesInOrder(List<Long> deviceIds) {
+        Map<Long, Integer> positions = new HashMap<>();
+        for (int i = 0; i < deviceIds.size(); i++) {
+            positions.put(deviceIds.get(i), i);
+        }
+        return deviceRepository.findAllById(deviceIds).stream()
+                .sorted(Comparator.comparing(deviceDAO -> positions.get(deviceDAO.getDeviceId())))
+                .map(deviceMapper::deviceDAOToDevice)
+                .collect(Collectors.toList());
+    }
+
+    private void validateLimit(int limit) {
+        if (limit < 1 || limit > maxPageLimit) {
+            log.error("Invalid limit: {}", limit);
+            throw new BadRequestException("Limit must be between 1 and " + maxPageLimit);
+        }
+    }
+
+    private void validateCoordinates(double latitude, double longitude) {
+        if (latitude < -90 || latitude > 90) {
+            throw new BadRequestException(DescriptionVariables.LATITUDE_RANGE);
+        }
+        if (longitude < -180 || longitude > 180) {
+            throw new BadRequestException(DescriptionVariables.LONGITUDE_RANGE);
+        }
+    }
+
+    private void indexDeviceLocation(DeviceDAO deviceDAO) {
+        if (deviceDAO.getDeviceId() != null && deviceDAO.getLatitude() != null && deviceDAO.getLongitude() != null) {
+            deviceSpatialIndexSync.moved(deviceDAO.getDeviceId(), deviceDAO.getLatitude(), deviceDAO.getLongitude());
+        }
+    }
 
     private DeviceDAO getDeviceDAOById(Long id) {
         return deviceRepository.findById(id)
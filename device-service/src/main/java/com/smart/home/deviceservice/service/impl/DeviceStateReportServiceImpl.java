@@ -0,0 +1,289 @@
+package com.smart.home.deviceservice.service.impl;
+
+import com.smart.home.deviceservice.handler.BadRequestException;
+import com.smart.home.deviceservice.handler.TooManyRequestsException;
+import com.smart.home.deviceservice.model.Device;
+import com.smart.home.deviceservice.model.DeviceStateReport;
+import com.smart.home.deviceservice.model.DeviceStateReportResult;
+import com.smart.home.deviceservice.model.DeviceStatusChange;
+import com.smart.home.deviceservice.model.DeviceStatusPeriod;
+import com.smart.home.deviceservice.repository.DeviceJdbcRepository;
+import com.smart.home.deviceservice.repository.DeviceStatusChangeJdbcRepository;
+import com.smart.home.deviceservice.repository.DeviceStatusOutboxJdbcRepository;
+import com.smart.home.deviceservice.service.DeviceStateReportService;
+import com.smart.home.deviceservice.service.DeviceStatusDurationService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Buffers device state reports in memory and writes them in batches. The buffer holds the latest report
+ * per device, so devices reporting several times within one flush interval cause a single write.
+ * When the buffer cannot take a batch, the whole batch is rejected and the caller is expected to retry.
+ * A chunk that fails to write is retried report by report, and a report that keeps failing is dropped
+ * after a limited number of flushes so it cannot hold back the other devices.
+ */
+@Log4j2
+@Service
+public class DeviceStateReportServiceImpl implements DeviceStateReportService {
+
+    private static final String WEATHER_CONDITION = "device state report";
+    private static final int MAX_STATUS_LENGTH = 255;
+
+    private final DeviceJdbcRepository deviceJdbcRepository;
+    private final DeviceStatusChangeJdbcRepository statusChangeJdbcRepository;
+    private final DeviceStatusOutboxJdbcRepository statusOutboxRepository;
+    private final DeviceStatusDurationService deviceStatusDurationService;
+    private final TransactionTemplate transactionTemplate;
+    private final CacheManager cacheManager;
+
+    private final Object bufferLock = new Object();
+    private LinkedHashMap<Long, DeviceStateReport> buffer = new LinkedHashMap<>();
+    private Map<Long, Integer> failedAttempts = new HashMap<>();
+
+    private final Counter coalescedReports;
+    private final Counter rejectedReports;
+    private final Counter droppedReports;
+    private final Counter writtenChanges;
+
+    @Value("${device.state-report.buffer-size:10000}")
+    private int bufferSize;
+
+    @Value("${device.state-report.batch-size:500}")
+    private int batchSize;
+
+    @Value("${device.state-report.max-attempts:3}")
+    private int maxAttempts;
+
+
+    public DeviceStateReportServiceImpl(DeviceJdbcRepository deviceJdbcRepository, DeviceStatusChangeJdbcRepository statusChangeJdbcRepository,
+                                        DeviceStatusOutboxJdbcRepository statusOutboxRepository, DeviceStatusDurationService deviceStatusDurationService,
+                                        TransactionTemplate transactionTemplate, CacheManager cacheManager, MeterRegistry meterRegistry) {
+        this.deviceJdbcRepository = deviceJdbcRepository;
+        this.statusChangeJdbcRepository = statusChangeJdbcRepository;
+        this.statusOutboxRepository = statusOutboxRepository;
+        this.deviceStatusDurationService = deviceStatusDurationService;
+        this.transactionTemplate = transactionTemplate;
+        this.cacheManager = cacheManager;
+
+        this.coalescedReports = Counter.builder("device.state-report.coalesced")
+                .description("Device state reports replaced by a newer report before being written")
+                .register(meterRegistry);
+        this.rejectedReports = Counter.builder("device.state-report.rejected")
+                .description("Device state reports rejected because the buffer was full")
+                .register(meterRegistry);
+        this.droppedReports = Counter.builder("device.state-report.dropped")
+                .description("Device state reports dropped after failed writes")
+                .register(meterRegistry);
+        this.writtenChanges = Counter.builder("device.state-report.written")
+                .description("Device status changes written from device state reports")
+                .register(meterRegistry);
+        Gauge.builder("device.state-report.pending", this, DeviceStateReportServiceImpl::getPendingDevices)
+                .description("Devices with device state reports waiting to be written")
+                .register(meterRegistry);
+    }
+
+
+    @Override
+    public DeviceStateReportResult acceptReports(List<DeviceStateReport> reports) {
+        validateReports(reports);
+        LocalDateTime receivedAt = LocalDateTime.now();
+
+        synchronized (bufferLock) {
+            long newDevices = reports.stream()
+                    .map(DeviceStateReport::getDeviceId)
+                    .distinct()
+                    .filter(deviceId -> !buffer.containsKey(deviceId))
+                    .count();
+            if (buffer.size() + newDevices > bufferSize) {
+                rejectedReports.increment(reports.size());
+                throw new TooManyRequestsException("Device state report buffer is full, retry later");
+            }
+            reports.forEach(report -> bufferReport(report, receivedAt));
+            return new DeviceStateReportResult(reports.size(), buffer.size());
+        }
+    }
+
+    /**
+     * Writes buffered reports. Reports whose status equals the stored device status, or that are older
+     * than the last stored update, are discarded without a write.
+     */
+    @Scheduled(fixedDelayString = "${device.state-report.flush-interval-ms:500}")
+    @Override
+    public int flushReports() {
+        List<DeviceStateReport> reports;
+        Map<Long, Integer> attempts;
+        synchronized (bufferLock) {
+            if (buffer.isEmpty()) {
+                return 0;
+            }
+            reports = new ArrayList<>(buffer.values());
+            attempts = failedAttempts;
+            buffer = new LinkedHashMap<>();
+            failedAttempts = new HashMap<>();
+        }
+
+        int written = 0;
+        for (int from = 0; from < reports.size(); from += batchSize) {
+            List<DeviceStateReport> chunk = reports.subList(from, Math.min(from + batchSize, reports.size()));
+            try {
+                written += write(chunk);
+            } catch (RuntimeException e) {
+                log.warn("Error while writing {} device state reports, writing them one by one: {}", chunk.size(), e.getMessage());
+                written += writeEach(chunk, attempts);
+            }
+        }
+        writtenChanges.increment(written);
+        log.debug("Flushed {} device state reports, {} status changes written", reports.size(), written);
+        return written;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushReports();
+    }
+
+    public int getPendingDevices() {
+        synchronized (bufferLock) {
+            return buffer.size();
+        }
+    }
+
+
+    private void validateReports(List<DeviceStateReport> reports) {
+        if (reports == null || reports.isEmpty()) {
+            throw new BadRequestException("At least one device state report must be provided");
+        }
+        for (DeviceStateReport report : reports) {
+            if (report.getDeviceId() == null || report.getStatus() == null || report.getStatus().isBlank()) {
+                throw new BadRequestException("Device state report must define deviceId and status");
+            }
+            if (report.getStatus().length() > MAX_STATUS_LENGTH) {
+                throw new BadRequestException("Device state report status must not exceed " + MAX_STATUS_LENGTH + " characters");
+            }
+        }
+    }
+
+    private void bufferReport(DeviceStateReport report, LocalDateTime receivedAt) {
+        LocalDateTime reportedAt = report.getReportedAt() == null || report.getReportedAt().isAfter(receivedAt)
+                ? receivedAt : report.getReportedAt();
+        DeviceStateReport buffered = new DeviceStateReport(report.getDeviceId(), report.getStatus(), reportedAt);
+
+        DeviceStateReport previous = buffer.get(report.getDeviceId());
+        if (previous == null) {
+            buffer.put(report.getDeviceId(), buffered);
+            return;
+        }
+        coalescedReports.increment();
+        if (!reportedAt.isBefore(previous.getReportedAt())) {
+            buffer.put(report.getDeviceId(), buffered);
+        }
+    }
+
+    private int write(List<DeviceStateReport> reports) {
+        List<Device> changedDevices = transactionTemplate.execute(status -> writeChunk(reports));
+        if (changedDevices == null) {
+            return 0;
+        }
+        evictDevices(changedDevices);
+        return changedDevices.size();
+    }
+
+    private int writeEach(List<DeviceStateReport> reports, Map<Long, Integer> attempts) {
+        int written = 0;
+        for (DeviceStateReport report : reports) {
+            try {
+                written += write(List.of(report));
+            } catch (RuntimeException e) {
+                requeue(report, attempts.getOrDefault(report.getDeviceId(), 0) + 1, e);
+            }
+        }
+        return written;
+    }
+
+    /**
+     * Returns a failed report to the buffer unless a newer report of the device is already waiting there.
+     * The report is dropped once it has failed {@code maxAttempts} times or when the buffer is full.
+     */
+    private void requeue(DeviceStateReport report, int attempts, RuntimeException e) {
+        if (attempts >= maxAttempts) {
+            droppedReports.increment();
+            log.error("Dropped state report of device {} after {} failed writes: {}", report.getDeviceId(), attempts, e.getMessage());
+            return;
+        }
+        synchronized (bufferLock) {
+            DeviceStateReport buffered = buffer.get(report.getDeviceId());
+            if (buffered != null && !buffered.getReportedAt().isBefore(report.getReportedAt())) {
+                return;
+            }
+            if (buffered == null && buffer.size() >= bufferSize) {
+                droppedReports.increment();
+                log.error("Dropped state report of device {} because the buffer is full: {}", report.getDeviceId(), e.getMessage());
+                return;
+            }
+            buffer.put(report.getDeviceId(), report);
+            failedAttempts.put(report.getDeviceId(), attempts);
+        }
+    }
+
+    /**
+     * Device rows are locked while reports are compared with them, so a status changed concurrently through
+     * another path is either seen here or waits for this chunk to commit.
+     */
+    private List<Device> writeChunk(List<DeviceStateReport> chunk) {
+        Map<Long, DeviceStateReport> reportsByDevice = chunk.stream()
+                .collect(Collectors.toMap(DeviceStateReport::getDeviceId, report -> report));
+        List<Device> devices = deviceJdbcRepository.lockByIds(new ArrayList<>(reportsByDevice.keySet()));
+
+        List<Device> changedDevices = new ArrayList<>();
+        List<DeviceStatusChange> statusChanges = new ArrayList<>();
+        List<DeviceStatusPeriod> statusPeriods = new ArrayList<>();
+        for (Device device : devices) {
+            DeviceStateReport report = reportsByDevice.get(device.getDeviceId());
+            if (report.getStatus().equals(device.getStatus()) || report.getReportedAt().isBefore(device.getLastUpdated())) {
+                continue;
+            }
+            statusChanges.add(new DeviceStatusChange(null, device.getDeviceId(), device.getStatus(), report.getStatus(),
+                    report.getReportedAt(), WEATHER_CONDITION, null, null));
+            statusPeriods.add(new DeviceStatusPeriod(device.getDeviceId(), device.getStatus(), device.getLastUpdated(), report.getReportedAt()));
+            changedDevices.add(new Device(device.getDeviceId(), device.getDeviceName(), device.getDeviceType(),
+                    device.getLatitude(), device.getLongitude(), report.getStatus(), report.getReportedAt()));
+        }
+        if (devices.size() < reportsByDevice.size()) {
+            log.warn("Discarded state reports of {} unknown devices", reportsByDevice.size() - devices.size());
+        }
+        if (changedDevices.isEmpty()) {
+            return changedDevices;
+        }
+
+        deviceJdbcRepository.batchUpdateStatus(changedDevices);
+        statusChangeJdbcRepository.batchInsert(statusChanges);
+        statusOutboxRepository.batchInsert(statusChanges, LocalDateTime.now());
+        deviceStatusDurationService.recordStatusDurations(statusPeriods);
+        return changedDevices;
+    }
+
+    private void evictDevices(List<Device> devices) {
+        Cache cache = cacheManager.getCache("device");
+        if (cache != null) {
+            devices.forEach(device -> cache.evict(device.getDeviceId()));
+        }
+    }
+
+}
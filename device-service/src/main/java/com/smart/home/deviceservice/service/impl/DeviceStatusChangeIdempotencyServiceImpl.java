@@ -0,0 +1,112 @@
+package com.smart.home.deviceservice.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smart.home.deviceservice.handler.BadRequestException;
+import com.smart.home.deviceservice.handler.TooManyRequestsException;
+import com.smart.home.deviceservice.model.DeviceStatusChange;
+import com.smart.home.deviceservice.service.DeviceStatusChangeIdempotencyService;
+import com.smart.home.deviceservice.service.DeviceStatusChangeService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+
+/**
+ * Remembers the result of a status change under the client supplied idempotency key, so a retried
+ * request gets the original status change back without repeating it. While the first request with a key
+ * is still running, repeated requests are asked to retry. When Redis is unavailable the change is
+ * performed without idempotency.
+ */
+@Log4j2
+@Service
+@RequiredArgsConstructor
+public class DeviceStatusChangeIdempotencyServiceImpl implements DeviceStatusChangeIdempotencyService {
+
+    private static final String KEY_PREFIX = "device:status:idempotency:";
+    private static final String IN_PROGRESS = "IN_PROGRESS";
+
+    private final DeviceStatusChangeService deviceStatusChangeService;
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${device.idempotency.ttl-hours:24}")
+    private long ttlHours;
+
+    @Value("${device.idempotency.in-progress-ttl-seconds:30}")
+    private long inProgressTtlSeconds;
+
+
+    @Override
+    public DeviceStatusChange changeDeviceStatus(String idempotencyKey, Long deviceId, String newStatus, String weatherCondition) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > 255) {
+            throw new BadRequestException("Idempotency-Key must contain 1 to 255 characters");
+        }
+        String key = KEY_PREFIX + idempotencyKey;
+
+        Boolean reserved;
+        try {
+            reserved = redisTemplate.opsForValue().setIfAbsent(key, IN_PROGRESS, Duration.ofSeconds(inProgressTtlSeconds));
+        } catch (DataAccessException e) {
+            log.warn("Idempotency store unavailable, changing device status without idempotency: {}", e.getMessage());
+            return deviceStatusChangeService.changeDeviceStatus(deviceId, newStatus, weatherCondition, null);
+        }
+
+        if (!Boolean.TRUE.equals(reserved)) {
+            return findStoredResult(key, idempotencyKey, deviceId, newStatus);
+        }
+
+        DeviceStatusChange result;
+        try {
+            result = deviceStatusChangeService.changeDeviceStatus(deviceId, newStatus, weatherCondition, null);
+        } catch (RuntimeException e) {
+            release(key);
+            throw e;
+        }
+        storeResult(key, result);
+        return result;
+    }
+
+
+    private DeviceStatusChange findStoredResult(String key, String idempotencyKey, Long deviceId, String newStatus) {
+        String stored = redisTemplate.opsForValue().get(key);
+        if (stored == null || IN_PROGRESS.equals(stored)) {
+            throw new TooManyRequestsException("Request with Idempotency-Key '" + idempotencyKey + "' is still being processed");
+        }
+
+        DeviceStatusChange result;
+        try {
+            result = objectMapper.readValue(stored, DeviceStatusChange.class);
+        } catch (JsonProcessingException e) {
+            log.error("Stored result of Idempotency-Key '{}' could not be read: {}", idempotencyKey, e.getMessage());
+            throw new RuntimeException("Stored result of Idempotency-Key could not be read");
+        }
+        if (!deviceId.equals(result.getDevice()) || !newStatus.equals(result.getNewStatus())) {
+            throw new BadRequestException("Idempotency-Key '" + idempotencyKey + "' was already used for a different request");
+        }
+        log.info("Returning stored status change for Idempotency-Key '{}'", idempotencyKey);
+        return result;
+    }
+
+    private void storeResult(String key, DeviceStatusChange result) {
+        try {
+            redisTemplate.opsForValue().set(key, objectMapper.writeValueAsString(result), Duration.ofHours(ttlHours));
+        } catch (JsonProcessingException | DataAccessException e) {
+            log.error("Result of status change {} could not be stored for idempotency: {}", result.getId(), e.getMessage());
+            release(key);
+        }
+    }
+
+    private void release(String key) {
+        try {
+            redisTemplate.delete(key);
+        } catch (DataAccessException e) {
+            log.warn("Idempotency key {} could not be released: {}", key, e.getMessage());
+        }
+    }
+
+}
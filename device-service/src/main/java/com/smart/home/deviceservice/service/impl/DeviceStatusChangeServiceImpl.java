@@ -5,6 +5,7 @@ import com.smart.home.deviceservice.mapper.DeviceStatusChangeMapper;
 import com.smart.home.deviceservice.model.Device;
 import com.smart.home.deviceservice.model.DeviceStatusChange;
 import com.smart.home.deviceservice.repository.DeviceStatusChangeRepository;
+import com.smart.home.deviceservice.repository.DeviceStatusOutboxJdbcRepository;
 import com.smart.home.deviceservice.repository.model.DeviceStatusChangeDAO;
 import com.smart.home.deviceservice.service.DeviceService;
 import com.smart.home.deviceservice.service.DeviceStatusChangeService;
@@ -14,15 +15,22 @@ import lombok.extern.log4j.Log4j2;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 @Log4j2
 @Service
 @RequiredArgsConstructor
 public class DeviceStatusChangeServiceImpl implements DeviceStatusChangeService {
 
+    private static final String TRANSITION_SEPARATOR = ">";
+    private static final String TRUNCATED_PREFIX = "...";
+    private static final int MAX_TRANSITIONS_LENGTH = 255;
+
     private final DeviceService deviceService;
     private final DeviceStatusChangeRepository statusChangeRepository;
     private final DeviceStatusChangeMapper deviceStatusChangeMapper;
+    private final DeviceStatusOutboxJdbcRepository statusOutboxRepository;
 
 
     @Transactional(rollbackOn = {RuntimeException.class, BadRequestException.class})//TODO check if rollback works
@@ -33,11 +41,46 @@ public class DeviceStatusChangeServiceImpl implements DeviceStatusChangeService
         Device device = getDevice(deviceId);
         validateStatusChange(device.getStatus(), newStatus);
 
+        return applyStatusChange(device, newStatus, weatherCondition, scenarioId, null);
+    }
+
+    /**
+     * Applies the last of several status changes requested for a device within the coalescing window.
+     * The statuses passed through are kept on the saved status change. When the device ends up in the
+     * status it started with, only the status change is saved and the device itself is not updated.
+     */
+    @Transactional(rollbackOn = {RuntimeException.class, BadRequestException.class})
+    @Override
+    public DeviceStatusChange changeDeviceStatusCoalesced(Long deviceId, List<String> requestedStatuses, String weatherCondition, Long scenarioId) {
+        log.debug("Attempting to change status of device with id: {}. Coalesced statuses: {}", deviceId, requestedStatuses);
+
+        Device device = getDevice(deviceId);
+        List<String> transitions = collapseTransitions(device.getStatus(), requestedStatuses);
+        String newStatus = requestedStatuses.get(requestedStatuses.size() - 1);
+        if (transitions.size() == 1) {
+            validateStatusChange(device.getStatus(), newStatus);
+        }
+        String coalescedTransitions = transitions.size() > 2 ? describeTransitions(transitions) : null;
+
+        if (!device.getStatus().equals(newStatus)) {
+            return applyStatusChange(device, newStatus, weatherCondition, scenarioId, coalescedTransitions);
+        }
         DeviceStatusChange statusChange = createDeviceStatusChange(deviceId, device.getStatus(), newStatus, weatherCondition, scenarioId);
+        statusChange.setCoalescedTransitions(coalescedTransitions);
+        log.info("Device status returned to '{}' within coalescing window, no status change saved: {}", newStatus, statusChange);
+        return statusChange;
+    }
+
+    private DeviceStatusChange applyStatusChange(Device device, String newStatus, String weatherCondition, Long scenarioId, String coalescedTransitions) {
+        Long deviceId = device.getDeviceId();
+        String oldStatus = device.getStatus();
+        DeviceStatusChange statusChange = createDeviceStatusChange(deviceId, oldStatus, newStatus, weatherCondition, scenarioId);
+        statusChange.setCoalescedTransitions(coalescedTransitions);
 
         try {
             updateDeviceStatus(device, newStatus);
             DeviceStatusChange result = saveStatusChange(statusChange);
+            statusOutboxRepository.batchInsert(List.of(result), LocalDateTime.now());
             log.info("Device status change saved: {}", result);
             return result;
         } catch (Exception e){
@@ -57,6 +100,9 @@ public class DeviceStatusChangeServiceImpl implements DeviceStatusChangeService
         }
     }
 
+    /**
+     * Time spent in the old status is rolled up by the device update.
+     */
     private void updateDeviceStatus(Device device, String newStatus) {
         device.setStatus(newStatus);
         device.setLastUpdated(LocalDateTime.now());
@@ -64,6 +110,23 @@ public class DeviceStatusChangeServiceImpl implements DeviceStatusChangeService
         log.info("Device status updated. Updated device: {}", device);
     }
 
+    private List<String> collapseTransitions(String currentStatus, List<String> requestedStatuses) {
+        List<String> transitions = new ArrayList<>();
+        transitions.add(currentStatus);
+        requestedStatuses.stream()
+                .filter(status -> !status.equals(transitions.get(transitions.size() - 1)))
+                .forEachOrdered(transitions::add);
+        return transitions;
+    }
+
+    private String describeTransitions(List<String> transitions) {
+        String description = String.join(TRANSITION_SEPARATOR, transitions);
+        if (description.length() <= MAX_TRANSITIONS_LENGTH) {
+            return description;
+        }
+        return TRUNCATED_PREFIX + description.substring(description.length() - MAX_TRANSITIONS_LENGTH + TRUNCATED_PREFIX.length());
+    }
+
     private DeviceStatusChange createDeviceStatusChange(Long deviceId, String oldStatus, String newStatus, String weatherCondition, Long scenarioId) {
         return new DeviceStatusChange(
                 null,
@@ -72,7 +135,8 @@ public class DeviceStatusChangeServiceImpl implements DeviceStatusChangeService
                 newStatus,
                 LocalDateTime.now(),
                 weatherCondition,
-                scenarioId
+                scenarioId,
+                null
         );
     }
 
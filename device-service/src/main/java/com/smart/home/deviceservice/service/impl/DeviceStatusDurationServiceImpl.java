@@ -0,0 +1,111 @@
+package com.smart.home.deviceservice.service.impl;
+
+import com.smart.home.deviceservice.handler.BadRequestException;
+import com.smart.home.deviceservice.mapper.DeviceStatusDurationMapper;
+import com.smart.home.deviceservice.model.DeviceStatusDuration;
+import com.smart.home.deviceservice.model.DeviceStatusDurationTotal;
+import com.smart.home.deviceservice.model.DeviceStatusPeriod;
+import com.smart.home.deviceservice.repository.DeviceStatusDurationJdbcRepository;
+import com.smart.home.deviceservice.repository.DeviceStatusDurationRepository;
+import com.smart.home.deviceservice.service.DeviceStatusDurationService;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Log4j2
+@Service
+@RequiredArgsConstructor
+public class DeviceStatusDurationServiceImpl implements DeviceStatusDurationService {
+
+    private final DeviceStatusDurationRepository durationRepository;
+    private final DeviceStatusDurationJdbcRepository durationJdbcRepository;
+    private final DeviceStatusDurationMapper durationMapper;
+
+
+    /**
+     * Adds the time a device spent in a status to the daily rollup. Intervals crossing midnight are split,
+     * so every day gets its own share of seconds. Callers record the time from the device's last update,
+     * which marks how far its current status has been rolled up, every time they move that update time.
+     */
+    @Transactional
+    @Override
+    public void recordStatusDuration(Long deviceId, String status, LocalDateTime from, LocalDateTime to) {
+        for (DeviceStatusDuration duration : splitByDay(new DeviceStatusPeriod(deviceId, status, from, to))) {
+            durationRepository.addSeconds(deviceId, duration.getDay(), status, duration.getSeconds());
+            log.debug("Added {} seconds in status '{}' for device {} on {}", duration.getSeconds(), status, deviceId, duration.getDay());
+        }
+    }
+
+    /**
+     * Adds the time of several devices to the daily rollup with one batched upsert.
+     */
+    @Transactional
+    @Override
+    public void recordStatusDurations(List<DeviceStatusPeriod> periods) {
+        List<DeviceStatusDuration> durations = new ArrayList<>();
+        periods.forEach(period -> durations.addAll(splitByDay(period)));
+        if (!durations.isEmpty()) {
+            durationJdbcRepository.batchAddSeconds(durations);
+            log.debug("Added {} daily status durations of {} devices", durations.size(), periods.size());
+        }
+    }
+
+    @Override
+    public List<DeviceStatusDuration> getDailyDurations(Long deviceId, String status, LocalDate from, LocalDate to) {
+        validatePeriod(from, to);
+        List<DeviceStatusDuration> durations = durationRepository.findDailyDurations(deviceId, status, from, to).stream()
+                .map(durationMapper::deviceStatusDurationDAOToDeviceStatusDuration)
+                .collect(Collectors.toList());
+        log.info("Getting daily status durations from {} to {}. Size is: {}", from, to, durations.size());
+        return durations;
+    }
+
+    @Override
+    public List<DeviceStatusDurationTotal> getTotalDurations(Long deviceId, String status, LocalDate from, LocalDate to) {
+        validatePeriod(from, to);
+        List<DeviceStatusDurationTotal> totals = durationRepository.findTotalDurations(deviceId, status, from, to);
+        log.info("Getting total status durations from {} to {}. Size is: {}", from, to, totals.size());
+        return totals;
+    }
+
+
+    private List<DeviceStatusDuration> splitByDay(DeviceStatusPeriod period) {
+        List<DeviceStatusDuration> durations = new ArrayList<>();
+        LocalDateTime from = period.getFrom();
+        LocalDateTime to = period.getTo();
+        if (from == null || to == null || !from.isBefore(to)) {
+            log.debug("Skipping status duration of device {} in status '{}': empty interval {} - {}", period.getDeviceId(), period.getStatus(), from, to);
+            return durations;
+        }
+
+        LocalDateTime periodStart = from;
+        while (periodStart.isBefore(to)) {
+            LocalDate day = periodStart.toLocalDate();
+            LocalDateTime nextDayStart = day.plusDays(1).atStartOfDay();
+            LocalDateTime periodEnd = nextDayStart.isBefore(to) ? nextDayStart : to;
+
+            long seconds = Duration.between(periodStart, periodEnd).getSeconds();
+            if (seconds > 0) {
+                durations.add(new DeviceStatusDuration(period.getDeviceId(), day, period.getStatus(), seconds));
+            }
+            periodStart = periodEnd;
+        }
+        return durations;
+    }
+
+    private void validatePeriod(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            log.error("Invalid period: {} is after {}", from, to);
+            throw new BadRequestException("Start date must not be after end date");
+        }
+    }
+
+}
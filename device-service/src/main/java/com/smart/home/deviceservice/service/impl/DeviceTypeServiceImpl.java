@@ -3,6 +3,7 @@ package com.smart.home.deviceservice.service.impl;
 import com.smart.home.deviceservice.handler.BadRequestException;
 import com.smart.home.deviceservice.mapper.DeviceTypeMapper;
 import com.smart.home.deviceservice.model.DeviceType;
+import com.smart.home.deviceservice.registry.DeviceTypeRegistryPublisher;
 import com.smart.home.deviceservice.repository.DeviceTypeRepository;
 import com.smart.home.deviceservice.repository.model.DeviceTypeDAO;
 import com.smart.home.deviceservice.service.DeviceTypeService;
@@ -24,6 +25,7 @@ public class DeviceTypeServiceImpl implements DeviceTypeService {
 
     private final DeviceTypeRepository deviceTypeRepository;
     private final DeviceTypeMapper deviceTypeMapper;
+    private final DeviceTypeRegistryPublisher deviceTypeRegistryPublisher;
 
 
     @Override
@@ -33,6 +35,7 @@ public class DeviceTypeServiceImpl implements DeviceTypeService {
         DeviceTypeDAO deviceTypeDAO = new DeviceTypeDAO(deviceTypeName);
 
         DeviceTypeDAO addedDeviceTypeDAO = saveDeviceTypeDAO(deviceTypeDAO, "adding");
+        deviceTypeRegistryPublisher.added(addedDeviceTypeDAO.getDeviceTypeId());
         log.info("Device type added: {}", addedDeviceTypeDAO);
         return deviceTypeMapper.deviceTypeDAOToDeviceType(addedDeviceTypeDAO);
     }
@@ -56,6 +59,7 @@ public class DeviceTypeServiceImpl implements DeviceTypeService {
         DeviceTypeDAO deviceTypeDAO = getDeviceTypeDAOById(deviceTypeId);
 
         deviceTypeRepository.delete(deviceTypeDAO);
+        deviceTypeRegistryPublisher.removed(deviceTypeId);
         log.info("Device type with id {} deleted successfully.", deviceTypeId);
     }
 
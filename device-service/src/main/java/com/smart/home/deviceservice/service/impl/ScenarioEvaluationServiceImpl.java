@@ -1,5 +1,6 @@
 package com.smart.home.deviceservice.service.impl;
 
+import com.smart.home.deviceservice.cache.DeviceDwellTimeTracker;
 import com.smart.home.deviceservice.client.ScenarioClient;
 import com.smart.home.deviceservice.client.WeatherDataClient;
 import com.smart.home.deviceservice.handler.BadRequestException;
@@ -15,6 +16,7 @@ import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Collectors;
 
 @Log4j2
 @Service
@@ -25,26 +27,39 @@ public class ScenarioEvaluationServiceImpl implements ScenarioEvaluationService
     private final WeatherDataClient weatherDataClient;
     private final ScenarioClient scenarioClient;
     private final DeviceStatusChangeService deviceStatusChangeService;
+    private final DeviceDwellTimeTracker deviceDwellTimeTracker;
 
 
+    /**
+     * Evaluates scenarios of every device and applies the first one whose condition holds and whose status
+     * differs from the current one. Devices changed by a scenario within the minimum dwell time are skipped.
+     */
     @Override
     public void evaluateAndPerformDeviceStatusChange(String token) {
         List<Device> devices = deviceService.getAllDevices();
+        deviceDwellTimeTracker.refresh(devices.stream().map(Device::getDeviceId).collect(Collectors.toList()));
 
         for (Device device : devices) {
+            if (deviceDwellTimeTracker.isDwelling(device.getDeviceId())) {
+                log.debug("Device {} changed recently, skipping scenario evaluation", device.getDeviceId());
+                continue;
+            }
             WeatherDataDTO weatherData = weatherDataClient.getWeatherData(device.getLatitude(), device.getLongitude(), token);
             List<ScenarioDTO> scenarios = scenarioClient.getScenariosByDeviceTypeId(device.getDeviceType(), token);
 
             for (ScenarioDTO scenario : scenarios) {
                 try {
-                    if (evaluateScenario(scenario, weatherData)) {
-                        deviceStatusChangeService.changeDeviceStatus(
-                                device.getDeviceId(),
-                                scenario.getNewStatus(),
-                                scenario.getWeatherCondition() + " " + scenario.getOperator() + " " + scenario.getConditionValue(),
-                                scenario.getScenarioId()
-                        );
+                    if (scenario.getNewStatus() == null || scenario.getNewStatus().equals(device.getStatus()) || !evaluateScenario(scenario, weatherData)) {
+                        continue;
                     }
+                    deviceStatusChangeService.changeDeviceStatus(
+                            device.getDeviceId(),
+                            scenario.getNewStatus(),
+                            scenario.getWeatherCondition() + " " + scenario.getOperator() + " " + scenario.getConditionValue(),
+                            scenario.getScenarioId()
+                    );
+                    deviceDwellTimeTracker.recordChange(device.getDeviceId());
+                    break;
                 } catch (IllegalArgumentException | BadRequestException e) {
                     log.error("Error evaluating scenario for device {}: {}", device.getDeviceId(), e.getMessage(), e);
                     continue;
@@ -84,25 +99,25 @@ public class ScenarioEvaluationServiceImpl implements ScenarioEvaluationService
     @Override
     public boolean evaluateTemperature(ScenarioDTO scenario, Double temperature) {
         double conditionValue = Double.parseDouble(scenario.getConditionValue());
-        return evaluateCondition(temperature, conditionValue, scenario.getOperator());
+        return evaluateNumericCondition(temperature.doubleValue(), conditionValue, scenario.getOperator(), scenario.getHysteresis());
     }
 
     @Override
     public boolean evaluateHumidity(ScenarioDTO scenario, Integer humidity) {
         int conditionValue = Integer.parseInt(scenario.getConditionValue());
-        return evaluateCondition(humidity, conditionValue, scenario.getOperator());
+        return evaluateNumericCondition(humidity.doubleValue(), conditionValue, scenario.getOperator(), scenario.getHysteresis());
     }
 
     @Override
     public boolean evaluateWindSpeed(ScenarioDTO scenario, Double windSpeed) {
         double conditionValue = Double.parseDouble(scenario.getConditionValue());
-        return evaluateCondition(windSpeed, conditionValue, scenario.getOperator());
+        return evaluateNumericCondition(windSpeed.doubleValue(), conditionValue, scenario.getOperator(), scenario.getHysteresis());
     }
 
     @Override
     public boolean evaluateCloudiness(ScenarioDTO scenario, Integer cloudiness) {
         int conditionValue = Integer.parseInt(scenario.getConditionValue());
-        return evaluateCondition(cloudiness, conditionValue, scenario.getOperator());
+        return evaluateNumericCondition(cloudiness.doubleValue(), conditionValue, scenario.getOperator(), scenario.getHysteresis());
     }
 
     @Override
@@ -116,6 +131,19 @@ public class ScenarioEvaluationServiceImpl implements ScenarioEvaluationService
     }
 
 
+    /**
+     * Compares against the condition value shifted by the hysteresis band, so a value hovering around the
+     * condition value does not satisfy both a scenario and its opposite one in turn.
+     */
+    private boolean evaluateNumericCondition(double actualValue, double conditionValue, String operator, Double hysteresis) {
+        double band = hysteresis != null ? hysteresis : 0;
+        return switch (operator) {
+            case ">" -> evaluateCondition(actualValue, conditionValue + band, operator);
+            case "<" -> evaluateCondition(actualValue, conditionValue - band, operator);
+            default -> evaluateCondition(actualValue, conditionValue, operator);
+        };
+    }
+
     private <T extends Comparable<T>> boolean evaluateCondition(T actualValue, T conditionValue, String operator) {
         return switch (operator) {
             case ">" -> actualValue.compareTo(conditionValue) > 0;
@@ -0,0 +1,151 @@
+package com.smart.home.deviceservice.service.impl;
+
+import com.smart.home.deviceservice.executor.StripedDeviceExecutor;
+import com.smart.home.deviceservice.model.DeviceStatusChange;
+import com.smart.home.deviceservice.service.DeviceStatusChangeService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Routes status changes through the {@link StripedDeviceExecutor}, so changes of one device are applied
+ * in order regardless of whether they come from the API, scenario evaluation or idempotent retries.
+ * With a coalescing window configured, changes of one device arriving within the window are applied as
+ * a single change to the last requested status, and every caller receives that status change.
+ */
+@Log4j2
+@Primary
+@Service
+public class StripedDeviceStatusChangeService implements DeviceStatusChangeService {
+
+    private final DeviceStatusChangeService deviceStatusChangeService;
+    private final StripedDeviceExecutor stripedDeviceExecutor;
+    private final long coalescingWindowMillis;
+
+    private final Map<Long, PendingStatusChange> pendingChanges = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService coalescingScheduler;
+    private final Counter coalescedChanges;
+
+
+    public StripedDeviceStatusChangeService(@Qualifier("deviceStatusChangeServiceImpl") DeviceStatusChangeService deviceStatusChangeService,
+                                            StripedDeviceExecutor stripedDeviceExecutor,
+                                            @Value("${device.status-change.coalescing-window-ms:0}") long coalescingWindowMillis,
+                                            MeterRegistry meterRegistry) {
+        this.deviceStatusChangeService = deviceStatusChangeService;
+        this.stripedDeviceExecutor = stripedDeviceExecutor;
+        this.coalescingWindowMillis = coalescingWindowMillis;
+        this.coalescingScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "device-status-coalescing");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.coalescedChanges = Counter.builder("device.status-change.coalesced")
+                .description("Device status changes merged into a later change of the same device")
+                .register(meterRegistry);
+    }
+
+
+    @Override
+    public DeviceStatusChange changeDeviceStatus(Long deviceId, String newStatus, String weatherCondition, Long scenarioId) {
+        if (coalescingWindowMillis <= 0 || stripedDeviceExecutor.isStripeThread()) {
+            return stripedDeviceExecutor.execute(deviceId,
+                    () -> deviceStatusChangeService.changeDeviceStatus(deviceId, newStatus, weatherCondition, scenarioId));
+        }
+
+        CompletableFuture<DeviceStatusChange> result = pendingChanges.compute(deviceId, (id, pending) -> {
+            if (pending == null) {
+                pending = new PendingStatusChange();
+                coalescingScheduler.schedule(() -> applyPendingChange(id), coalescingWindowMillis, TimeUnit.MILLISECONDS);
+            } else {
+                coalescedChanges.increment();
+            }
+            pending.add(newStatus, weatherCondition, scenarioId);
+            return pending;
+        }).result;
+
+        long timeoutMillis = coalescingWindowMillis + stripedDeviceExecutor.getTimeoutMillis();
+        try {
+            return result.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new RuntimeException(e.getCause());
+        } catch (TimeoutException e) {
+            log.error("Coalesced status change of device {} did not finish within {} ms", deviceId, timeoutMillis);
+            throw new RuntimeException("Status change of device " + deviceId + " timed out");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for status change of device " + deviceId);
+        }
+    }
+
+    @Override
+    public DeviceStatusChange changeDeviceStatusCoalesced(Long deviceId, List<String> requestedStatuses, String weatherCondition, Long scenarioId) {
+        return stripedDeviceExecutor.execute(deviceId,
+                () -> deviceStatusChangeService.changeDeviceStatusCoalesced(deviceId, requestedStatuses, weatherCondition, scenarioId));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        coalescingScheduler.shutdown();
+        pendingChanges.keySet().forEach(this::applyPendingChange);
+    }
+
+
+    private void applyPendingChange(Long deviceId) {
+        PendingStatusChange pending = pendingChanges.remove(deviceId);
+        if (pending == null) {
+            return;
+        }
+        try {
+            stripedDeviceExecutor.submit(deviceId, () -> deviceStatusChangeService.changeDeviceStatusCoalesced(
+                            deviceId, pending.statuses, pending.weatherCondition, pending.scenarioId))
+                    .whenComplete((statusChange, error) -> {
+                        if (error != null) {
+                            pending.result.completeExceptionally(error instanceof CompletionException && error.getCause() != null
+                                    ? error.getCause() : error);
+                        } else {
+                            pending.result.complete(statusChange);
+                        }
+                    });
+        } catch (RuntimeException e) {
+            log.error("Coalesced status change of device {} could not be queued: {}", deviceId, e.getMessage());
+            pending.result.completeExceptionally(e);
+        }
+    }
+
+
+    private static class PendingStatusChange {
+
+        private final List<String> statuses = new ArrayList<>();
+        private final CompletableFuture<DeviceStatusChange> result = new CompletableFuture<>();
+        private String weatherCondition;
+        private Long scenarioId;
+
+        private void add(String status, String weatherCondition, Long scenarioId) {
+            statuses.add(status);
+            this.weatherCondition = weatherCondition;
+            this.scenarioId = scenarioId;
+        }
+
+    }
+
+}
@@ -0,0 +1,245 @@
+package com.smart.home.deviceservice.spatial;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory grid index of device locations. Devices are bucketed into cells of fixed size in degrees,
+ * so area and radius lookups only visit the cells overlapping the searched area. The index is filled
+ * at startup and is not used for reads until it has been fully loaded. Every instance keeps its own index;
+ * {@link DeviceSpatialIndexSync} applies location changes made through any instance and
+ * {@link DeviceSpatialIndexLoader} periodically reloads it to repair changes which were missed.
+ */
+@Log4j2
+@Component
+public class DeviceSpatialIndex {
+
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final double KM_PER_DEGREE_LATITUDE = 111.32;
+
+    private final double cellSize;
+    private final Map<Long, DeviceLocation> locations = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> cells = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+
+    public DeviceSpatialIndex(@Value("${device.spatial-index.cell-size-degrees:0.05}") double cellSize) {
+        this.cellSize = cellSize;
+    }
+
+
+    public void put(Long deviceId, double latitude, double longitude) {
+        DeviceLocation location = new DeviceLocation(latitude, longitude, cellKey(latitude, longitude));
+        locations.compute(deviceId, (id, previous) -> {
+            if (previous != null && previous.cellKey() != location.cellKey()) {
+                removeFromCell(previous.cellKey(), id);
+            }
+            addToCell(location.cellKey(), id);
+            return location;
+        });
+    }
+
+    public void remove(Long deviceId) {
+        locations.computeIfPresent(deviceId, (id, previous) -> {
+            removeFromCell(previous.cellKey(), id);
+            return null;
+        });
+    }
+
+    public void clear() {
+        loaded = false;
+        locations.clear();
+        cells.clear();
+    }
+
+    /**
+     * Removes devices missing from a full reload. Devices with ids above the highest reloaded id were added
+     * after the reload read the table, so they are kept.
+     */
+    public void retain(Set<Long> reloadedIds, long maxReloadedId) {
+        locations.keySet().stream()
+                .filter(deviceId -> deviceId <= maxReloadedId && !reloadedIds.contains(deviceId))
+                .toList()
+                .forEach(this::remove);
+    }
+
+    public void markLoaded() {
+        loaded = true;
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public int size() {
+        return locations.size();
+    }
+
+    /**
+     * Returns ids of devices located inside the area, ordered by id.
+     */
+    public List<Long> findInArea(double minLatitude, double maxLatitude, double minLongitude, double maxLongitude) {
+        List<Long> deviceIds = new ArrayList<>();
+        forEachCandidate(minLatitude, maxLatitude, minLongitude, maxLongitude, (deviceId, location) -> {
+            if (location.latitude() >= minLatitude && location.latitude() <= maxLatitude
+                    && location.longitude() >= minLongitude && location.longitude() <= maxLongitude) {
+                deviceIds.add(deviceId);
+            }
+        });
+        deviceIds.sort(Comparator.naturalOrder());
+        return deviceIds;
+    }
+
+    /**
+     * Returns ids of devices within the radius of the point, ordered by distance.
+     */
+    public List<Long> findWithinRadius(double latitude, double longitude, double radiusKm) {
+        RadiusBounds bounds = RadiusBounds.of(latitude, longitude, radiusKm);
+        List<DeviceDistance> matches = new ArrayList<>();
+        for (LongitudeRange longitudeRange : bounds.longitudeRanges()) {
+            forEachCandidate(bounds.minLatitude(), bounds.maxLatitude(), longitudeRange.min(), longitudeRange.max(), (deviceId, location) -> {
+                double distance = distanceKm(latitude, longitude, location.latitude(), location.longitude());
+                if (distance <= radiusKm) {
+                    matches.add(new DeviceDistance(deviceId, distance));
+                }
+            });
+        }
+        matches.sort(Comparator.comparingDouble(DeviceDistance::distanceKm).thenComparing(DeviceDistance::deviceId));
+        return matches.stream().map(DeviceDistance::deviceId).toList();
+    }
+
+    public static double distanceKm(double latitude1, double longitude1, double latitude2, double longitude2) {
+        double latitudeDistance = Math.toRadians(latitude2 - latitude1);
+        double longitudeDistance = Math.toRadians(longitude2 - longitude1);
+        double a = Math.sin(latitudeDistance / 2) * Math.sin(latitudeDistance / 2)
+                + Math.cos(Math.toRadians(latitude1)) * Math.cos(Math.toRadians(latitude2))
+                * Math.sin(longitudeDistance / 2) * Math.sin(longitudeDistance / 2);
+        return 2 * EARTH_RADIUS_KM * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+    }
+
+
+    private void forEachCandidate(double minLatitude, double maxLatitude, double minLongitude, double maxLongitude,
+                                  CandidateConsumer consumer) {
+        int minLatitudeCell = latitudeCell(minLatitude);
+        int maxLatitudeCell = latitudeCell(maxLatitude);
+        int minLongitudeCell = longitudeCell(minLongitude);
+        int maxLongitudeCell = longitudeCell(maxLongitude);
+        long cellCount = (long) (maxLatitudeCell - minLatitudeCell + 1) * (maxLongitudeCell - minLongitudeCell + 1);
+
+        if (cellCount > cells.size()) {
+            // Searched area covers more cells than are occupied, so it is cheaper to scan occupied cells only
+            cells.forEach((cellKey, deviceIds) -> {
+                int latitudeCell = (int) (cellKey >> 32);
+                int longitudeCell = (int) (long) cellKey;
+                if (latitudeCell >= minLatitudeCell && latitudeCell <= maxLatitudeCell
+                        && longitudeCell >= minLongitudeCell && longitudeCell <= maxLongitudeCell) {
+                    visitCell(deviceIds, consumer);
+                }
+            });
+            return;
+        }
+
+        for (int latitudeCell = minLatitudeCell; latitudeCell <= maxLatitudeCell; latitudeCell++) {
+            for (int longitudeCell = minLongitudeCell; longitudeCell <= maxLongitudeCell; longitudeCell++) {
+                Set<Long> deviceIds = cells.get(cellKey(latitudeCell, longitudeCell));
+                if (deviceIds != null) {
+                    visitCell(deviceIds, consumer);
+                }
+            }
+        }
+    }
+
+    private void visitCell(Set<Long> deviceIds, CandidateConsumer consumer) {
+        for (Long deviceId : deviceIds) {
+            DeviceLocation location = locations.get(deviceId);
+            if (location != null) {
+                consumer.accept(deviceId, location);
+            }
+        }
+    }
+
+    private void addToCell(long cellKey, Long deviceId) {
+        cells.compute(cellKey, (key, deviceIds) -> {
+            Set<Long> cellDeviceIds = deviceIds != null ? deviceIds : ConcurrentHashMap.newKeySet();
+            cellDeviceIds.add(deviceId);
+            return cellDeviceIds;
+        });
+    }
+
+    private void removeFromCell(long cellKey, Long deviceId) {
+        cells.computeIfPresent(cellKey, (key, deviceIds) -> {
+            deviceIds.remove(deviceId);
+            return deviceIds.isEmpty() ? null : deviceIds;
+        });
+    }
+
+    private long cellKey(double latitude, double longitude) {
+        return cellKey(latitudeCell(latitude), longitudeCell(longitude));
+    }
+
+    private long cellKey(int latitudeCell, int longitudeCell) {
+        return ((long) latitudeCell << 32) | (longitudeCell & 0xFFFFFFFFL);
+    }
+
+    private int latitudeCell(double latitude) {
+        return (int) Math.floor((latitude + 90) / cellSize);
+    }
+
+    private int longitudeCell(double longitude) {
+        return (int) Math.floor((longitude + 180) / cellSize);
+    }
+
+
+    /**
+     * Bounding box of a radius search. Near the antimeridian the box continues on the other side,
+     * so it has two longitude ranges instead of one clamped at +/-180.
+     */
+    public record RadiusBounds(double minLatitude, double maxLatitude, List<LongitudeRange> longitudeRanges) {
+
+        public static RadiusBounds of(double latitude, double longitude, double radiusKm) {
+            double latitudeDelta = radiusKm / KM_PER_DEGREE_LATITUDE;
+            double minLatitude = Math.max(-90, latitude - latitudeDelta);
+            double maxLatitude = Math.min(90, latitude + latitudeDelta);
+
+            double maxAbsLatitude = Math.max(Math.abs(minLatitude), Math.abs(maxLatitude));
+            double longitudeDelta = maxAbsLatitude < 90
+                    ? radiusKm / (KM_PER_DEGREE_LATITUDE * Math.cos(Math.toRadians(maxAbsLatitude)))
+                    : 180;
+            List<LongitudeRange> longitudeRanges;
+            if (longitudeDelta >= 180) {
+                longitudeRanges = List.of(new LongitudeRange(-180, 180));
+            } else if (longitude - longitudeDelta < -180) {
+                longitudeRanges = List.of(new LongitudeRange(-180, longitude + longitudeDelta),
+                        new LongitudeRange(longitude - longitudeDelta + 360, 180));
+            } else if (longitude + longitudeDelta > 180) {
+                longitudeRanges = List.of(new LongitudeRange(longitude - longitudeDelta, 180),
+                        new LongitudeRange(-180, longitude + longitudeDelta - 360));
+            } else {
+                longitudeRanges = List.of(new LongitudeRange(longitude - longitudeDelta, longitude + longitudeDelta));
+            }
+            return new RadiusBounds(minLatitude, maxLatitude, longitudeRanges);
+        }
+    }
+
+    public record LongitudeRange(double min, double max) {
+    }
+
+    private record DeviceLocation(double latitude, double longitude, long cellKey) {
+    }
+
+    private record DeviceDistance(Long deviceId, double distanceKm) {
+    }
+
+    @FunctionalInterface
+    private interface CandidateConsumer {
+        void accept(Long deviceId, DeviceLocation location);
+    }
+
+}
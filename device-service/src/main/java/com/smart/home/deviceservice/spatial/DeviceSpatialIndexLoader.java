@@ -0,0 +1,56 @@
+package com.smart.home.deviceservice.spatial;
+
+import com.smart.home.deviceservice.model.DeviceFilter;
+import com.smart.home.deviceservice.repository.DeviceJdbcRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.Set;
+
+@Log4j2
+@Component
+@RequiredArgsConstructor
+public class DeviceSpatialIndexLoader {
+
+    private final DeviceSpatialIndex deviceSpatialIndex;
+    private final DeviceJdbcRepository deviceJdbcRepository;
+
+
+    /**
+     * Loads every device location into the index and drops devices which no longer exist. Runs at startup and
+     * periodically, repairing changes from other instances which were missed and retrying a failed startup load.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${device.spatial-index.reload-interval-ms:600000}",
+            fixedDelayString = "${device.spatial-index.reload-interval-ms:600000}")
+    public void loadIndex() {
+        try {
+            // read first, devices added while the table is streamed have greater ids and are kept
+            long maxId = deviceJdbcRepository.findMaxId();
+            Set<Long> deviceIds = new HashSet<>();
+            deviceJdbcRepository.streamDevices(new DeviceFilter(), device -> {
+                deviceSpatialIndex.put(device.getDeviceId(), device.getLatitude(), device.getLongitude());
+                deviceIds.add(device.getDeviceId());
+            });
+            deviceSpatialIndex.retain(deviceIds, maxId);
+            deviceSpatialIndex.markLoaded();
+            log.info("Device spatial index loaded. Size: {}", deviceSpatialIndex.size());
+        } catch (Exception e) {
+            log.error("Error while loading device spatial index, location queries fall back to the database: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Adds devices with id greater than given id to the index. Used after bulk inserts, which bypass the device service.
+     */
+    public void loadDevicesAfter(Long afterId) {
+        deviceJdbcRepository.streamDevices(new DeviceFilter(), afterId,
+                device -> deviceSpatialIndex.put(device.getDeviceId(), device.getLatitude(), device.getLongitude()));
+    }
+
+}
@@ -0,0 +1,112 @@
+package com.smart.home.deviceservice.spatial;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Shares device location changes between service instances. A change is applied to the local index right away and
+ * published as {@code moved:<id>:<latitude>:<longitude>}, {@code removed:<id>} or {@code imported:<after id>};
+ * every instance applies the messages it receives. Messages lost while Redis is unavailable are repaired by the
+ * periodic reload of {@link DeviceSpatialIndexLoader}.
+ */
+@Log4j2
+@Component
+public class DeviceSpatialIndexSync implements MessageListener {
+
+    private final DeviceSpatialIndex deviceSpatialIndex;
+    private final DeviceSpatialIndexLoader deviceSpatialIndexLoader;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisConnectionFactory connectionFactory;
+
+    @Value("${device.spatial-index.channel:device-locations:changes}")
+    private String channel;
+
+    private RedisMessageListenerContainer container;
+
+
+    public DeviceSpatialIndexSync(DeviceSpatialIndex deviceSpatialIndex, DeviceSpatialIndexLoader deviceSpatialIndexLoader,
+                                  StringRedisTemplate redisTemplate, RedisConnectionFactory connectionFactory) {
+        this.deviceSpatialIndex = deviceSpatialIndex;
+        this.deviceSpatialIndexLoader = deviceSpatialIndexLoader;
+        this.redisTemplate = redisTemplate;
+        this.connectionFactory = connectionFactory;
+    }
+
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(this, new ChannelTopic(channel));
+        container.afterPropertiesSet();
+        try {
+            container.start();
+            log.info("Listening to device location changes on channel '{}'", channel);
+        } catch (RuntimeException e) {
+            log.error("Could not subscribe to device location changes on channel '{}': {}", channel, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws Exception {
+        if (container != null) {
+            container.destroy();
+        }
+    }
+
+    public void moved(Long deviceId, double latitude, double longitude) {
+        deviceSpatialIndex.put(deviceId, latitude, longitude);
+        publish("moved:" + deviceId + ":" + latitude + ":" + longitude);
+    }
+
+    public void removed(Long deviceId) {
+        deviceSpatialIndex.remove(deviceId);
+        publish("removed:" + deviceId);
+    }
+
+    /**
+     * Indexes devices with id greater than given id, used after bulk inserts which bypass the device service.
+     */
+    public void imported(Long afterId) {
+        deviceSpatialIndexLoader.loadDevicesAfter(afterId);
+        publish("imported:" + afterId);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        String[] parts = body.split(":");
+        try {
+            switch (parts[0]) {
+                case "moved" -> deviceSpatialIndex.put(Long.valueOf(parts[1]), Double.parseDouble(parts[2]), Double.parseDouble(parts[3]));
+                case "removed" -> deviceSpatialIndex.remove(Long.valueOf(parts[1]));
+                case "imported" -> deviceSpatialIndexLoader.loadDevicesAfter(Long.valueOf(parts[1]));
+                default -> log.warn("Ignoring unknown device location message '{}'", body);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not apply device location message '{}': {}", body, e.getMessage());
+        }
+    }
+
+
+    private void publish(String change) {
+        try {
+            redisTemplate.convertAndSend(channel, change);
+        } catch (RuntimeException e) {
+            log.error("Could not publish device location change '{}': {}", change, e.getMessage());
+        }
+    }
+
+}
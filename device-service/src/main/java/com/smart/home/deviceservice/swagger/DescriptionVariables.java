@@ -11,6 +11,7 @@ public class DescriptionVariables {
     public static final String DEVICE = "Device Controller";
     public static final String DEVICE_TYPE = "Device Type Controller";
     public static final String DEVICE_STATUS = "Device Status Change Controller";
+    public static final String DEVICE_STATUS_DURATION = "Device Status Duration Controller";
     public static final String SCENARIO_EVALUATION = "Scenario Evaluation Controller";
 
 }
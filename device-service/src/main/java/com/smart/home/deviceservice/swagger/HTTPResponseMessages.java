@@ -6,11 +6,13 @@ public class HTTPResponseMessages {
             "See the example below for reference.";
     public static final String HTTP_201 = "Resource created successfully. The response includes the created data. " +
             "See the example below for details.";
+    public static final String HTTP_202 = "Request was accepted for processing. The response includes the processing status.";
     public static final String HTTP_204 = "Request was successful, and the resource was deleted. No content is returned.";
     public static final String HTTP_400 = "Bad Request. The input data contains validation errors, " +
             "such as missing or invalid fields.";
     public static final String HTTP_403 = "Forbidden. The client does not have permission to access the requested resource.";
     public static final String HTTP_404 = "Not Found. The requested resource could not be located.";
+    public static final String HTTP_429 = "Too Many Requests. The server is temporarily overloaded, retry the request later.";
     public static final String HTTP_500 = "Internal Server Error. An unexpected error occurred on the server. " +
             "Check the response headers for additional details.";
 
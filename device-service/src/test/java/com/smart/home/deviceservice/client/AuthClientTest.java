@@ -0,0 +1,176 @@
+package com.smart.home.deviceservice.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AuthClientTest {
+
+    private MockWebServer mockWebServer;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private AuthClient authClient;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        mockWebServer = new MockWebServer();
+        mockWebServer.start();
+
+        meterRegistry = new SimpleMeterRegistry();
+        authClient = new AuthClient(WebClient.builder().build(), meterRegistry, 100L, 60L, 5L);
+        ReflectionTestUtils.setField(authClient, "authApiUrl", mockWebServer.url("/").toString());
+        ReflectionTestUtils.setField(authClient, "authBatchApiUrl", mockWebServer.url("/batch").toString());
+        ReflectionTestUtils.setField(authClient, "batchMaxSize", 100);
+        ReflectionTestUtils.setField(authClient, "batchTimeoutMs", 2000L);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        authClient.shutdown();
+        mockWebServer.shutdown();
+    }
+
+    @Test
+    void validateToken_ValidResultCached() {
+        mockWebServer.enqueue(validationResponse("true"));
+
+        assertTrue(authClient.validateToken("token", new Date(System.currentTimeMillis() + 60000L)));
+        assertTrue(authClient.validateToken("token", new Date(System.currentTimeMillis() + 60000L)));
+
+        assertEquals(1, mockWebServer.getRequestCount());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    void validateToken_RejectionCached() {
+        mockWebServer.enqueue(validationResponse("false"));
+
+        assertFalse(authClient.validateToken("token", null));
+        assertFalse(authClient.validateToken("token", null));
+
+        assertEquals(1, mockWebServer.getRequestCount());
+    }
+
+    @Test
+    void validateToken_FailureCached() {
+        mockWebServer.enqueue(new MockResponse().setResponseCode(500));
+
+        assertFalse(authClient.validateToken("token", null));
+        assertFalse(authClient.validateToken("token", null));
+
+        assertEquals(1, mockWebServer.getRequestCount());
+    }
+
+    @Test
+    void validateToken_ExpiredTokenNotCached() {
+        mockWebServer.enqueue(validationResponse("true"));
+        mockWebServer.enqueue(validationResponse("true"));
+
+        assertTrue(authClient.validateToken("token", new Date(System.currentTimeMillis() - 1000L)));
+        assertTrue(authClient.validateToken("token", new Date(System.currentTimeMillis() - 1000L)));
+
+        assertEquals(2, mockWebServer.getRequestCount());
+    }
+
+    @Test
+    void validateToken_DifferentTokensValidatedSeparately() {
+        mockWebServer.enqueue(validationResponse("true"));
+        mockWebServer.enqueue(validationResponse("false"));
+
+        assertTrue(authClient.validateToken("token", null));
+        assertFalse(authClient.validateToken("otherToken", null));
+
+        assertEquals(2, mockWebServer.getRequestCount());
+    }
+
+    @Test
+    void invalidateCachedValidations_EvictsOnlyRevokedToken() {
+        Date expiresAt = new Date(System.currentTimeMillis() + 60000L);
+        mockWebServer.enqueue(validationResponse("true"));
+        mockWebServer.enqueue(validationResponse("true"));
+        mockWebServer.enqueue(validationResponse("false"));
+        authClient.validateToken("token", expiresAt, List.of("tokenId", "epoch:1:0"));
+        authClient.validateToken("otherToken", expiresAt, List.of("otherTokenId", "epoch:2:0"));
+
+        authClient.invalidateCachedValidations("tokenId");
+
+        assertFalse(authClient.validateToken("token", expiresAt, List.of("tokenId", "epoch:1:0")));
+        assertTrue(authClient.validateToken("otherToken", expiresAt, List.of("otherTokenId", "epoch:2:0")));
+        assertEquals(3, mockWebServer.getRequestCount());
+    }
+
+    @Test
+    void validateTokens_ResultsInOrder() throws InterruptedException {
+        mockWebServer.enqueue(validationResponse("[true,false]"));
+
+        assertEquals(List.of(true, false), authClient.validateTokens(List.of("token", "otherToken")));
+
+        assertEquals("{\"tokens\":[\"token\",\"otherToken\"]}", mockWebServer.takeRequest().getBody().readUtf8());
+    }
+
+    @Test
+    void validateTokens_FailureRejectsAll() {
+        mockWebServer.enqueue(new MockResponse().setResponseCode(500));
+
+        assertEquals(List.of(false, false), authClient.validateTokens(List.of("token", "otherToken")));
+    }
+
+    @Test
+    void validateTokenBatched_PendingValidationsSentTogether() {
+        ReflectionTestUtils.setField(authClient, "batchWindowMs", 200L);
+        mockWebServer.enqueue(validationResponse("[true,false]"));
+
+        CompletableFuture<Boolean> first = authClient.validateTokenBatched("token");
+        CompletableFuture<Boolean> second = authClient.validateTokenBatched("otherToken");
+
+        assertTrue(first.join());
+        assertFalse(second.join());
+        assertEquals(1, mockWebServer.getRequestCount());
+    }
+
+    @Test
+    void validateTokenBatched_FullBatchSentImmediately() {
+        ReflectionTestUtils.setField(authClient, "batchWindowMs", 60000L);
+        ReflectionTestUtils.setField(authClient, "batchMaxSize", 2);
+        mockWebServer.enqueue(validationResponse("[false,true]"));
+
+        CompletableFuture<Boolean> first = authClient.validateTokenBatched("token");
+        CompletableFuture<Boolean> second = authClient.validateTokenBatched("otherToken");
+
+        assertFalse(first.join());
+        assertTrue(second.join());
+        assertEquals(1, mockWebServer.getRequestCount());
+    }
+
+    @Test
+    void validateToken_BatchedWhenWindowEnabled() {
+        ReflectionTestUtils.setField(authClient, "batchWindowMs", 1L);
+        mockWebServer.enqueue(validationResponse("[true]"));
+
+        assertTrue(authClient.validateToken("token", null));
+
+        assertEquals(1, mockWebServer.getRequestCount());
+    }
+
+
+    private static MockResponse validationResponse(String body) {
+        return new MockResponse().setBody(body).addHeader("Content-Type", "application/json");
+    }
+
+}
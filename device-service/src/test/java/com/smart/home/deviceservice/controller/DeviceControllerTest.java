@@ -4,38 +4,50 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.smart.home.deviceservice.handler.BadRequestException;
 import com.smart.home.deviceservice.handler.GlobalExceptionHandler;
 import com.smart.home.deviceservice.model.Device;
+import com.smart.home.deviceservice.model.DeviceFilter;
+import com.smart.home.deviceservice.model.DeviceImportFormat;
+import com.smart.home.deviceservice.model.DeviceImportReport;
+import com.smart.home.deviceservice.model.DevicePage;
+import com.smart.home.deviceservice.service.DeviceImportService;
 import com.smart.home.deviceservice.service.DeviceService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(MockitoExtension.class)
@@ -46,6 +58,12 @@ class DeviceControllerTest {
     @Mock
     private DeviceService deviceService;
 
+    @Mock
+    private DeviceImportService deviceImportService;
+
+    @Spy
+    private ObjectMapper controllerObjectMapper = new ObjectMapper();
+
     @InjectMocks
     private DeviceController deviceController;
 
@@ -119,6 +137,36 @@ class DeviceControllerTest {
         verify(deviceService, never()).addDevice(any(Device.class));
     }
 
+    @Test
+    void testImportDevices_Csv() throws Exception {
+        DeviceImportReport report = new DeviceImportReport();
+        report.setTotalRows(1);
+        report.setImportedRows(1);
+        when(deviceImportService.importDevices(any(), eq(DeviceImportFormat.CSV))).thenReturn(report);
+
+        mockMvc.perform(post(URL + "/import")
+                        .contentType("text/csv")
+                        .content("deviceName,deviceType,latitude,longitude,status\nLight,1,56.97,24.16,OFF\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalRows", is(1)))
+                .andExpect(jsonPath("$.importedRows", is(1)))
+                .andExpect(jsonPath("$.failedRows", is(0)));
+
+        verify(deviceImportService, times(1)).importDevices(any(), eq(DeviceImportFormat.CSV));
+    }
+
+    @Test
+    void testImportDevices_Ndjson() throws Exception {
+        when(deviceImportService.importDevices(any(), eq(DeviceImportFormat.NDJSON))).thenReturn(new DeviceImportReport());
+
+        mockMvc.perform(post(URL + "/import")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{}\n"))
+                .andExpect(status().isOk());
+
+        verify(deviceImportService, times(1)).importDevices(any(), eq(DeviceImportFormat.NDJSON));
+    }
+
     @Test
     void testUpdateDeviceById_Success() throws Exception {
         when(deviceService.updateDeviceById(anyLong(), any(Device.class))).thenReturn(validDevice);
@@ -234,4 +282,81 @@ class DeviceControllerTest {
         verify(deviceService, times(1)).getAllDevices();
     }
 
+    @Test
+    void testGetDevicePage_Success() throws Exception {
+        DeviceFilter filter = new DeviceFilter(1L, "ON", null, null);
+        when(deviceService.getDevicePage(filter, 10L, 2)).thenReturn(new DevicePage(List.of(deviceWithId), 1L));
+
+        mockMvc.perform(get(URL + "/page")
+                        .param("after", "10")
+                        .param("limit", "2")
+                        .param("deviceType", "1")
+                        .param("status", "ON"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].deviceId", is(1)))
+                .andExpect(jsonPath("$.nextCursor", is(1)));
+
+        verify(deviceService, times(1)).getDevicePage(filter, 10L, 2);
+    }
+
+    @Test
+    void testGetDevicePage_InvalidLimit() throws Exception {
+        when(deviceService.getDevicePage(any(DeviceFilter.class), any(), eq(0)))
+                .thenThrow(new BadRequestException("Limit must be between 1 and 1000"));
+
+        mockMvc.perform(get(URL + "/page").param("limit", "0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Limit must be between 1 and 1000"));
+    }
+
+    @Test
+    void testGetDevicesWithinRadius_Success() throws Exception {
+        when(deviceService.getDevicesWithinRadius(56.97, 24.16, 5.0, 100)).thenReturn(List.of(deviceWithId));
+
+        mockMvc.perform(get(URL + "/near")
+                        .param("latitude", "56.97")
+                        .param("longitude", "24.16")
+                        .param("radiusKm", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].deviceId", is(1)));
+
+        verify(deviceService, times(1)).getDevicesWithinRadius(56.97, 24.16, 5.0, 100);
+    }
+
+    @Test
+    void testGetDevicesInArea_InvalidArea() throws Exception {
+        when(deviceService.getDevicesInArea(57.0, 56.0, 24.0, 25.0, 100))
+                .thenThrow(new BadRequestException("Area minimum coordinates must not exceed maximum coordinates"));
+
+        mockMvc.perform(get(URL + "/area")
+                        .param("minLatitude", "57.0")
+                        .param("maxLatitude", "56.0")
+                        .param("minLongitude", "24.0")
+                        .param("maxLongitude", "25.0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Area minimum coordinates must not exceed maximum coordinates"));
+    }
+
+    @Test
+    void testStreamDevices_Ndjson() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<Device> consumer = invocation.getArgument(1);
+            consumer.accept(deviceWithId);
+            consumer.accept(validDevice);
+            return null;
+        }).when(deviceService).streamDevices(any(DeviceFilter.class), any());
+
+        MvcResult mvcResult = mockMvc.perform(get(URL).accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(objectMapper.writeValueAsString(deviceWithId) + "\n"
+                        + objectMapper.writeValueAsString(validDevice) + "\n"));
+    }
+
 }
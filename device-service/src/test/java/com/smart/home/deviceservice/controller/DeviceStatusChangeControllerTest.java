@@ -3,7 +3,16 @@ package com.smart.home.deviceservice.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.smart.home.deviceservice.handler.BadRequestException;
 import com.smart.home.deviceservice.handler.GlobalExceptionHandler;
+import com.smart.home.deviceservice.handler.TooManyRequestsException;
+import com.smart.home.deviceservice.live.DeviceStatusBroadcaster;
+import com.smart.home.deviceservice.model.DeviceGroupCommand;
+import com.smart.home.deviceservice.model.DeviceGroupCommandResult;
+import com.smart.home.deviceservice.model.DeviceStateReport;
+import com.smart.home.deviceservice.model.DeviceStateReportResult;
 import com.smart.home.deviceservice.model.DeviceStatusChange;
+import com.smart.home.deviceservice.service.DeviceGroupCommandService;
+import com.smart.home.deviceservice.service.DeviceStateReportService;
+import com.smart.home.deviceservice.service.DeviceStatusChangeIdempotencyService;
 import com.smart.home.deviceservice.service.DeviceStatusChangeService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,15 +23,26 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.util.List;
+import java.util.Set;
+
+import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(MockitoExtension.class)
@@ -33,6 +53,18 @@ class DeviceStatusChangeControllerTest {
     @Mock
     private DeviceStatusChangeService deviceStatusChangeService;
 
+    @Mock
+    private DeviceGroupCommandService deviceGroupCommandService;
+
+    @Mock
+    private DeviceStatusBroadcaster deviceStatusBroadcaster;
+
+    @Mock
+    private DeviceStateReportService deviceStateReportService;
+
+    @Mock
+    private DeviceStatusChangeIdempotencyService deviceStatusChangeIdempotencyService;
+
     @InjectMocks
     private DeviceStatusChangeController deviceStatusChangeController;
 
@@ -86,4 +118,99 @@ class DeviceStatusChangeControllerTest {
         verify(deviceStatusChangeService, times(1)).changeDeviceStatus(eq(1L), eq("ON"), eq("manual status change"), any());
     }
 
+    @Test
+    void testChangeDeviceGroupStatus_Success() throws Exception {
+        DeviceGroupCommand command = new DeviceGroupCommand(1L, null, null, null, null, null, "OFF");
+        DeviceGroupCommandResult result = new DeviceGroupCommandResult();
+        result.setMatchedDevices(3);
+        result.setChangedDevices(2);
+        result.setUnchangedDevices(1);
+        when(deviceGroupCommandService.changeDeviceGroupStatus(command, "group status change")).thenReturn(result);
+
+        mockMvc.perform(patch(URL + "/group")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(command)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.matchedDevices", is(3)))
+                .andExpect(jsonPath("$.changedDevices", is(2)))
+                .andExpect(jsonPath("$.unchangedDevices", is(1)));
+
+        verify(deviceGroupCommandService, times(1)).changeDeviceGroupStatus(command, "group status change");
+    }
+
+    @Test
+    void testChangeDeviceGroupStatus_ValidationError() throws Exception {
+        DeviceGroupCommand command = new DeviceGroupCommand(1L, null, null, null, null, null, "");
+
+        mockMvc.perform(patch(URL + "/group")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(command)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$[0]", is("newStatus: New status must not be blank")));
+
+        verify(deviceGroupCommandService, never()).changeDeviceGroupStatus(any(), any());
+    }
+
+    @Test
+    void testSubscribeToDeviceStatus_StartsEventStream() throws Exception {
+        when(deviceStatusBroadcaster.subscribe(Set.of(1L, 2L), 3L)).thenReturn(new SseEmitter());
+
+        mockMvc.perform(get(URL + "/live")
+                        .param("deviceIds", "1,2")
+                        .param("deviceTypeId", "3")
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isOk())
+                .andExpect(request().asyncStarted());
+
+        verify(deviceStatusBroadcaster, times(1)).subscribe(Set.of(1L, 2L), 3L);
+    }
+
+    @Test
+    void testSubscribeToDeviceStatus_TooManySubscribers() throws Exception {
+        when(deviceStatusBroadcaster.subscribe(null, null)).thenThrow(new TooManyRequestsException("Too many live subscriptions, try again later"));
+
+        mockMvc.perform(get(URL + "/live")
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isTooManyRequests());
+    }
+
+    @Test
+    void testReportDeviceStates_Accepted() throws Exception {
+        when(deviceStateReportService.acceptReports(List.of(new DeviceStateReport(1L, "ON", null))))
+                .thenReturn(new DeviceStateReportResult(1, 1));
+
+        mockMvc.perform(post(URL + "/reports")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"deviceId\": 1, \"status\": \"ON\"}]"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.acceptedReports", is(1)))
+                .andExpect(jsonPath("$.pendingDevices", is(1)));
+    }
+
+    @Test
+    void testReportDeviceStates_BufferFull() throws Exception {
+        when(deviceStateReportService.acceptReports(any())).thenThrow(new TooManyRequestsException("Device state report buffer is full, retry later"));
+
+        mockMvc.perform(post(URL + "/reports")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"deviceId\": 1, \"status\": \"ON\"}]"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "1"));
+    }
+
+    @Test
+    void testChangeDeviceStatus_WithIdempotencyKey() throws Exception {
+        when(deviceStatusChangeIdempotencyService.changeDeviceStatus("retry-1", 1L, "ON", "manual status change"))
+                .thenReturn(deviceStatusChange);
+
+        mockMvc.perform(patch(URL + "/{id}", 1L)
+                        .param("status", "ON")
+                        .header("Idempotency-Key", "retry-1")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(deviceStatusChange)));
+
+        verify(deviceStatusChangeService, never()).changeDeviceStatus(any(), any(), any(), any());
+    }
+
 }
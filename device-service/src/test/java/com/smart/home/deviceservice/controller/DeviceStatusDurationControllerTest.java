@@ -0,0 +1,98 @@
+package com.smart.home.deviceservice.controller;
+
+import com.smart.home.deviceservice.handler.BadRequestException;
+import com.smart.home.deviceservice.handler.GlobalExceptionHandler;
+import com.smart.home.deviceservice.model.DeviceStatusDuration;
+import com.smart.home.deviceservice.model.DeviceStatusDurationTotal;
+import com.smart.home.deviceservice.service.DeviceStatusDurationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+class DeviceStatusDurationControllerTest {
+
+    private static final String URL = "/api/device/status/duration";
+    private static final LocalDate FROM = LocalDate.of(2024, 8, 1);
+    private static final LocalDate TO = LocalDate.of(2024, 8, 31);
+
+    @Mock
+    private DeviceStatusDurationService deviceStatusDurationService;
+
+    @InjectMocks
+    private DeviceStatusDurationController deviceStatusDurationController;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        this.mockMvc = MockMvcBuilders.standaloneSetup(deviceStatusDurationController)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void testGetDailyDurations_Success() throws Exception {
+        when(deviceStatusDurationService.getDailyDurations(1L, "ON", FROM, TO))
+                .thenReturn(List.of(new DeviceStatusDuration(1L, FROM, "ON", 3600L)));
+
+        mockMvc.perform(get(URL)
+                        .param("deviceId", "1")
+                        .param("status", "ON")
+                        .param("from", "2024-08-01")
+                        .param("to", "2024-08-31"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].deviceId", is(1)))
+                .andExpect(jsonPath("$[0].seconds", is(3600)));
+
+        verify(deviceStatusDurationService, times(1)).getDailyDurations(1L, "ON", FROM, TO);
+    }
+
+    @Test
+    void testGetTotalDurations_Success() throws Exception {
+        when(deviceStatusDurationService.getTotalDurations(null, null, FROM, TO))
+                .thenReturn(List.of(new DeviceStatusDurationTotal(1L, "ON", 7200L)));
+
+        mockMvc.perform(get(URL + "/total")
+                        .param("from", "2024-08-01")
+                        .param("to", "2024-08-31"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].status", is("ON")))
+                .andExpect(jsonPath("$[0].seconds", is(7200)));
+
+        verify(deviceStatusDurationService, times(1)).getTotalDurations(null, null, FROM, TO);
+    }
+
+    @Test
+    void testGetTotalDurations_InvalidPeriod() throws Exception {
+        when(deviceStatusDurationService.getTotalDurations(null, null, TO, FROM))
+                .thenThrow(new BadRequestException("Start date must not be after end date"));
+
+        mockMvc.perform(get(URL + "/total")
+                        .param("from", "2024-08-31")
+                        .param("to", "2024-08-01"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Start date must not be after end date"));
+    }
+
+}
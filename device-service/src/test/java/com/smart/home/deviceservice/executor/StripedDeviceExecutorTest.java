@@ -0,0 +1,154 @@
+package com.smart.home.deviceservice.executor;
+
+import com.smart.home.deviceservice.handler.BadRequestException;
+import com.smart.home.deviceservice.handler.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StripedDeviceExecutorTest {
+
+    private StripedDeviceExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void execute_SameDevice_RunsOnSameStripeInOrder() {
+        executor = new StripedDeviceExecutor(4, 100, 1000, new SimpleMeterRegistry());
+        List<Integer> order = new CopyOnWriteArrayList<>();
+        List<String> threads = new CopyOnWriteArrayList<>();
+
+        for (int i = 0; i < 20; i++) {
+            int value = i;
+            executor.execute(7L, () -> {
+                order.add(value);
+                threads.add(Thread.currentThread().getName());
+                return null;
+            });
+        }
+
+        assertEquals(IntStream.range(0, 20).boxed().collect(Collectors.toList()), order);
+        assertEquals(1, threads.stream().distinct().count());
+    }
+
+    @Test
+    void execute_DifferentStripes_RunInParallel() throws Exception {
+        executor = new StripedDeviceExecutor(4, 100, 2000, new SimpleMeterRegistry());
+        assertNotEquals(executor.stripeOf(1L), executor.stripeOf(2L));
+        CountDownLatch bothRunning = new CountDownLatch(2);
+
+        CompletableFuture<Boolean> first = CompletableFuture.supplyAsync(() -> executor.execute(1L, () -> awaitBoth(bothRunning)));
+        CompletableFuture<Boolean> second = CompletableFuture.supplyAsync(() -> executor.execute(2L, () -> awaitBoth(bothRunning)));
+
+        assertTrue(first.get(2, TimeUnit.SECONDS));
+        assertTrue(second.get(2, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void execute_CommandThrows_RethrowsSameException() {
+        executor = new StripedDeviceExecutor(2, 10, 1000, new SimpleMeterRegistry());
+
+        assertThrows(BadRequestException.class, () -> executor.execute(1L, () -> {
+            throw new BadRequestException("Device already has the status 'ON'. No change necessary.");
+        }));
+    }
+
+    @Test
+    void execute_NestedCommand_RunsInline() {
+        executor = new StripedDeviceExecutor(1, 10, 1000, new SimpleMeterRegistry());
+
+        String result = executor.execute(1L, () -> executor.execute(2L, () -> "done"));
+
+        assertEquals("done", result);
+    }
+
+    @Test
+    void execute_QueueFull_ThrowsTooManyRequestsException() throws Exception {
+        executor = new StripedDeviceExecutor(1, 1, 2000, new SimpleMeterRegistry());
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Object> blocking = CompletableFuture.supplyAsync(() -> executor.execute(1L, () -> {
+            running.countDown();
+            awaitQuietly(release);
+            return null;
+        }));
+        running.await(1, TimeUnit.SECONDS);
+        CompletableFuture<Object> queued = CompletableFuture.supplyAsync(() -> executor.execute(1L, () -> null));
+        Thread.sleep(100);
+
+        assertThrows(TooManyRequestsException.class, () -> executor.execute(1L, () -> null));
+        release.countDown();
+        blocking.get(1, TimeUnit.SECONDS);
+        queued.get(1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void execute_TimedOutBeforeStart_SkipsCommand() throws Exception {
+        executor = new StripedDeviceExecutor(1, 10, 100, new SimpleMeterRegistry());
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean skippedCommandRan = new AtomicBoolean();
+        CompletableFuture<Object> blocking = CompletableFuture.supplyAsync(() -> executor.execute(1L, () -> {
+            running.countDown();
+            awaitQuietly(release);
+            return null;
+        }));
+        running.await(1, TimeUnit.SECONDS);
+
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> executor.execute(1L, () -> {
+            skippedCommandRan.set(true);
+            return null;
+        }));
+        release.countDown();
+        assertThrows(ExecutionException.class, () -> blocking.get(1, TimeUnit.SECONDS));
+
+        assertEquals("Command for device 1 timed out and was not applied", exception.getMessage());
+        assertEquals("done", executor.submit(1L, () -> "done").get(1, TimeUnit.SECONDS));
+        assertFalse(skippedCommandRan.get());
+    }
+
+    @Test
+    void isStripeThread_ThreadNamedLikeStripe_ReturnsFalse() throws Exception {
+        executor = new StripedDeviceExecutor(1, 10, 1000, new SimpleMeterRegistry());
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+        Thread thread = new Thread(() -> result.complete(executor.isStripeThread()), "device-stripe-0");
+        thread.start();
+
+        assertFalse(result.get(1, TimeUnit.SECONDS));
+        assertTrue(executor.submit(1L, executor::isStripeThread).get(1, TimeUnit.SECONDS));
+    }
+
+    private boolean awaitBoth(CountDownLatch latch) {
+        latch.countDown();
+        return awaitQuietly(latch);
+    }
+
+    private boolean awaitQuietly(CountDownLatch latch) {
+        try {
+            return latch.await(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+}
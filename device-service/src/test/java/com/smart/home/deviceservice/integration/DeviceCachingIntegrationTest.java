@@ -5,11 +5,15 @@ import com.smart.home.deviceservice.handler.BadRequestException;
 import com.smart.home.deviceservice.mapper.DeviceMapper;
 import com.smart.home.deviceservice.mapper.DeviceMapperImpl;
 import com.smart.home.deviceservice.model.Device;
+import com.smart.home.deviceservice.repository.DeviceJdbcRepository;
 import com.smart.home.deviceservice.repository.DeviceRepository;
 import com.smart.home.deviceservice.repository.model.DeviceDAO;
 import com.smart.home.deviceservice.repository.model.DeviceTypeDAO;
 import com.smart.home.deviceservice.service.DeviceService;
+import com.smart.home.deviceservice.service.DeviceStatusDurationService;
 import com.smart.home.deviceservice.service.impl.DeviceServiceImpl;
+import com.smart.home.deviceservice.spatial.DeviceSpatialIndex;
+import com.smart.home.deviceservice.spatial.DeviceSpatialIndexSync;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -48,6 +52,18 @@ public class DeviceCachingIntegrationTest {
     @MockBean
     private DeviceRepository deviceRepository;
 
+    @MockBean
+    private DeviceJdbcRepository deviceJdbcRepository;
+
+    @MockBean
+    private DeviceStatusDurationService deviceStatusDurationService;
+
+    @MockBean
+    private DeviceSpatialIndex deviceSpatialIndex;
+
+    @MockBean
+    private DeviceSpatialIndexSync deviceSpatialIndexSync;
+
     @Autowired
     private DeviceService deviceService;
 
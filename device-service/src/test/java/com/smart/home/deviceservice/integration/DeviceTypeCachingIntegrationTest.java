@@ -4,6 +4,7 @@ import com.smart.home.deviceservice.cache.CacheConfig;
 import com.smart.home.deviceservice.mapper.DeviceTypeMapper;
 import com.smart.home.deviceservice.mapper.DeviceTypeMapperImpl;
 import com.smart.home.deviceservice.model.DeviceType;
+import com.smart.home.deviceservice.registry.DeviceTypeRegistryPublisher;
 import com.smart.home.deviceservice.repository.DeviceTypeRepository;
 import com.smart.home.deviceservice.repository.model.DeviceTypeDAO;
 import com.smart.home.deviceservice.service.DeviceTypeService;
@@ -45,6 +46,9 @@ public class DeviceTypeCachingIntegrationTest {
     @MockBean
     private DeviceTypeRepository deviceTypeRepository;
 
+    @MockBean
+    private DeviceTypeRegistryPublisher deviceTypeRegistryPublisher;
+
     @Autowired
     private DeviceTypeService deviceTypeService;
 
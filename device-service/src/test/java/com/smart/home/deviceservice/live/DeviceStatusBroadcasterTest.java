@@ -0,0 +1,154 @@
+package com.smart.home.deviceservice.live;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.smart.home.deviceservice.handler.TooManyRequestsException;
+import com.smart.home.deviceservice.model.Device;
+import com.smart.home.deviceservice.model.DeviceStatusEvent;
+import com.smart.home.deviceservice.service.DeviceService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DeviceStatusBroadcasterTest {
+
+    @Mock
+    private DeviceService deviceService;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private final Deque<SseEmitter> emitters = new ArrayDeque<>();
+
+    private DeviceStatusBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        meterRegistry = new SimpleMeterRegistry();
+        broadcaster = new DeviceStatusBroadcaster(objectMapper, deviceService, meterRegistry, 1) {
+            @Override
+            SseEmitter createEmitter() {
+                return emitters.removeFirst();
+            }
+        };
+        ReflectionTestUtils.setField(broadcaster, "maxSubscribers", 2);
+        ReflectionTestUtils.setField(broadcaster, "bufferSize", 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        broadcaster.shutdown();
+    }
+
+    @Test
+    void broadcast_SendsOnlyToMatchingSubscribers() throws Exception {
+        SseEmitter byId = mock(SseEmitter.class);
+        SseEmitter byType = mock(SseEmitter.class);
+        emitters.add(byId);
+        emitters.add(byType);
+        CountDownLatch sent = new CountDownLatch(2);
+        doAnswer(invocation -> {
+            sent.countDown();
+            return null;
+        }).when(byId).send(anySet());
+        doAnswer(invocation -> {
+            sent.countDown();
+            return null;
+        }).when(byType).send(anySet());
+        broadcaster.subscribe(Set.of(1L), null);
+        broadcaster.subscribe(null, 7L);
+        when(deviceService.getDeviceById(1L)).thenReturn(device(1L, 3L));
+        when(deviceService.getDeviceById(2L)).thenReturn(device(2L, 7L));
+
+        broadcaster.broadcast(event(1L, 1L));
+        broadcaster.broadcast(event(2L, 2L));
+
+        // SseEmitter.send is synchronized, so waiting through a timeout verify would block the sender thread
+        assertTrue(sent.await(1, TimeUnit.SECONDS));
+        verify(byId, times(1)).send(anySet());
+        verify(byType, times(1)).send(anySet());
+        verify(deviceService, times(1)).getDeviceById(1L);
+    }
+
+    @Test
+    void broadcast_SlowSubscriber_CoalescesAndDropsOldest() throws Exception {
+        SseEmitter emitter = mock(SseEmitter.class);
+        emitters.add(emitter);
+        CountDownLatch sending = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch sent = new CountDownLatch(2);
+        doAnswer(invocation -> {
+            sending.countDown();
+            release.await(1, TimeUnit.SECONDS);
+            sent.countDown();
+            return null;
+        }).when(emitter).send(anySet());
+        broadcaster.subscribe(null, null);
+
+        broadcaster.broadcast(event(1L, 1L));
+        sending.await(1, TimeUnit.SECONDS);
+        broadcaster.broadcast(event(2L, 2L));
+        broadcaster.broadcast(event(3L, 2L));
+        broadcaster.broadcast(event(4L, 3L));
+        release.countDown();
+
+        assertTrue(sent.await(1, TimeUnit.SECONDS));
+        verify(emitter, times(2)).send(anySet());
+        assertEquals(1.0, meterRegistry.get("device.live.dropped").counter().count());
+    }
+
+    @Test
+    void subscribe_LimitReached_ThrowsTooManyRequestsException() {
+        emitters.add(mock(SseEmitter.class));
+        emitters.add(mock(SseEmitter.class));
+        broadcaster.subscribe(null, null);
+        broadcaster.subscribe(null, null);
+
+        assertThrows(TooManyRequestsException.class, () -> broadcaster.subscribe(null, null));
+        assertEquals(2, broadcaster.getSubscriberCount());
+    }
+
+    @Test
+    void broadcast_NoSubscribers_DoesNothing() {
+        broadcaster.broadcast(event(1L, 1L));
+
+        verify(deviceService, never()).getDeviceById(1L);
+    }
+
+    private DeviceStatusEvent event(Long eventId, Long deviceId) {
+        return new DeviceStatusEvent(eventId, deviceId, "OFF", "ON", LocalDateTime.now(), null, null);
+    }
+
+    private Device device(Long deviceId, Long deviceType) {
+        Device device = new Device();
+        device.setDeviceId(deviceId);
+        device.setDeviceType(deviceType);
+        return device;
+    }
+
+}
@@ -0,0 +1,116 @@
+package com.smart.home.deviceservice.outbox;
+
+import com.smart.home.deviceservice.repository.DeviceStatusOutboxJdbcRepository;
+import com.smart.home.deviceservice.repository.model.DeviceStatusOutboxDAO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DeviceStatusOutboxRelayTest {
+
+    @Mock
+    private DeviceStatusOutboxJdbcRepository outboxRepository;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private MeterRegistry meterRegistry;
+
+    private DeviceStatusOutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        relay = new DeviceStatusOutboxRelay(outboxRepository, redisTemplate, transactionTemplate, meterRegistry);
+        ReflectionTestUtils.setField(relay, "streamKey", "device-status-changes");
+        ReflectionTestUtils.setField(relay, "maxStreamLength", 1000L);
+        ReflectionTestUtils.setField(relay, "consumerGroups", List.of());
+        ReflectionTestUtils.setField(relay, "batchSize", 2);
+        ReflectionTestUtils.setField(relay, "retentionHours", 24L);
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(mock(TransactionStatus.class)));
+    }
+
+    @Test
+    void publishBatch_PublishesAndMarksEvents() {
+        when(outboxRepository.lockUnpublished(2)).thenReturn(List.of(event(1L), event(2L)));
+
+        int published = relay.publishBatch();
+
+        assertEquals(2, published);
+        verify(redisTemplate, times(1)).executePipelined(any(RedisCallback.class));
+        verify(outboxRepository, times(1)).markPublished(eq(List.of(1L, 2L)), any(LocalDateTime.class));
+        assertEquals(2.0, meterRegistry.get("device.outbox.published").counter().count());
+    }
+
+    @Test
+    void publishBatch_NoEvents_SkipsRedis() {
+        when(outboxRepository.lockUnpublished(2)).thenReturn(List.of());
+
+        int published = relay.publishBatch();
+
+        assertEquals(0, published);
+        verify(redisTemplate, never()).executePipelined(any(RedisCallback.class));
+        verify(outboxRepository, never()).markPublished(any(), any());
+    }
+
+    @Test
+    void publishBatch_RedisFailure_LeavesEventsUnpublished() {
+        when(outboxRepository.lockUnpublished(2)).thenReturn(List.of(event(1L)));
+        when(redisTemplate.executePipelined(any(RedisCallback.class))).thenThrow(new RedisConnectionFailureException("down"));
+
+        assertThrows(RedisConnectionFailureException.class, () -> relay.publishBatch());
+        verify(outboxRepository, never()).markPublished(any(), any());
+    }
+
+    @Test
+    void relay_DrainsFullBatchesAndRefreshesMetrics() {
+        when(outboxRepository.lockUnpublished(2)).thenReturn(List.of(event(1L), event(2L)), List.of(event(3L)));
+        when(outboxRepository.countUnpublished()).thenReturn(0L);
+        when(outboxRepository.findOldestUnpublishedCreatedAt()).thenReturn(LocalDateTime.now().minusSeconds(30));
+        when(outboxRepository.deletePublishedBefore(any(LocalDateTime.class), anyInt())).thenReturn(0);
+
+        relay.relay();
+
+        verify(outboxRepository, times(2)).lockUnpublished(2);
+        verify(outboxRepository, times(2)).markPublished(any(), any(LocalDateTime.class));
+        assertEquals(3.0, meterRegistry.get("device.outbox.published").counter().count());
+        assertEquals(30.0, meterRegistry.get("device.outbox.lag.seconds").gauge().value(), 1.0);
+    }
+
+    private DeviceStatusOutboxDAO event(Long id) {
+        LocalDateTime now = LocalDateTime.now();
+        return new DeviceStatusOutboxDAO(id, 10L + id, "OFF", "ON", now, "RAIN", null, now, null);
+    }
+
+}
@@ -0,0 +1,101 @@
+package com.smart.home.deviceservice.registry;
+
+import com.smart.home.deviceservice.repository.DeviceTypeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DeviceTypeRegistryPublisherTest {
+
+    @Mock
+    private DeviceTypeRepository deviceTypeRepository;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private SetOperations<String, String> setOperations;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private DeviceTypeRegistryPublisher deviceTypeRegistryPublisher;
+
+    @BeforeEach
+    void setUp() {
+        deviceTypeRegistryPublisher = new DeviceTypeRegistryPublisher(deviceTypeRepository, redisTemplate);
+        ReflectionTestUtils.setField(deviceTypeRegistryPublisher, "idsKey", "device-types:ids");
+        ReflectionTestUtils.setField(deviceTypeRegistryPublisher, "versionKey", "device-types:version");
+        ReflectionTestUtils.setField(deviceTypeRegistryPublisher, "channel", "device-types:changes");
+    }
+
+    @Test
+    void republish_ReplacesSetAndPublishesVersion() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get("device-types:version")).thenReturn("3");
+        when(deviceTypeRepository.findAllDeviceTypeIds()).thenReturn(List.of(1L, 2L));
+        when(redisTemplate.opsForSet()).thenReturn(setOperations);
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), eq("3"))).thenReturn(4L);
+
+        deviceTypeRegistryPublisher.republish();
+
+        verify(setOperations, times(1)).add(startsWith("device-types:ids:rebuild:"), eq("1"), eq("2"));
+        verify(redisTemplate, times(1)).execute(any(RedisScript.class),
+                argThat(keys -> keys.size() == 3 && keys.get(1).equals("device-types:ids") && keys.get(2).equals("device-types:version")), eq("3"));
+        verify(redisTemplate, times(1)).convertAndSend("device-types:changes", "4");
+    }
+
+    @Test
+    void republish_ChangedMeanwhile_NotPublished() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(deviceTypeRepository.findAllDeviceTypeIds()).thenReturn(List.of());
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), eq(""))).thenReturn(null);
+
+        deviceTypeRegistryPublisher.republish();
+
+        verify(redisTemplate, never()).opsForSet();
+        verify(redisTemplate, never()).convertAndSend(anyString(), anyString());
+    }
+
+    @Test
+    void added_PublishesChange() {
+        when(redisTemplate.execute(any(RedisScript.class), eq(List.of("device-types:ids", "device-types:version")), eq("3"))).thenReturn(5L);
+
+        deviceTypeRegistryPublisher.added(3L);
+
+        verify(redisTemplate, never()).opsForSet();
+        verify(redisTemplate, times(1)).convertAndSend("device-types:changes", "5:+3");
+    }
+
+    @Test
+    void removed_RedisUnavailable_NotPropagated() {
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), eq("3"))).thenThrow(new RedisConnectionFailureException("Connection refused"));
+
+        deviceTypeRegistryPublisher.removed(3L);
+
+        verify(redisTemplate, never()).convertAndSend(anyString(), anyString());
+    }
+
+}
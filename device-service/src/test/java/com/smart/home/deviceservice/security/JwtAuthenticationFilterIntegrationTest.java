@@ -1,6 +1,8 @@
 package com.smart.home.deviceservice.security;
 
 import com.smart.home.deviceservice.client.AuthClient;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletResponse;
@@ -14,6 +16,7 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.io.IOException;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -35,9 +38,38 @@ class JwtAuthenticationFilterIntegrationTest {
     @MockBean
     private AuthClient authClient;
 
+    @MockBean
+    private JwtTokenVerifier jwtTokenVerifier;
+
+    @MockBean
+    private RevokedTokenFilter revokedTokenFilter;
+
+    private final Claims claims = Jwts.claims().subject("testUser").build();
+
     @Test
     public void testDoFilterInternal_ValidToken() throws ServletException, IOException {
-        when(authClient.validateToken("validToken")).thenReturn(true);
+        when(jwtTokenVerifier.verify("validToken")).thenReturn(claims);
+        when(revokedTokenFilter.mightBeRevoked(claims)).thenReturn(false);
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer validToken");
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain chain = mock(FilterChain.class);
+
+        jwtAuthenticationFilter.doFilterInternal(request, response, chain);
+
+        assertNotNull(SecurityContextHolder.getContext().getAuthentication());
+        assertEquals("testUser", SecurityContextHolder.getContext().getAuthentication().getPrincipal());
+        verify(authClient, never()).validateToken("validToken", null, List.of());
+        verify(chain).doFilter(request, response);
+    }
+
+    @Test
+    public void testDoFilterInternal_PossiblyRevokedTokenChecked() throws ServletException, IOException {
+        when(jwtTokenVerifier.verify("validToken")).thenReturn(claims);
+        when(revokedTokenFilter.mightBeRevoked(claims)).thenReturn(true);
+        when(authClient.validateToken("validToken", null, List.of())).thenReturn(true);
 
         MockHttpServletRequest request = new MockHttpServletRequest();
         request.addHeader("Authorization", "Bearer validToken");
@@ -53,7 +85,7 @@ class JwtAuthenticationFilterIntegrationTest {
 
     @Test
     public void testDoFilterInternal_InvalidToken() throws ServletException, IOException {
-        when(authClient.validateToken("invalidToken")).thenReturn(false);
+        when(jwtTokenVerifier.verify("invalidToken")).thenReturn(null);
 
         MockHttpServletRequest request = new MockHttpServletRequest();
         request.addHeader("Authorization", "Bearer invalidToken");
@@ -63,6 +95,26 @@ class JwtAuthenticationFilterIntegrationTest {
 
         jwtAuthenticationFilter.doFilterInternal(request, response, chain);
 
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        assertEquals(HttpServletResponse.SC_FORBIDDEN, response.getStatus());
+        verify(authClient, never()).validateToken("invalidToken", null, List.of());
+        verify(chain, never()).doFilter(request, response);
+    }
+
+    @Test
+    public void testDoFilterInternal_RevokedToken() throws ServletException, IOException {
+        when(jwtTokenVerifier.verify("revokedToken")).thenReturn(claims);
+        when(revokedTokenFilter.mightBeRevoked(claims)).thenReturn(true);
+        when(authClient.validateToken("revokedToken", null, List.of())).thenReturn(false);
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer revokedToken");
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain chain = mock(FilterChain.class);
+
+        jwtAuthenticationFilter.doFilterInternal(request, response, chain);
+
         assertNull(SecurityContextHolder.getContext().getAuthentication());
         assertEquals(HttpServletResponse.SC_FORBIDDEN, response.getStatus());
         verify(chain, never()).doFilter(request, response);
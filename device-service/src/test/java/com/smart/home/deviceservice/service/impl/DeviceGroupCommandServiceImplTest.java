@@ -0,0 +1,202 @@
+package com.smart.home.deviceservice.service.impl;
+
+import com.smart.home.deviceservice.handler.BadRequestException;
+import com.smart.home.deviceservice.model.Device;
+import com.smart.home.deviceservice.model.DeviceGroupCommand;
+import com.smart.home.deviceservice.model.DeviceGroupCommandResult;
+import com.smart.home.deviceservice.model.DeviceStatusChange;
+import com.smart.home.deviceservice.model.DeviceStatusPeriod;
+import com.smart.home.deviceservice.repository.DeviceJdbcRepository;
+import com.smart.home.deviceservice.repository.DeviceStatusChangeJdbcRepository;
+import com.smart.home.deviceservice.repository.DeviceStatusOutboxJdbcRepository;
+import com.smart.home.deviceservice.service.DeviceStatusDurationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DeviceGroupCommandServiceImplTest {
+
+    @Mock
+    private DeviceJdbcRepository deviceJdbcRepository;
+
+    @Mock
+    private DeviceStatusChangeJdbcRepository statusChangeJdbcRepository;
+
+    @Mock
+    private DeviceStatusOutboxJdbcRepository statusOutboxRepository;
+
+    @Mock
+    private DeviceStatusDurationService deviceStatusDurationService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private Cache cache;
+
+    @InjectMocks
+    private DeviceGroupCommandServiceImpl deviceGroupCommandService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(deviceGroupCommandService, "batchSize", 2);
+        lenient().when(cacheManager.getCache("device")).thenReturn(cache);
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(mock(TransactionStatus.class)));
+    }
+
+    @Test
+    void changeDeviceGroupStatus_Success() {
+        DeviceGroupCommand command = new DeviceGroupCommand(1L, null, null, null, null, null, "OFF");
+        LocalDateTime since = LocalDateTime.now().minusHours(1);
+        when(deviceJdbcRepository.findDevices(command)).thenReturn(List.of(
+                device(1L, "ON", since), device(2L, "OFF", since), device(3L, "ON", since), device(4L, "ON", since)));
+        when(deviceJdbcRepository.lockByIds(List.of(1L, 3L))).thenReturn(List.of(device(1L, "ON", since), device(3L, "ON", since)));
+        when(deviceJdbcRepository.lockByIds(List.of(4L))).thenReturn(List.of(device(4L, "ON", since)));
+
+        DeviceGroupCommandResult result = deviceGroupCommandService.changeDeviceGroupStatus(command, "group status change");
+
+        assertEquals(4, result.getMatchedDevices());
+        assertEquals(3, result.getChangedDevices());
+        assertEquals(1, result.getUnchangedDevices());
+        assertEquals(0, result.getFailedDevices());
+        verify(deviceJdbcRepository, times(1)).updateStatus(eq(List.of(1L, 3L)), eq("OFF"), any(LocalDateTime.class));
+        verify(deviceJdbcRepository, times(1)).updateStatus(eq(List.of(4L)), eq("OFF"), any(LocalDateTime.class));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<DeviceStatusChange>> captor = ArgumentCaptor.forClass(List.class);
+        verify(statusChangeJdbcRepository, times(2)).batchInsert(captor.capture());
+        DeviceStatusChange statusChange = captor.getAllValues().get(0).get(0);
+        assertEquals(1L, statusChange.getDevice());
+        assertEquals("ON", statusChange.getOldStatus());
+        assertEquals("OFF", statusChange.getNewStatus());
+        verify(statusOutboxRepository, times(1)).batchInsert(eq(captor.getAllValues().get(0)), any(LocalDateTime.class));
+        verify(statusOutboxRepository, times(1)).batchInsert(eq(captor.getAllValues().get(1)), any(LocalDateTime.class));
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<DeviceStatusPeriod>> periodCaptor = ArgumentCaptor.forClass(List.class);
+        verify(deviceStatusDurationService, times(2)).recordStatusDurations(periodCaptor.capture());
+        assertEquals(2, periodCaptor.getAllValues().get(0).size());
+        DeviceStatusPeriod statusPeriod = periodCaptor.getAllValues().get(0).get(0);
+        assertEquals("ON", statusPeriod.getStatus());
+        assertEquals(since, statusPeriod.getFrom());
+        assertEquals(statusChange.getChangedAt(), statusPeriod.getTo());
+        verify(cache, times(3)).evict(any());
+    }
+
+    @Test
+    void changeDeviceGroupStatus_ChunkFailure_ReportsFailedDevices() {
+        DeviceGroupCommand command = new DeviceGroupCommand(null, "ON", null, null, null, null, "OFF");
+        LocalDateTime since = LocalDateTime.now().minusHours(1);
+        when(deviceJdbcRepository.findDevices(command)).thenReturn(List.of(device(1L, "ON", since)));
+        when(deviceJdbcRepository.lockByIds(List.of(1L))).thenReturn(List.of(device(1L, "ON", since)));
+        doThrow(new QueryTimeoutException("timeout")).when(statusChangeJdbcRepository).batchInsert(anyList());
+
+        DeviceGroupCommandResult result = deviceGroupCommandService.changeDeviceGroupStatus(command, "group status change");
+
+        assertEquals(0, result.getChangedDevices());
+        assertEquals(1, result.getFailedDevices());
+        assertEquals(1L, result.getFailures().get(0).getDeviceId());
+    }
+
+    @Test
+    void changeDeviceGroupStatus_Area_Success() {
+        DeviceGroupCommand command = new DeviceGroupCommand(null, null, 56.0, 57.0, 24.0, 25.0, "OFF");
+        LocalDateTime since = LocalDateTime.now().minusHours(1);
+        when(deviceJdbcRepository.findDevices(command)).thenReturn(List.of(device(1L, "ON", since)));
+        when(deviceJdbcRepository.lockByIds(List.of(1L))).thenReturn(List.of(device(1L, "ON", since)));
+
+        DeviceGroupCommandResult result = deviceGroupCommandService.changeDeviceGroupStatus(command, "group status change");
+
+        assertEquals(1, result.getMatchedDevices());
+        assertEquals(1, result.getChangedDevices());
+    }
+
+    @Test
+    void changeDeviceGroupStatus_ChangedSinceSelection_Skipped() {
+        DeviceGroupCommand command = new DeviceGroupCommand(null, "ON", null, null, null, null, "OFF");
+        LocalDateTime since = LocalDateTime.now().minusHours(1);
+        when(deviceJdbcRepository.findDevices(command)).thenReturn(List.of(device(1L, "ON", since), device(2L, "ON", since)));
+        when(deviceJdbcRepository.lockByIds(List.of(1L, 2L))).thenReturn(List.of(device(1L, "ON", since), device(2L, "STANDBY", LocalDateTime.now())));
+
+        DeviceGroupCommandResult result = deviceGroupCommandService.changeDeviceGroupStatus(command, "group status change");
+
+        assertEquals(2, result.getMatchedDevices());
+        assertEquals(1, result.getChangedDevices());
+        assertEquals(1, result.getUnchangedDevices());
+        verify(deviceJdbcRepository, times(1)).updateStatus(eq(List.of(1L)), eq("OFF"), any(LocalDateTime.class));
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<DeviceStatusChange>> captor = ArgumentCaptor.forClass(List.class);
+        verify(statusChangeJdbcRepository, times(1)).batchInsert(captor.capture());
+        assertEquals(1, captor.getValue().size());
+        assertEquals("ON", captor.getValue().get(0).getOldStatus());
+    }
+
+    @Test
+    void changeDeviceGroupStatus_MovedOutOfArea_Skipped() {
+        DeviceGroupCommand command = new DeviceGroupCommand(null, null, 56.0, 57.0, 24.0, 25.0, "OFF");
+        LocalDateTime since = LocalDateTime.now().minusHours(1);
+        when(deviceJdbcRepository.findDevices(command)).thenReturn(List.of(device(1L, "ON", since)));
+        when(deviceJdbcRepository.lockByIds(List.of(1L))).thenReturn(List.of(
+                new Device(1L, "Sprinkler 1", 1L, 54.68, 25.28, "ON", since)));
+
+        DeviceGroupCommandResult result = deviceGroupCommandService.changeDeviceGroupStatus(command, "group status change");
+
+        assertEquals(1, result.getMatchedDevices());
+        assertEquals(0, result.getChangedDevices());
+        assertEquals(1, result.getUnchangedDevices());
+        verify(deviceJdbcRepository, never()).updateStatus(anyList(), any(), any());
+    }
+
+    @Test
+    void changeDeviceGroupStatus_NoSelection_ThrowsBadRequestException() {
+        DeviceGroupCommand command = new DeviceGroupCommand(null, null, null, null, null, null, "OFF");
+
+        assertThrows(BadRequestException.class, () -> deviceGroupCommandService.changeDeviceGroupStatus(command, "group status change"));
+        verify(deviceJdbcRepository, never()).findDevices(any());
+    }
+
+    @Test
+    void changeDeviceGroupStatus_IncompleteArea_ThrowsBadRequestException() {
+        DeviceGroupCommand command = new DeviceGroupCommand(null, null, 56.0, 57.0, 24.0, null, "OFF");
+
+        assertThrows(BadRequestException.class, () -> deviceGroupCommandService.changeDeviceGroupStatus(command, "group status change"));
+        verify(deviceJdbcRepository, never()).findDevices(any());
+    }
+
+
+    private Device device(Long id, String status, LocalDateTime lastUpdated) {
+        return new Device(id, "Sprinkler " + id, 1L, 56.97, 24.16, status, lastUpdated);
+    }
+
+}
@@ -0,0 +1,139 @@
+package com.smart.home.deviceservice.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.smart.home.deviceservice.handler.BadRequestException;
+import com.smart.home.deviceservice.model.Device;
+import com.smart.home.deviceservice.model.DeviceImportFormat;
+import com.smart.home.deviceservice.model.DeviceImportReport;
+import com.smart.home.deviceservice.repository.DeviceJdbcRepository;
+import com.smart.home.deviceservice.repository.DeviceTypeRepository;
+import com.smart.home.deviceservice.repository.model.DeviceTypeDAO;
+import com.smart.home.deviceservice.spatial.DeviceSpatialIndexSync;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DeviceImportServiceImplTest {
+
+    @Mock
+    private DeviceJdbcRepository deviceJdbcRepository;
+
+    @Mock
+    private DeviceTypeRepository deviceTypeRepository;
+
+    @Mock
+    private DeviceSpatialIndexSync deviceSpatialIndexSync;
+
+    private DeviceImportServiceImpl deviceImportService;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        deviceImportService = new DeviceImportServiceImpl(deviceJdbcRepository, deviceTypeRepository,
+                Validation.buildDefaultValidatorFactory().getValidator(), objectMapper, deviceSpatialIndexSync);
+        ReflectionTestUtils.setField(deviceImportService, "batchSize", 2);
+        ReflectionTestUtils.setField(deviceImportService, "maxReportedErrors", 10);
+        when(deviceTypeRepository.findAll()).thenReturn(List.of(new DeviceTypeDAO(1L, "Smart Light")));
+        lenient().when(deviceJdbcRepository.findMaxId()).thenReturn(0L);
+    }
+
+    @Test
+    void importDevices_Csv_InsertsInBatches() {
+        String csv = """
+                deviceName,deviceType,latitude,longitude,status
+                Light 1,1,56.97,24.16,OFF
+                "Light, kitchen",1,56.97,24.16,ON
+                Light 3,1,56.97,24.16,OFF
+                """;
+        List<List<Device>> batches = new ArrayList<>();
+        doAnswer(invocation -> batches.add(new ArrayList<>(invocation.<List<Device>>getArgument(0))))
+                .when(deviceJdbcRepository).batchInsert(anyList());
+
+        DeviceImportReport report = deviceImportService.importDevices(stream(csv), DeviceImportFormat.CSV);
+
+        assertEquals(3, report.getTotalRows());
+        assertEquals(3, report.getImportedRows());
+        assertEquals(0, report.getFailedRows());
+        assertEquals(2, batches.size());
+        assertEquals(2, batches.get(0).size());
+        assertEquals("Light, kitchen", batches.get(0).get(1).getDeviceName());
+        assertEquals(1, batches.get(1).size());
+        verify(deviceSpatialIndexSync, times(1)).imported(0L);
+    }
+
+    @Test
+    void importDevices_Ndjson_ReportsInvalidRows() {
+        String ndjson = """
+                {"deviceName":"Light 1","deviceType":1,"latitude":56.97,"longitude":24.16,"status":"OFF"}
+                {"deviceName":"Light 2","deviceType":1,"latitude":156.97,"longitude":24.16,"status":"OFF"}
+                {"deviceName":"Light 3","deviceType":7,"latitude":56.97,"longitude":24.16,"status":"OFF"}
+                not json
+                """;
+
+        DeviceImportReport report = deviceImportService.importDevices(stream(ndjson), DeviceImportFormat.NDJSON);
+
+        assertEquals(4, report.getTotalRows());
+        assertEquals(1, report.getImportedRows());
+        assertEquals(3, report.getFailedRows());
+        assertEquals(2L, report.getErrors().get(0).getLine());
+        assertTrue(report.getErrors().get(0).getMessage().startsWith("latitude"));
+        assertEquals("Device type not found with id: 7", report.getErrors().get(1).getMessage());
+        assertEquals(4L, report.getErrors().get(2).getLine());
+        verify(deviceJdbcRepository, times(1)).batchInsert(anyList());
+    }
+
+    @Test
+    void importDevices_BatchFailure_ReportsBatchRows() {
+        String csv = """
+                deviceName,deviceType,latitude,longitude,status
+                Light 1,1,56.97,24.16,OFF
+                """;
+        doThrow(new DataIntegrityViolationException("constraint")).when(deviceJdbcRepository).batchInsert(anyList());
+
+        DeviceImportReport report = deviceImportService.importDevices(stream(csv), DeviceImportFormat.CSV);
+
+        assertEquals(0, report.getImportedRows());
+        assertEquals(1, report.getFailedRows());
+        assertEquals(2L, report.getErrors().get(0).getLine());
+    }
+
+    @Test
+    void importDevices_InvalidCsvHeader_ThrowsBadRequestException() {
+        String csv = "name,type\nLight 1,1\n";
+
+        assertThrows(BadRequestException.class, () -> deviceImportService.importDevices(stream(csv), DeviceImportFormat.CSV));
+        verify(deviceJdbcRepository, never()).batchInsert(any());
+    }
+
+
+    private InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+}
@@ -3,23 +3,38 @@ package com.smart.home.deviceservice.service.impl;
 import com.smart.home.deviceservice.handler.BadRequestException;
 import com.smart.home.deviceservice.mapper.DeviceMapper;
 import com.smart.home.deviceservice.model.Device;
+import com.smart.home.deviceservice.model.DeviceFilter;
+import com.smart.home.deviceservice.model.DevicePage;
+import com.smart.home.deviceservice.repository.DeviceJdbcRepository;
 import com.smart.home.deviceservice.repository.DeviceRepository;
 import com.smart.home.deviceservice.repository.model.DeviceDAO;
+import com.smart.home.deviceservice.service.DeviceStatusDurationService;
+import com.smart.home.deviceservice.spatial.DeviceSpatialIndex;
+import com.smart.home.deviceservice.spatial.DeviceSpatialIndexSync;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -33,9 +48,26 @@ class DeviceServiceImplTest {
     @Mock
     private DeviceMapper deviceMapper;
 
+    @Mock
+    private DeviceJdbcRepository deviceJdbcRepository;
+
+    @Mock
+    private DeviceSpatialIndex deviceSpatialIndex;
+
+    @Mock
+    private DeviceSpatialIndexSync deviceSpatialIndexSync;
+
+    @Mock
+    private DeviceStatusDurationService deviceStatusDurationService;
+
     @InjectMocks
     private DeviceServiceImpl deviceControlService;
 
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(deviceControlService, "maxPageLimit", 1000);
+    }
+
     @Test
     void addDevice_Success() {
         Device device = new Device();
@@ -84,6 +116,9 @@ class DeviceServiceImplTest {
         Long deviceId = 1L;
         Device device = new Device();
         DeviceDAO deviceDAO = new DeviceDAO();
+        LocalDateTime onSince = LocalDateTime.now().minusHours(1);
+        deviceDAO.setStatus("ON");
+        deviceDAO.setLastUpdated(onSince);
 
         when(deviceRepository.findById(deviceId)).thenReturn(Optional.of(deviceDAO));
         when(deviceMapper.deviceToDeviceDAO(any(Device.class))).thenReturn(deviceDAO);
@@ -97,6 +132,7 @@ class DeviceServiceImplTest {
         verify(deviceMapper, times(1)).deviceToDeviceDAO(device);
         verify(deviceRepository, times(1)).save(deviceDAO);
         verify(deviceMapper, times(1)).deviceDAOToDevice(deviceDAO);
+        verify(deviceStatusDurationService, times(1)).recordStatusDuration(deviceId, "ON", onSince, device.getLastUpdated());
     }
 
     @Test
@@ -190,4 +226,109 @@ class DeviceServiceImplTest {
         verify(deviceMapper, times(2)).deviceDAOToDevice(any(DeviceDAO.class));
     }
 
+    @Test
+    void getDevicePage_HasNextPage() {
+        DeviceFilter filter = new DeviceFilter();
+        Device device1 = new Device();
+        device1.setDeviceId(1L);
+        Device device2 = new Device();
+        device2.setDeviceId(2L);
+        Device device3 = new Device();
+        device3.setDeviceId(3L);
+        when(deviceJdbcRepository.findDevicesAfter(filter, null, 3)).thenReturn(List.of(device1, device2, device3));
+
+        DevicePage result = deviceControlService.getDevicePage(filter, null, 2);
+
+        assertEquals(List.of(device1, device2), result.getItems());
+        assertEquals(2L, result.getNextCursor());
+    }
+
+    @Test
+    void getDevicePage_LastPage() {
+        DeviceFilter filter = new DeviceFilter();
+        Device device = new Device();
+        device.setDeviceId(5L);
+        when(deviceJdbcRepository.findDevicesAfter(filter, 4L, 3)).thenReturn(List.of(device));
+
+        DevicePage result = deviceControlService.getDevicePage(filter, 4L, 2);
+
+        assertEquals(List.of(device), result.getItems());
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+    void getDevicePage_InvalidLimit_ThrowsBadRequestException() {
+        assertThrows(BadRequestException.class, () -> deviceControlService.getDevicePage(new DeviceFilter(), null, 0));
+        assertThrows(BadRequestException.class, () -> deviceControlService.getDevicePage(new DeviceFilter(), null, 1001));
+        verify(deviceJdbcRepository, never()).findDevicesAfter(any(), any(), anyInt());
+    }
+
+    @Test
+    void getDevicesWithinRadius_ReturnsDevicesInIndexOrder() {
+        DeviceDAO deviceDAO1 = new DeviceDAO(1L);
+        DeviceDAO deviceDAO2 = new DeviceDAO(2L);
+        Device device1 = new Device();
+        Device device2 = new Device();
+        when(deviceSpatialIndex.isLoaded()).thenReturn(true);
+        when(deviceSpatialIndex.findWithinRadius(56.97, 24.16, 5)).thenReturn(List.of(2L, 1L));
+        when(deviceRepository.findAllById(List.of(2L, 1L))).thenReturn(List.of(deviceDAO1, deviceDAO2));
+        when(deviceMapper.deviceDAOToDevice(deviceDAO1)).thenReturn(device1);
+        when(deviceMapper.deviceDAOToDevice(deviceDAO2)).thenReturn(device2);
+
+        List<Device> result = deviceControlService.getDevicesWithinRadius(56.97, 24.16, 5, 10);
+
+        assertEquals(List.of(device2, device1), result);
+    }
+
+    @Test
+    void getDevicesWithinRadius_IndexNotLoaded_ReadsDatabase() {
+        Device device = new Device();
+        when(deviceJdbcRepository.findDevicesWithinRadius(eq(56.97), eq(24.16), eq(5.0),
+                argThat(bounds -> bounds.minLatitude() < 56.97 && bounds.maxLatitude() > 56.97 && bounds.longitudeRanges().size() == 1), eq(10)))
+                .thenReturn(List.of(device));
+
+        List<Device> result = deviceControlService.getDevicesWithinRadius(56.97, 24.16, 5, 10);
+
+        assertEquals(List.of(device), result);
+        verify(deviceSpatialIndex, never()).findWithinRadius(anyDouble(), anyDouble(), anyDouble());
+    }
+
+    @Test
+    void getDevicesWithinRadius_InvalidRadius_ThrowsBadRequestException() {
+        assertThrows(BadRequestException.class, () -> deviceControlService.getDevicesWithinRadius(56.97, 24.16, 0, 10));
+        assertThrows(BadRequestException.class, () -> deviceControlService.getDevicesWithinRadius(96.97, 24.16, 5, 10));
+        verify(deviceSpatialIndex, never()).findWithinRadius(anyDouble(), anyDouble(), anyDouble());
+    }
+
+    @Test
+    void getDevicesInArea_AppliesLimit() {
+        DeviceDAO deviceDAO = new DeviceDAO(1L);
+        Device device = new Device();
+        when(deviceSpatialIndex.isLoaded()).thenReturn(true);
+        when(deviceSpatialIndex.findInArea(56.0, 57.0, 24.0, 25.0)).thenReturn(List.of(1L, 2L));
+        when(deviceRepository.findAllById(List.of(1L))).thenReturn(List.of(deviceDAO));
+        when(deviceMapper.deviceDAOToDevice(deviceDAO)).thenReturn(device);
+
+        List<Device> result = deviceControlService.getDevicesInArea(56.0, 57.0, 24.0, 25.0, 1);
+
+        assertEquals(List.of(device), result);
+    }
+
+    @Test
+    void getDevicesInArea_IndexNotLoaded_ReadsDatabase() {
+        Device device = new Device();
+        when(deviceJdbcRepository.findDevicesInArea(56.0, 57.0, 24.0, 25.0, 10)).thenReturn(List.of(device));
+
+        List<Device> result = deviceControlService.getDevicesInArea(56.0, 57.0, 24.0, 25.0, 10);
+
+        assertEquals(List.of(device), result);
+        verify(deviceSpatialIndex, never()).findInArea(anyDouble(), anyDouble(), anyDouble(), anyDouble());
+    }
+
+    @Test
+    void getDevicesInArea_InvalidArea_ThrowsBadRequestException() {
+        assertThrows(BadRequestException.class, () -> deviceControlService.getDevicesInArea(57.0, 56.0, 24.0, 25.0, 10));
+        verify(deviceSpatialIndex, never()).findInArea(anyDouble(), anyDouble(), anyDouble(), anyDouble());
+    }
+
 }
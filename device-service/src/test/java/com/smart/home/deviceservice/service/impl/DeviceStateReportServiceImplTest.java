@@ -0,0 +1,202 @@
+package com.smart.home.deviceservice.service.impl;
+
+import com.smart.home.deviceservice.handler.BadRequestException;
+import com.smart.home.deviceservice.handler.TooManyRequestsException;
+import com.smart.home.deviceservice.model.Device;
+import com.smart.home.deviceservice.model.DeviceStateReport;
+import com.smart.home.deviceservice.model.DeviceStateReportResult;
+import com.smart.home.deviceservice.model.DeviceStatusChange;
+import com.smart.home.deviceservice.model.DeviceStatusPeriod;
+import com.smart.home.deviceservice.repository.DeviceJdbcRepository;
+import com.smart.home.deviceservice.repository.DeviceStatusChangeJdbcRepository;
+import com.smart.home.deviceservice.repository.DeviceStatusOutboxJdbcRepository;
+import com.smart.home.deviceservice.service.DeviceStatusDurationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DeviceStateReportServiceImplTest {
+
+    @Mock
+    private DeviceJdbcRepository deviceJdbcRepository;
+
+    @Mock
+    private DeviceStatusChangeJdbcRepository statusChangeJdbcRepository;
+
+    @Mock
+    private DeviceStatusOutboxJdbcRepository statusOutboxRepository;
+
+    @Mock
+    private DeviceStatusDurationService deviceStatusDurationService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private Cache cache;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private DeviceStateReportServiceImpl deviceStateReportService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        deviceStateReportService = new DeviceStateReportServiceImpl(deviceJdbcRepository, statusChangeJdbcRepository,
+                statusOutboxRepository, deviceStatusDurationService, transactionTemplate, cacheManager, meterRegistry);
+        ReflectionTestUtils.setField(deviceStateReportService, "bufferSize", 2);
+        ReflectionTestUtils.setField(deviceStateReportService, "batchSize", 10);
+        ReflectionTestUtils.setField(deviceStateReportService, "maxAttempts", 2);
+        lenient().when(cacheManager.getCache("device")).thenReturn(cache);
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(mock(TransactionStatus.class)));
+    }
+
+    @Test
+    void acceptReports_CoalescesReportsOfSameDevice() {
+        LocalDateTime now = LocalDateTime.now();
+        DeviceStateReportResult result = deviceStateReportService.acceptReports(List.of(
+                new DeviceStateReport(1L, "ON", now.minusSeconds(10)),
+                new DeviceStateReport(1L, "OFF", now.minusSeconds(5)),
+                new DeviceStateReport(1L, "ON", now.minusSeconds(20))));
+
+        assertEquals(3, result.getAcceptedReports());
+        assertEquals(1, result.getPendingDevices());
+        assertEquals(2.0, meterRegistry.get("device.state-report.coalesced").counter().count());
+    }
+
+    @Test
+    void acceptReports_BufferFull_ThrowsTooManyRequestsException() {
+        deviceStateReportService.acceptReports(List.of(new DeviceStateReport(1L, "ON", null), new DeviceStateReport(2L, "ON", null)));
+
+        assertThrows(TooManyRequestsException.class,
+                () -> deviceStateReportService.acceptReports(List.of(new DeviceStateReport(3L, "ON", null))));
+        assertEquals(2, deviceStateReportService.acceptReports(List.of(new DeviceStateReport(1L, "OFF", null))).getPendingDevices());
+    }
+
+    @Test
+    void acceptReports_MissingStatus_ThrowsBadRequestException() {
+        assertThrows(BadRequestException.class,
+                () -> deviceStateReportService.acceptReports(List.of(new DeviceStateReport(1L, " ", null))));
+    }
+
+    @Test
+    void acceptReports_StatusTooLong_ThrowsBadRequestException() {
+        assertThrows(BadRequestException.class,
+                () -> deviceStateReportService.acceptReports(List.of(new DeviceStateReport(1L, "X".repeat(256), null))));
+        assertEquals(0, deviceStateReportService.getPendingDevices());
+    }
+
+    @Test
+    void flushReports_WritesOnlyChangedDevices() {
+        LocalDateTime since = LocalDateTime.now().minusHours(1);
+        LocalDateTime reportedAt = LocalDateTime.now().minusSeconds(1);
+        deviceStateReportService.acceptReports(List.of(new DeviceStateReport(1L, "ON", reportedAt), new DeviceStateReport(2L, "OFF", reportedAt)));
+        when(deviceJdbcRepository.lockByIds(anyList())).thenReturn(List.of(device(1L, "OFF", since), device(2L, "OFF", since)));
+
+        int written = deviceStateReportService.flushReports();
+
+        assertEquals(1, written);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<DeviceStatusChange>> captor = ArgumentCaptor.forClass(List.class);
+        verify(statusChangeJdbcRepository, times(1)).batchInsert(captor.capture());
+        assertEquals(1, captor.getValue().size());
+        assertEquals("ON", captor.getValue().get(0).getNewStatus());
+        assertEquals(reportedAt, captor.getValue().get(0).getChangedAt());
+        verify(deviceJdbcRepository, times(1)).batchUpdateStatus(anyList());
+        verify(statusOutboxRepository, times(1)).batchInsert(anyList(), any(LocalDateTime.class));
+        verify(deviceStatusDurationService, times(1)).recordStatusDurations(List.of(new DeviceStatusPeriod(1L, "OFF", since, reportedAt)));
+        verify(cache, times(1)).evict(1L);
+        assertEquals(0, deviceStateReportService.getPendingDevices());
+    }
+
+    @Test
+    void flushReports_StaleReport_IsDiscarded() {
+        LocalDateTime reportedAt = LocalDateTime.now().minusHours(1);
+        deviceStateReportService.acceptReports(List.of(new DeviceStateReport(1L, "ON", reportedAt)));
+        when(deviceJdbcRepository.lockByIds(anyList())).thenReturn(List.of(device(1L, "OFF", LocalDateTime.now().minusMinutes(1))));
+
+        assertEquals(0, deviceStateReportService.flushReports());
+        verify(deviceJdbcRepository, never()).batchUpdateStatus(anyList());
+    }
+
+    @Test
+    void flushReports_WriteFailure_ReturnsReportsToBuffer() {
+        deviceStateReportService.acceptReports(List.of(new DeviceStateReport(1L, "ON", null)));
+        when(deviceJdbcRepository.lockByIds(anyList())).thenReturn(List.of(device(1L, "OFF", LocalDateTime.now().minusHours(1))));
+        doThrow(new QueryTimeoutException("timeout")).when(statusChangeJdbcRepository).batchInsert(anyList());
+
+        assertEquals(0, deviceStateReportService.flushReports());
+        assertEquals(1, deviceStateReportService.getPendingDevices());
+        verify(cache, never()).evict(any());
+    }
+
+    @Test
+    void flushReports_FailingReport_IsDroppedAfterMaxAttemptsWithoutBlockingOthers() {
+        LocalDateTime since = LocalDateTime.now().minusHours(1);
+        deviceStateReportService.acceptReports(List.of(new DeviceStateReport(1L, "ON", null), new DeviceStateReport(2L, "ON", null)));
+        when(deviceJdbcRepository.lockByIds(anyList())).thenAnswer(invocation -> invocation.<List<Long>>getArgument(0).stream()
+                .map(deviceId -> device(deviceId, "OFF", since))
+                .toList());
+        doThrow(new DataIntegrityViolationException("value too long")).when(statusChangeJdbcRepository)
+                .batchInsert(argThat(changes -> changes.stream().anyMatch(change -> change.getDevice() == 2L)));
+
+        assertEquals(1, deviceStateReportService.flushReports());
+        assertEquals(1, deviceStateReportService.getPendingDevices());
+        verify(cache, times(1)).evict(1L);
+
+        assertEquals(0, deviceStateReportService.flushReports());
+        assertEquals(0, deviceStateReportService.getPendingDevices());
+        assertEquals(1.0, meterRegistry.get("device.state-report.dropped").counter().count());
+    }
+
+    @Test
+    void flushReports_WriteFailureWithFullBuffer_DropsReport() {
+        deviceStateReportService.acceptReports(List.of(new DeviceStateReport(1L, "ON", null)));
+        when(deviceJdbcRepository.lockByIds(anyList())).thenAnswer(invocation -> {
+            deviceStateReportService.acceptReports(List.of(new DeviceStateReport(2L, "ON", null), new DeviceStateReport(3L, "ON", null)));
+            throw new QueryTimeoutException("timeout");
+        });
+
+        assertEquals(0, deviceStateReportService.flushReports());
+        assertEquals(2, deviceStateReportService.getPendingDevices());
+        assertEquals(1.0, meterRegistry.get("device.state-report.dropped").counter().count());
+    }
+
+    private Device device(Long deviceId, String status, LocalDateTime lastUpdated) {
+        return new Device(deviceId, "Device " + deviceId, 1L, 56.95, 24.1, status, lastUpdated);
+    }
+
+}
@@ -0,0 +1,119 @@
+package com.smart.home.deviceservice.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.smart.home.deviceservice.handler.BadRequestException;
+import com.smart.home.deviceservice.handler.TooManyRequestsException;
+import com.smart.home.deviceservice.model.DeviceStatusChange;
+import com.smart.home.deviceservice.service.DeviceStatusChangeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DeviceStatusChangeIdempotencyServiceImplTest {
+
+    private static final String KEY = "device:status:idempotency:retry-1";
+
+    @Mock
+    private DeviceStatusChangeService deviceStatusChangeService;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private ObjectMapper objectMapper;
+
+    private DeviceStatusChangeIdempotencyServiceImpl idempotencyService;
+
+    private DeviceStatusChange statusChange;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        idempotencyService = new DeviceStatusChangeIdempotencyServiceImpl(deviceStatusChangeService, redisTemplate, objectMapper);
+        ReflectionTestUtils.setField(idempotencyService, "ttlHours", 24L);
+        ReflectionTestUtils.setField(idempotencyService, "inProgressTtlSeconds", 30L);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        statusChange = new DeviceStatusChange(5L, 1L, "OFF", "ON", LocalDateTime.of(2024, 5, 1, 12, 0), "manual status change", null, null);
+    }
+
+    @Test
+    void changeDeviceStatus_NewKey_ChangesStatusAndStoresResult() throws Exception {
+        when(valueOperations.setIfAbsent(eq(KEY), eq("IN_PROGRESS"), any(Duration.class))).thenReturn(true);
+        when(deviceStatusChangeService.changeDeviceStatus(1L, "ON", "manual status change", null)).thenReturn(statusChange);
+
+        DeviceStatusChange result = idempotencyService.changeDeviceStatus("retry-1", 1L, "ON", "manual status change");
+
+        assertEquals(statusChange, result);
+        verify(valueOperations, times(1)).set(KEY, objectMapper.writeValueAsString(statusChange), Duration.ofHours(24));
+    }
+
+    @Test
+    void changeDeviceStatus_RepeatedKey_ReturnsStoredResult() throws Exception {
+        when(valueOperations.setIfAbsent(eq(KEY), eq("IN_PROGRESS"), any(Duration.class))).thenReturn(false);
+        when(valueOperations.get(KEY)).thenReturn(objectMapper.writeValueAsString(statusChange));
+
+        DeviceStatusChange result = idempotencyService.changeDeviceStatus("retry-1", 1L, "ON", "manual status change");
+
+        assertEquals(statusChange, result);
+        verify(deviceStatusChangeService, never()).changeDeviceStatus(any(), any(), any(), any());
+    }
+
+    @Test
+    void changeDeviceStatus_KeyInProgress_ThrowsTooManyRequestsException() {
+        when(valueOperations.setIfAbsent(eq(KEY), eq("IN_PROGRESS"), any(Duration.class))).thenReturn(false);
+        when(valueOperations.get(KEY)).thenReturn("IN_PROGRESS");
+
+        assertThrows(TooManyRequestsException.class, () -> idempotencyService.changeDeviceStatus("retry-1", 1L, "ON", "manual status change"));
+    }
+
+    @Test
+    void changeDeviceStatus_KeyReusedForOtherDevice_ThrowsBadRequestException() throws Exception {
+        when(valueOperations.setIfAbsent(eq(KEY), eq("IN_PROGRESS"), any(Duration.class))).thenReturn(false);
+        when(valueOperations.get(KEY)).thenReturn(objectMapper.writeValueAsString(statusChange));
+
+        assertThrows(BadRequestException.class, () -> idempotencyService.changeDeviceStatus("retry-1", 2L, "ON", "manual status change"));
+    }
+
+    @Test
+    void changeDeviceStatus_ChangeFails_ReleasesKey() {
+        when(valueOperations.setIfAbsent(eq(KEY), eq("IN_PROGRESS"), any(Duration.class))).thenReturn(true);
+        when(deviceStatusChangeService.changeDeviceStatus(1L, "ON", "manual status change", null))
+                .thenThrow(new BadRequestException("Device already has the status 'ON'. No change necessary."));
+
+        assertThrows(BadRequestException.class, () -> idempotencyService.changeDeviceStatus("retry-1", 1L, "ON", "manual status change"));
+        verify(redisTemplate, times(1)).delete(KEY);
+        verify(valueOperations, never()).set(anyString(), anyString(), any(Duration.class));
+    }
+
+    @Test
+    void changeDeviceStatus_RedisUnavailable_ChangesStatusWithoutIdempotency() {
+        when(valueOperations.setIfAbsent(eq(KEY), eq("IN_PROGRESS"), any(Duration.class))).thenThrow(new RedisConnectionFailureException("down"));
+        when(deviceStatusChangeService.changeDeviceStatus(1L, "ON", "manual status change", null)).thenReturn(statusChange);
+
+        assertEquals(statusChange, idempotencyService.changeDeviceStatus("retry-1", 1L, "ON", "manual status change"));
+    }
+
+}
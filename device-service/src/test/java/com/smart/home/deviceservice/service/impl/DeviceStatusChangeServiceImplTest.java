@@ -5,18 +5,27 @@ import com.smart.home.deviceservice.mapper.DeviceStatusChangeMapper;
 import com.smart.home.deviceservice.model.Device;
 import com.smart.home.deviceservice.model.DeviceStatusChange;
 import com.smart.home.deviceservice.repository.DeviceStatusChangeRepository;
+import com.smart.home.deviceservice.repository.DeviceStatusOutboxJdbcRepository;
 import com.smart.home.deviceservice.repository.model.DeviceStatusChangeDAO;
 import com.smart.home.deviceservice.service.DeviceService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -33,6 +42,9 @@ class DeviceStatusChangeServiceImplTest {
     @Mock
     private DeviceStatusChangeMapper deviceStatusChangeMapper;
 
+    @Mock
+    private DeviceStatusOutboxJdbcRepository statusOutboxRepository;
+
     @InjectMocks
     private DeviceStatusChangeServiceImpl deviceStatusChangeService;
 
@@ -44,13 +56,15 @@ class DeviceStatusChangeServiceImplTest {
         String weatherCondition = "Clear";
         Long scenarioId = 100L;
 
+        LocalDateTime offSince = LocalDateTime.now().minusHours(1);
         Device device = new Device();
         device.setDeviceId(1L);
         device.setStatus("OFF");
+        device.setLastUpdated(offSince);
         when(deviceService.getDeviceById(deviceId)).thenReturn(device);
         when(deviceService.updateDeviceById(deviceId, device)).thenReturn(device);
 
-        DeviceStatusChange statusChange = new DeviceStatusChange(null, deviceId, "OFF", newStatus, null, weatherCondition, scenarioId);
+        DeviceStatusChange statusChange = new DeviceStatusChange(null, deviceId, "OFF", newStatus, null, weatherCondition, scenarioId, null);
         DeviceStatusChangeDAO statusChangeDAO = new DeviceStatusChangeDAO();
         when(deviceStatusChangeMapper.deviceStatusChangeToDeviceStatusChangeDAO(any(DeviceStatusChange.class))).thenReturn(statusChangeDAO);
         when(statusChangeRepository.save(statusChangeDAO)).thenReturn(statusChangeDAO);
@@ -64,6 +78,7 @@ class DeviceStatusChangeServiceImplTest {
         verify(deviceService, times(1)).updateDeviceById(deviceId, device);
         verify(statusChangeRepository, times(1)).save(statusChangeDAO);
         verify(deviceStatusChangeMapper, times(1)).deviceStatusChangeDAOToDeviceStatusChange(statusChangeDAO);
+        verify(statusOutboxRepository, times(1)).batchInsert(eq(List.of(statusChange)), any(LocalDateTime.class));
     }
 
     @Test
@@ -85,6 +100,57 @@ class DeviceStatusChangeServiceImplTest {
 
         assertThrows(BadRequestException.class, () -> deviceStatusChangeService.changeDeviceStatus(deviceId, currentStatus, "Clear", 100L));
         verify(deviceService, times(1)).getDeviceById(deviceId);
+        verify(statusOutboxRepository, never()).batchInsert(anyList(), any());
+    }
+
+    @Test
+    void changeDeviceStatusCoalesced_ReturnsToOriginalStatus_WritesNothing() {
+        Long deviceId = 1L;
+        Device device = new Device();
+        device.setDeviceId(deviceId);
+        device.setStatus("OFF");
+        device.setLastUpdated(LocalDateTime.now().minusHours(1));
+        when(deviceService.getDeviceById(deviceId)).thenReturn(device);
+
+        DeviceStatusChange result = deviceStatusChangeService.changeDeviceStatusCoalesced(deviceId, List.of("ON", "ON", "OFF"), "manual status change", null);
+
+        assertEquals("OFF>ON>OFF", result.getCoalescedTransitions());
+        assertEquals("OFF", result.getNewStatus());
+        assertNull(result.getId());
+        verify(statusChangeRepository, never()).save(any());
+        verify(deviceService, never()).updateDeviceById(any(), any());
+        verify(statusOutboxRepository, never()).batchInsert(anyList(), any());
+    }
+
+    @Test
+    void changeDeviceStatusCoalesced_UpdatesDeviceToLastStatus() {
+        Long deviceId = 1L;
+        Device device = new Device();
+        device.setDeviceId(deviceId);
+        device.setStatus("OFF");
+        device.setLastUpdated(LocalDateTime.now().minusHours(1));
+        when(deviceService.getDeviceById(deviceId)).thenReturn(device);
+        DeviceStatusChangeDAO statusChangeDAO = new DeviceStatusChangeDAO();
+        ArgumentCaptor<DeviceStatusChange> captor = ArgumentCaptor.forClass(DeviceStatusChange.class);
+        when(deviceStatusChangeMapper.deviceStatusChangeToDeviceStatusChangeDAO(captor.capture())).thenReturn(statusChangeDAO);
+        when(statusChangeRepository.save(statusChangeDAO)).thenReturn(statusChangeDAO);
+        when(deviceStatusChangeMapper.deviceStatusChangeDAOToDeviceStatusChange(statusChangeDAO)).thenReturn(new DeviceStatusChange());
+
+        deviceStatusChangeService.changeDeviceStatusCoalesced(deviceId, List.of("ON", "OFF", "DIMMED"), "manual status change", null);
+
+        assertEquals("OFF>ON>OFF>DIMMED", captor.getValue().getCoalescedTransitions());
+        assertEquals("DIMMED", captor.getValue().getNewStatus());
+        verify(deviceService, times(1)).updateDeviceById(deviceId, device);
+    }
+
+    @Test
+    void changeDeviceStatusCoalesced_NoTransition_ThrowsBadRequestException() {
+        Device device = new Device();
+        device.setStatus("ON");
+        when(deviceService.getDeviceById(1L)).thenReturn(device);
+
+        assertThrows(BadRequestException.class,
+                () -> deviceStatusChangeService.changeDeviceStatusCoalesced(1L, List.of("ON", "ON"), "manual status change", null));
     }
 
-}
\ No newline at end of file
+}
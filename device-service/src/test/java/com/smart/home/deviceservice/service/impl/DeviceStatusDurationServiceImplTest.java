@@ -0,0 +1,130 @@
+package com.smart.home.deviceservice.service.impl;
+
+import com.smart.home.deviceservice.handler.BadRequestException;
+import com.smart.home.deviceservice.mapper.DeviceStatusDurationMapper;
+import com.smart.home.deviceservice.model.DeviceStatusDuration;
+import com.smart.home.deviceservice.model.DeviceStatusDurationTotal;
+import com.smart.home.deviceservice.model.DeviceStatusPeriod;
+import com.smart.home.deviceservice.repository.DeviceStatusDurationJdbcRepository;
+import com.smart.home.deviceservice.repository.DeviceStatusDurationRepository;
+import com.smart.home.deviceservice.repository.model.DeviceStatusDurationDAO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DeviceStatusDurationServiceImplTest {
+
+    @Mock
+    private DeviceStatusDurationRepository durationRepository;
+
+    @Mock
+    private DeviceStatusDurationJdbcRepository durationJdbcRepository;
+
+    @Mock
+    private DeviceStatusDurationMapper durationMapper;
+
+    @InjectMocks
+    private DeviceStatusDurationServiceImpl deviceStatusDurationService;
+
+
+    @Test
+    void recordStatusDuration_SameDay() {
+        LocalDateTime from = LocalDateTime.of(2024, 8, 28, 10, 0);
+        LocalDateTime to = LocalDateTime.of(2024, 8, 28, 12, 30);
+
+        deviceStatusDurationService.recordStatusDuration(1L, "ON", from, to);
+
+        verify(durationRepository, times(1)).addSeconds(1L, LocalDate.of(2024, 8, 28), "ON", 9000L);
+    }
+
+    @Test
+    void recordStatusDuration_SplitsAcrossDays() {
+        LocalDateTime from = LocalDateTime.of(2024, 8, 28, 23, 0);
+        LocalDateTime to = LocalDateTime.of(2024, 8, 30, 1, 0);
+
+        deviceStatusDurationService.recordStatusDuration(1L, "ON", from, to);
+
+        verify(durationRepository, times(1)).addSeconds(1L, LocalDate.of(2024, 8, 28), "ON", 3600L);
+        verify(durationRepository, times(1)).addSeconds(1L, LocalDate.of(2024, 8, 29), "ON", 86400L);
+        verify(durationRepository, times(1)).addSeconds(1L, LocalDate.of(2024, 8, 30), "ON", 3600L);
+    }
+
+    @Test
+    void recordStatusDuration_EmptyInterval_NothingRecorded() {
+        LocalDateTime time = LocalDateTime.of(2024, 8, 28, 10, 0);
+
+        deviceStatusDurationService.recordStatusDuration(1L, "ON", time, time);
+        deviceStatusDurationService.recordStatusDuration(1L, "ON", null, time);
+
+        verify(durationRepository, never()).addSeconds(anyLong(), any(), any(), anyLong());
+    }
+
+    @Test
+    void recordStatusDurations_BatchesAllDevices() {
+        LocalDateTime to = LocalDateTime.of(2024, 8, 29, 1, 0);
+        List<DeviceStatusPeriod> periods = List.of(
+                new DeviceStatusPeriod(1L, "ON", LocalDateTime.of(2024, 8, 28, 23, 0), to),
+                new DeviceStatusPeriod(2L, "OFF", LocalDateTime.of(2024, 8, 29, 0, 30), to),
+                new DeviceStatusPeriod(3L, "OFF", to, to));
+
+        deviceStatusDurationService.recordStatusDurations(periods);
+
+        verify(durationJdbcRepository, times(1)).batchAddSeconds(List.of(
+                new DeviceStatusDuration(1L, LocalDate.of(2024, 8, 28), "ON", 3600L),
+                new DeviceStatusDuration(1L, LocalDate.of(2024, 8, 29), "ON", 3600L),
+                new DeviceStatusDuration(2L, LocalDate.of(2024, 8, 29), "OFF", 1800L)));
+        verify(durationRepository, never()).addSeconds(anyLong(), any(), any(), anyLong());
+    }
+
+    @Test
+    void getDailyDurations_Success() {
+        LocalDate from = LocalDate.of(2024, 8, 1);
+        LocalDate to = LocalDate.of(2024, 8, 31);
+        DeviceStatusDurationDAO durationDAO = new DeviceStatusDurationDAO(1L, 1L, from, "ON", 3600L);
+        DeviceStatusDuration duration = new DeviceStatusDuration(1L, from, "ON", 3600L);
+        when(durationRepository.findDailyDurations(1L, null, from, to)).thenReturn(List.of(durationDAO));
+        when(durationMapper.deviceStatusDurationDAOToDeviceStatusDuration(durationDAO)).thenReturn(duration);
+
+        List<DeviceStatusDuration> result = deviceStatusDurationService.getDailyDurations(1L, null, from, to);
+
+        assertEquals(List.of(duration), result);
+    }
+
+    @Test
+    void getTotalDurations_Success() {
+        LocalDate from = LocalDate.of(2024, 8, 1);
+        LocalDate to = LocalDate.of(2024, 8, 31);
+        List<DeviceStatusDurationTotal> totals = List.of(new DeviceStatusDurationTotal(1L, "ON", 7200L));
+        when(durationRepository.findTotalDurations(null, "ON", from, to)).thenReturn(totals);
+
+        List<DeviceStatusDurationTotal> result = deviceStatusDurationService.getTotalDurations(null, "ON", from, to);
+
+        assertEquals(totals, result);
+    }
+
+    @Test
+    void getTotalDurations_InvalidPeriod_ThrowsBadRequestException() {
+        LocalDate from = LocalDate.of(2024, 8, 31);
+        LocalDate to = LocalDate.of(2024, 8, 1);
+
+        assertThrows(BadRequestException.class, () -> deviceStatusDurationService.getTotalDurations(null, null, from, to));
+        verify(durationRepository, never()).findTotalDurations(any(), any(), any(), any());
+    }
+
+}
@@ -3,6 +3,7 @@ package com.smart.home.deviceservice.service.impl;
 import com.smart.home.deviceservice.handler.BadRequestException;
 import com.smart.home.deviceservice.mapper.DeviceTypeMapper;
 import com.smart.home.deviceservice.model.DeviceType;
+import com.smart.home.deviceservice.registry.DeviceTypeRegistryPublisher;
 import com.smart.home.deviceservice.repository.DeviceTypeRepository;
 import com.smart.home.deviceservice.repository.model.DeviceTypeDAO;
 import org.junit.jupiter.api.Test;
@@ -20,6 +21,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -33,6 +35,9 @@ class DeviceTypeServiceImplTest {
     @Mock
     private DeviceTypeMapper deviceTypeMapper;
 
+    @Mock
+    private DeviceTypeRegistryPublisher deviceTypeRegistryPublisher;
+
     @InjectMocks
     private DeviceTypeServiceImpl deviceTypeService;
 
@@ -52,6 +57,7 @@ class DeviceTypeServiceImplTest {
         assertEquals(deviceTypeName, result.getDeviceTypeName());
         verify(deviceTypeRepository, times(1)).save(any(DeviceTypeDAO.class));
         verify(deviceTypeMapper, times(1)).deviceTypeDAOToDeviceType(any(DeviceTypeDAO.class));
+        verify(deviceTypeRegistryPublisher, times(1)).added(deviceTypeDAO.getDeviceTypeId());
     }
 
     @Test
@@ -133,6 +139,7 @@ class DeviceTypeServiceImplTest {
 
         verify(deviceTypeRepository, times(1)).findById(deviceTypeId);
         verify(deviceTypeRepository, times(1)).delete(deviceTypeDAO);
+        verify(deviceTypeRegistryPublisher, times(1)).removed(deviceTypeId);
     }
 
     @Test
@@ -143,6 +150,7 @@ class DeviceTypeServiceImplTest {
 
         assertThrows(BadRequestException.class, () -> deviceTypeService.deleteDeviceTypeById(deviceTypeId));
         verify(deviceTypeRepository, times(1)).findById(deviceTypeId);
+        verify(deviceTypeRegistryPublisher, never()).removed(any());
     }
 
     @Test
@@ -1,5 +1,6 @@
 package com.smart.home.deviceservice.service.impl;
 
+import com.smart.home.deviceservice.cache.DeviceDwellTimeTracker;
 import com.smart.home.deviceservice.client.ScenarioClient;
 import com.smart.home.deviceservice.client.WeatherDataClient;
 import com.smart.home.deviceservice.handler.BadRequestException;
@@ -24,6 +25,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.anyDouble;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -43,6 +45,9 @@ class ScenarioEvaluationServiceImplTest {
     @Mock
     private DeviceStatusChangeService deviceStatusChangeService;
 
+    @Mock
+    private DeviceDwellTimeTracker deviceDwellTimeTracker;
+
     @InjectMocks
     private ScenarioEvaluationServiceImpl scenarioEvaluationService;
 
@@ -103,6 +108,63 @@ class ScenarioEvaluationServiceImplTest {
         verify(deviceStatusChangeService, times(0)).changeDeviceStatus(anyLong(), anyString(), anyString(), anyLong());
     }
 
+    @Test
+    void evaluateAndPerformDeviceStatusChange_RecordsChangeAndSkipsFurtherScenarios() {
+        Device device = new Device(1L, "Lamp", 101L, 56.95, 24.1, "OFF", LocalDateTime.now().minusHours(1));
+        String token = "Bearer token";
+        when(deviceService.getAllDevices()).thenReturn(List.of(device));
+        WeatherDataDTO weatherData = new WeatherDataDTO();
+        weatherData.setTemperature(30.0);
+        when(weatherDataClient.getWeatherData(device.getLatitude(), device.getLongitude(), token)).thenReturn(weatherData);
+        when(scenarioClient.getScenariosByDeviceTypeId(101L, token)).thenReturn(List.of(
+                temperatureScenario(1L, ">", "25", "ON", null), temperatureScenario(2L, ">", "20", "DIMMED", null)));
+
+        scenarioEvaluationService.evaluateAndPerformDeviceStatusChange(token);
+
+        verify(deviceDwellTimeTracker, times(1)).refresh(List.of(1L));
+        verify(deviceStatusChangeService, times(1)).changeDeviceStatus(1L, "ON", "temperature > 25", 1L);
+        verify(deviceStatusChangeService, never()).changeDeviceStatus(1L, "DIMMED", "temperature > 20", 2L);
+        verify(deviceDwellTimeTracker, times(1)).recordChange(1L);
+    }
+
+    @Test
+    void evaluateAndPerformDeviceStatusChange_DeviceDwelling_IsSkipped() {
+        Device device = new Device(1L, "Lamp", 101L, 56.95, 24.1, "OFF", LocalDateTime.now());
+        when(deviceService.getAllDevices()).thenReturn(List.of(device));
+        when(deviceDwellTimeTracker.isDwelling(1L)).thenReturn(true);
+
+        scenarioEvaluationService.evaluateAndPerformDeviceStatusChange("Bearer token");
+
+        verify(weatherDataClient, never()).getWeatherData(anyDouble(), anyDouble(), anyString());
+        verify(deviceStatusChangeService, never()).changeDeviceStatus(anyLong(), anyString(), anyString(), anyLong());
+    }
+
+    @Test
+    void evaluateAndPerformDeviceStatusChange_DeviceAlreadyInStatus_IsNotChanged() {
+        Device device = new Device(1L, "Lamp", 101L, 56.95, 24.1, "ON", LocalDateTime.now().minusHours(1));
+        String token = "Bearer token";
+        when(deviceService.getAllDevices()).thenReturn(List.of(device));
+        WeatherDataDTO weatherData = new WeatherDataDTO();
+        weatherData.setTemperature(30.0);
+        when(weatherDataClient.getWeatherData(device.getLatitude(), device.getLongitude(), token)).thenReturn(weatherData);
+        when(scenarioClient.getScenariosByDeviceTypeId(101L, token)).thenReturn(List.of(temperatureScenario(1L, ">", "25", "ON", null)));
+
+        scenarioEvaluationService.evaluateAndPerformDeviceStatusChange(token);
+
+        verify(deviceStatusChangeService, never()).changeDeviceStatus(anyLong(), anyString(), anyString(), anyLong());
+    }
+
+    @Test
+    void evaluateTemperature_WithinHysteresisBand_ReturnsFalse() {
+        ScenarioDTO above = temperatureScenario(1L, ">", "25", "ON", 1.0);
+        ScenarioDTO below = temperatureScenario(2L, "<", "25", "OFF", 1.0);
+
+        assertFalse(scenarioEvaluationService.evaluateTemperature(above, 25.5));
+        assertFalse(scenarioEvaluationService.evaluateTemperature(below, 24.5));
+        assertTrue(scenarioEvaluationService.evaluateTemperature(above, 26.5));
+        assertTrue(scenarioEvaluationService.evaluateTemperature(below, 23.5));
+    }
+
     @Test
     void evaluateScenario_TemperatureScenario_Success() {
         ScenarioDTO scenario = new ScenarioDTO();
@@ -230,4 +292,15 @@ class ScenarioEvaluationServiceImplTest {
         });
     }
 
+    private ScenarioDTO temperatureScenario(Long scenarioId, String operator, String conditionValue, String newStatus, Double hysteresis) {
+        ScenarioDTO scenario = new ScenarioDTO();
+        scenario.setScenarioId(scenarioId);
+        scenario.setWeatherCondition("temperature");
+        scenario.setOperator(operator);
+        scenario.setConditionValue(conditionValue);
+        scenario.setNewStatus(newStatus);
+        scenario.setHysteresis(hysteresis);
+        return scenario;
+    }
+
 }
@@ -0,0 +1,112 @@
+package com.smart.home.deviceservice.service.impl;
+
+import com.smart.home.deviceservice.executor.StripedDeviceExecutor;
+import com.smart.home.deviceservice.handler.BadRequestException;
+import com.smart.home.deviceservice.model.DeviceStatusChange;
+import com.smart.home.deviceservice.service.DeviceStatusChangeService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class StripedDeviceStatusChangeServiceTest {
+
+    @Mock
+    private DeviceStatusChangeService deviceStatusChangeService;
+
+    private StripedDeviceExecutor stripedDeviceExecutor;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        stripedDeviceExecutor = new StripedDeviceExecutor(4, 100, 2000, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        stripedDeviceExecutor.shutdown();
+    }
+
+    @Test
+    void changeDeviceStatus_NoCoalescingWindow_DelegatesEachChange() {
+        StripedDeviceStatusChangeService service = new StripedDeviceStatusChangeService(deviceStatusChangeService, stripedDeviceExecutor, 0, meterRegistry);
+        DeviceStatusChange statusChange = statusChange("OFF", "ON", null);
+        when(deviceStatusChangeService.changeDeviceStatus(1L, "ON", "manual status change", null)).thenReturn(statusChange);
+
+        assertSame(statusChange, service.changeDeviceStatus(1L, "ON", "manual status change", null));
+        verify(deviceStatusChangeService, never()).changeDeviceStatusCoalesced(any(), anyList(), any(), any());
+    }
+
+    @Test
+    void changeDeviceStatus_ChangesWithinWindow_AreAppliedOnce() throws Exception {
+        StripedDeviceStatusChangeService service = new StripedDeviceStatusChangeService(deviceStatusChangeService, stripedDeviceExecutor, 200, meterRegistry);
+        DeviceStatusChange statusChange = statusChange("OFF", "ON", "OFF>ON>OFF>ON");
+        when(deviceStatusChangeService.changeDeviceStatusCoalesced(1L, List.of("ON", "OFF", "ON"), "scenario", 3L)).thenReturn(statusChange);
+
+        CompletableFuture<DeviceStatusChange> first = CompletableFuture.supplyAsync(() -> service.changeDeviceStatus(1L, "ON", "manual status change", null));
+        Thread.sleep(20);
+        CompletableFuture<DeviceStatusChange> second = CompletableFuture.supplyAsync(() -> service.changeDeviceStatus(1L, "OFF", "manual status change", null));
+        Thread.sleep(20);
+        DeviceStatusChange third = service.changeDeviceStatus(1L, "ON", "scenario", 3L);
+
+        assertSame(statusChange, third);
+        assertSame(statusChange, first.get(1, TimeUnit.SECONDS));
+        assertSame(statusChange, second.get(1, TimeUnit.SECONDS));
+        verify(deviceStatusChangeService, times(1)).changeDeviceStatusCoalesced(1L, List.of("ON", "OFF", "ON"), "scenario", 3L);
+        assertEquals(2.0, meterRegistry.get("device.status-change.coalesced").counter().count());
+    }
+
+    @Test
+    void changeDeviceStatus_CoalescedChangeFails_RethrowsToCaller() {
+        StripedDeviceStatusChangeService service = new StripedDeviceStatusChangeService(deviceStatusChangeService, stripedDeviceExecutor, 10, meterRegistry);
+        when(deviceStatusChangeService.changeDeviceStatusCoalesced(1L, List.of("ON"), "manual status change", null))
+                .thenThrow(new BadRequestException("Device already has the status 'ON'. No change necessary."));
+
+        assertThrows(BadRequestException.class, () -> service.changeDeviceStatus(1L, "ON", "manual status change", null));
+    }
+
+    @Test
+    void changeDeviceStatus_CoalescedChangeTooSlow_ThrowsAfterTimeout() {
+        StripedDeviceExecutor slowExecutor = new StripedDeviceExecutor(1, 10, 100, meterRegistry);
+        StripedDeviceStatusChangeService service = new StripedDeviceStatusChangeService(deviceStatusChangeService, slowExecutor, 10, meterRegistry);
+        CountDownLatch release = new CountDownLatch(1);
+        when(deviceStatusChangeService.changeDeviceStatusCoalesced(1L, List.of("ON"), "manual status change", null)).thenAnswer(invocation -> {
+            release.await(1, TimeUnit.SECONDS);
+            return statusChange("OFF", "ON", null);
+        });
+
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> service.changeDeviceStatus(1L, "ON", "manual status change", null));
+        release.countDown();
+        service.shutdown();
+        slowExecutor.shutdown();
+
+        assertEquals("Status change of device 1 timed out", exception.getMessage());
+    }
+
+    private DeviceStatusChange statusChange(String oldStatus, String newStatus, String coalescedTransitions) {
+        return new DeviceStatusChange(1L, 1L, oldStatus, newStatus, LocalDateTime.now(), "manual status change", null, coalescedTransitions);
+    }
+
+}
@@ -0,0 +1,85 @@
+package com.smart.home.deviceservice.spatial;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class DeviceSpatialIndexSyncTest {
+
+    @Mock
+    private DeviceSpatialIndex deviceSpatialIndex;
+
+    @Mock
+    private DeviceSpatialIndexLoader deviceSpatialIndexLoader;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private RedisConnectionFactory connectionFactory;
+
+    private DeviceSpatialIndexSync deviceSpatialIndexSync;
+
+    @BeforeEach
+    void setUp() {
+        deviceSpatialIndexSync = new DeviceSpatialIndexSync(deviceSpatialIndex, deviceSpatialIndexLoader, redisTemplate, connectionFactory);
+        ReflectionTestUtils.setField(deviceSpatialIndexSync, "channel", "device-locations:changes");
+    }
+
+    @Test
+    void moved_UpdatesIndexAndPublishesChange() {
+        deviceSpatialIndexSync.moved(1L, 56.97, -24.16);
+
+        verify(deviceSpatialIndex, times(1)).put(1L, 56.97, -24.16);
+        verify(redisTemplate, times(1)).convertAndSend("device-locations:changes", "moved:1:56.97:-24.16");
+    }
+
+    @Test
+    void removed_RedisUnavailable_IndexStillUpdated() {
+        doThrow(new RedisConnectionFailureException("Connection refused")).when(redisTemplate).convertAndSend(anyString(), anyString());
+
+        deviceSpatialIndexSync.removed(1L);
+
+        verify(deviceSpatialIndex, times(1)).remove(1L);
+    }
+
+    @Test
+    void onMessage_AppliesChangesFromOtherInstances() {
+        deviceSpatialIndexSync.onMessage(message("moved:2:-16.5:179.99"), null);
+        deviceSpatialIndexSync.onMessage(message("removed:3"), null);
+        deviceSpatialIndexSync.onMessage(message("imported:40"), null);
+
+        verify(deviceSpatialIndex, times(1)).put(2L, -16.5, 179.99);
+        verify(deviceSpatialIndex, times(1)).remove(3L);
+        verify(deviceSpatialIndexLoader, times(1)).loadDevicesAfter(40L);
+    }
+
+    @Test
+    void onMessage_Malformed_Ignored() {
+        deviceSpatialIndexSync.onMessage(message("moved:2"), null);
+
+        verifyNoInteractions(deviceSpatialIndex, deviceSpatialIndexLoader);
+    }
+
+
+    private static DefaultMessage message(String body) {
+        return new DefaultMessage("device-locations:changes".getBytes(StandardCharsets.UTF_8), body.getBytes(StandardCharsets.UTF_8));
+    }
+
+}
@@ -0,0 +1,110 @@
+package com.smart.home.deviceservice.spatial;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DeviceSpatialIndexTest {
+
+    private DeviceSpatialIndex deviceSpatialIndex;
+
+    @BeforeEach
+    void setUp() {
+        deviceSpatialIndex = new DeviceSpatialIndex(0.05);
+        deviceSpatialIndex.put(1L, 56.9710, 24.1604);
+        deviceSpatialIndex.put(2L, 56.9500, 24.1000);
+        deviceSpatialIndex.put(3L, 57.3000, 24.4000);
+        deviceSpatialIndex.put(4L, -33.8688, 151.2093);
+    }
+
+    @Test
+    void findInArea_ReturnsDevicesInsideArea() {
+        List<Long> result = deviceSpatialIndex.findInArea(56.90, 57.00, 24.00, 24.20);
+
+        assertEquals(List.of(1L, 2L), result);
+    }
+
+    @Test
+    void findInArea_LargeArea_ScansOccupiedCells() {
+        List<Long> result = deviceSpatialIndex.findInArea(-90, 90, -180, 180);
+
+        assertEquals(List.of(1L, 2L, 3L, 4L), result);
+    }
+
+    @Test
+    void findWithinRadius_ReturnsDevicesOrderedByDistance() {
+        List<Long> result = deviceSpatialIndex.findWithinRadius(56.9500, 24.1000, 5);
+
+        assertEquals(List.of(2L, 1L), result);
+    }
+
+    @Test
+    void findWithinRadius_AcrossAntimeridian_FindsDevicesOnBothSides() {
+        deviceSpatialIndex.put(5L, -16.5000, 179.9900);
+        deviceSpatialIndex.put(6L, -16.5000, -179.9800);
+
+        assertEquals(List.of(5L, 6L), deviceSpatialIndex.findWithinRadius(-16.5000, 179.9950, 5));
+        assertEquals(List.of(6L, 5L), deviceSpatialIndex.findWithinRadius(-16.5000, -179.9850, 5));
+    }
+
+    @Test
+    void retain_RemovesDevicesMissingFromReload() {
+        deviceSpatialIndex.put(9L, 56.9600, 24.1200);
+
+        deviceSpatialIndex.retain(Set.of(1L, 3L, 4L), 4L);
+
+        assertEquals(List.of(1L, 9L), deviceSpatialIndex.findInArea(56.90, 57.00, 24.00, 24.20));
+        assertEquals(4, deviceSpatialIndex.size());
+    }
+
+    @Test
+    void radiusBounds_NearAntimeridian_ContinuesOnOtherSide() {
+        DeviceSpatialIndex.RadiusBounds bounds = DeviceSpatialIndex.RadiusBounds.of(-16.5, 179.99, 5);
+
+        assertEquals(2, bounds.longitudeRanges().size());
+        assertEquals(180, bounds.longitudeRanges().get(0).max());
+        assertEquals(-180, bounds.longitudeRanges().get(1).min());
+    }
+
+    @Test
+    void clear_MarksIndexNotLoaded() {
+        deviceSpatialIndex.markLoaded();
+        assertTrue(deviceSpatialIndex.isLoaded());
+
+        deviceSpatialIndex.clear();
+
+        assertFalse(deviceSpatialIndex.isLoaded());
+        assertEquals(0, deviceSpatialIndex.size());
+    }
+
+    @Test
+    void put_MovedDevice_UpdatesLocation() {
+        deviceSpatialIndex.put(1L, -33.87, 151.21);
+
+        assertEquals(List.of(2L), deviceSpatialIndex.findInArea(56.90, 57.00, 24.00, 24.20));
+        assertEquals(List.of(4L, 1L), deviceSpatialIndex.findWithinRadius(-33.8688, 151.2093, 1));
+        assertEquals(4, deviceSpatialIndex.size());
+    }
+
+    @Test
+    void remove_DeletedDevice_NotFound() {
+        deviceSpatialIndex.remove(1L);
+
+        assertTrue(deviceSpatialIndex.findInArea(56.97, 56.98, 24.16, 24.17).isEmpty());
+        assertEquals(3, deviceSpatialIndex.size());
+    }
+
+    @Test
+    void distanceKm_KnownDistance() {
+        double distance = DeviceSpatialIndex.distanceKm(56.9496, 24.1052, 54.6872, 25.2797);
+
+        assertTrue(distance > 260 && distance < 265);
+    }
+
+}
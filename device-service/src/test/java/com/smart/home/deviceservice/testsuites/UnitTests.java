@@ -1,9 +1,15 @@
 package com.smart.home.deviceservice.testsuites;
 
+import com.smart.home.deviceservice.security.JwtTokenVerifierTest;
+import com.smart.home.deviceservice.security.RevokedTokenFilterTest;
+import org.junit.platform.suite.api.SelectClasses;
 import org.junit.platform.suite.api.SelectPackages;
 import org.junit.platform.suite.api.Suite;
 
 @Suite
-@SelectPackages({"com.smart.home.deviceservice.controller", "com.smart.home.deviceservice.service.impl"})
+@SelectClasses({JwtTokenVerifierTest.class, RevokedTokenFilterTest.class})
+@SelectPackages({"com.smart.home.deviceservice.client", "com.smart.home.deviceservice.controller", "com.smart.home.deviceservice.service.impl", "com.smart.home.deviceservice.spatial",
+        "com.smart.home.deviceservice.outbox", "com.smart.home.deviceservice.live", "com.smart.home.deviceservice.executor",
+        "com.smart.home.deviceservice.ratelimit", "com.smart.home.deviceservice.registry"})
 public class UnitTests {
 }
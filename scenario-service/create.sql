@@ -2,6 +2,7 @@ create table scenarios (
     device_type_id bigint not null,
     id bigint not null auto_increment,
     condition_value varchar(255),
+    hysteresis float(53),
     new_status varchar(255) not null,
     operator varchar(255) not null,
     weather_condition varchar(255) not null,
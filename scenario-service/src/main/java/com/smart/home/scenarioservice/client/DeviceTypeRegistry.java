@@ -0,0 +1,153 @@
+package com.smart.home.scenarioservice.client;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory copy of the device type ids which device-service publishes to Redis. Changes announced on the change
+ * channel are applied directly, missed versions and full republishes reload the set, and the version is polled as
+ * a fallback for lost messages. Until a published set is loaded no id is known, so validation falls back to asking
+ * device-service.
+ */
+@Log4j2
+@Component
+public class DeviceTypeRegistry implements MessageListener {
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisConnectionFactory connectionFactory;
+
+    @Value("${device-type-registry.key:device-types:ids}")
+    private String idsKey;
+
+    @Value("${device-type-registry.version-key:device-types:version}")
+    private String versionKey;
+
+    @Value("${device-type-registry.channel:device-types:changes}")
+    private String channel;
+
+    private volatile Set<Long> deviceTypeIds;
+    private volatile long version = -1;
+    private RedisMessageListenerContainer container;
+
+
+    public DeviceTypeRegistry(StringRedisTemplate redisTemplate, RedisConnectionFactory connectionFactory) {
+        this.redisTemplate = redisTemplate;
+        this.connectionFactory = connectionFactory;
+    }
+
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(this, new ChannelTopic(channel));
+        container.afterPropertiesSet();
+        try {
+            container.start();
+            log.info("Listening to device type changes on channel '{}'", channel);
+        } catch (RuntimeException e) {
+            log.error("Could not subscribe to device type changes on channel '{}': {}", channel, e.getMessage());
+        }
+        reload();
+    }
+
+    @PreDestroy
+    public void stop() throws Exception {
+        if (container != null) {
+            container.destroy();
+        }
+    }
+
+    /**
+     * True when a set published by device-service has been loaded, so ids missing from it can be rejected.
+     */
+    public boolean isLoaded() {
+        return deviceTypeIds != null && version > 0;
+    }
+
+    /**
+     * True means the device type exists. False means it does not, or that it was added after the last change
+     * which reached this instance.
+     */
+    public boolean isKnown(Long deviceTypeId) {
+        Set<Long> current = deviceTypeIds;
+        return current != null && deviceTypeId != null && current.contains(deviceTypeId);
+    }
+
+    @Scheduled(initialDelayString = "${device-type-registry.refresh-interval-ms:30000}",
+            fixedDelayString = "${device-type-registry.refresh-interval-ms:30000}")
+    public void refresh() {
+        try {
+            String storedVersion = redisTemplate.opsForValue().get(versionKey);
+            if (storedVersion != null && Long.parseLong(storedVersion) != version) {
+                reload();
+            }
+        } catch (RuntimeException e) {
+            log.error("Could not check device type registry version: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.indexOf(':');
+        Set<Long> current = deviceTypeIds;
+        try {
+            long messageVersion = Long.parseLong(separator < 0 ? body : body.substring(0, separator));
+            if (messageVersion <= version) {
+                return;
+            }
+            if (separator > 0 && current != null && messageVersion == version + 1) {
+                applyChange(current, body.substring(separator + 1));
+                version = messageVersion;
+            } else {
+                reload();
+            }
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring malformed device type change '{}'", body);
+        }
+    }
+
+
+    private static void applyChange(Set<Long> current, String change) {
+        Long deviceTypeId = Long.parseLong(change.substring(1));
+        if (change.charAt(0) == '-') {
+            current.remove(deviceTypeId);
+        } else {
+            current.add(deviceTypeId);
+        }
+    }
+
+    private synchronized void reload() {
+        try {
+            // the version is read first, so the set is at least as new as the version it is stored with
+            String storedVersion = redisTemplate.opsForValue().get(versionKey);
+            Set<String> members = redisTemplate.opsForSet().members(idsKey);
+            Set<Long> loaded = ConcurrentHashMap.newKeySet();
+            if (members != null) {
+                members.forEach(member -> loaded.add(Long.parseLong(member)));
+            }
+            deviceTypeIds = loaded;
+            version = storedVersion != null ? Long.parseLong(storedVersion) : 0L;
+            log.info("Loaded device type registry version {} with {} ids", version, loaded.size());
+        } catch (RuntimeException e) {
+            log.error("Could not load device type registry: {}", e.getMessage());
+        }
+    }
+
+}
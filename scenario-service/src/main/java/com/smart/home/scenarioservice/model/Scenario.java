@@ -4,6 +4,7 @@ import com.smart.home.scenarioservice.swagger.DescriptionVariables;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -41,4 +42,9 @@ public class Scenario {
     @NotBlank(message = "Status " + DescriptionVariables.NOT_BLANK)
     private String newStatus;
 
+    @Schema(description = "Hysteresis band of numeric conditions. The measured value must pass the condition value " +
+            "by this margin before the scenario applies", example = "0.5")
+    @PositiveOrZero(message = "Hysteresis " + DescriptionVariables.POSITIVE_OR_ZERO)
+    private Double hysteresis;
+
 }
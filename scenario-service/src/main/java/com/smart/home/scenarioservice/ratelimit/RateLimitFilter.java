@@ -0,0 +1,126 @@
+package com.smart.home.scenarioservice.ratelimit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.NonNull;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Rate limits requests per user and route. Runs after the authentication filter, so users are identified by the
+ * subject of their token; requests without a token are limited per client address. Routes are matched in the
+ * configured order and the first match wins. When Redis cannot be reached requests are let through, and Redis is
+ * not asked again until the failure cooldown has passed, so an outage does not add a timeout to every request.
+ */
+@Log4j2
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String LIMIT_HEADER = "X-RateLimit-Limit";
+    private static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+
+    private final RedisRateLimiter rateLimiter;
+    private final MeterRegistry meterRegistry;
+    private final List<RateLimitRule> rules;
+    private final RateLimitRule defaultRule;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    @Value("${rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${rate-limit.key-prefix:rate-limit:scenario-service}")
+    private String keyPrefix;
+
+    @Value("${rate-limit.redis-failure-cooldown-ms:5000}")
+    private long failureCooldown;
+
+    private volatile long redisSkippedUntil;
+
+
+    public RateLimitFilter(RedisRateLimiter rateLimiter, MeterRegistry meterRegistry,
+                           @Value("${rate-limit.routes:}") List<String> routes,
+                           @Value("${rate-limit.default.capacity:0}") long defaultCapacity,
+                           @Value("${rate-limit.default.refill-per-second:0}") double defaultRefillPerSecond) {
+        this.rateLimiter = rateLimiter;
+        this.meterRegistry = meterRegistry;
+        this.rules = routes.stream()
+                .filter(StringUtils::hasText)
+                .map(RateLimitRule::parse)
+                .toList();
+        this.defaultRule = defaultCapacity > 0 ? new RateLimitRule("/**", defaultCapacity, defaultRefillPerSecond) : null;
+    }
+
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull FilterChain chain)
+            throws ServletException, IOException {
+        RateLimitRule rule = findRule(request.getRequestURI());
+        if (!enabled || rule == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        String route = rule.getPathPattern();
+        if (System.currentTimeMillis() < redisSkippedUntil) {
+            meterRegistry.counter("rate.limit.requests", "route", route, "outcome", "skipped").increment();
+            chain.doFilter(request, response);
+            return;
+        }
+        RedisRateLimiter.Result result;
+        try {
+            result = rateLimiter.tryAcquire(keyPrefix + ":" + route + ":" + clientIdentity(request), rule);
+        } catch (RuntimeException e) {
+            redisSkippedUntil = System.currentTimeMillis() + failureCooldown;
+            log.warn("Rate limits not checked for the next {} ms, Redis request failed: {}", failureCooldown, e.getMessage());
+            meterRegistry.counter("rate.limit.requests", "route", route, "outcome", "error").increment();
+            chain.doFilter(request, response);
+            return;
+        }
+
+        response.setHeader(LIMIT_HEADER, String.valueOf(rule.getCapacity()));
+        response.setHeader(REMAINING_HEADER, String.valueOf(result.remaining()));
+        if (!result.allowed()) {
+            meterRegistry.counter("rate.limit.requests", "route", route, "outcome", "rejected").increment();
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, (result.retryAfterMillis() + 999) / 1000)));
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.getWriter().write("Rate limit exceeded, retry the request later.");
+            return;
+        }
+        meterRegistry.counter("rate.limit.requests", "route", route, "outcome", "allowed").increment();
+        chain.doFilter(request, response);
+    }
+
+
+    private RateLimitRule findRule(String path) {
+        for (RateLimitRule rule : rules) {
+            if (pathMatcher.match(rule.getPathPattern(), path)) {
+                return rule;
+            }
+        }
+        return defaultRule;
+    }
+
+    private static String clientIdentity(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated() && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return "user:" + authentication.getName();
+        }
+        return "address:" + request.getRemoteAddr();
+    }
+
+}
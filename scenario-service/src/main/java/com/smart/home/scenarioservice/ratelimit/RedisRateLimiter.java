@@ -0,0 +1,62 @@
+package com.smart.home.scenarioservice.ratelimit;
+
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Token buckets kept in Redis, so every instance of every service draws from the same bucket. Refill and take
+ * happen in one script, which Redis runs atomically, and the Redis clock is used so instances need not agree on time.
+ */
+@Component
+public class RedisRateLimiter {
+
+    private static final RedisScript<List> TOKEN_BUCKET_SCRIPT = new DefaultRedisScript<>("""
+            local capacity = tonumber(ARGV[1])
+            local refill_per_ms = tonumber(ARGV[2])
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+            local bucket = redis.call('HMGET', KEYS[1], 'tokens', 'timestamp')
+            local tokens = tonumber(bucket[1]) or capacity
+            local timestamp = tonumber(bucket[2]) or now
+            tokens = math.min(capacity, tokens + math.max(0, now - timestamp) * refill_per_ms)
+            local allowed = 0
+            local retry_after = 0
+            if tokens >= 1 then
+                tokens = tokens - 1
+                allowed = 1
+            else
+                retry_after = math.ceil((1 - tokens) / refill_per_ms)
+            end
+            redis.call('HSET', KEYS[1], 'tokens', tostring(tokens), 'timestamp', now)
+            redis.call('PEXPIRE', KEYS[1], math.ceil(capacity / refill_per_ms) + 1000)
+            return {allowed, math.floor(tokens), retry_after}
+            """, List.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    public RedisRateLimiter(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+
+    /**
+     * Takes one token from the bucket, refilling it first for the time passed since the last request.
+     */
+    public Result tryAcquire(String bucketKey, RateLimitRule rule) {
+        List<?> result = redisTemplate.execute(TOKEN_BUCKET_SCRIPT, List.of(bucketKey),
+                String.valueOf(rule.getCapacity()), String.valueOf(rule.getRefillPerSecond() / 1000.0));
+        if (result == null || result.size() < 3) {
+            throw new IllegalStateException("Unexpected rate limit script result: " + result);
+        }
+        return new Result(((Number) result.get(0)).longValue() == 1, ((Number) result.get(1)).longValue(), ((Number) result.get(2)).longValue());
+    }
+
+
+    public record Result(boolean allowed, long remaining, long retryAfterMillis) {
+    }
+
+}
@@ -37,4 +37,7 @@ public class ScenarioDAO {
     @Column(name = "new_status", nullable = false)
     private String newStatus;
 
+    @Column(name = "hysteresis")
+    private Double hysteresis;
+
 }
@@ -0,0 +1,14 @@
+package com.smart.home.scenarioservice.security;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class BatchTokenValidationRequest {
+
+    private List<String> tokens;
+
+}
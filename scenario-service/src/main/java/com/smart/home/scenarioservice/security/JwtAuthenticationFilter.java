@@ -1,13 +1,14 @@
 package com.smart.home.scenarioservice.security;
 
 import com.smart.home.scenarioservice.client.AuthClient;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
-
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -21,7 +22,12 @@ import java.io.IOException;
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    private final JwtTokenVerifier jwtTokenVerifier;
     private final AuthClient authClient;
+    private final RevokedTokenFilter revokedTokenFilter;
+
+    @Value("${auth.revocation-check.enabled:true}")
+    private boolean revocationCheckEnabled;
 
 
     @Override
@@ -32,9 +38,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         if (StringUtils.hasText(header) && header.startsWith("Bearer ")) {
             String token = header.substring(7);
 
-            if (authClient.validateToken(token)) {
+            Claims claims = jwtTokenVerifier.verify(token);
+            if (claims != null && !isRevoked(token, claims)) {
                 UsernamePasswordAuthenticationToken authentication =
-                        new UsernamePasswordAuthenticationToken(null, null, null);
+                        new UsernamePasswordAuthenticationToken(claims.getSubject(), null, null);
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
                 SecurityContextHolder.getContext().setAuthentication(authentication);
@@ -46,6 +53,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         chain.doFilter(request, response);
     }
 
+    private boolean isRevoked(String token, Claims claims) {
+        // only possible hits of the revocation filter are checked with user-service
+        return revocationCheckEnabled && revokedTokenFilter.mightBeRevoked(claims) && !authClient.validateToken(token, claims.getExpiration(),
+                RevokedTokenFilter.revocationEntries(claims));
+    }
+
     @Override
     protected boolean shouldNotFilter(HttpServletRequest request) throws ServletException {
         String path = request.getRequestURI();
@@ -1,6 +1,7 @@
 package com.smart.home.scenarioservice.service;
 
 import com.smart.home.scenarioservice.client.DeviceTypeClient;
+import com.smart.home.scenarioservice.client.DeviceTypeRegistry;
 import com.smart.home.scenarioservice.handler.BadRequestException;
 import com.smart.home.scenarioservice.mapper.ScenarioMapper;
 import com.smart.home.scenarioservice.model.Scenario;
@@ -25,6 +26,7 @@ public class ScenarioServiceImpl implements ScenarioService {
     private final ScenarioRepository scenarioRepository;
     private final ScenarioMapper scenarioMapper;
     private final DeviceTypeClient deviceTypeClient;
+    private final DeviceTypeRegistry deviceTypeRegistry;
 
 
     @Override
@@ -115,6 +117,14 @@ public class ScenarioServiceImpl implements ScenarioService {
     }
 
     private void validateDeviceType(Long deviceTypeId, String token) {
+        if (deviceTypeRegistry.isKnown(deviceTypeId)) {
+            return;
+        }
+        if (deviceTypeRegistry.isLoaded()) {
+            log.error("Device type with id {} is not in the device type registry", deviceTypeId);
+            throw new BadRequestException("Device Type validation failed for id: " + deviceTypeId);
+        }
+        // device-service is asked only until the registry is loaded
         try {
             deviceTypeClient.getDeviceTypeById(deviceTypeId, token);
         } catch (Exception e) {
@@ -5,6 +5,7 @@ public class DescriptionVariables {
     public static final String MODEL_ID_RANGE = "Id must be greater than 0 and less than 9,223,372,036,854,775,808";
     public static final String NOT_BLANK = "must not be blank";
     public static final String NOT_NULL = "must not be null";
+    public static final String POSITIVE_OR_ZERO = "must be greater than or equal to 0";
     public static final String SCENARIO = "Scenario Controller";
 
 }
@@ -0,0 +1,132 @@
+package com.smart.home.scenarioservice.client;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DeviceTypeRegistryTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    @Mock
+    private SetOperations<String, String> setOperations;
+
+    @Mock
+    private RedisConnectionFactory connectionFactory;
+
+    private DeviceTypeRegistry deviceTypeRegistry;
+
+    @BeforeEach
+    void setUp() {
+        deviceTypeRegistry = new DeviceTypeRegistry(redisTemplate, connectionFactory);
+        ReflectionTestUtils.setField(deviceTypeRegistry, "idsKey", "device-types:ids");
+        ReflectionTestUtils.setField(deviceTypeRegistry, "versionKey", "device-types:version");
+    }
+
+    @Test
+    void isKnown_NotLoaded() {
+        assertFalse(deviceTypeRegistry.isKnown(1L));
+        assertFalse(deviceTypeRegistry.isLoaded());
+    }
+
+    @Test
+    void isLoaded_NothingPublished() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(redisTemplate.opsForSet()).thenReturn(setOperations);
+        when(setOperations.members("device-types:ids")).thenReturn(Set.of());
+
+        deviceTypeRegistry.onMessage(message("0"), null);
+
+        assertFalse(deviceTypeRegistry.isLoaded());
+    }
+
+    @Test
+    void isKnown_LoadedRegistry() {
+        loadRegistry("1", "1", "2");
+
+        assertTrue(deviceTypeRegistry.isLoaded());
+        assertTrue(deviceTypeRegistry.isKnown(1L));
+        assertTrue(deviceTypeRegistry.isKnown(2L));
+        assertFalse(deviceTypeRegistry.isKnown(3L));
+        assertFalse(deviceTypeRegistry.isKnown(null));
+    }
+
+    @Test
+    void onMessage_NextVersionsAppliedWithoutReload() {
+        loadRegistry("1", "1");
+
+        deviceTypeRegistry.onMessage(message("2:+3"), null);
+        deviceTypeRegistry.onMessage(message("3:-1"), null);
+
+        assertTrue(deviceTypeRegistry.isKnown(3L));
+        assertFalse(deviceTypeRegistry.isKnown(1L));
+        verify(setOperations, times(1)).members("device-types:ids");
+    }
+
+    @Test
+    void onMessage_MissedVersionReloads() {
+        loadRegistry("1", "1");
+        when(valueOperations.get("device-types:version")).thenReturn("3");
+        when(setOperations.members("device-types:ids")).thenReturn(Set.of("1", "2", "3"));
+
+        deviceTypeRegistry.onMessage(message("3:+3"), null);
+
+        assertTrue(deviceTypeRegistry.isKnown(2L));
+        assertTrue(deviceTypeRegistry.isKnown(3L));
+        verify(setOperations, times(2)).members("device-types:ids");
+    }
+
+    @Test
+    void onMessage_OldVersionIgnored() {
+        loadRegistry("5", "1");
+
+        deviceTypeRegistry.onMessage(message("4:+2"), null);
+
+        assertFalse(deviceTypeRegistry.isKnown(2L));
+    }
+
+    @Test
+    void refresh_SameVersionNotReloaded() {
+        loadRegistry("1", "1");
+
+        deviceTypeRegistry.refresh();
+
+        verify(setOperations, times(1)).members("device-types:ids");
+    }
+
+
+    private void loadRegistry(String version, String... deviceTypeIds) {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(redisTemplate.opsForSet()).thenReturn(setOperations);
+        when(valueOperations.get("device-types:version")).thenReturn(version);
+        when(setOperations.members("device-types:ids")).thenReturn(Set.of(deviceTypeIds));
+        deviceTypeRegistry.onMessage(message(version), null);
+    }
+
+    private static DefaultMessage message(String body) {
+        return new DefaultMessage("device-types:changes".getBytes(StandardCharsets.UTF_8), body.getBytes(StandardCharsets.UTF_8));
+    }
+
+}
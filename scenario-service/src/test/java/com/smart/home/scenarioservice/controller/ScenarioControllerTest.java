@@ -74,7 +74,8 @@ class ScenarioControllerTest {
                 "temperature",
                 "25",
                 ">",
-                "ON"
+                "ON",
+                null
         );
 
         scenarioWithId = new Scenario(
@@ -83,7 +84,8 @@ class ScenarioControllerTest {
                 "description",
                 "rain and snow",
                 "=",
-                "CLOSE"
+                "CLOSE",
+                null
         );
 
         invalidScenario = new Scenario();
@@ -2,6 +2,7 @@ package com.smart.home.scenarioservice.integration;
 
 import com.smart.home.scenarioservice.cache.CacheConfig;
 import com.smart.home.scenarioservice.client.DeviceTypeClient;
+import com.smart.home.scenarioservice.client.DeviceTypeRegistry;
 import com.smart.home.scenarioservice.mapper.ScenarioMapper;
 import com.smart.home.scenarioservice.mapper.ScenarioMapperImpl;
 import com.smart.home.scenarioservice.model.Scenario;
@@ -51,6 +52,9 @@ public class ScenarioCachingIntegrationTest {
     @MockBean
     private DeviceTypeClient deviceTypeClient;
 
+    @MockBean
+    private DeviceTypeRegistry deviceTypeRegistry;
+
     @Autowired
     private ScenarioService scenarioService;
 
@@ -68,8 +72,8 @@ public class ScenarioCachingIntegrationTest {
 
     @Test
     void whenFindScenarioById_thenItemReturnedFromCache_Success() {
-        Scenario scenario = new Scenario(1L, 1L, "temperature", "25", ">", "ON");
-        ScenarioDAO scenarioDAO = new ScenarioDAO(1L, 1L, "temperature", "25", ">", "ON");
+        Scenario scenario = new Scenario(1L, 1L, "temperature", "25", ">", "ON", null);
+        ScenarioDAO scenarioDAO = new ScenarioDAO(1L, 1L, "temperature", "25", ">", "ON", null);
 
         when(deviceTypeClient.getDeviceTypeById(anyLong(), anyString())).thenReturn(new DeviceTypeDTO());
         when(scenarioRepository.findById(1L)).thenReturn(Optional.of(scenarioDAO));
@@ -85,9 +89,9 @@ public class ScenarioCachingIntegrationTest {
 
     @Test
     void whenUpdateScenario_thenCacheUpdated_Success() {
-        ScenarioDAO scenarioDAO = new ScenarioDAO(1L, 1L, "temperature", "25", ">", "ON");
-        Scenario updatedScenario = new Scenario(1L, 1L, "temperature", "25", ">", "OFF");
-        ScenarioDAO updatedScenarioDAO = new ScenarioDAO(1L, 1L, "temperature", "25", ">", "OFF");
+        ScenarioDAO scenarioDAO = new ScenarioDAO(1L, 1L, "temperature", "25", ">", "ON", null);
+        Scenario updatedScenario = new Scenario(1L, 1L, "temperature", "25", ">", "OFF", null);
+        ScenarioDAO updatedScenarioDAO = new ScenarioDAO(1L, 1L, "temperature", "25", ">", "OFF", null);
 
         when(deviceTypeClient.getDeviceTypeById(anyLong(), anyString())).thenReturn(new DeviceTypeDTO());
         when(scenarioRepository.findById(1L)).thenReturn(Optional.of(scenarioDAO));
@@ -106,7 +110,7 @@ public class ScenarioCachingIntegrationTest {
 
     @Test
     void whenDeleteScenario_thenCacheEvicted_Success() {
-        ScenarioDAO scenarioDAO = new ScenarioDAO(1L, 1L, "temperature", "25", ">", "ON");;
+        ScenarioDAO scenarioDAO = new ScenarioDAO(1L, 1L, "temperature", "25", ">", "ON", null);;
 
         when(deviceTypeClient.getDeviceTypeById(anyLong(), anyString())).thenReturn(new DeviceTypeDTO());
         when(scenarioRepository.findById(1L)).thenReturn(Optional.of(scenarioDAO));
@@ -138,7 +142,7 @@ public class ScenarioCachingIntegrationTest {
     @Test
     void whenUpdateNonExistentScenario_thenCacheNotUpdated_Failure() {
         when(deviceTypeClient.getDeviceTypeById(anyLong(), anyString())).thenReturn(new DeviceTypeDTO());
-        Scenario scenario = new Scenario(1L, 1L, "temperature", "25", ">", "ON");
+        Scenario scenario = new Scenario(1L, 1L, "temperature", "25", ">", "ON", null);
         when(scenarioRepository.findById(999L)).thenReturn(Optional.empty());
 
         try {
@@ -90,7 +90,8 @@ public class ScenarioServiceAppEndToEndTest {
                 "temperature",
                 "25",
                 ">",
-                "ON"
+                "ON",
+                null
         );
 
         validScenarioDAO = new ScenarioDAO(
@@ -99,7 +100,8 @@ public class ScenarioServiceAppEndToEndTest {
                 "temperature",
                 "25",
                 ">",
-                "ON"
+                "ON",
+                null
         );
 
         scenarioWithId = new Scenario(
@@ -108,7 +110,8 @@ public class ScenarioServiceAppEndToEndTest {
                 "description",
                 "rain and snow",
                 "=",
-                "CLOSE"
+                "CLOSE",
+                null
         );
 
         scenarioDAOWithId = new ScenarioDAO(
@@ -117,7 +120,8 @@ public class ScenarioServiceAppEndToEndTest {
                 "description",
                 "rain and snow",
                 "=",
-                "CLOSE"
+                "CLOSE",
+                null
         );
 
         invalidScenario = new Scenario();
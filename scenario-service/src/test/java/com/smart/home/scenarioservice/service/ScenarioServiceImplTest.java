@@ -1,6 +1,7 @@
 package com.smart.home.scenarioservice.service;
 
 import com.smart.home.scenarioservice.client.DeviceTypeClient;
+import com.smart.home.scenarioservice.client.DeviceTypeRegistry;
 import com.smart.home.scenarioservice.model.dto.DeviceTypeDTO;
 import com.smart.home.scenarioservice.handler.BadRequestException;
 import com.smart.home.scenarioservice.mapper.ScenarioMapper;
@@ -23,6 +24,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -39,6 +41,9 @@ class ScenarioServiceImplTest {
     @Mock
     private DeviceTypeClient deviceTypeClient;
 
+    @Mock
+    private DeviceTypeRegistry deviceTypeRegistry;
+
     @InjectMocks
     private ScenarioServiceImpl scenarioService;
 
@@ -64,6 +69,41 @@ class ScenarioServiceImplTest {
         verify(scenarioMapper, times(1)).scenarioDAOToScenario(scenarioDAO);
     }
 
+    @Test
+    void addScenario_KnownDeviceType_NotRequested() {
+        Long deviceTypeId = 1L;
+        Scenario scenario = new Scenario();
+        scenario.setDeviceTypeId(deviceTypeId);
+        ScenarioDAO scenarioDAO = new ScenarioDAO();
+        String token = "Bearer token";
+
+        when(deviceTypeRegistry.isKnown(deviceTypeId)).thenReturn(true);
+        when(scenarioMapper.scenarioToScenarioDAO(scenario)).thenReturn(scenarioDAO);
+        when(scenarioRepository.save(any(ScenarioDAO.class))).thenReturn(scenarioDAO);
+        when(scenarioMapper.scenarioDAOToScenario(scenarioDAO)).thenReturn(scenario);
+
+        Scenario result = scenarioService.addScenario(scenario, token);
+
+        assertNotNull(result);
+        verify(deviceTypeClient, never()).getDeviceTypeById(any(), any());
+        verify(scenarioRepository, times(1)).save(scenarioDAO);
+    }
+
+    @Test
+    void addScenario_UnknownDeviceTypeInLoadedRegistry_ThrowsBadRequestException() {
+        Long deviceTypeId = 1L;
+        Scenario scenario = new Scenario();
+        scenario.setDeviceTypeId(deviceTypeId);
+        String token = "Bearer token";
+
+        when(deviceTypeRegistry.isKnown(deviceTypeId)).thenReturn(false);
+        when(deviceTypeRegistry.isLoaded()).thenReturn(true);
+
+        assertThrows(BadRequestException.class, () -> scenarioService.addScenario(scenario, token));
+        verify(deviceTypeClient, never()).getDeviceTypeById(any(), any());
+        verify(scenarioRepository, never()).save(any());
+    }
+
     @Test
     void addScenario_DataIntegrityViolationException_ThrowsBadRequestException() {
         Long deviceTypeId = 1L;
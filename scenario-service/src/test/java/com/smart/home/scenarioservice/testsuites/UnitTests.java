@@ -1,9 +1,13 @@
 package com.smart.home.scenarioservice.testsuites;
 
+import com.smart.home.scenarioservice.security.JwtTokenVerifierTest;
+import com.smart.home.scenarioservice.security.RevokedTokenFilterTest;
+import org.junit.platform.suite.api.SelectClasses;
 import org.junit.platform.suite.api.SelectPackages;
 import org.junit.platform.suite.api.Suite;
 
 @Suite
-@SelectPackages({"com.smart.home.scenarioservice.controller", "com.smart.home.scenarioservice.service"})
+@SelectClasses({JwtTokenVerifierTest.class, RevokedTokenFilterTest.class})
+@SelectPackages({"com.smart.home.scenarioservice.client", "com.smart.home.scenarioservice.controller", "com.smart.home.scenarioservice.service", "com.smart.home.scenarioservice.ratelimit"})
 public class UnitTests {
 }
@@ -1,3 +1,23 @@
+create table refresh_tokens (
+    id bigint not null auto_increment,
+    created_at datetime(6) not null,
+    expires_at datetime(6) not null,
+    used_at datetime(6),
+    user_id bigint not null,
+    family_id varchar(36) not null,
+    token_hash varchar(64) not null,
+    primary key (id)
+)
+engine=InnoDB;
+
+create table revoked_tokens (
+    expires_at datetime(6) not null,
+    revoked_at datetime(6) not null,
+    revocation_key varchar(100) not null,
+    primary key (revocation_key)
+)
+engine=InnoDB;
+
 create table roles (
     id bigint not null auto_increment,
     description varchar(255),
@@ -20,10 +40,12 @@ create table users (
     username varchar(50) not null,
     password varchar(100) not null,
     email varchar(255) not null,
+    token_epoch bigint,
     primary key (id)
 )
 engine=InnoDB;
 
+alter table refresh_tokens add constraint UK_refresh_tokens_token_hash unique (token_hash);
 alter table roles add constraint UK716hgxp60ym1lifrdgp67xt5k unique (role_name);
 alter table users add constraint UKr43af9ap4edm43mmtq01oddj6 unique (username);
 alter table user_role add constraint FKt7e7djp752sqn6w22i6ocqy6q foreign key (role_id) references roles (id);
@@ -0,0 +1,91 @@
+package com.smart.home.userservice.security;
+
+import com.smart.home.userservice.model.Role;
+import com.smart.home.userservice.model.RoleType;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.crypto.SecretKey;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token validations per second as validation used to work, with the HMAC secret decoded and a parser built
+ * for every parse and the token parsed three times, compared to the single parse of
+ * {@link JwtTokenService#verifyToken(String)}. Run with {@code gradle jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtTokenServiceBenchmark {
+
+    private JwtTokenService jwtTokenService;
+    private String token;
+    private String secretKey;
+    private String hmacToken;
+
+    @Setup
+    public void setUp() {
+        JwtSigningKeys signingKeys = new JwtSigningKeys(List.of(), "", true);
+        jwtTokenService = new JwtTokenService(signingKeys, TimeUnit.HOURS.toMillis(1), TimeUnit.DAYS.toMillis(14));
+        token = jwtTokenService.generateToken("benchmarkUser", Set.of(new Role(RoleType.USER)));
+
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        secretKey = Base64.getEncoder().encodeToString(secret);
+        hmacToken = Jwts.builder().subject("benchmarkUser")
+                .claim("roles", Set.of(new Role(RoleType.USER)))
+                .issuedAt(new Date(System.currentTimeMillis()))
+                .expiration(new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1)))
+                .signWith(getSecretKey())
+                .compact();
+    }
+
+    @Benchmark
+    public boolean parserPerCall() {
+        if (parseWithNewParser(hmacToken).getExpiration().before(new Date())) {
+            return false;
+        }
+        String username = parseWithNewParser(hmacToken).getSubject();
+        return username != null && !parseWithNewParser(hmacToken).getExpiration().before(new Date());
+    }
+
+    @Benchmark
+    public ValidatedToken singleParse() {
+        return jwtTokenService.verifyToken(token);
+    }
+
+
+    private Claims parseWithNewParser(String token) {
+        return Jwts.parser()
+                .verifyWith(getSecretKey())
+                .clockSkewSeconds(2)
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+
+    private SecretKey getSecretKey() {
+        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+    }
+
+}
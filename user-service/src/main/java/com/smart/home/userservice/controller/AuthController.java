@@ -1,12 +1,17 @@
 package com.smart.home.userservice.controller;
 
+import com.smart.home.userservice.model.AuthTokensDTO;
+import com.smart.home.userservice.model.BatchTokenValidationRequest;
+import com.smart.home.userservice.model.JwtKeyDTO;
 import com.smart.home.userservice.model.LoginDTO;
+import com.smart.home.userservice.model.RefreshTokenRequest;
 import com.smart.home.userservice.model.TokenValidationRequest;
 import com.smart.home.userservice.model.User;
 import com.smart.home.userservice.service.UserService;
 import com.smart.home.userservice.swagger.DescriptionVariables;
 import com.smart.home.userservice.swagger.HTTPResponseMessages;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -15,11 +20,14 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -33,22 +41,40 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class AuthController {
 
+    private static final String TOKEN_PREFIX = "Bearer ";
+
     private final UserService userService;
 
-    @Operation(summary = "Logs in user, returns authentication token")
+    @Operation(summary = "Logs in user, returns authentication and refresh token")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = HTTPResponseMessages.HTTP_200,
-                    content = @Content(schema = @Schema(implementation = String.class))),
+                    content = @Content(schema = @Schema(implementation = AuthTokensDTO.class))),
             @ApiResponse(responseCode = "400", description = HTTPResponseMessages.HTTP_400, content = @Content),
             @ApiResponse(responseCode = "500", description = HTTPResponseMessages.HTTP_500, content = @Content)
     })
     @PostMapping("/login")
-    public ResponseEntity<String> login(@RequestBody LoginDTO loginDTO) {
+    public ResponseEntity<AuthTokensDTO> login(@RequestBody LoginDTO loginDTO) {
         log.info("Attempting to log in user with username: {}", loginDTO.getUsername());
-        String token = userService.login(loginDTO);
+        AuthTokensDTO tokens = userService.login(loginDTO);
 
         log.debug("User {} logged in successfully", loginDTO.getUsername());
-        return ResponseEntity.ok(token);
+        return ResponseEntity.ok(tokens);
+    }
+
+    @Operation(summary = "Exchanges refresh token for new authentication and refresh token")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = HTTPResponseMessages.HTTP_200,
+                    content = @Content(schema = @Schema(implementation = AuthTokensDTO.class))),
+            @ApiResponse(responseCode = "400", description = HTTPResponseMessages.HTTP_400, content = @Content),
+            @ApiResponse(responseCode = "500", description = HTTPResponseMessages.HTTP_500, content = @Content)
+    })
+    @PostMapping("/token/refresh")
+    public ResponseEntity<AuthTokensDTO> refreshToken(@RequestBody RefreshTokenRequest request) {
+        log.info("Attempting to refresh tokens");
+        AuthTokensDTO tokens = userService.refreshToken(request);
+
+        log.debug("Tokens refreshed successfully");
+        return ResponseEntity.ok(tokens);
     }
 
     @Operation(summary = "Creates new user")
@@ -91,4 +117,52 @@ public class AuthController {
         return ResponseEntity.ok(isValid);
     }
 
+    @Operation(summary = "Validates a batch of tokens, returns validation results in request order")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = HTTPResponseMessages.HTTP_200,
+                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = Boolean.class)))),
+            @ApiResponse(responseCode = "400", description = HTTPResponseMessages.HTTP_400, content = @Content),
+            @ApiResponse(responseCode = "500", description = HTTPResponseMessages.HTTP_500, content = @Content)
+    })
+    @PostMapping("/token/validate/batch")
+    public ResponseEntity<List<Boolean>> validateTokens(@RequestBody BatchTokenValidationRequest request) {
+        log.info("Attempting to validate batch of tokens");
+        List<Boolean> results = userService.validateTokens(request);
+
+        log.debug("Validation of {} tokens completed.", results.size());
+        return ResponseEntity.ok(results);
+    }
+
+    @Operation(summary = "Logs out user, revokes the authentication token and the refresh token if given")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = HTTPResponseMessages.HTTP_204, content = @Content),
+            @ApiResponse(responseCode = "400", description = HTTPResponseMessages.HTTP_400, content = @Content),
+            @ApiResponse(responseCode = "500", description = HTTPResponseMessages.HTTP_500, content = @Content)
+    })
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestHeader(HttpHeaders.AUTHORIZATION) String authorization,
+                                       @RequestBody(required = false) RefreshTokenRequest request) {
+        log.info("Attempting to log out user");
+        String token = authorization.startsWith(TOKEN_PREFIX) ? authorization.substring(TOKEN_PREFIX.length()) : authorization;
+        userService.logout(token, request != null ? request.getRefreshToken() : null);
+
+        log.debug("User logged out successfully");
+        return ResponseEntity.noContent().build();
+    }
+
+    @Operation(summary = "Gets public keys for local token verification")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = HTTPResponseMessages.HTTP_200,
+                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = JwtKeyDTO.class)))),
+            @ApiResponse(responseCode = "500", description = HTTPResponseMessages.HTTP_500, content = @Content)
+    })
+    @GetMapping("/keys")
+    public ResponseEntity<List<JwtKeyDTO>> getSigningKeys() {
+        log.info("Getting public signing keys");
+        List<JwtKeyDTO> keys = userService.getSigningKeys();
+
+        log.debug("Found {} signing keys", keys.size());
+        return ResponseEntity.ok(keys);
+    }
+
 }
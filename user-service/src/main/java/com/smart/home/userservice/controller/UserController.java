@@ -1,6 +1,7 @@
 package com.smart.home.userservice.controller;
 
 import com.smart.home.userservice.model.User;
+import com.smart.home.userservice.model.UserPage;
 import com.smart.home.userservice.service.UserService;
 import com.smart.home.userservice.swagger.DescriptionVariables;
 import com.smart.home.userservice.swagger.HTTPResponseMessages;
@@ -24,6 +25,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
@@ -120,6 +122,28 @@ public class UserController {
         return ResponseEntity.ok(users);
     }
 
+    @Operation(summary = "Gets page of users",
+            description = "Returns id, username, email, timestamps and roles of users, without password hashes.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = HTTPResponseMessages.HTTP_200,
+                    content = @Content(schema = @Schema(implementation = UserPage.class))),
+            @ApiResponse(responseCode = "400", description = HTTPResponseMessages.HTTP_400, content = @Content),
+            @ApiResponse(responseCode = "403", description = HTTPResponseMessages.HTTP_403, content = @Content),
+            @ApiResponse(responseCode = "500", description = HTTPResponseMessages.HTTP_500, content = @Content)
+    })
+    @GetMapping("/page")
+    public ResponseEntity<UserPage> getUserPage(
+            @Parameter(name = "page", description = "zero-based page number", example = "0") @RequestParam(defaultValue = "0") int page,
+            @Parameter(name = "size", description = "maximum number of users in page", example = "50") @RequestParam(defaultValue = "50") int size,
+            @Parameter(name = "sort", description = "userId, username, email, createdAt or updatedAt", example = "username") @RequestParam(defaultValue = "userId") String sort,
+            @Parameter(name = "direction", description = "asc or desc", example = "asc") @RequestParam(defaultValue = "asc") String direction) {
+        log.info("Retrieving page {} of users, size: {}, sorted by {} {}", page, size, sort, direction);
+        UserPage userPage = userService.getUserPage(page, size, sort, direction);
+
+        log.debug("Found user page. Size: {}, total: {}", userPage.getItems().size(), userPage.getTotalElements());
+        return ResponseEntity.ok(userPage);
+    }
+
     @Operation(summary = "Gets authenticated user's profile")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = HTTPResponseMessages.HTTP_200,
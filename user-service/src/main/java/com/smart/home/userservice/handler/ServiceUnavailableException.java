@@ -0,0 +1,9 @@
+package com.smart.home.userservice.handler;
+
+public class ServiceUnavailableException extends RuntimeException {
+
+    public ServiceUnavailableException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,22 @@
+package com.smart.home.userservice.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuthTokensDTO {
+
+    @Schema(description = "Short-lived auth token, sent as Bearer token with every request")
+    private String accessToken;
+
+    @Schema(description = "Single-use token exchanged for new tokens once the auth token expires")
+    private String refreshToken;
+
+    @Schema(description = "Seconds until the auth token expires", example = "900")
+    private long expiresIn;
+
+}
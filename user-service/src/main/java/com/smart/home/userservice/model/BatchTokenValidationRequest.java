@@ -0,0 +1,18 @@
+package com.smart.home.userservice.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchTokenValidationRequest {
+
+    @Schema(description = "Auth tokens, results are returned in the same order")
+    private List<String> tokens;
+
+}
@@ -0,0 +1,22 @@
+package com.smart.home.userservice.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JwtKeyDTO {
+
+    @Schema(description = "Key id, matches the kid header of tokens signed with this key")
+    private String keyId;
+
+    @Schema(description = "Signature algorithm", example = "RS256")
+    private String algorithm;
+
+    @Schema(description = "Base64 encoded X.509 public key")
+    private String publicKey;
+
+}
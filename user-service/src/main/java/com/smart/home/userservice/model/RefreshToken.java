@@ -0,0 +1,53 @@
+package com.smart.home.userservice.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "refresh_tokens")
+public class RefreshToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    @Schema(description = "The database generated refresh token ID")
+    private Long refreshTokenId;
+
+    @Column(name = "token_hash", nullable = false, unique = true, length = 64)
+    @Schema(description = "Hex encoded SHA-256 hash of the refresh token, the token itself is never stored")
+    private String tokenHash;
+
+    @Column(name = "family_id", nullable = false, length = 36)
+    @Schema(description = "Id shared by all refresh tokens rotated from the same login")
+    private String familyId;
+
+    @Column(name = "user_id", nullable = false)
+    @Schema(description = "Id of the user the token was issued to")
+    private Long userId;
+
+    @Column(name = "created_at", nullable = false)
+    @Schema(description = "Time of issue")
+    private LocalDateTime createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    @Schema(description = "Time after which the token cannot be used")
+    private LocalDateTime expiresAt;
+
+    @Column(name = "used_at")
+    @Schema(description = "Time the token was exchanged for a new one, null while unused")
+    private LocalDateTime usedAt;
+
+}
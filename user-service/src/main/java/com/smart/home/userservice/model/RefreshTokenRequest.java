@@ -0,0 +1,16 @@
+package com.smart.home.userservice.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RefreshTokenRequest {
+
+    @Schema(description = "Refresh token")
+    private String refreshToken;
+
+}
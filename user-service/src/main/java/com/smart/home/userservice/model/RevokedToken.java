@@ -0,0 +1,34 @@
+package com.smart.home.userservice.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "revoked_tokens")
+public class RevokedToken {
+
+    @Id
+    @Column(name = "revocation_key", length = 100)
+    @Schema(description = "Id of the revoked token, or user id and token epoch when all tokens of an epoch are revoked")
+    private String revocationKey;
+
+    @Column(name = "revoked_at", nullable = false)
+    @Schema(description = "Time of revocation")
+    private LocalDateTime revokedAt;
+
+    @Column(name = "expires_at", nullable = false)
+    @Schema(description = "Time after which no revoked token is valid anymore")
+    private LocalDateTime expiresAt;
+
+}
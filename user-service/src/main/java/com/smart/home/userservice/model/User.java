@@ -1,5 +1,6 @@
 package com.smart.home.userservice.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.smart.home.userservice.swagger.DescriptionVariables;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.CascadeType;
@@ -72,6 +73,11 @@ public class User {
     @Schema(description = "Roles of user")
     private Set<Role> roles;
 
+    @JsonIgnore
+    @Column(name = "token_epoch")
+    @Schema(description = "Increased on username or password change, tokens issued for an older epoch are rejected")
+    private Long tokenEpoch;
+
     public User(String username, String email, String password) {
         this.username = username;
         this.email = email;
@@ -0,0 +1,12 @@
+package com.smart.home.userservice.model;
+
+/**
+ * Username and email of a user, as loaded into the identity filter.
+ */
+public interface UserIdentityView {
+
+    String getUsername();
+
+    String getEmail();
+
+}
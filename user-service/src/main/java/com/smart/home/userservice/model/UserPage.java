@@ -0,0 +1,30 @@
+package com.smart.home.userservice.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserPage {
+
+    @Schema(description = "Users of the page in requested order")
+    private List<UserSummaryDTO> items;
+
+    @Schema(description = "Zero-based page number", example = "0")
+    private int page;
+
+    @Schema(description = "Requested page size", example = "50")
+    private int size;
+
+    @Schema(description = "Number of users in all pages", example = "1234")
+    private long totalElements;
+
+    @Schema(description = "Number of pages", example = "25")
+    private int totalPages;
+
+}
@@ -0,0 +1,12 @@
+package com.smart.home.userservice.model;
+
+/**
+ * Role of a user, as loaded for a page of users.
+ */
+public interface UserRoleView {
+
+    Long getUserId();
+
+    RoleType getRole();
+
+}
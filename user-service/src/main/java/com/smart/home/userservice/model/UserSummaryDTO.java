@@ -0,0 +1,41 @@
+package com.smart.home.userservice.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserSummaryDTO {
+
+    @Schema(description = "The database generated user ID")
+    private Long userId;
+
+    @Schema(description = "Username")
+    private String username;
+
+    @Schema(description = "Email")
+    private String email;
+
+    @Schema(description = "Time of user creation")
+    private LocalDateTime createdAt;
+
+    @Schema(description = "Time of last user update")
+    private LocalDateTime updatedAt;
+
+    @Schema(description = "Roles of user")
+    private Set<RoleType> roles;
+
+    /**
+     * Used by the listing query, which selects the user columns only. Roles are loaded separately for the whole page.
+     */
+    public UserSummaryDTO(Long userId, String username, String email, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this(userId, username, email, createdAt, updatedAt, null);
+    }
+
+}
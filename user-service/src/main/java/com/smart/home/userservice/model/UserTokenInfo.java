@@ -0,0 +1,19 @@
+package com.smart.home.userservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Set;
+
+/**
+ * User data needed to accept a token, kept in memory so validation does not query the users table.
+ */
+@Getter
+@AllArgsConstructor
+public class UserTokenInfo {
+
+    private final Long userId;
+    private final Set<RoleType> roles;
+    private final long tokenEpoch;
+
+}
@@ -0,0 +1,30 @@
+package com.smart.home.userservice.repository;
+
+import com.smart.home.userservice.model.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, String> {
+
+    boolean existsByRevocationKeyIn(Collection<String> revocationKeys);
+
+    @Query("SELECT r.revocationKey FROM RevokedToken r WHERE r.expiresAt > :now")
+    List<String> findActiveKeys(LocalDateTime now);
+
+    @Query("SELECT r.revocationKey FROM RevokedToken r WHERE r.revokedAt >= :since AND r.expiresAt > :now")
+    List<String> findActiveKeysRevokedSince(LocalDateTime since, LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM RevokedToken r WHERE r.expiresAt <= :now")
+    int deleteExpired(LocalDateTime now);
+
+}
@@ -1,9 +1,18 @@
 package com.smart.home.userservice.repository;
 
 import com.smart.home.userservice.model.User;
+import com.smart.home.userservice.model.UserIdentityView;
+import com.smart.home.userservice.model.UserRoleView;
+import com.smart.home.userservice.model.UserSummaryDTO;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -12,4 +21,13 @@ public interface UserRepository  extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     Optional<User> findByUsername(String username);
 
+    @Query(value = "SELECT new com.smart.home.userservice.model.UserSummaryDTO(u.userId, u.username, u.email, u.createdAt, u.updatedAt) FROM User u",
+            countQuery = "SELECT COUNT(u) FROM User u")
+    Page<UserSummaryDTO> findUserSummaries(Pageable pageable);
+
+    @Query("SELECT u.userId AS userId, r.role AS role FROM User u JOIN u.roles r WHERE u.userId IN :userIds")
+    List<UserRoleView> findRolesByUserIds(Collection<Long> userIds);
+
+    Slice<UserIdentityView> findIdentitiesBy(Pageable pageable);
+
 }
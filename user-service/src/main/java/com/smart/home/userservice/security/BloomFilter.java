@@ -0,0 +1,108 @@
+package com.smart.home.userservice.security;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter over strings. Bits are laid out like a Redis bitmap, bit 0 being the highest bit of the first byte,
+ * so a filter written with SETBIT can be read back with GET. Bit positions are derived from SHA-256 by double hashing
+ * and must stay identical in every service reading the filter. Bits are kept in 64-bit words which are updated
+ * atomically, so lookups and additions never lock and hashing runs fully in parallel.
+ */
+public class BloomFilter {
+
+    private final int bitCount;
+    private final int hashCount;
+    private final AtomicLongArray words;
+
+    public BloomFilter(int bitCount, int hashCount) {
+        if (bitCount <= 0 || hashCount <= 0) {
+            throw new IllegalArgumentException("Bloom filter needs a positive number of bits and hashes");
+        }
+        this.bitCount = bitCount;
+        this.hashCount = hashCount;
+        this.words = new AtomicLongArray((bitCount + 63) / 64);
+    }
+
+    /**
+     * Creates a filter from a Redis bitmap. Redis omits trailing zero bytes, so shorter input is padded.
+     */
+    public static BloomFilter fromBytes(byte[] bytes, int bitCount, int hashCount) {
+        BloomFilter filter = new BloomFilter(bitCount, hashCount);
+        ByteBuffer buffer = ByteBuffer.wrap(Arrays.copyOf(bytes != null ? bytes : new byte[0], filter.words.length() * 8));
+        for (int i = 0; i < filter.words.length(); i++) {
+            filter.words.set(i, buffer.getLong());
+        }
+        return filter;
+    }
+
+    public static int[] positions(String value, int bitCount, int hashCount) {
+        ByteBuffer digest = ByteBuffer.wrap(sha256(value));
+        long hash1 = digest.getLong();
+        long hash2 = digest.getLong();
+        int[] positions = new int[hashCount];
+        for (int i = 0; i < hashCount; i++) {
+            positions[i] = (int) Math.floorMod(hash1 + i * hash2, (long) bitCount);
+        }
+        return positions;
+    }
+
+    public int[] positions(String value) {
+        return positions(value, bitCount, hashCount);
+    }
+
+    public void add(String value) {
+        for (int position : positions(value)) {
+            words.accumulateAndGet(position >>> 6, mask(position), (word, bit) -> word | bit);
+        }
+    }
+
+    public boolean mightContain(String value) {
+        for (int position : positions(value)) {
+            if ((words.get(position >>> 6) & mask(position)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the bits in Redis bitmap layout. Every word is read atomically, bits added meanwhile may be missing.
+     */
+    public byte[] toByteArray() {
+        ByteBuffer buffer = ByteBuffer.allocate(words.length() * 8);
+        for (int i = 0; i < words.length(); i++) {
+            buffer.putLong(words.get(i));
+        }
+        return Arrays.copyOf(buffer.array(), (bitCount + 7) / 8);
+    }
+
+    public int getBitCount() {
+        return bitCount;
+    }
+
+    public int getHashCount() {
+        return hashCount;
+    }
+
+
+    /**
+     * Bit 0 of a word is its highest bit, so big-endian words line up with the Redis bitmap bytes.
+     */
+    private static long mask(int position) {
+        return Long.MIN_VALUE >>> (position & 63);
+    }
+
+    private static byte[] sha256(String value) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+}
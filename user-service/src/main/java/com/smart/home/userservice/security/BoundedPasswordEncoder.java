@@ -0,0 +1,129 @@
+package com.smart.home.userservice.security;
+
+import com.smart.home.userservice.handler.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * BCrypt encoder running every hash and verification on a small dedicated pool, so a burst of logins
+ * uses at most that many cores. Work beyond the bounded queue is rejected right away with 503
+ * instead of piling up request threads.
+ */
+@Log4j2
+@Component
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private static final String THREAD_NAME_PREFIX = "password-hash-";
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMillis;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter rejectedCounter;
+
+
+    public BoundedPasswordEncoder(@Value("${user.password-hashing.threads:0}") int threads,
+                                  @Value("${user.password-hashing.queue-capacity:50}") int queueCapacity,
+                                  @Value("${user.password-hashing.timeout-ms:5000}") long timeoutMillis,
+                                  MeterRegistry meterRegistry) {
+        this(new BCryptPasswordEncoder(), threads, queueCapacity, timeoutMillis, meterRegistry);
+    }
+
+    BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity, long timeoutMillis, MeterRegistry meterRegistry) {
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.delegate = delegate;
+        this.timeoutMillis = timeoutMillis;
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> new Thread(runnable, THREAD_NAME_PREFIX + threadCount.getAndIncrement()));
+        this.encodeTimer = Timer.builder("password.hash.duration")
+                .description("Time spent hashing or verifying passwords")
+                .tag("operation", "encode")
+                .register(meterRegistry);
+        this.matchesTimer = Timer.builder("password.hash.duration")
+                .description("Time spent hashing or verifying passwords")
+                .tag("operation", "matches")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("password.hash.rejected")
+                .description("Password operations rejected because the hashing queue was full")
+                .register(meterRegistry);
+        Gauge.builder("password.hash.queue.depth", executor.getQueue(), BlockingQueue::size)
+                .description("Password operations waiting for a hashing thread")
+                .register(meterRegistry);
+        log.info("Password hashing runs on {} threads with a queue of {}", poolSize, queueCapacity);
+    }
+
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return execute(() -> encodeTimer.record(() -> delegate.encode(rawPassword)));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return execute(() -> matchesTimer.record(() -> delegate.matches(rawPassword, encodedPassword)));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+
+    private <T> T execute(Supplier<T> operation) {
+        if (Thread.currentThread().getName().startsWith(THREAD_NAME_PREFIX)) {
+            return operation.get();
+        }
+
+        Future<T> future;
+        try {
+            future = executor.submit(operation::get);
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw new ServiceUnavailableException("Too many concurrent password operations, retry later.");
+        }
+
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new RuntimeException(e.getCause());
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            log.error("Password operation did not finish within {} ms", timeoutMillis);
+            throw new ServiceUnavailableException("Password operation timed out, retry later.");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for password operation");
+        }
+    }
+
+}
@@ -1,5 +1,7 @@
 package com.smart.home.userservice.security;
 
+import com.smart.home.userservice.service.TokenRevocationService;
+import com.smart.home.userservice.service.UserDetailsCache;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -10,7 +12,6 @@ import lombok.extern.log4j.Log4j2;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
@@ -23,8 +24,9 @@ import java.io.IOException;
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
-    private final UserDetailsService userDetailsService;
+    private final UserDetailsCache userDetailsCache;
     private final JwtTokenService jwtTokenService;
+    private final TokenRevocationService tokenRevocationService;
 
     private static final String TOKEN_PREFIX = "Bearer ";
     private static final String HEADER_STRING = "Authorization";
@@ -35,12 +37,15 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         String username = null;
         if (header != null && header.startsWith(TOKEN_PREFIX)) {
             String authToken = header.replace(TOKEN_PREFIX, "");
-            username = jwtTokenService.extractUsernameFromToken(authToken);
+            ValidatedToken validatedToken = jwtTokenService.verifyToken(authToken);
+            if (validatedToken != null && !tokenRevocationService.isRevoked(validatedToken)) {
+                username = validatedToken.getUsername();
+            }
         } else {
             log.warn("couldn't find bearer string, will ignore the header");
         }
         if (StringUtils.hasText(username)) {
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            UserDetails userDetails = userDetailsCache.getByUsername(username);
             UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
             authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
             log.info("authenticated user {}, setting security context", username);
@@ -0,0 +1,117 @@
+package com.smart.home.userservice.security;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.RSAPrivateCrtKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.RSAPublicKeySpec;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * RSA key ring used to sign and verify tokens. Every key has an id which is written to the token header,
+ * so keys can be rotated by adding a new key, switching the active key id and removing the old key
+ * once the tokens it signed have expired. Without configured keys the service does not start, unless temporary keys
+ * are allowed, as in the localhost profile; a temporary key is lost on restart and differs between instances.
+ */
+@Log4j2
+@Component
+public class JwtSigningKeys {
+
+    private static final String KEY_ALGORITHM = "RSA";
+
+    private final Map<String, KeyPair> keyPairs;
+    private final String activeKeyId;
+
+    public JwtSigningKeys(@Value("${application.security.jwt.signing-keys:}") List<String> signingKeys,
+                          @Value("${application.security.jwt.active-key-id:}") String activeKeyId,
+                          @Value("${application.security.jwt.allow-temporary-key:false}") boolean allowTemporaryKey) {
+        Map<String, KeyPair> loadedKeys = new LinkedHashMap<>();
+        for (String signingKey : signingKeys) {
+            if (!StringUtils.hasText(signingKey)) {
+                continue;
+            }
+            int separator = signingKey.indexOf(':');
+            if (separator <= 0) {
+                throw new IllegalStateException("Signing key must be given as <key id>:<base64 PKCS#8 private key>");
+            }
+            loadedKeys.put(signingKey.substring(0, separator).trim(), toKeyPair(signingKey.substring(separator + 1).trim()));
+        }
+
+        if (loadedKeys.isEmpty()) {
+            if (!allowTemporaryKey) {
+                throw new IllegalStateException("No signing keys configured, set JWT_SIGNING_KEYS to <key id>:<base64 PKCS#8 private key>");
+            }
+            String keyId = UUID.randomUUID().toString();
+            log.warn("No signing keys configured, generated temporary key {}. Tokens will not survive a restart.", keyId);
+            loadedKeys.put(keyId, generateKeyPair());
+            activeKeyId = keyId;
+        } else if (!StringUtils.hasText(activeKeyId)) {
+            activeKeyId = loadedKeys.keySet().iterator().next();
+        } else if (!loadedKeys.containsKey(activeKeyId)) {
+            throw new IllegalStateException("Active signing key " + activeKeyId + " is not configured");
+        }
+
+        this.keyPairs = Collections.unmodifiableMap(loadedKeys);
+        this.activeKeyId = activeKeyId;
+        log.info("Loaded signing keys {}, signing with {}", keyPairs.keySet(), activeKeyId);
+    }
+
+    public String getActiveKeyId() {
+        return activeKeyId;
+    }
+
+    public PrivateKey getActivePrivateKey() {
+        return keyPairs.get(activeKeyId).getPrivate();
+    }
+
+    public PublicKey getPublicKey(String keyId) {
+        KeyPair keyPair = keyId != null ? keyPairs.get(keyId) : null;
+        return keyPair != null ? keyPair.getPublic() : null;
+    }
+
+    public Map<String, PublicKey> getPublicKeys() {
+        Map<String, PublicKey> publicKeys = new LinkedHashMap<>();
+        keyPairs.forEach((keyId, keyPair) -> publicKeys.put(keyId, keyPair.getPublic()));
+        return publicKeys;
+    }
+
+
+    private static KeyPair toKeyPair(String encodedPrivateKey) {
+        try {
+            KeyFactory keyFactory = KeyFactory.getInstance(KEY_ALGORITHM);
+            PrivateKey privateKey = keyFactory.generatePrivate(new PKCS8EncodedKeySpec(Base64.getDecoder().decode(encodedPrivateKey)));
+            if (!(privateKey instanceof RSAPrivateCrtKey crtKey)) {
+                throw new IllegalStateException("Signing key does not contain its public exponent");
+            }
+            PublicKey publicKey = keyFactory.generatePublic(new RSAPublicKeySpec(crtKey.getModulus(), crtKey.getPublicExponent()));
+            return new KeyPair(publicKey, privateKey);
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw new IllegalStateException("Invalid signing key: " + e.getMessage(), e);
+        }
+    }
+
+    private static KeyPair generateKeyPair() {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance(KEY_ALGORITHM);
+            generator.initialize(2048);
+            return generator.generateKeyPair();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Could not generate signing key", e);
+        }
+    }
+
+}
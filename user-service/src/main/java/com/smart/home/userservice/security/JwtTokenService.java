@@ -1,77 +1,160 @@
 package com.smart.home.userservice.security;
 
 import com.smart.home.userservice.model.Role;
+import com.smart.home.userservice.model.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
-import lombok.RequiredArgsConstructor;
+import io.jsonwebtoken.LocatorAdapter;
+import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.PublicKey;
+import java.security.SecureRandom;
+import java.util.Base64;
 import java.util.Date;
+import java.util.HexFormat;
+import java.util.Map;
 import java.util.Set;
-import java.util.function.Function;
+import java.util.UUID;
 
+@Log4j2
 @Component
-@RequiredArgsConstructor
 public class JwtTokenService {
 
-    @Value("${application.security.jwt.secret-key}")
-    private String secretKey;
+    private static final String USER_ID_CLAIM = "uid";
+    private static final String TOKEN_EPOCH_CLAIM = "epoch";
+    private static final int REFRESH_TOKEN_BYTES = 32;
 
-    @Value("${application.security.jwt.expiration}")
-    private Long accessTokenValidity;
+    private final JwtSigningKeys signingKeys;
+    private final Long accessTokenValidity;
+    private final Long refreshTokenValidity;
+    private final JwtParser parser;
+    private final SecureRandom secureRandom = new SecureRandom();
 
-    public JwtTokenService(String secretKey, Long accessTokenValidity) {
-        this.secretKey = secretKey;
+    public JwtTokenService(JwtSigningKeys signingKeys,
+                           @Value("${application.security.jwt.expiration}") Long accessTokenValidity,
+                           @Value("${application.security.jwt.refresh-expiration}") Long refreshTokenValidity) {
+        this.signingKeys = signingKeys;
         this.accessTokenValidity = accessTokenValidity;
+        this.refreshTokenValidity = refreshTokenValidity;
+        // the parser is immutable and thread-safe, so one instance serves every request
+        this.parser = Jwts.parser()
+                .keyLocator(new SigningKeyLocator())
+                .clockSkewSeconds(2)
+                .build();
+    }
+
+
+    /**
+     * Longest time a token stays valid, so revocations older than this can be forgotten.
+     */
+    public long getTokenValidityMillis() {
+        return accessTokenValidity;
     }
 
+    public long getRefreshTokenValidityMillis() {
+        return refreshTokenValidity;
+    }
+
+    public String generateToken(User user) {
+        return generateToken(user.getUsername(), user.getRoles(), user.getUserId(), user.getTokenEpoch() != null ? user.getTokenEpoch() : 0L);
+    }
 
     public String generateToken(String username, Set<Role> authorities) {
-        return Jwts.builder().subject(username)
+        return generateToken(username, authorities, null, 0L);
+    }
+
+    private String generateToken(String username, Set<Role> authorities, Long userId, long tokenEpoch) {
+        return Jwts.builder()
+                .header().keyId(signingKeys.getActiveKeyId()).and()
+                .id(UUID.randomUUID().toString())
+                .subject(username)
                 .claim("roles", authorities)
+                .claim(USER_ID_CLAIM, userId)
+                .claim(TOKEN_EPOCH_CLAIM, tokenEpoch)
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + accessTokenValidity))
-                .signWith(getSecretKey())
+                .signWith(signingKeys.getActivePrivateKey(), Jwts.SIG.RS256)
                 .compact();
     }
 
-    public String extractUsernameFromToken(String token) {
-        if (isTokenExpired(token)) {
-            return null;
+    /**
+     * Opaque random refresh token. Only its {@link #hashRefreshToken(String) hash} is stored.
+     */
+    public String generateRefreshToken() {
+        byte[] bytes = new byte[REFRESH_TOKEN_BYTES];
+        secureRandom.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    /**
+     * Refresh tokens carry enough entropy that an unsalted SHA-256 hash cannot be reversed, and it can be looked up directly.
+     */
+    public String hashRefreshToken(String refreshToken) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(refreshToken.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
         }
-        return getClaims(token, Claims::getSubject);
     }
 
-    public <T> T getClaims(String token, Function<Claims, T> resolver) {
-        return resolver.apply(Jwts.parser()
-                .verifyWith(getSecretKey())
-                .clockSkewSeconds(2)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload());
+    /**
+     * Parses the token once and checks its signature and expiry.
+     * Returns the validated token, or null when the token is malformed, forged or expired.
+     */
+    public ValidatedToken verifyToken(String token) {
+        Claims claims;
+        try {
+            claims = parser.parseSignedClaims(token).getPayload();
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("Token rejected: {}", e.getMessage());
+            return null;
+        }
+        Date expiration = claims.getExpiration();
+        if (expiration == null || expiration.before(new Date())) {
+            return null;
+        }
+        Long tokenEpoch = claims.get(TOKEN_EPOCH_CLAIM, Long.class);
+        return new ValidatedToken(claims.getId(), claims.getSubject(), claims.get(USER_ID_CLAIM, Long.class), claims.getIssuedAt(), expiration,
+                tokenEpoch != null ? tokenEpoch : 0L);
     }
 
-    public boolean isTokenExpired(String token) {
-        Date expiration = getClaims(token, Claims::getExpiration);
-        return expiration.before(new Date());
+    public String extractUsernameFromToken(String token) {
+        ValidatedToken validatedToken = verifyToken(token);
+        return validatedToken != null ? validatedToken.getUsername() : null;
     }
 
     public boolean validateToken(String token) {
-        try {
-            return !isTokenExpired(token);
-        } catch (Exception e) {
-            return false;
-        }
+        return verifyToken(token) != null;
+    }
+
+    /**
+     * Public keys of the key ring by key id, published to other services so they can verify tokens locally.
+     */
+    public Map<String, PublicKey> getPublicKeys() {
+        return signingKeys.getPublicKeys();
     }
 
 
-    private SecretKey getSecretKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+    private class SigningKeyLocator extends LocatorAdapter<Key> {
+
+        @Override
+        protected Key locate(JwsHeader header) {
+            PublicKey publicKey = signingKeys.getPublicKey(header.getKeyId());
+            if (publicKey == null) {
+                throw new JwtException("Unknown signing key id: " + header.getKeyId());
+            }
+            return publicKey;
+        }
     }
 
 }
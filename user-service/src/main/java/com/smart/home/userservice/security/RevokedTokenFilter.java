@@ -0,0 +1,181 @@
+package com.smart.home.userservice.security;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+
+/**
+ * Bloom filter of revoked tokens, replicated to every service through Redis. The filter is kept as a Redis bitmap
+ * with a version counter. Every addition sets its bits, increments the version and publishes {@code <version>:<key>},
+ * so readers apply it in memory without reloading; a reader that missed a version reloads the whole bitmap.
+ * A token is revoked either by its id or, for all tokens of a user issued before a credential change, by
+ * {@link #epochKey(Long, long)}.
+ */
+@Log4j2
+@Component
+public class RevokedTokenFilter implements MessageListener {
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisConnectionFactory connectionFactory;
+    private final int bitCount;
+    private final int hashCount;
+
+    @Value("${application.security.revocation-filter.key:auth:revoked-tokens}")
+    private String filterKey;
+
+    @Value("${application.security.revocation-filter.version-key:auth:revoked-tokens:version}")
+    private String versionKey;
+
+    @Value("${application.security.revocation-filter.channel:auth:revoked-tokens:changes}")
+    private String channel;
+
+    private volatile BloomFilter filter;
+    private volatile long version;
+    private RedisMessageListenerContainer container;
+
+
+    public RevokedTokenFilter(StringRedisTemplate redisTemplate, RedisConnectionFactory connectionFactory,
+                              @Value("${application.security.revocation-filter.bits:8388608}") int bitCount,
+                              @Value("${application.security.revocation-filter.hashes:7}") int hashCount) {
+        this.redisTemplate = redisTemplate;
+        this.connectionFactory = connectionFactory;
+        this.bitCount = bitCount;
+        this.hashCount = hashCount;
+    }
+
+
+    public static String epochKey(Long userId, long tokenEpoch) {
+        return "epoch:" + userId + ":" + tokenEpoch;
+    }
+
+    /**
+     * Subscribes to changes made through other instances. Called once the filter has been built from the database.
+     */
+    public void subscribe() {
+        container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(this, new ChannelTopic(channel));
+        container.afterPropertiesSet();
+        try {
+            container.start();
+            log.info("Listening to token revocations on channel '{}'", channel);
+        } catch (RuntimeException e) {
+            log.error("Could not subscribe to token revocations on channel '{}': {}", channel, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws Exception {
+        if (container != null) {
+            container.destroy();
+        }
+    }
+
+    /**
+     * False means the key has certainly not been revoked. True means it may have been, or that the filter is not loaded yet.
+     */
+    public boolean mightContain(String key) {
+        BloomFilter current = filter;
+        return current == null || current.mightContain(key);
+    }
+
+    /**
+     * Adds the key locally right away and to the shared bitmap. When Redis cannot be reached the key still
+     * reaches other services with the next rebuild.
+     */
+    public void add(String key) {
+        BloomFilter current = filter;
+        if (current != null) {
+            current.add(key);
+        }
+
+        try {
+            byte[] rawFilterKey = filterKey.getBytes(StandardCharsets.UTF_8);
+            int[] positions = BloomFilter.positions(key, bitCount, hashCount);
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (int position : positions) {
+                    connection.stringCommands().setBit(rawFilterKey, position, true);
+                }
+                return null;
+            });
+            Long newVersion = redisTemplate.opsForValue().increment(versionKey);
+            redisTemplate.convertAndSend(channel, newVersion + ":" + key);
+        } catch (RuntimeException e) {
+            log.error("Could not publish token revocation: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Replaces the shared bitmap with a filter of the given keys, dropping keys of expired revocations.
+     * The new bitmap is written under a temporary key and renamed, so readers never see a partial filter.
+     */
+    public void replace(Collection<String> keys) {
+        BloomFilter rebuilt = new BloomFilter(bitCount, hashCount);
+        keys.forEach(rebuilt::add);
+        filter = rebuilt;
+
+        try {
+            byte[] rawFilterKey = filterKey.getBytes(StandardCharsets.UTF_8);
+            byte[] rawTemporaryKey = (filterKey + ":rebuild").getBytes(StandardCharsets.UTF_8);
+            byte[] bits = rebuilt.toByteArray();
+            redisTemplate.execute((RedisCallback<Object>) connection -> {
+                connection.stringCommands().set(rawTemporaryKey, bits);
+                connection.keyCommands().rename(rawTemporaryKey, rawFilterKey);
+                return null;
+            });
+            Long newVersion = redisTemplate.opsForValue().increment(versionKey);
+            version = newVersion != null ? newVersion : 0L;
+            redisTemplate.convertAndSend(channel, String.valueOf(newVersion));
+            log.info("Published revocation filter version {} with {} keys", newVersion, keys.size());
+        } catch (RuntimeException e) {
+            log.error("Could not publish revocation filter: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.indexOf(':');
+        BloomFilter current = filter;
+        try {
+            long messageVersion = Long.parseLong(separator < 0 ? body : body.substring(0, separator));
+            if (messageVersion <= version) {
+                return;
+            }
+            if (separator > 0 && current != null && messageVersion == version + 1) {
+                current.add(body.substring(separator + 1));
+                version = messageVersion;
+            } else {
+                reload();
+            }
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring malformed revocation message '{}'", body);
+        }
+    }
+
+
+    private void reload() {
+        try {
+            String storedVersion = redisTemplate.opsForValue().get(versionKey);
+            byte[] bits = redisTemplate.execute((RedisCallback<byte[]>) connection ->
+                    connection.stringCommands().get(filterKey.getBytes(StandardCharsets.UTF_8)));
+            filter = BloomFilter.fromBytes(bits, bitCount, hashCount);
+            version = storedVersion != null ? Long.parseLong(storedVersion) : 0L;
+            log.info("Loaded revocation filter version {}", version);
+        } catch (RuntimeException e) {
+            log.error("Could not load revocation filter: {}", e.getMessage());
+        }
+    }
+
+}
@@ -0,0 +1,22 @@
+package com.smart.home.userservice.security;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Date;
+
+/**
+ * Claims of a token whose signature and expiry have been checked.
+ */
+@Getter
+@AllArgsConstructor
+public class ValidatedToken {
+
+    private final String tokenId;
+    private final String username;
+    private final Long userId;
+    private final Date issuedAt;
+    private final Date expiresAt;
+    private final long tokenEpoch;
+
+}
@@ -0,0 +1,18 @@
+package com.smart.home.userservice.service;
+
+import com.smart.home.userservice.model.RefreshToken;
+import com.smart.home.userservice.model.User;
+
+public interface RefreshTokenService {
+
+    String issueToken(User user);
+
+    String rotateToken(RefreshToken usedToken);
+
+    RefreshToken useToken(String token);
+
+    void revokeToken(String token);
+
+    void revokeTokensOfUser(Long userId);
+
+}
@@ -0,0 +1,93 @@
+package com.smart.home.userservice.service;
+
+import com.smart.home.userservice.handler.BadRequestException;
+import com.smart.home.userservice.model.RefreshToken;
+import com.smart.home.userservice.model.User;
+import com.smart.home.userservice.repository.RefreshTokenRepository;
+import com.smart.home.userservice.security.JwtTokenService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Refresh tokens are random, single-use and stored only as hashes. Using a token issues a successor in the same
+ * family; a token presented a second time has leaked, so its whole family is revoked and the login has to be repeated.
+ */
+@Log4j2
+@Service
+@RequiredArgsConstructor
+public class RefreshTokenServiceImpl implements RefreshTokenService {
+
+    private static final String INVALID_TOKEN_MESSAGE = "Refresh token is not valid.";
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final JwtTokenService jwtTokenService;
+
+
+    @Scheduled(initialDelayString = "${application.security.jwt.refresh-purge-interval-ms:3600000}",
+            fixedDelayString = "${application.security.jwt.refresh-purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        int purged = refreshTokenRepository.deleteExpired(LocalDateTime.now());
+        log.info("Purged {} expired refresh tokens", purged);
+    }
+
+    @Override
+    public String issueToken(User user) {
+        return issue(user.getUserId(), UUID.randomUUID().toString());
+    }
+
+    @Override
+    public String rotateToken(RefreshToken usedToken) {
+        return issue(usedToken.getUserId(), usedToken.getFamilyId());
+    }
+
+    @Override
+    public RefreshToken useToken(String token) {
+        if (token == null || token.isBlank()) {
+            throw new BadRequestException(INVALID_TOKEN_MESSAGE);
+        }
+        RefreshToken storedToken = refreshTokenRepository.findByTokenHash(jwtTokenService.hashRefreshToken(token))
+                .orElseThrow(() -> new BadRequestException(INVALID_TOKEN_MESSAGE));
+
+        LocalDateTime now = LocalDateTime.now();
+        if (!storedToken.getExpiresAt().isAfter(now)) {
+            throw new BadRequestException(INVALID_TOKEN_MESSAGE);
+        }
+        // the conditional update lets only one of two concurrent requests with the same token through
+        if (storedToken.getUsedAt() != null || refreshTokenRepository.markUsed(storedToken.getRefreshTokenId(), now) == 0) {
+            refreshTokenRepository.deleteByFamilyId(storedToken.getFamilyId());
+            log.warn("Refresh token of user {} was used twice, revoked all tokens of its login", storedToken.getUserId());
+            throw new BadRequestException(INVALID_TOKEN_MESSAGE);
+        }
+        return storedToken;
+    }
+
+    @Override
+    public void revokeToken(String token) {
+        refreshTokenRepository.findByTokenHash(jwtTokenService.hashRefreshToken(token))
+                .ifPresent(storedToken -> {
+                    refreshTokenRepository.deleteByFamilyId(storedToken.getFamilyId());
+                    log.info("Revoked refresh tokens of a login of user {}", storedToken.getUserId());
+                });
+    }
+
+    @Override
+    public void revokeTokensOfUser(Long userId) {
+        int revoked = refreshTokenRepository.deleteByUserId(userId);
+        log.info("Revoked {} refresh tokens of user {}", revoked, userId);
+    }
+
+
+    private String issue(Long userId, String familyId) {
+        String token = jwtTokenService.generateRefreshToken();
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = now.plusNanos(jwtTokenService.getRefreshTokenValidityMillis() * 1_000_000L);
+        refreshTokenRepository.save(new RefreshToken(null, jwtTokenService.hashRefreshToken(token), familyId, userId, now, expiresAt, null));
+        return token;
+    }
+
+}
@@ -0,0 +1,13 @@
+package com.smart.home.userservice.service;
+
+import com.smart.home.userservice.security.ValidatedToken;
+
+public interface TokenRevocationService {
+
+    void revokeToken(ValidatedToken token);
+
+    void revokeTokensOfEpoch(Long userId, long tokenEpoch);
+
+    boolean isRevoked(ValidatedToken token);
+
+}
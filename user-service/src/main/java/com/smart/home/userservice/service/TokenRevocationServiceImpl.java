@@ -0,0 +1,108 @@
+package com.smart.home.userservice.service;
+
+import com.smart.home.userservice.model.RevokedToken;
+import com.smart.home.userservice.repository.RevokedTokenRepository;
+import com.smart.home.userservice.security.JwtTokenService;
+import com.smart.home.userservice.security.RevokedTokenFilter;
+import com.smart.home.userservice.security.ValidatedToken;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps revoked tokens in the database for exact checks and mirrors them into the {@link RevokedTokenFilter},
+ * so services only query when the filter reports a possible hit. Revocations are kept until the tokens they
+ * cover have expired; expired ones are purged and the filter is rebuilt periodically.
+ */
+@Log4j2
+@Service
+@RequiredArgsConstructor
+public class TokenRevocationServiceImpl implements TokenRevocationService {
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final RevokedTokenFilter revokedTokenFilter;
+    private final JwtTokenService jwtTokenService;
+
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        rebuildFilter();
+        revokedTokenFilter.subscribe();
+    }
+
+    @Scheduled(initialDelayString = "${application.security.revocation-filter.rebuild-interval-ms:3600000}",
+            fixedDelayString = "${application.security.revocation-filter.rebuild-interval-ms:3600000}")
+    public void purgeExpired() {
+        int purged = revokedTokenRepository.deleteExpired(LocalDateTime.now());
+        log.info("Purged {} expired token revocations", purged);
+        rebuildFilter();
+    }
+
+    @Override
+    public void revokeToken(ValidatedToken token) {
+        if (token.getTokenId() == null) {
+            log.warn("Token of user {} has no id and cannot be revoked individually", token.getUsername());
+            return;
+        }
+        LocalDateTime expiresAt = LocalDateTime.ofInstant(token.getExpiresAt().toInstant(), ZoneId.systemDefault());
+        revoke(token.getTokenId(), expiresAt);
+        log.info("Revoked token {} of user {}", token.getTokenId(), token.getUsername());
+    }
+
+    @Override
+    public void revokeTokensOfEpoch(Long userId, long tokenEpoch) {
+        if (userId == null) {
+            return;
+        }
+        LocalDateTime expiresAt = LocalDateTime.now().plusNanos(jwtTokenService.getTokenValidityMillis() * 1_000_000L);
+        revoke(RevokedTokenFilter.epochKey(userId, tokenEpoch), expiresAt);
+        log.info("Revoked tokens of user {} issued for epoch {}", userId, tokenEpoch);
+    }
+
+    @Override
+    public boolean isRevoked(ValidatedToken token) {
+        List<String> keys = revocationKeys(token);
+        if (keys.stream().noneMatch(revokedTokenFilter::mightContain)) {
+            return false;
+        }
+        return revokedTokenRepository.existsByRevocationKeyIn(keys);
+    }
+
+
+    private void revoke(String key, LocalDateTime expiresAt) {
+        revokedTokenRepository.save(new RevokedToken(key, LocalDateTime.now(), expiresAt));
+        revokedTokenFilter.add(key);
+    }
+
+    private void rebuildFilter() {
+        try {
+            LocalDateTime rebuildStartedAt = LocalDateTime.now();
+            revokedTokenFilter.replace(revokedTokenRepository.findActiveKeys(rebuildStartedAt));
+            // revocations made by other instances while the filter was rebuilt went to the replaced bitmap
+            revokedTokenRepository.findActiveKeysRevokedSince(rebuildStartedAt, LocalDateTime.now())
+                    .forEach(revokedTokenFilter::add);
+        } catch (RuntimeException e) {
+            log.error("Could not rebuild revocation filter: {}", e.getMessage());
+        }
+    }
+
+    private static List<String> revocationKeys(ValidatedToken token) {
+        List<String> keys = new ArrayList<>(2);
+        if (token.getTokenId() != null) {
+            keys.add(token.getTokenId());
+        }
+        if (token.getUserId() != null) {
+            keys.add(RevokedTokenFilter.epochKey(token.getUserId(), token.getTokenEpoch()));
+        }
+        return keys;
+    }
+
+}
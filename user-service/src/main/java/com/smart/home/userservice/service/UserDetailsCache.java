@@ -0,0 +1,55 @@
+package com.smart.home.userservice.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.CredentialsContainer;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Short-lived cache of user details for authenticating requests with a token. Cached details carry no password,
+ * so login keeps loading users from the database. Entries are invalidated when users are updated or deleted
+ * on this instance; the ttl bounds how long other instances may serve stale roles.
+ */
+@Log4j2
+@Component
+public class UserDetailsCache {
+
+    private final UserDetailsService userDetailsService;
+    private final Cache<String, UserDetails> cache;
+
+    public UserDetailsCache(UserDetailsService userDetailsService,
+                            @Value("${user.details-cache.max-size:10000}") long maxSize,
+                            @Value("${user.details-cache.ttl-seconds:30}") long ttlSeconds) {
+        this.userDetailsService = userDetailsService;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    public UserDetails getByUsername(String username) throws UsernameNotFoundException {
+        return cache.get(username, this::load);
+    }
+
+    public void invalidate(String username) {
+        log.debug("Invalidating user details of user {}", username);
+        cache.invalidate(username);
+    }
+
+
+    private UserDetails load(String username) {
+        UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+        if (userDetails instanceof CredentialsContainer credentialsContainer) {
+            credentialsContainer.eraseCredentials();
+        }
+        return userDetails;
+    }
+
+}
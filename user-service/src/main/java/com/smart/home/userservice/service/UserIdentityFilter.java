@@ -0,0 +1,133 @@
+package com.smart.home.userservice.service;
+
+import com.smart.home.userservice.model.UserIdentityView;
+import com.smart.home.userservice.repository.UserRepository;
+import com.smart.home.userservice.security.BloomFilter;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Bloom filters of taken usernames and emails, so uniqueness checks skip their queries for names that are certainly
+ * new. Names are lowercased like the case-insensitive collation of the users table. Users created by other instances
+ * are only seen after the next rebuild, so the unique constraints of the table remain the final guard. Until the
+ * filters are loaded every name counts as possibly taken.
+ */
+@Log4j2
+@Component
+public class UserIdentityFilter {
+
+    private final UserRepository userRepository;
+    private final int bitCount;
+    private final int hashCount;
+    private final int loadBatchSize;
+
+    private volatile Filters filters;
+    private List<Identity> additionsDuringRebuild;
+
+    public UserIdentityFilter(UserRepository userRepository,
+                              @Value("${user.identity-filter.bits:8388608}") int bitCount,
+                              @Value("${user.identity-filter.hashes:7}") int hashCount,
+                              @Value("${user.identity-filter.load-batch-size:10000}") int loadBatchSize) {
+        this.userRepository = userRepository;
+        this.bitCount = bitCount;
+        this.hashCount = hashCount;
+        this.loadBatchSize = loadBatchSize;
+    }
+
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        rebuild();
+    }
+
+    /**
+     * Rebuilds the filters from the users table, dropping names of deleted and renamed users.
+     */
+    @Scheduled(initialDelayString = "${user.identity-filter.rebuild-interval-ms:3600000}",
+            fixedDelayString = "${user.identity-filter.rebuild-interval-ms:3600000}")
+    public void rebuild() {
+        synchronized (this) {
+            additionsDuringRebuild = new ArrayList<>();
+        }
+        try {
+            Filters rebuilt = new Filters(new BloomFilter(bitCount, hashCount), new BloomFilter(bitCount, hashCount));
+            long loaded = 0;
+            Slice<UserIdentityView> batch = userRepository.findIdentitiesBy(PageRequest.of(0, loadBatchSize, Sort.by("userId")));
+            while (true) {
+                batch.forEach(user -> rebuilt.add(new Identity(user.getUsername(), user.getEmail())));
+                loaded += batch.getNumberOfElements();
+                if (!batch.hasNext()) {
+                    break;
+                }
+                batch = userRepository.findIdentitiesBy(batch.nextPageable());
+            }
+
+            synchronized (this) {
+                additionsDuringRebuild.forEach(rebuilt::add);
+                filters = rebuilt;
+            }
+            log.info("Loaded {} users into identity filter", loaded);
+        } catch (RuntimeException e) {
+            log.error("Could not rebuild identity filter: {}", e.getMessage());
+        } finally {
+            synchronized (this) {
+                additionsDuringRebuild = null;
+            }
+        }
+    }
+
+    /**
+     * False means no user has this username. True means one may have it, or that the filter is not loaded yet.
+     */
+    public boolean mightContainUsername(String username) {
+        Filters current = filters;
+        return current == null || current.usernames().mightContain(normalize(username));
+    }
+
+    /**
+     * False means no user has this email. True means one may have it, or that the filter is not loaded yet.
+     */
+    public boolean mightContainEmail(String email) {
+        Filters current = filters;
+        return current == null || current.emails().mightContain(normalize(email));
+    }
+
+    public synchronized void add(String username, String email) {
+        Identity identity = new Identity(username, email);
+        if (filters != null) {
+            filters.add(identity);
+        }
+        if (additionsDuringRebuild != null) {
+            additionsDuringRebuild.add(identity);
+        }
+    }
+
+
+    private static String normalize(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+
+    private record Identity(String username, String email) {
+    }
+
+    private record Filters(BloomFilter usernames, BloomFilter emails) {
+
+        void add(Identity identity) {
+            usernames.add(normalize(identity.username()));
+            emails.add(normalize(identity.email()));
+        }
+    }
+
+}
@@ -1,14 +1,21 @@
 package com.smart.home.userservice.service;
 
+import com.smart.home.userservice.model.AuthTokensDTO;
+import com.smart.home.userservice.model.BatchTokenValidationRequest;
+import com.smart.home.userservice.model.JwtKeyDTO;
 import com.smart.home.userservice.model.LoginDTO;
+import com.smart.home.userservice.model.RefreshTokenRequest;
 import com.smart.home.userservice.model.TokenValidationRequest;
 import com.smart.home.userservice.model.User;
+import com.smart.home.userservice.model.UserPage;
 
 import java.util.List;
 
 public interface UserService {
 
-    String login(LoginDTO loginDTO);
+    AuthTokensDTO login(LoginDTO loginDTO);
+
+    AuthTokensDTO refreshToken(RefreshTokenRequest request);
 
     User createUser(User user);
 
@@ -20,7 +27,15 @@ public interface UserService {
 
     List<User> getAllUsers();
 
+    UserPage getUserPage(int page, int size, String sort, String direction);
+
     User getProfile();
 
     Boolean validateToken(TokenValidationRequest request);
+
+    List<Boolean> validateTokens(BatchTokenValidationRequest request);
+
+    void logout(String token, String refreshToken);
+
+    List<JwtKeyDTO> getSigningKeys();
 }
@@ -1,13 +1,29 @@
 package com.smart.home.userservice.service;
 
 import com.smart.home.userservice.handler.BadRequestException;
+import com.smart.home.userservice.model.AuthTokensDTO;
+import com.smart.home.userservice.model.BatchTokenValidationRequest;
+import com.smart.home.userservice.model.JwtKeyDTO;
 import com.smart.home.userservice.model.LoginDTO;
+import com.smart.home.userservice.model.RefreshToken;
+import com.smart.home.userservice.model.RefreshTokenRequest;
 import com.smart.home.userservice.model.TokenValidationRequest;
 import com.smart.home.userservice.model.User;
+import com.smart.home.userservice.model.UserPage;
+import com.smart.home.userservice.model.UserRoleView;
+import com.smart.home.userservice.model.UserSummaryDTO;
+import com.smart.home.userservice.model.RoleType;
+import com.smart.home.userservice.model.UserTokenInfo;
 import com.smart.home.userservice.repository.UserRepository;
 import com.smart.home.userservice.security.JwtTokenService;
+import com.smart.home.userservice.security.ValidatedToken;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -18,21 +34,44 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Log4j2
 @Service
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
 
+    private static final String SIGNING_ALGORITHM = "RS256";
+    private static final String ID_PROPERTY = "userId";
+    private static final Set<String> SORTABLE_PROPERTIES = Set.of(ID_PROPERTY, "username", "email", "createdAt", "updatedAt");
+
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtTokenService jwtTokenService;
     private final AuthenticationProvider authenticationProvider;
+    private final UserTokenCache userTokenCache;
+    private final UserDetailsCache userDetailsCache;
+    private final TokenRevocationService tokenRevocationService;
+    private final RefreshTokenService refreshTokenService;
+    private final UserIdentityFilter userIdentityFilter;
+
+    @Value("${application.security.token-validation.max-batch-size:100}")
+    private int maxTokenBatchSize;
+
+    @Value("${user.page.max-size:1000}")
+    private int maxPageSize;
 
     @Override
-    public String login(LoginDTO loginDTO) {
+    public AuthTokensDTO login(LoginDTO loginDTO) {
         Authentication authentication = authenticationProvider.authenticate(
                 new UsernamePasswordAuthenticationToken(
                         loginDTO.getUsername(),
@@ -42,7 +81,19 @@ public class UserServiceImpl implements UserService {
         SecurityContextHolder.getContext().setAuthentication(authentication);
         User user = userRepository.findByUsername(loginDTO.getUsername())
                 .orElseThrow(() -> new BadCredentialsException("Invalid username or password."));
-        return jwtTokenService.generateToken(user.getUsername(), user.getRoles());
+        return new AuthTokensDTO(jwtTokenService.generateToken(user), refreshTokenService.issueToken(user), accessTokenExpiresIn());
+    }
+
+    @Override
+    public AuthTokensDTO refreshToken(RefreshTokenRequest request) {
+        log.debug("Refreshing tokens.");
+        RefreshToken usedToken = refreshTokenService.useToken(request.getRefreshToken());
+        User user = userRepository.findById(usedToken.getUserId())
+                .orElseThrow(() -> new BadRequestException("Refresh token is not valid."));
+
+        AuthTokensDTO tokens = new AuthTokensDTO(jwtTokenService.generateToken(user), refreshTokenService.rotateToken(usedToken), accessTokenExpiresIn());
+        log.info("Tokens of user {} refreshed.", user.getUsername());
+        return tokens;
     }
 
     @Override
@@ -58,9 +109,13 @@ public class UserServiceImpl implements UserService {
 
         user.setPassword(passwordEncoder.encode(user.getPassword()));
         user.setCreatedAt(LocalDateTime.now());
+        user.setTokenEpoch(0L);
 
-        log.info("User created: {}", user);
-        return userRepository.save(user);
+        User createdUser = saveUser(user);
+        userIdentityFilter.add(createdUser.getUsername(), createdUser.getEmail());
+        invalidateCachedUser(createdUser.getUsername());
+        log.info("User created: {}", createdUser);
+        return createdUser;
     }
 
     @Override
@@ -70,10 +125,14 @@ public class UserServiceImpl implements UserService {
         log.debug("Checking if user exists with id: {}", userId);
         User existingUser = getUserById(userId);
 
+        String previousUsername = existingUser.getUsername();
+        long previousTokenEpoch = currentTokenEpoch(existingUser);
+        boolean credentialsChanged = false;
         log.debug("Checking username: {}", userUpdate.getUsername());
         if (!userUpdate.getUsername().equals(existingUser.getUsername())) {
             checkUniqueUsername(userUpdate.getUsername());
             existingUser.setUsername(userUpdate.getUsername());
+            credentialsChanged = true;
         }
 
         log.debug("Checking email: {}", userUpdate.getEmail());
@@ -82,23 +141,39 @@ public class UserServiceImpl implements UserService {
             existingUser.setEmail(userUpdate.getEmail());
         }
 
-        log.debug("Checking password: {}", userUpdate.getPassword());
-        if (!passwordEncoder.encode(userUpdate.getPassword()).equals(existingUser.getPassword())) {
+        log.debug("Checking password.");
+        if (!passwordEncoder.matches(userUpdate.getPassword(), existingUser.getPassword())) {
             checkIfPasswordIsComplex(userUpdate.getPassword());
             existingUser.setPassword(passwordEncoder.encode(userUpdate.getPassword()));
+            credentialsChanged = true;
         }
 
+        if (credentialsChanged) {
+            existingUser.setTokenEpoch(nextTokenEpoch(existingUser));
+        }
         existingUser.setUpdatedAt(LocalDateTime.now());
 
-        log.info("User updated: {}", existingUser);
-        return userRepository.save(existingUser);
+        User updatedUser = saveUser(existingUser);
+        userIdentityFilter.add(updatedUser.getUsername(), updatedUser.getEmail());
+        invalidateCachedUser(previousUsername);
+        invalidateCachedUser(updatedUser.getUsername());
+        if (credentialsChanged) {
+            tokenRevocationService.revokeTokensOfEpoch(updatedUser.getUserId(), previousTokenEpoch);
+            refreshTokenService.revokeTokensOfUser(updatedUser.getUserId());
+        }
+        log.info("User updated: {}", updatedUser);
+        return updatedUser;
     }
 
     @Override
     public void deleteUserById(Long userId) {
         log.debug("Deleting user with id: {}", userId);
         User user = getUserById(userId);
+        refreshTokenService.revokeTokensOfUser(user.getUserId());
         userRepository.delete(user);
+        userTokenCache.markRemoved(user.getUsername());
+        userDetailsCache.invalidate(user.getUsername());
+        tokenRevocationService.revokeTokensOfEpoch(user.getUserId(), currentTokenEpoch(user));
         log.info("User with id {} deleted successfully.", userId);
     }
 
@@ -122,6 +197,28 @@ public class UserServiceImpl implements UserService {
         return users;
     }
 
+    @Override
+    public UserPage getUserPage(int page, int size, String sort, String direction) {
+        if (page < 0) {
+            throw new BadRequestException("Page must not be negative");
+        }
+        if (size < 1 || size > maxPageSize) {
+            throw new BadRequestException("Size must be between 1 and " + maxPageSize);
+        }
+        if (!SORTABLE_PROPERTIES.contains(sort)) {
+            throw new BadRequestException("Users can be sorted by " + String.join(", ", SORTABLE_PROPERTIES));
+        }
+        Sort.Direction sortDirection = Sort.Direction.fromOptionalString(direction)
+                .orElseThrow(() -> new BadRequestException("Direction must be asc or desc"));
+
+        // the id breaks ties, so users with equal sort values keep their place between pages
+        Sort order = ID_PROPERTY.equals(sort) ? Sort.by(sortDirection, ID_PROPERTY) : Sort.by(sortDirection, sort).and(Sort.by(ID_PROPERTY));
+        Page<UserSummaryDTO> users = userRepository.findUserSummaries(PageRequest.of(page, size, order));
+        addRoles(users.getContent());
+        log.info("Getting page {} of users sorted by {} {}. Size is: {}", page, sort, sortDirection, users.getNumberOfElements());
+        return new UserPage(users.getContent(), page, size, users.getTotalElements(), users.getTotalPages());
+    }
+
     @Override
     public User getProfile() {
         UserDetails userDetails = (UserDetails) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
@@ -132,32 +229,139 @@ public class UserServiceImpl implements UserService {
     @Override
     public Boolean validateToken(TokenValidationRequest request) {
         log.debug("Validating token.");
+        boolean isValid = isTokenValid(request.getToken(), userTokenCache::getByUsername);
+        if (isValid) {
+            log.info("Token validated successfully.");
+        }
+        return isValid;
+    }
 
-        String username;
-        try {
-            username = jwtTokenService.extractUsernameFromToken(request.getToken());
-        } catch (IllegalArgumentException e){
-            log.warn("Token does not contain a valid username or is expired.");
+    @Override
+    public List<Boolean> validateTokens(BatchTokenValidationRequest request) {
+        if (request.getTokens() == null) {
+            throw new BadRequestException("Tokens must be provided.");
+        }
+        if (request.getTokens().size() > maxTokenBatchSize) {
+            throw new BadRequestException("At most " + maxTokenBatchSize + " tokens can be validated at once.");
+        }
+        log.debug("Validating {} tokens.", request.getTokens().size());
+
+        // repeated tokens and users are resolved once per batch
+        Map<String, Optional<UserTokenInfo>> usersByUsername = new HashMap<>();
+        Function<String, Optional<UserTokenInfo>> userLookup = username ->
+                usersByUsername.computeIfAbsent(username, userTokenCache::getByUsername);
+        Map<String, Boolean> resultsByToken = new HashMap<>();
+
+        List<Boolean> results = new ArrayList<>(request.getTokens().size());
+        for (String token : request.getTokens()) {
+            results.add(resultsByToken.computeIfAbsent(token, t -> isTokenValid(t, userLookup)));
+        }
+        log.info("Validated {} tokens, {} valid.", results.size(), results.stream().filter(Boolean::booleanValue).count());
+        return results;
+    }
+
+    @Override
+    public void logout(String token, String refreshToken) {
+        ValidatedToken validatedToken = jwtTokenService.verifyToken(token);
+        if (validatedToken == null) {
+            throw new BadRequestException("Token is not valid.");
+        }
+        tokenRevocationService.revokeToken(validatedToken);
+        if (refreshToken != null) {
+            refreshTokenService.revokeToken(refreshToken);
+        }
+        log.info("User {} logged out.", validatedToken.getUsername());
+    }
+
+    @Override
+    public List<JwtKeyDTO> getSigningKeys() {
+        log.debug("Getting public signing keys.");
+        return jwtTokenService.getPublicKeys().entrySet().stream()
+                .map(key -> new JwtKeyDTO(key.getKey(), SIGNING_ALGORITHM, Base64.getEncoder().encodeToString(key.getValue().getEncoded())))
+                .toList();
+    }
+
+
+    private boolean isTokenValid(String token, Function<String, Optional<UserTokenInfo>> userLookup) {
+        ValidatedToken validatedToken = jwtTokenService.verifyToken(token);
+        if (validatedToken == null) {
+            log.warn("Token is not valid or is expired.");
+            return false;
+        }
+
+        Optional<UserTokenInfo> tokenInfo = userLookup.apply(validatedToken.getUsername());
+        if (tokenInfo.isEmpty()) {
+            log.warn("User with username {} not found.", validatedToken.getUsername());
             return false;
         }
 
-        Optional<User> userOptional = userRepository.findByUsername(username);
-        if (userOptional.isEmpty()) {
-            log.warn("User with username {} not found.", username);
+        if (validatedToken.getUserId() != null && !validatedToken.getUserId().equals(tokenInfo.get().getUserId())) {
+            log.warn("Token was issued for another user with username {}.", validatedToken.getUsername());
             return false;
         }
 
-        boolean isValid = jwtTokenService.validateToken(request.getToken());
-        if (!isValid) {
-            log.warn("Token is not valid.");
+        if (validatedToken.getTokenEpoch() < tokenInfo.get().getTokenEpoch()) {
+            log.warn("Token of user {} was issued before the last credential change.", validatedToken.getUsername());
+            return false;
+        }
+
+        if (tokenRevocationService.isRevoked(validatedToken)) {
+            log.warn("Token of user {} has been revoked.", validatedToken.getUsername());
             return false;
         }
-        log.info("Token validated successfully.");
         return true;
     }
 
+    private void addRoles(List<UserSummaryDTO> users) {
+        if (users.isEmpty()) {
+            return;
+        }
+        Map<Long, Set<RoleType>> rolesByUserId = userRepository.findRolesByUserIds(users.stream().map(UserSummaryDTO::getUserId).toList()).stream()
+                .collect(Collectors.groupingBy(UserRoleView::getUserId, Collectors.mapping(UserRoleView::getRole, Collectors.toSet())));
+        users.forEach(user -> user.setRoles(rolesByUserId.getOrDefault(user.getUserId(), Set.of())));
+    }
+
+    private long accessTokenExpiresIn() {
+        return jwtTokenService.getTokenValidityMillis() / 1000;
+    }
+
+    private void invalidateCachedUser(String username) {
+        userTokenCache.invalidate(username);
+        userDetailsCache.invalidate(username);
+    }
+
+    private long nextTokenEpoch(User user) {
+        return currentTokenEpoch(user) + 1;
+    }
+
+    private long currentTokenEpoch(User user) {
+        return user.getTokenEpoch() != null ? user.getTokenEpoch() : 0L;
+    }
+
+    private User saveUser(User user) {
+        try {
+            return userRepository.save(user);
+        } catch (DataIntegrityViolationException e) {
+            // names the identity filter reported as new are only checked by the unique constraints
+            log.error("Data integrity violation while saving user: {}", user.getUsername());
+            if (isTakenByOtherUser(userRepository.findByUsername(user.getUsername()), user)) {
+                throw new BadRequestException("Username is already taken");
+            }
+            if (isTakenByOtherUser(userRepository.findByEmail(user.getEmail()), user)) {
+                throw new BadRequestException("Email is already registered");
+            }
+            throw e;
+        }
+    }
+
+    private static boolean isTakenByOtherUser(Optional<User> userWithName, User user) {
+        return userWithName.filter(existing -> !Objects.equals(existing.getUserId(), user.getUserId())).isPresent();
+    }
 
     private void checkUniqueUsername(String username) {
+        if (!userIdentityFilter.mightContainUsername(username)) {
+            return;
+        }
         Optional<User> userWithUsername = userRepository.findByUsername(username);
         if (userWithUsername.isPresent()) {
             throw new BadRequestException("Username is already taken");
@@ -165,6 +369,9 @@ public class UserServiceImpl implements UserService {
     }
 
     private void checkUniqueEmail(String email) {
+        if (!userIdentityFilter.mightContainEmail(email)) {
+            return;
+        }
         Optional<User> userWithEmail = userRepository.findByEmail(email);
         if (userWithEmail.isPresent()) {
             throw new BadRequestException("Email is already registered");
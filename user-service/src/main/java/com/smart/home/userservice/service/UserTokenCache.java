@@ -0,0 +1,92 @@
+package com.smart.home.userservice.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.smart.home.userservice.model.Role;
+import com.smart.home.userservice.model.User;
+import com.smart.home.userservice.model.UserTokenInfo;
+import com.smart.home.userservice.repository.UserRepository;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Caches username to user id, roles and token epoch for token validation. Usernames without a user are cached
+ * as absent, so tokens of removed users are rejected without a query. Entries are invalidated when users
+ * are created, updated or deleted on this instance; the ttl bounds how long other instances may serve stale data.
+ */
+@Log4j2
+@Component
+public class UserTokenCache {
+
+    private final UserRepository userRepository;
+    private final Cache<String, Optional<UserTokenInfo>> cache;
+    private final long ttlNanos;
+    private final long absentTtlNanos;
+
+    public UserTokenCache(UserRepository userRepository,
+                          @Value("${user.token-cache.max-size:10000}") long maxSize,
+                          @Value("${user.token-cache.ttl-seconds:300}") long ttlSeconds,
+                          @Value("${user.token-cache.absent-ttl-seconds:60}") long absentTtlSeconds) {
+        this.userRepository = userRepository;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.absentTtlNanos = TimeUnit.SECONDS.toNanos(absentTtlSeconds);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new TokenInfoExpiry())
+                .build();
+    }
+
+    public Optional<UserTokenInfo> getByUsername(String username) {
+        return cache.get(username, this::load);
+    }
+
+    public void invalidate(String username) {
+        log.debug("Invalidating token info of user {}", username);
+        cache.invalidate(username);
+    }
+
+    public void markRemoved(String username) {
+        log.debug("Marking user {} as removed", username);
+        cache.put(username, Optional.empty());
+    }
+
+
+    private Optional<UserTokenInfo> load(String username) {
+        return userRepository.findByUsername(username).map(UserTokenCache::toTokenInfo);
+    }
+
+    private static UserTokenInfo toTokenInfo(User user) {
+        return new UserTokenInfo(
+                user.getUserId(),
+                user.getRoles() != null ? user.getRoles().stream().map(Role::getRole).collect(Collectors.toUnmodifiableSet()) : Set.of(),
+                user.getTokenEpoch() != null ? user.getTokenEpoch() : 0L
+        );
+    }
+
+
+    private class TokenInfoExpiry implements Expiry<String, Optional<UserTokenInfo>> {
+
+        @Override
+        public long expireAfterCreate(String key, Optional<UserTokenInfo> value, long currentTime) {
+            return value.isPresent() ? ttlNanos : absentTtlNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Optional<UserTokenInfo> value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Optional<UserTokenInfo> value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+}
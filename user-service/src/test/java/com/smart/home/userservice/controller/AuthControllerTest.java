@@ -1,7 +1,13 @@
 package com.smart.home.userservice.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smart.home.userservice.handler.BadRequestException;
+import com.smart.home.userservice.handler.GlobalExceptionHandler;
+import com.smart.home.userservice.model.AuthTokensDTO;
+import com.smart.home.userservice.model.BatchTokenValidationRequest;
+import com.smart.home.userservice.model.JwtKeyDTO;
 import com.smart.home.userservice.model.LoginDTO;
+import com.smart.home.userservice.model.RefreshTokenRequest;
 import com.smart.home.userservice.model.User;
 import com.smart.home.userservice.service.UserService;
 import org.junit.jupiter.api.BeforeEach;
@@ -14,12 +20,16 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.util.List;
+
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -40,25 +50,54 @@ class AuthControllerTest {
 
     @BeforeEach
     public void setUp() {
-        mockMvc = MockMvcBuilders.standaloneSetup(authController).build();
+        mockMvc = MockMvcBuilders.standaloneSetup(authController)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
     }
 
     @Test
     void testLogin_Success() throws Exception {
         LoginDTO loginDTO = new LoginDTO("testUser", "password123");
-        String token = "dummyToken";
+        AuthTokensDTO tokens = new AuthTokensDTO("dummyToken", "dummyRefreshToken", 900L);
 
-        when(userService.login(any(LoginDTO.class))).thenReturn(token);
+        when(userService.login(any(LoginDTO.class))).thenReturn(tokens);
 
         mockMvc.perform(post("/api/auth/login")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(loginDTO)))
                 .andExpect(status().isOk())
-                .andExpect(content().string(token));
+                .andExpect(jsonPath("$.accessToken", is("dummyToken")))
+                .andExpect(jsonPath("$.refreshToken", is("dummyRefreshToken")))
+                .andExpect(jsonPath("$.expiresIn", is(900)));
 
         verify(userService, times(1)).login(loginDTO);
     }
 
+    @Test
+    void testRefreshToken_Success() throws Exception {
+        RefreshTokenRequest request = new RefreshTokenRequest("refreshToken");
+        when(userService.refreshToken(request)).thenReturn(new AuthTokensDTO("newToken", "newRefreshToken", 900L));
+
+        mockMvc.perform(post("/api/auth/token/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accessToken", is("newToken")))
+                .andExpect(jsonPath("$.refreshToken", is("newRefreshToken")));
+    }
+
+    @Test
+    void testRefreshToken_InvalidToken() throws Exception {
+        RefreshTokenRequest request = new RefreshTokenRequest("usedRefreshToken");
+        when(userService.refreshToken(request)).thenThrow(new BadRequestException("Refresh token is not valid."));
+
+        mockMvc.perform(post("/api/auth/token/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Refresh token is not valid."));
+    }
+
 
     @Test
     void testRegister_Success() throws Exception {
@@ -99,4 +138,73 @@ class AuthControllerTest {
         verify(userService, times(0)).createUser(any(User.class));
     }
 
+    @Test
+    void testGetSigningKeys_Success() throws Exception {
+        when(userService.getSigningKeys()).thenReturn(List.of(new JwtKeyDTO("key-1", "RS256", "cHVibGljLWtleQ==")));
+
+        mockMvc.perform(get("/api/auth/keys"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].keyId", is("key-1")))
+                .andExpect(jsonPath("$[0].algorithm", is("RS256")))
+                .andExpect(jsonPath("$[0].publicKey", is("cHVibGljLWtleQ==")));
+
+        verify(userService, times(1)).getSigningKeys();
+    }
+
+    @Test
+    void testValidateTokens_Success() throws Exception {
+        BatchTokenValidationRequest request = new BatchTokenValidationRequest(List.of("validToken", "invalidToken"));
+        when(userService.validateTokens(request)).thenReturn(List.of(true, false));
+
+        mockMvc.perform(post("/api/auth/token/validate/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0]", is(true)))
+                .andExpect(jsonPath("$[1]", is(false)));
+
+        verify(userService, times(1)).validateTokens(request);
+    }
+
+    @Test
+    void testValidateTokens_TooManyTokens() throws Exception {
+        BatchTokenValidationRequest request = new BatchTokenValidationRequest(List.of("token1", "token2"));
+        when(userService.validateTokens(request)).thenThrow(new BadRequestException("At most 1 tokens can be validated at once."));
+
+        mockMvc.perform(post("/api/auth/token/validate/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testLogout_Success() throws Exception {
+        mockMvc.perform(post("/api/auth/logout")
+                        .header("Authorization", "Bearer validToken"))
+                .andExpect(status().isNoContent());
+
+        verify(userService, times(1)).logout("validToken", null);
+    }
+
+    @Test
+    void testLogout_WithRefreshToken() throws Exception {
+        mockMvc.perform(post("/api/auth/logout")
+                        .header("Authorization", "Bearer validToken")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new RefreshTokenRequest("refreshToken"))))
+                .andExpect(status().isNoContent());
+
+        verify(userService, times(1)).logout("validToken", "refreshToken");
+    }
+
+    @Test
+    void testLogout_InvalidToken() throws Exception {
+        doThrow(new BadRequestException("Token is not valid.")).when(userService).logout("invalidToken", null);
+
+        mockMvc.perform(post("/api/auth/logout")
+                        .header("Authorization", "Bearer invalidToken"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Token is not valid."));
+    }
+
 }
@@ -4,6 +4,9 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.smart.home.userservice.handler.BadRequestException;
 import com.smart.home.userservice.handler.GlobalExceptionHandler;
 import com.smart.home.userservice.model.User;
+import com.smart.home.userservice.model.UserPage;
+import com.smart.home.userservice.model.UserSummaryDTO;
+import com.smart.home.userservice.model.RoleType;
 import com.smart.home.userservice.service.UserService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -17,6 +20,7 @@ import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
@@ -146,6 +150,31 @@ class UserControllerTest {
         verify(userService, times(1)).getAllUsers();
     }
 
+    @Test
+    void testGetUserPage_Success() throws Exception {
+        UserSummaryDTO user = new UserSummaryDTO(1L, "TestUser", "test@test.com", null, null, Set.of(RoleType.USER));
+        when(userService.getUserPage(2, 10, "username", "desc")).thenReturn(new UserPage(List.of(user), 2, 10, 21L, 3));
+
+        mockMvc.perform(get("/api/user/page")
+                        .param("page", "2")
+                        .param("size", "10")
+                        .param("sort", "username")
+                        .param("direction", "desc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].username", is("TestUser")))
+                .andExpect(jsonPath("$.items[0].password").doesNotExist())
+                .andExpect(jsonPath("$.totalElements", is(21)));
+    }
+
+    @Test
+    void testGetUserPage_InvalidSort() throws Exception {
+        when(userService.getUserPage(0, 50, "password", "asc")).thenThrow(new BadRequestException("Users can be sorted by userId"));
+
+        mockMvc.perform(get("/api/user/page").param("sort", "password"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void testUserProfile_Success() throws Exception {
         User profile = new User();
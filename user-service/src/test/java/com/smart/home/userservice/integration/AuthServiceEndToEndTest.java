@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.smart.home.userservice.model.LoginDTO;
 import com.smart.home.userservice.model.TokenValidationRequest;
 import com.smart.home.userservice.model.User;
+import com.smart.home.userservice.repository.RefreshTokenRepository;
 import com.smart.home.userservice.repository.UserRepository;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -37,6 +38,9 @@ public class AuthServiceEndToEndTest {
     @MockBean
     private UserRepository userRepository;
 
+    @MockBean
+    private RefreshTokenRepository refreshTokenRepository;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -52,7 +56,8 @@ public class AuthServiceEndToEndTest {
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(loginDTO)))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$").isString());
+                .andExpect(jsonPath("$.accessToken").isString())
+                .andExpect(jsonPath("$.refreshToken").isString());
     }
 
     @Test
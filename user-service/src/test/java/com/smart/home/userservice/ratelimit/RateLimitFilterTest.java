@@ -0,0 +1,143 @@
+package com.smart.home.userservice.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RateLimitFilterTest {
+
+    @Mock
+    private RedisRateLimiter rateLimiter;
+
+    @Mock
+    private FilterChain chain;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private RateLimitFilter rateLimitFilter;
+
+    @BeforeEach
+    void setUp() {
+        SecurityContextHolder.clearContext();
+        meterRegistry = new SimpleMeterRegistry();
+        rateLimitFilter = new RateLimitFilter(rateLimiter, meterRegistry, List.of("/api/auth/login:5:0.1", "/api/user/**:100:20"), 0, 0);
+        ReflectionTestUtils.setField(rateLimitFilter, "enabled", true);
+        ReflectionTestUtils.setField(rateLimitFilter, "keyPrefix", "rate-limit:user-service");
+        ReflectionTestUtils.setField(rateLimitFilter, "failureCooldown", 5000L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void doFilter_Allowed_KeyedByTokenSubjectAndFirstMatchingRoute() throws ServletException, IOException {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken("testUser", null, null));
+        when(rateLimiter.tryAcquire(eq("rate-limit:user-service:/api/auth/login:user:testUser"), any()))
+                .thenReturn(new RedisRateLimiter.Result(true, 4, 0));
+        MockHttpServletRequest request = request("/api/auth/login");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        rateLimitFilter.doFilter(request, response, chain);
+
+        verify(chain).doFilter(request, response);
+        verify(rateLimiter).tryAcquire(any(), argThat(rule -> rule.getCapacity() == 5));
+        assertEquals("4", response.getHeader("X-RateLimit-Remaining"));
+        assertEquals(1.0, meterRegistry.get("rate.limit.requests").tag("route", "/api/auth/login").tag("outcome", "allowed").counter().count());
+    }
+
+    @Test
+    void doFilter_Exhausted_Returns429() throws ServletException, IOException {
+        when(rateLimiter.tryAcquire(eq("rate-limit:user-service:/api/user/**:address:10.0.0.1"), any()))
+                .thenReturn(new RedisRateLimiter.Result(false, 0, 1500));
+        MockHttpServletRequest request = request("/api/user/1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        rateLimitFilter.doFilter(request, response, chain);
+
+        verify(chain, never()).doFilter(any(), any());
+        assertEquals(429, response.getStatus());
+        assertEquals("2", response.getHeader("Retry-After"));
+        assertEquals(1.0, meterRegistry.get("rate.limit.requests").tag("outcome", "rejected").counter().count());
+    }
+
+    @Test
+    void doFilter_RedisUnavailable_LetsRequestThrough() throws ServletException, IOException {
+        when(rateLimiter.tryAcquire(any(), any())).thenThrow(new IllegalStateException("Connection refused"));
+        MockHttpServletRequest request = request("/api/user/1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        rateLimitFilter.doFilter(request, response, chain);
+
+        verify(chain).doFilter(request, response);
+        assertEquals(1.0, meterRegistry.get("rate.limit.requests").tag("outcome", "error").counter().count());
+    }
+
+    @Test
+    void doFilter_RedisUnavailable_SkipsRedisDuringCooldown() throws ServletException, IOException {
+        when(rateLimiter.tryAcquire(any(), any())).thenThrow(new IllegalStateException("Connection refused"));
+        rateLimitFilter.doFilter(request("/api/user/1"), new MockHttpServletResponse(), chain);
+        MockHttpServletRequest request = request("/api/user/1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        rateLimitFilter.doFilter(request, response, chain);
+
+        verify(chain).doFilter(request, response);
+        verify(rateLimiter, times(1)).tryAcquire(any(), any());
+        assertEquals(1.0, meterRegistry.get("rate.limit.requests").tag("outcome", "skipped").counter().count());
+    }
+
+    @Test
+    void doFilter_NoMatchingRoute_NotLimited() throws ServletException, IOException {
+        MockHttpServletRequest request = request("/actuator/health");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        rateLimitFilter.doFilter(request, response, chain);
+
+        verify(chain).doFilter(request, response);
+        verifyNoInteractions(rateLimiter);
+    }
+
+    @Test
+    void parse_InvalidRule_ThrowsIllegalStateException() {
+        assertEquals("/api/user/**", RateLimitRule.parse("/api/user/**:100:20").getPathPattern());
+        assertThrows(IllegalStateException.class, () -> RateLimitRule.parse("/api/user/**:100"));
+        assertThrows(IllegalStateException.class, () -> RateLimitRule.parse("/api/user/**:many:20"));
+        assertThrows(IllegalArgumentException.class, () -> RateLimitRule.parse("/api/user/**:0:20"));
+    }
+
+
+    private static MockHttpServletRequest request(String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setRemoteAddr("10.0.0.1");
+        return request;
+    }
+
+}
@@ -0,0 +1,50 @@
+package com.smart.home.userservice.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BloomFilterTest {
+
+    @Test
+    void mightContain_AddedValues() {
+        BloomFilter filter = new BloomFilter(1024, 5);
+
+        filter.add("tokenId");
+
+        assertTrue(filter.mightContain("tokenId"));
+        assertFalse(filter.mightContain("otherTokenId"));
+    }
+
+    @Test
+    void fromBytes_ShortRedisBitmapPadded() {
+        BloomFilter filter = new BloomFilter(1024, 5);
+        filter.add("tokenId");
+        byte[] bits = filter.toByteArray();
+        int lastSetByte = bits.length - 1;
+        while (bits[lastSetByte] == 0) {
+            lastSetByte--;
+        }
+
+        BloomFilter copy = BloomFilter.fromBytes(Arrays.copyOf(bits, lastSetByte + 1), 1024, 5);
+
+        assertTrue(copy.mightContain("tokenId"));
+        assertArrayEquals(bits, copy.toByteArray());
+    }
+
+    @Test
+    void add_UsesRedisBitOrder() {
+        BloomFilter filter = new BloomFilter(16, 1);
+        int position = filter.positions("tokenId")[0];
+
+        filter.add("tokenId");
+
+        // SETBIT counts bits from the most significant bit of the first byte
+        assertTrue((filter.toByteArray()[position / 8] & (1 << (7 - position % 8))) != 0);
+    }
+
+}
@@ -1,5 +1,6 @@
 package com.smart.home.userservice.security;
 
+import com.smart.home.userservice.service.TokenRevocationService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import org.junit.jupiter.api.Test;
@@ -15,6 +16,7 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.io.IOException;
+import java.util.Date;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -38,6 +40,9 @@ class JwtAuthenticationFilterIntegrationTest {
     @MockBean
     private JwtTokenService jwtTokenService;
 
+    @MockBean
+    private TokenRevocationService tokenRevocationService;
+
     @Mock
     private FilterChain filterChain;
 
@@ -52,7 +57,7 @@ class JwtAuthenticationFilterIntegrationTest {
 
         MockHttpServletResponse response = new MockHttpServletResponse();
 
-        when(jwtTokenService.extractUsernameFromToken(token)).thenReturn(username);
+        when(jwtTokenService.verifyToken(token)).thenReturn(new ValidatedToken("tokenId", username, 1L, new Date(), new Date(), 0L));
         when(userDetailsService.loadUserByUsername(username)).thenReturn(userDetails);
 
         jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
@@ -70,7 +75,26 @@ class JwtAuthenticationFilterIntegrationTest {
 
         MockHttpServletResponse response = new MockHttpServletResponse();
 
-        when(jwtTokenService.extractUsernameFromToken(token)).thenReturn(null);
+        when(jwtTokenService.verifyToken(token)).thenReturn(null);
+
+        jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(filterChain).doFilter(request, response);
+    }
+
+    @Test
+    void testDoFilterInternal_RevokedToken() throws ServletException, IOException {
+        String token = "revokedToken";
+        ValidatedToken validatedToken = new ValidatedToken("tokenId", "testUser", 1L, new Date(), new Date(), 0L);
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token);
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        when(jwtTokenService.verifyToken(token)).thenReturn(validatedToken);
+        when(tokenRevocationService.isRevoked(validatedToken)).thenReturn(true);
 
         jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
 
@@ -2,27 +2,38 @@ package com.smart.home.userservice.service;
 
 import com.smart.home.userservice.model.Role;
 import com.smart.home.userservice.model.RoleType;
+import com.smart.home.userservice.model.User;
+import com.smart.home.userservice.security.JwtSigningKeys;
 import com.smart.home.userservice.security.JwtTokenService;
-import io.jsonwebtoken.Claims;
+import com.smart.home.userservice.security.ValidatedToken;
+import io.jsonwebtoken.Jwts;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.Base64;
+import java.util.Date;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class JwtTokenServiceTest {
 
+    private JwtSigningKeys signingKeys;
+
     private JwtTokenService jwtTokenService;
 
     @BeforeEach
     void setUp() {
-        jwtTokenService= new JwtTokenService("mySuperSecretKeyThatShouldBeLongEnoughForTheTest123!", 1000L * 60 * 60);
+        signingKeys = new JwtSigningKeys(List.of(), "", true);
+        jwtTokenService= new JwtTokenService(signingKeys, 1000L * 60 * 60, 1000L * 60 * 60 * 24);
     }
 
     @Test
@@ -50,7 +61,7 @@ class JwtTokenServiceTest {
 
     @Test
     void extractUsernameFromToken_TokenExpired() throws InterruptedException {
-        jwtTokenService = new JwtTokenService("mySuperSecretKeyThatShouldBeLongEnoughForTheTest123!", 1000L);
+        jwtTokenService = new JwtTokenService(signingKeys, 1000L, 1000L * 60 * 60 * 24);
 
         String username = "testUser";
         Set<Role> roles = new HashSet<>();
@@ -67,44 +78,116 @@ class JwtTokenServiceTest {
     }
 
     @Test
-    void isTokenExpired_False() {
-        String username = "testUser";
-        Set<Role> roles = new HashSet<>();
-        roles.add(new Role(RoleType.USER));
+    void generateToken_HeaderContainsActiveKeyId() {
+        String token = jwtTokenService.generateToken("testUser", Set.of(new Role(RoleType.USER)));
 
-        String token = jwtTokenService.generateToken(username, roles);
-        boolean isExpired = jwtTokenService.isTokenExpired(token);
+        String headerJson = new String(Base64.getUrlDecoder().decode(token.substring(0, token.indexOf('.'))));
 
-        assertFalse(isExpired);
+        assertTrue(headerJson.contains("\"kid\":\"" + signingKeys.getActiveKeyId() + "\""));
+        assertTrue(headerJson.contains("\"alg\":\"RS256\""));
     }
 
     @Test
-    void isTokenExpired_True() throws InterruptedException {
-        jwtTokenService = new JwtTokenService("mySuperSecretKeyThatShouldBeLongEnoughForTheTest123!", 1000L);
+    void validateToken_SignedWithUnknownKey() {
+        JwtSigningKeys otherKeys = new JwtSigningKeys(List.of(), "", true);
+        String token = new JwtTokenService(otherKeys, 1000L * 60 * 60, 1000L * 60 * 60 * 24).generateToken("testUser", Set.of(new Role(RoleType.USER)));
 
-        String username = "testUser";
-        Set<Role> roles = new HashSet<>();
-        roles.add(new Role(RoleType.USER));
+        assertFalse(jwtTokenService.validateToken(token));
+    }
 
-        String token = jwtTokenService.generateToken(username, roles);
+    @Test
+    void validateToken_WithoutKeyId() {
+        String token = Jwts.builder()
+                .subject("testUser")
+                .signWith(signingKeys.getActivePrivateKey(), Jwts.SIG.RS256)
+                .compact();
+
+        assertFalse(jwtTokenService.validateToken(token));
+    }
+
+    @Test
+    void signingKeys_NotConfigured_ThrowsIllegalStateException() {
+        assertThrows(IllegalStateException.class, () -> new JwtSigningKeys(List.of(), "", false));
+    }
+
+    @Test
+    void getPublicKeys_ContainsActiveKey() {
+        assertEquals(1, jwtTokenService.getPublicKeys().size());
+        assertNotNull(jwtTokenService.getPublicKeys().get(signingKeys.getActiveKeyId()));
+    }
+
+    @Test
+    void verifyToken_Success() {
+        String token = jwtTokenService.generateToken("testUser", Set.of(new Role(RoleType.USER)));
+
+        ValidatedToken validatedToken = jwtTokenService.verifyToken(token);
+
+        assertNotNull(validatedToken);
+        assertEquals("testUser", validatedToken.getUsername());
+        assertNotNull(validatedToken.getIssuedAt());
+        assertTrue(validatedToken.getExpiresAt().after(new Date()));
+    }
+
+    @Test
+    void verifyToken_UniqueTokenIds() {
+        String firstToken = jwtTokenService.generateToken("testUser", Set.of(new Role(RoleType.USER)));
+        String secondToken = jwtTokenService.generateToken("testUser", Set.of(new Role(RoleType.USER)));
+
+        String firstTokenId = jwtTokenService.verifyToken(firstToken).getTokenId();
+
+        assertNotNull(firstTokenId);
+        assertNotEquals(firstTokenId, jwtTokenService.verifyToken(secondToken).getTokenId());
+    }
+
+    @Test
+    void verifyToken_TokenExpired() throws InterruptedException {
+        jwtTokenService = new JwtTokenService(signingKeys, 1000L, 1000L * 60 * 60 * 24);
+        String token = jwtTokenService.generateToken("testUser", Set.of(new Role(RoleType.USER)));
 
         Thread.sleep(1500L); // Wait for token to expire
 
-        boolean isExpired = jwtTokenService.isTokenExpired(token);
+        assertNull(jwtTokenService.verifyToken(token));
+    }
 
-        assertTrue(isExpired);
+    @Test
+    void verifyToken_TamperedToken() {
+        String token = jwtTokenService.generateToken("testUser", Set.of(new Role(RoleType.USER)));
+        String[] parts = token.split("\\.");
+        String forgedPayload = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("{\"sub\":\"admin\",\"exp\":4102444800}".getBytes());
+
+        assertNull(jwtTokenService.verifyToken(parts[0] + "." + forgedPayload + "." + parts[2]));
     }
 
     @Test
-    void getClaims_Success() {
-        String username = "testUser";
-        Set<Role> roles = new HashSet<>();
-        roles.add(new Role(RoleType.USER));
+    void verifyToken_MalformedToken() {
+        assertNull(jwtTokenService.verifyToken("not-a-token"));
+        assertNull(jwtTokenService.extractUsernameFromToken("not-a-token"));
+    }
 
-        String token = jwtTokenService.generateToken(username, roles);
-        String claims = jwtTokenService.getClaims(token, Claims::getSubject);
+    @Test
+    void verifyToken_ContainsUserIdAndTokenEpoch() {
+        User user = new User("testUser", "testUser@test.com", "encodedPassword");
+        user.setUserId(7L);
+        user.setRoles(Set.of(new Role(RoleType.USER)));
+        user.setTokenEpoch(3L);
+
+        ValidatedToken validatedToken = jwtTokenService.verifyToken(jwtTokenService.generateToken(user));
+
+        assertNotNull(validatedToken);
+        assertEquals("testUser", validatedToken.getUsername());
+        assertEquals(7L, validatedToken.getUserId());
+        assertEquals(3L, validatedToken.getTokenEpoch());
+    }
+
+    @Test
+    void generateRefreshToken_RandomAndHashedConsistently() {
+        String refreshToken = jwtTokenService.generateRefreshToken();
 
-        assertEquals(username, claims);
+        assertNotEquals(refreshToken, jwtTokenService.generateRefreshToken());
+        assertEquals(64, jwtTokenService.hashRefreshToken(refreshToken).length());
+        assertEquals(jwtTokenService.hashRefreshToken(refreshToken), jwtTokenService.hashRefreshToken(refreshToken));
+        assertNotEquals(refreshToken, jwtTokenService.hashRefreshToken(refreshToken));
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,119 @@
+package com.smart.home.userservice.service;
+
+import com.smart.home.userservice.handler.BadRequestException;
+import com.smart.home.userservice.model.RefreshToken;
+import com.smart.home.userservice.model.User;
+import com.smart.home.userservice.repository.RefreshTokenRepository;
+import com.smart.home.userservice.security.JwtTokenService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RefreshTokenServiceImplTest {
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Mock
+    private JwtTokenService jwtTokenService;
+
+    @InjectMocks
+    private RefreshTokenServiceImpl refreshTokenService;
+
+    @Test
+    void issueToken_StoresOnlyHash() {
+        User user = new User("testUser", "test@test.com", "encodedPassword");
+        user.setUserId(1L);
+        when(jwtTokenService.generateRefreshToken()).thenReturn("refreshToken");
+        when(jwtTokenService.hashRefreshToken("refreshToken")).thenReturn("hash");
+        when(jwtTokenService.getRefreshTokenValidityMillis()).thenReturn(3600000L);
+
+        assertEquals("refreshToken", refreshTokenService.issueToken(user));
+
+        ArgumentCaptor<RefreshToken> storedToken = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository, times(1)).save(storedToken.capture());
+        assertEquals("hash", storedToken.getValue().getTokenHash());
+        assertEquals(1L, storedToken.getValue().getUserId());
+        assertNotNull(storedToken.getValue().getFamilyId());
+        assertNull(storedToken.getValue().getUsedAt());
+        assertTrue(storedToken.getValue().getExpiresAt().isAfter(LocalDateTime.now()));
+    }
+
+    @Test
+    void useToken_MarksUsedAndRotatesInFamily() {
+        RefreshToken storedToken = new RefreshToken(5L, "hash", "family", 1L, LocalDateTime.now(), LocalDateTime.now().plusDays(1), null);
+        when(jwtTokenService.hashRefreshToken("refreshToken")).thenReturn("hash");
+        when(refreshTokenRepository.findByTokenHash("hash")).thenReturn(Optional.of(storedToken));
+        when(refreshTokenRepository.markUsed(eq(5L), any(LocalDateTime.class))).thenReturn(1);
+        when(jwtTokenService.generateRefreshToken()).thenReturn("newRefreshToken");
+        when(jwtTokenService.hashRefreshToken("newRefreshToken")).thenReturn("newHash");
+        when(jwtTokenService.getRefreshTokenValidityMillis()).thenReturn(3600000L);
+
+        assertSame(storedToken, refreshTokenService.useToken("refreshToken"));
+        assertEquals("newRefreshToken", refreshTokenService.rotateToken(storedToken));
+
+        ArgumentCaptor<RefreshToken> rotatedToken = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository, times(1)).save(rotatedToken.capture());
+        assertEquals("newHash", rotatedToken.getValue().getTokenHash());
+        assertEquals("family", rotatedToken.getValue().getFamilyId());
+        verify(refreshTokenRepository, never()).deleteByFamilyId(any());
+    }
+
+    @Test
+    void useToken_Reused_RevokesFamily() {
+        RefreshToken storedToken = new RefreshToken(5L, "hash", "family", 1L, LocalDateTime.now(), LocalDateTime.now().plusDays(1), LocalDateTime.now());
+        when(jwtTokenService.hashRefreshToken("refreshToken")).thenReturn("hash");
+        when(refreshTokenRepository.findByTokenHash("hash")).thenReturn(Optional.of(storedToken));
+
+        assertThrows(BadRequestException.class, () -> refreshTokenService.useToken("refreshToken"));
+        verify(refreshTokenRepository, times(1)).deleteByFamilyId("family");
+        verify(refreshTokenRepository, never()).markUsed(anyLong(), any());
+    }
+
+    @Test
+    void useToken_ConcurrentlyUsed_RevokesFamily() {
+        RefreshToken storedToken = new RefreshToken(5L, "hash", "family", 1L, LocalDateTime.now(), LocalDateTime.now().plusDays(1), null);
+        when(jwtTokenService.hashRefreshToken("refreshToken")).thenReturn("hash");
+        when(refreshTokenRepository.findByTokenHash("hash")).thenReturn(Optional.of(storedToken));
+        when(refreshTokenRepository.markUsed(eq(5L), any(LocalDateTime.class))).thenReturn(0);
+
+        assertThrows(BadRequestException.class, () -> refreshTokenService.useToken("refreshToken"));
+        verify(refreshTokenRepository, times(1)).deleteByFamilyId("family");
+    }
+
+    @Test
+    void useToken_ExpiredOrUnknown_ThrowsBadRequestException() {
+        RefreshToken expiredToken = new RefreshToken(5L, "hash", "family", 1L, LocalDateTime.now().minusDays(2), LocalDateTime.now().minusDays(1), null);
+        when(jwtTokenService.hashRefreshToken("expiredToken")).thenReturn("hash");
+        when(jwtTokenService.hashRefreshToken("unknownToken")).thenReturn("unknownHash");
+        when(refreshTokenRepository.findByTokenHash("hash")).thenReturn(Optional.of(expiredToken));
+        when(refreshTokenRepository.findByTokenHash("unknownHash")).thenReturn(Optional.empty());
+
+        assertThrows(BadRequestException.class, () -> refreshTokenService.useToken("expiredToken"));
+        assertThrows(BadRequestException.class, () -> refreshTokenService.useToken("unknownToken"));
+        assertThrows(BadRequestException.class, () -> refreshTokenService.useToken(null));
+        verify(refreshTokenRepository, never()).markUsed(anyLong(), any());
+    }
+
+}
@@ -0,0 +1,100 @@
+package com.smart.home.userservice.service;
+
+import com.smart.home.userservice.model.RevokedToken;
+import com.smart.home.userservice.repository.RevokedTokenRepository;
+import com.smart.home.userservice.security.JwtTokenService;
+import com.smart.home.userservice.security.RevokedTokenFilter;
+import com.smart.home.userservice.security.ValidatedToken;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TokenRevocationServiceImplTest {
+
+    @Mock
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Mock
+    private RevokedTokenFilter revokedTokenFilter;
+
+    @Mock
+    private JwtTokenService jwtTokenService;
+
+    @InjectMocks
+    private TokenRevocationServiceImpl tokenRevocationService;
+
+    @Test
+    void revokeToken_StoredAndPublished() {
+        Date expiresAt = new Date(System.currentTimeMillis() + 60000L);
+
+        tokenRevocationService.revokeToken(new ValidatedToken("tokenId", "testUser", 1L, new Date(), expiresAt, 0L));
+
+        ArgumentCaptor<RevokedToken> revokedToken = ArgumentCaptor.forClass(RevokedToken.class);
+        verify(revokedTokenRepository, times(1)).save(revokedToken.capture());
+        assertEquals("tokenId", revokedToken.getValue().getRevocationKey());
+        assertTrue(revokedToken.getValue().getExpiresAt().isAfter(LocalDateTime.now()));
+        verify(revokedTokenFilter, times(1)).add("tokenId");
+    }
+
+    @Test
+    void revokeTokensOfEpoch_KeptForTokenValidity() {
+        when(jwtTokenService.getTokenValidityMillis()).thenReturn(3600000L);
+
+        tokenRevocationService.revokeTokensOfEpoch(1L, 2L);
+
+        ArgumentCaptor<RevokedToken> revokedToken = ArgumentCaptor.forClass(RevokedToken.class);
+        verify(revokedTokenRepository, times(1)).save(revokedToken.capture());
+        assertEquals("epoch:1:2", revokedToken.getValue().getRevocationKey());
+        assertTrue(revokedToken.getValue().getExpiresAt().isAfter(LocalDateTime.now().plusMinutes(59)));
+        verify(revokedTokenFilter, times(1)).add("epoch:1:2");
+    }
+
+    @Test
+    void isRevoked_FilterMiss_NoQuery() {
+        when(revokedTokenFilter.mightContain(any())).thenReturn(false);
+
+        assertFalse(tokenRevocationService.isRevoked(new ValidatedToken("tokenId", "testUser", 1L, new Date(), new Date(), 0L)));
+
+        verify(revokedTokenRepository, never()).existsByRevocationKeyIn(anyCollection());
+    }
+
+    @Test
+    void isRevoked_FilterHit_CheckedExactly() {
+        when(revokedTokenFilter.mightContain("tokenId")).thenReturn(true);
+        when(revokedTokenRepository.existsByRevocationKeyIn(List.of("tokenId", "epoch:1:0"))).thenReturn(false);
+
+        assertFalse(tokenRevocationService.isRevoked(new ValidatedToken("tokenId", "testUser", 1L, new Date(), new Date(), 0L)));
+
+        verify(revokedTokenRepository, times(1)).existsByRevocationKeyIn(List.of("tokenId", "epoch:1:0"));
+    }
+
+    @Test
+    void purgeExpired_RebuildsFilter() {
+        when(revokedTokenRepository.findActiveKeys(any())).thenReturn(List.of("tokenId"));
+        when(revokedTokenRepository.findActiveKeysRevokedSince(any(), any())).thenReturn(List.of());
+
+        tokenRevocationService.purgeExpired();
+
+        verify(revokedTokenRepository, times(1)).deleteExpired(any());
+        verify(revokedTokenFilter, times(1)).replace(List.of("tokenId"));
+    }
+
+}
@@ -0,0 +1,78 @@
+package com.smart.home.userservice.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserDetailsCacheTest {
+
+    @Mock
+    private UserDetailsService userDetailsService;
+
+    private UserDetailsCache userDetailsCache;
+
+    @BeforeEach
+    void setUp() {
+        userDetailsCache = new UserDetailsCache(userDetailsService, 100L, 30L);
+    }
+
+    @Test
+    void getByUsername_LoadedOnceWithoutPassword() {
+        when(userDetailsService.loadUserByUsername("testUser")).thenReturn(userDetails("testUser", "USER"));
+
+        UserDetails first = userDetailsCache.getByUsername("testUser");
+        UserDetails second = userDetailsCache.getByUsername("testUser");
+
+        assertSame(first, second);
+        assertEquals("testUser", first.getUsername());
+        assertNull(first.getPassword());
+        verify(userDetailsService, times(1)).loadUserByUsername("testUser");
+    }
+
+    @Test
+    void invalidate_ReloadsRoles() {
+        when(userDetailsService.loadUserByUsername("testUser"))
+                .thenReturn(userDetails("testUser", "USER"))
+                .thenReturn(userDetails("testUser", "ADMIN"));
+
+        userDetailsCache.getByUsername("testUser");
+        userDetailsCache.invalidate("testUser");
+
+        assertEquals(List.of(new SimpleGrantedAuthority("ADMIN")), List.copyOf(userDetailsCache.getByUsername("testUser").getAuthorities()));
+        verify(userDetailsService, times(2)).loadUserByUsername("testUser");
+    }
+
+    @Test
+    void getByUsername_UnknownUserNotCached() {
+        when(userDetailsService.loadUserByUsername("unknownUser")).thenThrow(new UsernameNotFoundException("Invalid username or password."));
+
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsCache.getByUsername("unknownUser"));
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsCache.getByUsername("unknownUser"));
+
+        verify(userDetailsService, times(2)).loadUserByUsername("unknownUser");
+    }
+
+
+    private static UserDetails userDetails(String username, String role) {
+        return new User(username, "encodedPassword", List.of(new SimpleGrantedAuthority(role)));
+    }
+
+}
@@ -0,0 +1,84 @@
+package com.smart.home.userservice.service;
+
+import com.smart.home.userservice.model.UserIdentityView;
+import com.smart.home.userservice.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserIdentityFilterTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private UserIdentityFilter userIdentityFilter;
+
+    @BeforeEach
+    void setUp() {
+        userIdentityFilter = new UserIdentityFilter(userRepository, 4096, 5, 1);
+    }
+
+    @Test
+    void mightContain_NotLoaded() {
+        assertTrue(userIdentityFilter.mightContainUsername("anyUser"));
+        assertTrue(userIdentityFilter.mightContainEmail("any@test.com"));
+    }
+
+    @Test
+    void rebuild_LoadsAllBatchesCaseInsensitive() {
+        Pageable firstBatch = PageRequest.of(0, 1, Sort.by("userId"));
+        when(userRepository.findIdentitiesBy(firstBatch))
+                .thenReturn(new SliceImpl<>(List.of(identity("Alice", "alice@test.com")), firstBatch, true));
+        when(userRepository.findIdentitiesBy(firstBatch.next()))
+                .thenReturn(new SliceImpl<>(List.of(identity("bob", "Bob@Test.com")), firstBatch.next(), false));
+
+        userIdentityFilter.rebuild();
+
+        assertTrue(userIdentityFilter.mightContainUsername("alice"));
+        assertTrue(userIdentityFilter.mightContainUsername("BOB"));
+        assertTrue(userIdentityFilter.mightContainEmail("bob@test.com"));
+        assertFalse(userIdentityFilter.mightContainUsername("carol"));
+        assertFalse(userIdentityFilter.mightContainEmail("carol@test.com"));
+    }
+
+    @Test
+    void add_AfterRebuild_Contained() {
+        when(userRepository.findIdentitiesBy(any())).thenReturn(new SliceImpl<>(List.of()));
+        userIdentityFilter.rebuild();
+
+        userIdentityFilter.add("carol", "carol@test.com");
+
+        assertTrue(userIdentityFilter.mightContainUsername("Carol"));
+        assertTrue(userIdentityFilter.mightContainEmail("carol@test.com"));
+    }
+
+
+    private static UserIdentityView identity(String username, String email) {
+        return new UserIdentityView() {
+            @Override
+            public String getUsername() {
+                return username;
+            }
+
+            @Override
+            public String getEmail() {
+                return email;
+            }
+        };
+    }
+
+}
@@ -1,16 +1,32 @@
 package com.smart.home.userservice.service;
 
 import com.smart.home.userservice.handler.BadRequestException;
+import com.smart.home.userservice.model.AuthTokensDTO;
+import com.smart.home.userservice.model.BatchTokenValidationRequest;
+import com.smart.home.userservice.model.JwtKeyDTO;
 import com.smart.home.userservice.model.LoginDTO;
+import com.smart.home.userservice.model.RefreshToken;
+import com.smart.home.userservice.model.RefreshTokenRequest;
 import com.smart.home.userservice.model.TokenValidationRequest;
+import com.smart.home.userservice.model.RoleType;
 import com.smart.home.userservice.model.User;
+import com.smart.home.userservice.model.UserPage;
+import com.smart.home.userservice.model.UserRoleView;
+import com.smart.home.userservice.model.UserSummaryDTO;
+import com.smart.home.userservice.model.UserTokenInfo;
 import com.smart.home.userservice.repository.UserRepository;
 import com.smart.home.userservice.security.JwtTokenService;
+import com.smart.home.userservice.security.ValidatedToken;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.Authentication;
@@ -18,9 +34,16 @@ import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.security.KeyPairGenerator;
+import java.security.PublicKey;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.time.LocalDateTime;
+import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
@@ -30,9 +53,10 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -52,6 +76,21 @@ class UserServiceImplTest {
     @Mock
     private AuthenticationProvider authenticationProvider;
 
+    @Mock
+    private UserTokenCache userTokenCache;
+
+    @Mock
+    private UserDetailsCache userDetailsCache;
+
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
+    @Mock
+    private UserIdentityFilter userIdentityFilter;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -65,14 +104,43 @@ class UserServiceImplTest {
         Authentication authentication = mock(Authentication.class);
         when(authenticationProvider.authenticate(any(Authentication.class))).thenReturn(authentication);
         when(userRepository.findByUsername(anyString())).thenReturn(Optional.of(user));
-        when(jwtTokenService.generateToken(anyString(), anySet())).thenReturn("token");
+        when(jwtTokenService.generateToken(user)).thenReturn("token");
+        when(jwtTokenService.getTokenValidityMillis()).thenReturn(900_000L);
+        when(refreshTokenService.issueToken(user)).thenReturn("refreshToken");
 
-        String token = userService.login(loginDTO);
+        AuthTokensDTO tokens = userService.login(loginDTO);
 
-        assertEquals("token", token);
+        assertEquals("token", tokens.getAccessToken());
+        assertEquals("refreshToken", tokens.getRefreshToken());
+        assertEquals(900L, tokens.getExpiresIn());
         verify(authenticationProvider, times(1)).authenticate(any(Authentication.class));
         verify(userRepository, times(1)).findByUsername(user.getUsername());
-        verify(jwtTokenService, times(1)).generateToken(anyString(), anySet());
+        verify(jwtTokenService, times(1)).generateToken(user);
+    }
+
+    @Test
+    void refreshToken_Success() {
+        User user = new User("testUser", "test@test.com", "encodedPassword");
+        user.setUserId(1L);
+        RefreshToken usedToken = new RefreshToken(5L, "hash", "family", 1L, LocalDateTime.now(), LocalDateTime.now().plusDays(1), null);
+        when(refreshTokenService.useToken("refreshToken")).thenReturn(usedToken);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(jwtTokenService.generateToken(user)).thenReturn("newToken");
+        when(refreshTokenService.rotateToken(usedToken)).thenReturn("newRefreshToken");
+
+        AuthTokensDTO tokens = userService.refreshToken(new RefreshTokenRequest("refreshToken"));
+
+        assertEquals("newToken", tokens.getAccessToken());
+        assertEquals("newRefreshToken", tokens.getRefreshToken());
+    }
+
+    @Test
+    void refreshToken_InvalidToken_ThrowsBadRequestException() {
+        when(refreshTokenService.useToken("usedToken")).thenThrow(new BadRequestException("Refresh token is not valid."));
+
+        assertThrows(BadRequestException.class, () -> userService.refreshToken(new RefreshTokenRequest("usedToken")));
+        verify(jwtTokenService, never()).generateToken(any(User.class));
+        verify(refreshTokenService, never()).rotateToken(any());
     }
 
     @Test
@@ -85,7 +153,7 @@ class UserServiceImplTest {
         assertThrows(BadCredentialsException.class, () -> userService.login(loginDTO));
 
         verify(authenticationProvider, times(1)).authenticate(any(Authentication.class));
-        verify(jwtTokenService, times(0)).generateToken(anyString(), anySet());
+        verify(jwtTokenService, times(0)).generateToken(any(User.class));
         verify(userRepository, times(0)).findByUsername(anyString());
     }
 
@@ -95,6 +163,8 @@ class UserServiceImplTest {
         user.setUsername("testUser");
         user.setPassword("P@ssword1");
         user.setEmail("user@test.com");
+        when(userIdentityFilter.mightContainUsername(anyString())).thenReturn(true);
+        when(userIdentityFilter.mightContainEmail(anyString())).thenReturn(true);
         when(userRepository.findByUsername(anyString())).thenReturn(Optional.empty());
         when(userRepository.findByEmail(anyString())).thenReturn(Optional.empty());
         when(passwordEncoder.encode(anyString())).thenReturn("encodedPassword");
@@ -107,12 +177,15 @@ class UserServiceImplTest {
         verify(userRepository, times(1)).findByEmail(user.getEmail());
         verify(passwordEncoder, times(1)).encode(anyString());
         verify(userRepository, times(1)).save(user);
+        verify(userTokenCache, times(1)).invalidate("testUser");
+        verify(userDetailsCache, times(1)).invalidate("testUser");
     }
 
     @Test
     void createUser_UsernameAlreadyTaken_ThrowsBadRequestException() {
         User user = new User();
         user.setUsername("existingUser");
+        when(userIdentityFilter.mightContainUsername(anyString())).thenReturn(true);
         when(userRepository.findByUsername(anyString())).thenReturn(Optional.of(user));
 
         assertThrows(BadRequestException.class, () -> userService.createUser(user));
@@ -124,6 +197,7 @@ class UserServiceImplTest {
     void createUser_EmailAlreadyRegistered_ThrowsBadRequestException() {
         User user = new User();
         user.setEmail("existing@test.com");
+        when(userIdentityFilter.mightContainEmail(anyString())).thenReturn(true);
         when(userRepository.findByEmail(anyString())).thenReturn(Optional.of(user));
 
         assertThrows(BadRequestException.class, () -> userService.createUser(user));
@@ -131,6 +205,34 @@ class UserServiceImplTest {
         verify(userRepository, times(0)).save(any(User.class));
     }
 
+    @Test
+    void createUser_NewNames_SkipsLookups() {
+        User user = new User("newUser", "new@test.com", "P@ssword1");
+        when(passwordEncoder.encode(anyString())).thenReturn("encodedPassword");
+        when(userRepository.save(any(User.class))).thenReturn(user);
+
+        userService.createUser(user);
+
+        verify(userRepository, never()).findByUsername(anyString());
+        verify(userRepository, never()).findByEmail(anyString());
+        verify(userIdentityFilter, times(1)).add("newUser", "new@test.com");
+    }
+
+    @Test
+    void createUser_NameTakenOnOtherInstance_ThrowsBadRequestException() {
+        User user = new User("takenUser", "new@test.com", "P@ssword1");
+        User existingUser = new User("takenUser", "other@test.com", "encodedPassword");
+        existingUser.setUserId(7L);
+        when(passwordEncoder.encode(anyString())).thenReturn("encodedPassword");
+        when(userRepository.save(any(User.class))).thenThrow(new DataIntegrityViolationException("Duplicate entry"));
+        when(userRepository.findByUsername("takenUser")).thenReturn(Optional.of(existingUser));
+
+        BadRequestException exception = assertThrows(BadRequestException.class, () -> userService.createUser(user));
+
+        assertEquals("Username is already taken", exception.getMessage());
+        verify(userIdentityFilter, never()).add(anyString(), anyString());
+    }
+
     @Test
     void updateUserById_Success() {
         Long userId = 1L;
@@ -146,8 +248,11 @@ class UserServiceImplTest {
         userUpdate.setPassword("newP@ssword1");
 
         when(userRepository.findById(userId)).thenReturn(Optional.of(existingUser));
+        when(userIdentityFilter.mightContainUsername(anyString())).thenReturn(true);
+        when(userIdentityFilter.mightContainEmail(anyString())).thenReturn(true);
         when(userRepository.findByUsername(anyString())).thenReturn(Optional.empty());
         when(userRepository.findByEmail(anyString())).thenReturn(Optional.empty());
+        when(passwordEncoder.matches("newP@ssword1", "encodedPassword")).thenReturn(false);
         when(passwordEncoder.encode(anyString())).thenReturn("encodedNewPassword");
         when(userRepository.save(any(User.class))).thenReturn(existingUser);
 
@@ -156,11 +261,18 @@ class UserServiceImplTest {
         assertNotNull(result);
         assertEquals("newUser", result.getUsername());
         assertEquals("newemail@test.com", result.getEmail());
+        assertEquals(1L, result.getTokenEpoch());
         verify(userRepository, times(1)).findById(userId);
         verify(userRepository, times(1)).findByUsername(userUpdate.getUsername());
         verify(userRepository, times(1)).findByEmail(userUpdate.getEmail());
-        verify(passwordEncoder, times(2)).encode(anyString());
+        verify(passwordEncoder, times(1)).matches("newP@ssword1", "encodedPassword");
+        verify(passwordEncoder, times(1)).encode(anyString());
         verify(userRepository, times(1)).save(existingUser);
+        verify(userTokenCache, times(1)).invalidate("oldUser");
+        verify(userTokenCache, times(1)).invalidate("newUser");
+        verify(userDetailsCache, times(1)).invalidate("oldUser");
+        verify(userDetailsCache, times(1)).invalidate("newUser");
+        verify(tokenRevocationService, times(1)).revokeTokensOfEpoch(userId, 0L);
     }
 
     @Test
@@ -188,25 +300,79 @@ class UserServiceImplTest {
         userUpdate.setPassword("simple");
 
         when(userRepository.findById(userId)).thenReturn(Optional.of(existingUser));
-        when(passwordEncoder.encode(anyString())).thenReturn("encodedSimplePassword");
+        when(userIdentityFilter.mightContainUsername(anyString())).thenReturn(true);
+        when(userIdentityFilter.mightContainEmail(anyString())).thenReturn(true);
+        when(passwordEncoder.matches("simple", "encodedOldPassword")).thenReturn(false);
 
         assertThrows(BadRequestException.class, () -> userService.updateUserById(userId, userUpdate));
         verify(userRepository, times(1)).findById(userId);
         verify(userRepository, times(1)).findByUsername(userUpdate.getUsername());
         verify(userRepository, times(1)).findByEmail(userUpdate.getEmail());
-        verify(passwordEncoder, times(1)).encode(anyString());
+        verify(passwordEncoder, never()).encode(anyString());
         verify(userRepository, times(0)).save(any(User.class));
     }
 
+    @Test
+    void updateUserById_SamePassword_NotRehashed() {
+        Long userId = 1L;
+        User existingUser = new User("testUser", "test@test.com", "encodedPassword");
+        existingUser.setUserId(userId);
+        existingUser.setTokenEpoch(3L);
+
+        User userUpdate = new User("testUser", "test@test.com", "P@ssword1");
+
+        when(userRepository.findById(userId)).thenReturn(Optional.of(existingUser));
+        when(passwordEncoder.matches("P@ssword1", "encodedPassword")).thenReturn(true);
+        when(userRepository.save(any(User.class))).thenReturn(existingUser);
+
+        User result = userService.updateUserById(userId, userUpdate);
+
+        assertEquals("encodedPassword", result.getPassword());
+        assertEquals(3L, result.getTokenEpoch());
+        verify(passwordEncoder, never()).encode(anyString());
+        verify(tokenRevocationService, never()).revokeTokensOfEpoch(any(), anyLong());
+        verify(refreshTokenService, never()).revokeTokensOfUser(any());
+    }
+
+    @Test
+    void updateUserById_PasswordChanged_BumpsTokenEpoch() {
+        Long userId = 1L;
+        User existingUser = new User("testUser", "test@test.com", "encodedPassword");
+        existingUser.setUserId(userId);
+        existingUser.setTokenEpoch(3L);
+
+        User userUpdate = new User("testUser", "test@test.com", "newP@ssword1");
+
+        when(userRepository.findById(userId)).thenReturn(Optional.of(existingUser));
+        when(passwordEncoder.matches("newP@ssword1", "encodedPassword")).thenReturn(false);
+        when(passwordEncoder.encode("newP@ssword1")).thenReturn("encodedNewPassword");
+        when(userRepository.save(any(User.class))).thenReturn(existingUser);
+
+        User result = userService.updateUserById(userId, userUpdate);
+
+        assertEquals("encodedNewPassword", result.getPassword());
+        assertEquals(4L, result.getTokenEpoch());
+        verify(passwordEncoder, times(1)).encode(anyString());
+        verify(tokenRevocationService, times(1)).revokeTokensOfEpoch(userId, 3L);
+        verify(refreshTokenService, times(1)).revokeTokensOfUser(userId);
+    }
+
     @Test
     void deleteUserById_Success() {
         Long userId = 1L;
         User user = new User();
+        user.setUserId(userId);
+        user.setUsername("testUser");
+        user.setTokenEpoch(2L);
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
 
         userService.deleteUserById(userId);
 
         verify(userRepository, times(1)).delete(user);
+        verify(userTokenCache, times(1)).markRemoved("testUser");
+        verify(userDetailsCache, times(1)).invalidate("testUser");
+        verify(tokenRevocationService, times(1)).revokeTokensOfEpoch(userId, 2L);
+        verify(refreshTokenService, times(1)).revokeTokensOfUser(userId);
     }
 
     @Test
@@ -261,6 +427,37 @@ class UserServiceImplTest {
         verify(userRepository, times(1)).findAll();
     }
 
+    @Test
+    void getUserPage_RolesLoadedOncePerPage() {
+        ReflectionTestUtils.setField(userService, "maxPageSize", 100);
+        UserSummaryDTO admin = new UserSummaryDTO(1L, "admin", "admin@test.com", LocalDateTime.now(), null);
+        UserSummaryDTO user = new UserSummaryDTO(2L, "user", "user@test.com", LocalDateTime.now(), null);
+        Pageable pageable = PageRequest.of(1, 2, Sort.by(Sort.Direction.DESC, "username").and(Sort.by("userId")));
+        when(userRepository.findUserSummaries(pageable)).thenReturn(new PageImpl<>(List.of(admin, user), pageable, 5));
+        when(userRepository.findRolesByUserIds(List.of(1L, 2L))).thenReturn(List.of(
+                userRole(1L, RoleType.ADMIN), userRole(1L, RoleType.USER), userRole(2L, RoleType.USER)));
+
+        UserPage result = userService.getUserPage(1, 2, "username", "desc");
+
+        assertEquals(2, result.getItems().size());
+        assertEquals(5, result.getTotalElements());
+        assertEquals(3, result.getTotalPages());
+        assertEquals(Set.of(RoleType.ADMIN, RoleType.USER), result.getItems().get(0).getRoles());
+        assertEquals(Set.of(RoleType.USER), result.getItems().get(1).getRoles());
+        verify(userRepository, times(1)).findRolesByUserIds(any());
+    }
+
+    @Test
+    void getUserPage_InvalidParameters_ThrowsBadRequestException() {
+        ReflectionTestUtils.setField(userService, "maxPageSize", 100);
+
+        assertThrows(BadRequestException.class, () -> userService.getUserPage(-1, 10, "userId", "asc"));
+        assertThrows(BadRequestException.class, () -> userService.getUserPage(0, 101, "userId", "asc"));
+        assertThrows(BadRequestException.class, () -> userService.getUserPage(0, 10, "password", "asc"));
+        assertThrows(BadRequestException.class, () -> userService.getUserPage(0, 10, "userId", "sideways"));
+        verify(userRepository, never()).findUserSummaries(any());
+    }
+
     @Test
     void getProfile_Success() {
         UserDetails userDetails = mock(UserDetails.class);
@@ -285,19 +482,16 @@ class UserServiceImplTest {
     void validateToken_Success() {
         TokenValidationRequest tokenValidationRequest = new TokenValidationRequest();
         tokenValidationRequest.setToken("Bearer test-token");
-        User user = new User("testuser", "validEmail", "$2a$12$IETFUcW.CaFdEe3/PhOGxu4UDYGiL84U0iWTXT7DKLX4fYskOEZ/i");
-        user.setRoles(Set.of());
 
-        when(jwtTokenService.extractUsernameFromToken(anyString())).thenReturn("testuser");
-        when(userRepository.findByUsername(anyString())).thenReturn(Optional.of(user));
-        when(jwtTokenService.validateToken(anyString())).thenReturn(true);
+        when(jwtTokenService.verifyToken(anyString())).thenReturn(new ValidatedToken("tokenId", "testuser", 1L, new Date(), new Date(), 0L));
+        when(userTokenCache.getByUsername("testuser")).thenReturn(Optional.of(new UserTokenInfo(1L, Set.of(RoleType.USER), 0L)));
 
         Boolean isValid = userService.validateToken(tokenValidationRequest);
 
         assertTrue(isValid);
-        verify(jwtTokenService, times(1)).extractUsernameFromToken(anyString());
-        verify(userRepository, times(1)).findByUsername(anyString());
-        verify(jwtTokenService, times(1)).validateToken(anyString());
+        verify(jwtTokenService, times(1)).verifyToken(anyString());
+        verify(userTokenCache, times(1)).getByUsername("testuser");
+        verify(userRepository, never()).findByUsername(anyString());
     }
 
     @Test
@@ -305,12 +499,153 @@ class UserServiceImplTest {
         TokenValidationRequest tokenValidationRequest = new TokenValidationRequest();
         tokenValidationRequest.setToken("Bearer invalidToken");
 
-        when(jwtTokenService.extractUsernameFromToken(anyString())).thenThrow(IllegalArgumentException.class);
+        when(jwtTokenService.verifyToken(anyString())).thenReturn(null);
 
         Boolean isValid = userService.validateToken(tokenValidationRequest);
 
         assertFalse(isValid);
-        verify(jwtTokenService, times(1)).extractUsernameFromToken(anyString());
+        verify(jwtTokenService, times(1)).verifyToken(anyString());
+        verify(userTokenCache, never()).getByUsername(anyString());
+    }
+
+    @Test
+    void validateToken_UserNotFound() {
+        TokenValidationRequest tokenValidationRequest = new TokenValidationRequest();
+        tokenValidationRequest.setToken("Bearer test-token");
+
+        when(jwtTokenService.verifyToken(anyString())).thenReturn(new ValidatedToken("tokenId", "removedUser", 1L, new Date(), new Date(), 0L));
+        when(userTokenCache.getByUsername("removedUser")).thenReturn(Optional.empty());
+
+        Boolean isValid = userService.validateToken(tokenValidationRequest);
+
+        assertFalse(isValid);
+    }
+
+    @Test
+    void validateToken_UsernameTakenOverByOtherUser() {
+        TokenValidationRequest tokenValidationRequest = new TokenValidationRequest();
+        tokenValidationRequest.setToken("Bearer test-token");
+
+        when(jwtTokenService.verifyToken(anyString())).thenReturn(new ValidatedToken("tokenId", "testuser", 1L, new Date(), new Date(), 0L));
+        when(userTokenCache.getByUsername("testuser")).thenReturn(Optional.of(new UserTokenInfo(2L, Set.of(RoleType.USER), 0L)));
+
+        Boolean isValid = userService.validateToken(tokenValidationRequest);
+
+        assertFalse(isValid);
+    }
+
+    @Test
+    void validateToken_IssuedBeforeTokenEpoch() {
+        TokenValidationRequest tokenValidationRequest = new TokenValidationRequest();
+        tokenValidationRequest.setToken("Bearer test-token");
+
+        when(jwtTokenService.verifyToken(anyString())).thenReturn(new ValidatedToken("tokenId", "testuser", 1L, new Date(), new Date(), 0L));
+        when(userTokenCache.getByUsername("testuser")).thenReturn(Optional.of(new UserTokenInfo(1L, Set.of(RoleType.USER), 1L)));
+
+        Boolean isValid = userService.validateToken(tokenValidationRequest);
+
+        assertFalse(isValid);
+    }
+
+    @Test
+    void validateToken_RevokedToken() {
+        TokenValidationRequest tokenValidationRequest = new TokenValidationRequest();
+        tokenValidationRequest.setToken("test-token");
+        ValidatedToken validatedToken = new ValidatedToken("tokenId", "testuser", 1L, new Date(), new Date(), 0L);
+
+        when(jwtTokenService.verifyToken(anyString())).thenReturn(validatedToken);
+        when(userTokenCache.getByUsername("testuser")).thenReturn(Optional.of(new UserTokenInfo(1L, Set.of(RoleType.USER), 0L)));
+        when(tokenRevocationService.isRevoked(validatedToken)).thenReturn(true);
+
+        Boolean isValid = userService.validateToken(tokenValidationRequest);
+
+        assertFalse(isValid);
+    }
+
+    @Test
+    void logout_Success() {
+        ValidatedToken validatedToken = new ValidatedToken("tokenId", "testuser", 1L, new Date(), new Date(), 0L);
+        when(jwtTokenService.verifyToken("test-token")).thenReturn(validatedToken);
+
+        userService.logout("test-token", "refreshToken");
+
+        verify(tokenRevocationService, times(1)).revokeToken(validatedToken);
+        verify(refreshTokenService, times(1)).revokeToken("refreshToken");
+    }
+
+    @Test
+    void logout_InvalidToken_ThrowsBadRequestException() {
+        when(jwtTokenService.verifyToken("invalidToken")).thenReturn(null);
+
+        assertThrows(BadRequestException.class, () -> userService.logout("invalidToken", null));
+        verify(tokenRevocationService, never()).revokeToken(any());
+    }
+
+    @Test
+    void validateTokens_SharesUserLookups() {
+        ReflectionTestUtils.setField(userService, "maxTokenBatchSize", 10);
+        when(jwtTokenService.verifyToken("token1")).thenReturn(new ValidatedToken("tokenId", "testuser", 1L, new Date(), new Date(), 0L));
+        when(jwtTokenService.verifyToken("token2")).thenReturn(new ValidatedToken("tokenId", "testuser", 1L, new Date(), new Date(), 0L));
+        when(jwtTokenService.verifyToken("invalidToken")).thenReturn(null);
+        when(userTokenCache.getByUsername("testuser")).thenReturn(Optional.of(new UserTokenInfo(1L, Set.of(RoleType.USER), 0L)));
+
+        List<Boolean> results = userService.validateTokens(
+                new BatchTokenValidationRequest(List.of("token1", "invalidToken", "token2", "token1")));
+
+        assertEquals(List.of(true, false, true, true), results);
+        verify(jwtTokenService, times(1)).verifyToken("token1");
+        verify(userTokenCache, times(1)).getByUsername("testuser");
+    }
+
+    @Test
+    void validateTokens_EmptyBatch() {
+        ReflectionTestUtils.setField(userService, "maxTokenBatchSize", 10);
+
+        List<Boolean> results = userService.validateTokens(new BatchTokenValidationRequest(List.of()));
+
+        assertTrue(results.isEmpty());
+    }
+
+    @Test
+    void validateTokens_TooManyTokens_ThrowsBadRequestException() {
+        ReflectionTestUtils.setField(userService, "maxTokenBatchSize", 1);
+
+        assertThrows(BadRequestException.class,
+                () -> userService.validateTokens(new BatchTokenValidationRequest(List.of("token1", "token2"))));
+        verify(jwtTokenService, never()).verifyToken(anyString());
+    }
+
+    @Test
+    void validateTokens_MissingTokens_ThrowsBadRequestException() {
+        assertThrows(BadRequestException.class, () -> userService.validateTokens(new BatchTokenValidationRequest(null)));
+    }
+
+    @Test
+    void getSigningKeys_Success() throws Exception {
+        PublicKey publicKey = KeyPairGenerator.getInstance("RSA").generateKeyPair().getPublic();
+        when(jwtTokenService.getPublicKeys()).thenReturn(Map.of("key-1", publicKey));
+
+        List<JwtKeyDTO> keys = userService.getSigningKeys();
+
+        assertEquals(1, keys.size());
+        assertEquals("key-1", keys.get(0).getKeyId());
+        assertEquals("RS256", keys.get(0).getAlgorithm());
+        assertEquals(Base64.getEncoder().encodeToString(publicKey.getEncoded()), keys.get(0).getPublicKey());
+    }
+
+
+    private static UserRoleView userRole(Long userId, RoleType role) {
+        return new UserRoleView() {
+            @Override
+            public Long getUserId() {
+                return userId;
+            }
+
+            @Override
+            public RoleType getRole() {
+                return role;
+            }
+        };
     }
 
 }
@@ -0,0 +1,103 @@
+package com.smart.home.userservice.service;
+
+import com.smart.home.userservice.model.Role;
+import com.smart.home.userservice.model.RoleType;
+import com.smart.home.userservice.model.User;
+import com.smart.home.userservice.model.UserTokenInfo;
+import com.smart.home.userservice.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserTokenCacheTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private UserTokenCache userTokenCache;
+
+    @BeforeEach
+    void setUp() {
+        userTokenCache = new UserTokenCache(userRepository, 100L, 300L, 60L);
+    }
+
+    @Test
+    void getByUsername_LoadedOnce() {
+        when(userRepository.findByUsername("testUser")).thenReturn(Optional.of(user(1L, "testUser", 2L)));
+
+        Optional<UserTokenInfo> first = userTokenCache.getByUsername("testUser");
+        Optional<UserTokenInfo> second = userTokenCache.getByUsername("testUser");
+
+        assertTrue(first.isPresent());
+        assertEquals(1L, first.get().getUserId());
+        assertEquals(Set.of(RoleType.USER), first.get().getRoles());
+        assertEquals(2L, first.get().getTokenEpoch());
+        assertEquals(first, second);
+        verify(userRepository, times(1)).findByUsername("testUser");
+    }
+
+    @Test
+    void getByUsername_UnknownUserCached() {
+        when(userRepository.findByUsername("unknownUser")).thenReturn(Optional.empty());
+
+        assertTrue(userTokenCache.getByUsername("unknownUser").isEmpty());
+        assertTrue(userTokenCache.getByUsername("unknownUser").isEmpty());
+
+        verify(userRepository, times(1)).findByUsername("unknownUser");
+    }
+
+    @Test
+    void invalidate_ReloadsUser() {
+        when(userRepository.findByUsername("testUser"))
+                .thenReturn(Optional.of(user(1L, "testUser", 0L)))
+                .thenReturn(Optional.of(user(1L, "testUser", 1L)));
+
+        userTokenCache.getByUsername("testUser");
+        userTokenCache.invalidate("testUser");
+
+        assertEquals(1L, userTokenCache.getByUsername("testUser").get().getTokenEpoch());
+        verify(userRepository, times(2)).findByUsername("testUser");
+    }
+
+    @Test
+    void markRemoved_RejectsWithoutQuery() {
+        when(userRepository.findByUsername("testUser")).thenReturn(Optional.of(user(1L, "testUser", 0L)));
+
+        userTokenCache.getByUsername("testUser");
+        userTokenCache.markRemoved("testUser");
+
+        assertTrue(userTokenCache.getByUsername("testUser").isEmpty());
+        verify(userRepository, times(1)).findByUsername("testUser");
+    }
+
+    @Test
+    void markRemoved_UserNeverLoaded() {
+        userTokenCache.markRemoved("testUser");
+
+        assertTrue(userTokenCache.getByUsername("testUser").isEmpty());
+        verify(userRepository, never()).findByUsername("testUser");
+    }
+
+
+    private static User user(Long userId, String username, Long tokenEpoch) {
+        User user = new User(username, username + "@test.com", "encodedPassword");
+        user.setUserId(userId);
+        user.setRoles(Set.of(new Role(RoleType.USER)));
+        user.setTokenEpoch(tokenEpoch);
+        return user;
+    }
+
+}
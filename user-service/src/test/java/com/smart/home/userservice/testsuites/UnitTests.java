@@ -1,9 +1,13 @@
 package com.smart.home.userservice.testsuites;
 
+import com.smart.home.userservice.security.BloomFilterTest;
+import com.smart.home.userservice.security.BoundedPasswordEncoderTest;
+import org.junit.platform.suite.api.SelectClasses;
 import org.junit.platform.suite.api.SelectPackages;
 import org.junit.platform.suite.api.Suite;
 
 @Suite
-@SelectPackages({"com.smart.home.userservice.controller", "com.smart.home.userservice.service"})
+@SelectClasses({BloomFilterTest.class, BoundedPasswordEncoderTest.class})
+@SelectPackages({"com.smart.home.userservice.controller", "com.smart.home.userservice.service", "com.smart.home.userservice.ratelimit"})
 public class UnitTests {
 }
@@ -1,6 +1,14 @@
 package com.smart.home.weatherservice.client;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.smart.home.weatherservice.security.BatchTokenValidationRequest;
+import com.smart.home.weatherservice.security.JwtKeyDTO;
 import com.smart.home.weatherservice.security.TokenValidationRequest;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -9,6 +17,20 @@ import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 @Log4j2
 @Component
@@ -17,14 +39,189 @@ public class AuthClient {
     @Value("${auth.api.url}")
     private String authApiUrl;
 
+    @Value("${auth.keys.url}")
+    private String authKeysUrl;
+
+    @Value("${auth.validation-batch.url}")
+    private String authBatchApiUrl;
+
+    @Value("${auth.validation-batch.window-ms:0}")
+    private long batchWindowMs;
+
+    @Value("${auth.validation-batch.max-size:100}")
+    private int batchMaxSize;
+
+    @Value("${auth.validation-batch.timeout-ms:2000}")
+    private long batchTimeoutMs;
+
     private final WebClient webClient;
+    private final Cache<String, CachedValidation> validationCache;
+    private final long ttlNanos;
+    private final long negativeTtlNanos;
+    private final ScheduledExecutorService batchExecutor;
+    private final Object pendingLock = new Object();
+    private List<PendingValidation> pendingValidations = new ArrayList<>();
 
     @Autowired
-    public AuthClient(WebClient webClient) {
+    public AuthClient(WebClient webClient, MeterRegistry meterRegistry,
+                      @Value("${auth.validation-cache.max-size:10000}") long maxSize,
+                      @Value("${auth.validation-cache.ttl-seconds:60}") long ttlSeconds,
+                      @Value("${auth.validation-cache.negative-ttl-seconds:5}") long negativeTtlSeconds) {
         this.webClient = webClient;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.negativeTtlNanos = TimeUnit.SECONDS.toNanos(negativeTtlSeconds);
+        this.validationCache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new ValidationExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, validationCache, "auth.token.validation");
+        this.batchExecutor = Executors.newScheduledThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "auth-validation-batch");
+            thread.setDaemon(true);
+            return thread;
+        });
     }
 
     public boolean validateToken(String token) {
+        return validateToken(token, null);
+    }
+
+    public boolean validateToken(String token, Date expiresAt) {
+        return validateToken(token, expiresAt, List.of());
+    }
+
+    /**
+     * Validates token with user-service, reusing the result of an earlier validation of the same token.
+     * Valid results are kept until the token expires but no longer than the configured ttl,
+     * rejections and failed calls only for the short negative ttl. The revocation entries of the token
+     * let {@link #invalidateCachedValidations(String)} evict the result when the token is revoked.
+     */
+    public boolean validateToken(String token, Date expiresAt, List<String> revocationEntries) {
+        String tokenHash = hash(token);
+        CachedValidation cached = validationCache.getIfPresent(tokenHash);
+        if (cached != null) {
+            return cached.valid();
+        }
+
+        boolean valid = requestValidation(token);
+        long entryTtlNanos = valid ? positiveTtlNanos(expiresAt) : negativeTtlNanos;
+        if (entryTtlNanos > 0) {
+            validationCache.put(tokenHash, new CachedValidation(valid, entryTtlNanos, revocationEntries));
+        }
+        return valid;
+    }
+
+    public void invalidateCachedValidations() {
+        validationCache.invalidateAll();
+    }
+
+    /**
+     * Evicts the cached validations of tokens revoked by the entry, a token id or a token epoch of a user.
+     */
+    public void invalidateCachedValidations(String revocationEntry) {
+        validationCache.asMap().values().removeIf(cached -> cached.revocationEntries().contains(revocationEntry));
+    }
+
+    /**
+     * Validates tokens with a single request to user-service. Results are in the order of the tokens;
+     * every token is reported invalid when user-service cannot be reached.
+     */
+    public List<Boolean> validateTokens(List<String> tokens) {
+        URI uri = UriComponentsBuilder.fromUriString(authBatchApiUrl)
+                .build()
+                .toUri();
+
+        log.debug("Validating {} tokens with User Service at: {}", tokens.size(), uri.toString());
+
+        try {
+            List<Boolean> results = webClient.post()
+                    .uri(uri)
+                    .bodyValue(new BatchTokenValidationRequest(tokens))
+                    .retrieve()
+                    .bodyToFlux(Boolean.class)
+                    .collectList()
+                    .block();
+            if (results == null || results.size() != tokens.size()) {
+                log.error("Batch validation returned {} results for {} tokens", results != null ? results.size() : 0, tokens.size());
+                return Collections.nCopies(tokens.size(), false);
+            }
+            return results;
+        } catch (Exception e) {
+            log.error("Error occurred while validating tokens: {}", e.getMessage());
+            return Collections.nCopies(tokens.size(), false);
+        }
+    }
+
+    /**
+     * Queues token for validation. Tokens queued within the batch window, or until the batch is full,
+     * are validated together with one request.
+     */
+    public CompletableFuture<Boolean> validateTokenBatched(String token) {
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+        List<PendingValidation> fullBatch = null;
+        boolean windowOpened;
+        synchronized (pendingLock) {
+            pendingValidations.add(new PendingValidation(token, result));
+            windowOpened = pendingValidations.size() == 1;
+            if (pendingValidations.size() >= batchMaxSize) {
+                fullBatch = pendingValidations;
+                pendingValidations = new ArrayList<>();
+            }
+        }
+
+        if (fullBatch != null) {
+            List<PendingValidation> batch = fullBatch;
+            batchExecutor.execute(() -> sendBatch(batch));
+        } else if (windowOpened) {
+            batchExecutor.schedule(this::flushPendingValidations, batchWindowMs, TimeUnit.MILLISECONDS);
+        }
+        return result;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        batchExecutor.shutdownNow();
+    }
+
+    private boolean requestValidation(String token) {
+        if (batchWindowMs > 0) {
+            return awaitBatchedValidation(token);
+        }
+        return requestSingleValidation(token);
+    }
+
+    private boolean awaitBatchedValidation(String token) {
+        try {
+            return validateTokenBatched(token).get(batchTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException | TimeoutException e) {
+            log.error("Batched token validation failed: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private void flushPendingValidations() {
+        List<PendingValidation> batch;
+        synchronized (pendingLock) {
+            batch = pendingValidations;
+            pendingValidations = new ArrayList<>();
+        }
+        if (!batch.isEmpty()) {
+            sendBatch(batch);
+        }
+    }
+
+    private void sendBatch(List<PendingValidation> batch) {
+        List<Boolean> results = validateTokens(batch.stream().map(PendingValidation::token).toList());
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).result().complete(results.get(i));
+        }
+    }
+
+    private boolean requestSingleValidation(String token) {
         URI uri = UriComponentsBuilder.fromUriString(authApiUrl)
                 .build()
                 .toUri();
@@ -44,4 +241,71 @@ public class AuthClient {
         }
     }
 
+    /**
+     * Fetches public keys used to verify tokens locally. Returns an empty list when user-service cannot be reached.
+     */
+    public List<JwtKeyDTO> getSigningKeys() {
+        URI uri = UriComponentsBuilder.fromUriString(authKeysUrl)
+                .build()
+                .toUri();
+
+        log.debug("Fetching signing keys from User Service at: {}", uri.toString());
+
+        try {
+            List<JwtKeyDTO> keys = webClient.get()
+                    .uri(uri)
+                    .retrieve()
+                    .bodyToFlux(JwtKeyDTO.class)
+                    .collectList()
+                    .block();
+            return keys != null ? keys : List.of();
+        } catch (Exception e) {
+            log.error("Error occurred while fetching signing keys: {}", e.getMessage());
+            return List.of();
+        }
+    }
+
+
+    private long positiveTtlNanos(Date expiresAt) {
+        if (expiresAt == null) {
+            return ttlNanos;
+        }
+        long untilExpiryNanos = TimeUnit.MILLISECONDS.toNanos(expiresAt.getTime() - System.currentTimeMillis());
+        return Math.min(ttlNanos, untilExpiryNanos);
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+
+    private record CachedValidation(boolean valid, long ttlNanos, List<String> revocationEntries) {
+    }
+
+    private record PendingValidation(String token, CompletableFuture<Boolean> result) {
+    }
+
+    private static class ValidationExpiry implements Expiry<String, CachedValidation> {
+
+        @Override
+        public long expireAfterCreate(String key, CachedValidation value, long currentTime) {
+            return value.ttlNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, CachedValidation value, long currentTime, long currentDuration) {
+            return value.ttlNanos();
+        }
+
+        @Override
+        public long expireAfterRead(String key, CachedValidation value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
 }
@@ -0,0 +1,42 @@
+package com.smart.home.weatherservice.ratelimit;
+
+import lombok.Getter;
+
+/**
+ * Token bucket of a route: up to {@code capacity} requests at once, refilled continuously at {@code refillPerSecond}.
+ */
+@Getter
+public class RateLimitRule {
+
+    private final String pathPattern;
+    private final long capacity;
+    private final double refillPerSecond;
+
+    public RateLimitRule(String pathPattern, long capacity, double refillPerSecond) {
+        if (capacity <= 0 || refillPerSecond <= 0) {
+            throw new IllegalArgumentException("Rate limit of " + pathPattern + " needs a positive capacity and refill rate");
+        }
+        this.pathPattern = pathPattern;
+        this.capacity = capacity;
+        this.refillPerSecond = refillPerSecond;
+    }
+
+    /**
+     * Parses {@code <ant path pattern>:<capacity>:<refilled tokens per second>}.
+     */
+    public static RateLimitRule parse(String rule) {
+        int refillSeparator = rule.lastIndexOf(':');
+        int capacitySeparator = refillSeparator > 0 ? rule.lastIndexOf(':', refillSeparator - 1) : -1;
+        if (capacitySeparator <= 0) {
+            throw new IllegalStateException("Rate limit must be given as <path pattern>:<capacity>:<tokens per second>, was " + rule);
+        }
+        try {
+            return new RateLimitRule(rule.substring(0, capacitySeparator).trim(),
+                    Long.parseLong(rule.substring(capacitySeparator + 1, refillSeparator).trim()),
+                    Double.parseDouble(rule.substring(refillSeparator + 1).trim()));
+        } catch (NumberFormatException e) {
+            throw new IllegalStateException("Rate limit must be given as <path pattern>:<capacity>:<tokens per second>, was " + rule, e);
+        }
+    }
+
+}
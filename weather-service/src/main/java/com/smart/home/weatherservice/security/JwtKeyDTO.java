@@ -0,0 +1,16 @@
+package com.smart.home.weatherservice.security;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JwtKeyDTO {
+
+    private String keyId;
+    private String algorithm;
+    private String publicKey;
+
+}
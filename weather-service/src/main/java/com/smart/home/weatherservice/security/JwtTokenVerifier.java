@@ -0,0 +1,129 @@
+package com.smart.home.weatherservice.security;
+
+import com.smart.home.weatherservice.client.AuthClient;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Verifies token signature and expiry locally with the public keys published by user-service.
+ * Keys are cached by key id; an unknown key id or an outdated key set triggers a reload, at most once per
+ * minimum refresh interval, so a newly rotated key is picked up without a call per request.
+ */
+@Log4j2
+@Component
+public class JwtTokenVerifier {
+
+    private static final String KEY_ALGORITHM = "RSA";
+
+    private final AuthClient authClient;
+    private final long refreshIntervalMs;
+    private final long minRefreshIntervalMs;
+    private final JwtParser parser;
+
+    private volatile Map<String, PublicKey> keys = Map.of();
+    private volatile long keysLoadedAt;
+    private volatile long lastRefreshAttemptAt;
+
+    public JwtTokenVerifier(AuthClient authClient,
+                            @Value("${auth.keys.refresh-interval-ms:600000}") long refreshIntervalMs,
+                            @Value("${auth.keys.min-refresh-interval-ms:30000}") long minRefreshIntervalMs) {
+        this.authClient = authClient;
+        this.refreshIntervalMs = refreshIntervalMs;
+        this.minRefreshIntervalMs = minRefreshIntervalMs;
+        this.parser = Jwts.parser()
+                .keyLocator(new CachedKeyLocator())
+                .clockSkewSeconds(2)
+                .build();
+    }
+
+    /**
+     * Returns the claims of a token with valid signature and expiry, null otherwise.
+     */
+    public Claims verify(String token) {
+        try {
+            return parser.parseSignedClaims(token).getPayload();
+        } catch (JwtException | IllegalArgumentException e) {
+            log.warn("Token rejected: {}", e.getMessage());
+            return null;
+        }
+    }
+
+
+    private PublicKey findKey(String keyId) {
+        if (keyId == null) {
+            throw new JwtException("Token has no key id");
+        }
+        PublicKey key = keys.get(keyId);
+        long now = System.currentTimeMillis();
+        boolean refreshNeeded = key == null || now - keysLoadedAt >= refreshIntervalMs;
+        if (refreshNeeded && now - lastRefreshAttemptAt >= minRefreshIntervalMs) {
+            refreshKeys(keyId);
+            key = keys.get(keyId);
+        }
+        if (key == null) {
+            throw new JwtException("Unknown signing key id: " + keyId);
+        }
+        return key;
+    }
+
+    private synchronized void refreshKeys(String keyId) {
+        long now = System.currentTimeMillis();
+        boolean outdated = now - keysLoadedAt >= refreshIntervalMs;
+        if (!outdated && keys.containsKey(keyId)) {
+            return;
+        }
+        if (now - lastRefreshAttemptAt < minRefreshIntervalMs) {
+            return;
+        }
+        lastRefreshAttemptAt = now;
+
+        List<JwtKeyDTO> fetchedKeys = authClient.getSigningKeys();
+        if (fetchedKeys.isEmpty()) {
+            log.warn("No signing keys received, keeping {} cached keys", keys.size());
+            return;
+        }
+
+        Map<String, PublicKey> loadedKeys = new HashMap<>();
+        for (JwtKeyDTO fetchedKey : fetchedKeys) {
+            try {
+                loadedKeys.put(fetchedKey.getKeyId(), toPublicKey(fetchedKey.getPublicKey()));
+            } catch (GeneralSecurityException | IllegalArgumentException e) {
+                log.error("Skipping invalid signing key {}: {}", fetchedKey.getKeyId(), e.getMessage());
+            }
+        }
+        keys = Map.copyOf(loadedKeys);
+        keysLoadedAt = now;
+        log.info("Loaded signing keys {}", keys.keySet());
+    }
+
+    private static PublicKey toPublicKey(String encodedKey) throws GeneralSecurityException {
+        return KeyFactory.getInstance(KEY_ALGORITHM).generatePublic(new X509EncodedKeySpec(Base64.getDecoder().decode(encodedKey)));
+    }
+
+
+    private class CachedKeyLocator extends LocatorAdapter<Key> {
+
+        @Override
+        protected Key locate(JwsHeader header) {
+            return findKey(header.getKeyId());
+        }
+    }
+
+}
@@ -0,0 +1,132 @@
+package com.smart.home.weatherservice.security;
+
+import com.smart.home.weatherservice.client.AuthClient;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class JwtTokenVerifierTest {
+
+    @Mock
+    private AuthClient authClient;
+
+    private KeyPair keyPair;
+
+    private JwtTokenVerifier jwtTokenVerifier;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        keyPair = KeyPairGenerator.getInstance("RSA").generateKeyPair();
+        jwtTokenVerifier = new JwtTokenVerifier(authClient, 600000L, 30000L);
+    }
+
+    @Test
+    void verify_ValidToken() {
+        when(authClient.getSigningKeys()).thenReturn(List.of(toKeyDTO("key-1", keyPair)));
+
+        Claims claims = jwtTokenVerifier.verify(token("key-1", keyPair, 60000L));
+
+        assertNotNull(claims);
+        assertEquals("testUser", claims.getSubject());
+    }
+
+    @Test
+    void verify_KeysCachedBetweenTokens() {
+        when(authClient.getSigningKeys()).thenReturn(List.of(toKeyDTO("key-1", keyPair)));
+
+        jwtTokenVerifier.verify(token("key-1", keyPair, 60000L));
+        jwtTokenVerifier.verify(token("key-1", keyPair, 60000L));
+
+        verify(authClient, times(1)).getSigningKeys();
+    }
+
+    @Test
+    void verify_RotatedKeyLoadedOnUnknownKeyId() throws Exception {
+        KeyPair rotatedKeyPair = KeyPairGenerator.getInstance("RSA").generateKeyPair();
+        jwtTokenVerifier = new JwtTokenVerifier(authClient, 600000L, 0L);
+        when(authClient.getSigningKeys())
+                .thenReturn(List.of(toKeyDTO("key-1", keyPair)))
+                .thenReturn(List.of(toKeyDTO("key-1", keyPair), toKeyDTO("key-2", rotatedKeyPair)));
+
+        assertNotNull(jwtTokenVerifier.verify(token("key-1", keyPair, 60000L)));
+        assertNotNull(jwtTokenVerifier.verify(token("key-2", rotatedKeyPair, 60000L)));
+
+        verify(authClient, times(2)).getSigningKeys();
+    }
+
+    @Test
+    void verify_UnknownKeyIdRefreshThrottled() {
+        when(authClient.getSigningKeys()).thenReturn(List.of(toKeyDTO("key-1", keyPair)));
+
+        assertNull(jwtTokenVerifier.verify(token("key-2", keyPair, 60000L)));
+        assertNull(jwtTokenVerifier.verify(token("key-2", keyPair, 60000L)));
+
+        verify(authClient, times(1)).getSigningKeys();
+    }
+
+    @Test
+    void verify_WrongSignature() throws Exception {
+        KeyPair otherKeyPair = KeyPairGenerator.getInstance("RSA").generateKeyPair();
+        when(authClient.getSigningKeys()).thenReturn(List.of(toKeyDTO("key-1", keyPair)));
+
+        assertNull(jwtTokenVerifier.verify(token("key-1", otherKeyPair, 60000L)));
+    }
+
+    @Test
+    void verify_ExpiredToken() {
+        when(authClient.getSigningKeys()).thenReturn(List.of(toKeyDTO("key-1", keyPair)));
+
+        assertNull(jwtTokenVerifier.verify(token("key-1", keyPair, -60000L)));
+    }
+
+    @Test
+    void verify_TokenWithoutKeyId() {
+        String token = Jwts.builder()
+                .subject("testUser")
+                .signWith(keyPair.getPrivate(), Jwts.SIG.RS256)
+                .compact();
+
+        assertNull(jwtTokenVerifier.verify(token));
+        verify(authClient, never()).getSigningKeys();
+    }
+
+    @Test
+    void verify_MalformedToken() {
+        assertNull(jwtTokenVerifier.verify("not-a-token"));
+    }
+
+
+    private static String token(String keyId, KeyPair keyPair, long validityMs) {
+        return Jwts.builder()
+                .header().keyId(keyId).and()
+                .subject("testUser")
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + validityMs))
+                .signWith(keyPair.getPrivate(), Jwts.SIG.RS256)
+                .compact();
+    }
+
+    private static JwtKeyDTO toKeyDTO(String keyId, KeyPair keyPair) {
+        return new JwtKeyDTO(keyId, "RS256", Base64.getEncoder().encodeToString(keyPair.getPublic().getEncoded()));
+    }
+
+}
@@ -0,0 +1,144 @@
+package com.smart.home.weatherservice.security;
+
+import com.smart.home.weatherservice.client.AuthClient;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class RevokedTokenFilterTest {
+
+    private static final int BITS = 4096;
+    private static final int HASHES = 5;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    @Mock
+    private RedisConnectionFactory connectionFactory;
+
+    @Mock
+    private AuthClient authClient;
+
+    private RevokedTokenFilter revokedTokenFilter;
+
+    @BeforeEach
+    void setUp() {
+        revokedTokenFilter = new RevokedTokenFilter(redisTemplate, connectionFactory, authClient, BITS, HASHES);
+        ReflectionTestUtils.setField(revokedTokenFilter, "filterKey", "auth:revoked-tokens");
+        ReflectionTestUtils.setField(revokedTokenFilter, "versionKey", "auth:revoked-tokens:version");
+    }
+
+    @Test
+    void mightBeRevoked_NotLoaded() {
+        assertTrue(revokedTokenFilter.mightBeRevoked(claims("tokenId", 1L, 0L)));
+    }
+
+    @Test
+    void mightBeRevoked_LoadedFilter() {
+        loadFilter("1", "revokedTokenId", "epoch:2:0");
+
+        assertTrue(revokedTokenFilter.mightBeRevoked(claims("revokedTokenId", 1L, 0L)));
+        assertTrue(revokedTokenFilter.mightBeRevoked(claims("tokenId", 2L, 0L)));
+        assertFalse(revokedTokenFilter.mightBeRevoked(claims("tokenId", 1L, 0L)));
+        assertFalse(revokedTokenFilter.mightBeRevoked(claims("tokenId", 2L, 1L)));
+    }
+
+    @Test
+    void onMessage_NextVersionAppliedWithoutReload() {
+        loadFilter("1");
+
+        revokedTokenFilter.onMessage(message("2:tokenId"), null);
+
+        assertTrue(revokedTokenFilter.mightBeRevoked(claims("tokenId", 1L, 0L)));
+        verify(redisTemplate, times(1)).execute(any(RedisCallback.class));
+        verify(authClient, times(1)).invalidateCachedValidations();
+        verify(authClient, times(1)).invalidateCachedValidations("tokenId");
+    }
+
+    @Test
+    void revocationEntries_ContainsTokenIdAndUserEpoch() {
+        assertEquals(List.of("tokenId", "epoch:2:3"), RevokedTokenFilter.revocationEntries(claims("tokenId", 2L, 3L)));
+    }
+
+    @Test
+    void onMessage_MissedVersionReloads() {
+        loadFilter("1");
+        BloomFilter published = new BloomFilter(BITS, HASHES);
+        published.add("tokenId");
+        published.add("otherTokenId");
+        when(valueOperations.get("auth:revoked-tokens:version")).thenReturn("3");
+        when(redisTemplate.execute(any(RedisCallback.class))).thenReturn(published.toByteArray());
+
+        revokedTokenFilter.onMessage(message("3:otherTokenId"), null);
+
+        assertTrue(revokedTokenFilter.mightBeRevoked(claims("tokenId", 1L, 0L)));
+        verify(redisTemplate, times(2)).execute(any(RedisCallback.class));
+    }
+
+    @Test
+    void onMessage_OldVersionIgnored() {
+        loadFilter("5");
+
+        revokedTokenFilter.onMessage(message("4:tokenId"), null);
+
+        assertFalse(revokedTokenFilter.mightBeRevoked(claims("tokenId", 1L, 0L)));
+        verify(authClient, times(1)).invalidateCachedValidations();
+    }
+
+    @Test
+    void refresh_SameVersionNotReloaded() {
+        loadFilter("1");
+
+        revokedTokenFilter.refresh();
+
+        verify(redisTemplate, times(1)).execute(any(RedisCallback.class));
+        verify(authClient, never()).validateToken(any());
+    }
+
+
+    private void loadFilter(String version, String... revokedKeys) {
+        BloomFilter published = new BloomFilter(BITS, HASHES);
+        for (String key : revokedKeys) {
+            published.add(key);
+        }
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get("auth:revoked-tokens:version")).thenReturn(version);
+        when(redisTemplate.execute(any(RedisCallback.class))).thenReturn(published.toByteArray());
+        revokedTokenFilter.onMessage(message(version), null);
+    }
+
+    private static DefaultMessage message(String body) {
+        return new DefaultMessage("auth:revoked-tokens:changes".getBytes(StandardCharsets.UTF_8), body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Claims claims(String tokenId, Long userId, Long tokenEpoch) {
+        return Jwts.claims().id(tokenId).subject("testUser").add("uid", userId).add("epoch", tokenEpoch).build();
+    }
+
+}
@@ -1,9 +1,13 @@
 package com.smart.home.weatherservice.testsuites;
 
+import com.smart.home.weatherservice.security.JwtTokenVerifierTest;
+import com.smart.home.weatherservice.security.RevokedTokenFilterTest;
+import org.junit.platform.suite.api.SelectClasses;
 import org.junit.platform.suite.api.SelectPackages;
 import org.junit.platform.suite.api.Suite;
 
 @Suite
-@SelectPackages({"com.smart.home.weatherservice.controller", "com.smart.home.weatherservice.service"})
+@SelectClasses({JwtTokenVerifierTest.class, RevokedTokenFilterTest.class})
+@SelectPackages({"com.smart.home.weatherservice.client", "com.smart.home.weatherservice.controller", "com.smart.home.weatherservice.service", "com.smart.home.weatherservice.ratelimit"})
 public class UnitTests {
 }